@@ -0,0 +1,38 @@
+package com.santander.challenge.common.http.client;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryRegistry;
+
+import java.util.function.Supplier;
+
+/**
+ * Applies the bulkhead, circuit breaker and retry configured for a remote service to each call.
+ * The retry is outermost so that every attempt is recorded by the circuit breaker and an open
+ * circuit stops further attempts; the bulkhead is innermost so that only in-flight HTTP calls
+ * hold a permit. Instances come from the registries, so their metrics are exported automatically.
+ */
+public class RemoteCallGuard {
+    
+    private final Bulkhead bulkhead;
+    private final CircuitBreaker circuitBreaker;
+    private final Retry retry;
+    
+    public RemoteCallGuard(String name,
+                           CircuitBreakerRegistry circuitBreakerRegistry,
+                           BulkheadRegistry bulkheadRegistry,
+                           RetryRegistry retryRegistry) {
+        this.bulkhead = bulkheadRegistry.bulkhead(name);
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(name);
+        this.retry = retryRegistry.retry(name);
+    }
+    
+    public <T> T call(Supplier<T> remoteCall) {
+        Supplier<T> guarded = Bulkhead.decorateSupplier(bulkhead, remoteCall);
+        guarded = CircuitBreaker.decorateSupplier(circuitBreaker, guarded);
+        return Retry.decorateSupplier(retry, guarded).get();
+    }
+}
@@ -0,0 +1,215 @@
+package com.santander.challenge.common.idempotency;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Makes mutating requests sent with an Idempotency-Key header safe to retry. The first request
+ * under a key is processed and its response recorded; retries of the same request are answered
+ * with the recorded response, marked with the Idempotent-Replayed header, without reaching the
+ * controller. Server errors are not recorded, so a request that failed that way can be retried.
+ * Invalid keys are rejected with the validation exception of the service, so that its exception
+ * handler answers them like any other invalid request.
+ */
+public class IdempotencyFilter extends OncePerRequestFilter {
+    
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    
+    static final int MAX_KEY_LENGTH = 255;
+    
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyFilter.class);
+    
+    private static final Set<String> MUTATING_METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+    
+    private final IdempotencyService idempotencyService;
+    private final HandlerExceptionResolver exceptionResolver;
+    private final Set<String> excludedPathPrefixes;
+    private final Function<String, ? extends RuntimeException> invalidKeyException;
+    
+    public IdempotencyFilter(IdempotencyService idempotencyService, HandlerExceptionResolver exceptionResolver,
+                             Set<String> excludedPathPrefixes,
+                             Function<String, ? extends RuntimeException> invalidKeyException) {
+        this.idempotencyService = idempotencyService;
+        this.exceptionResolver = exceptionResolver;
+        this.excludedPathPrefixes = excludedPathPrefixes;
+        this.invalidKeyException = invalidKeyException;
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (request.getHeader(IDEMPOTENCY_KEY_HEADER) == null || !MUTATING_METHODS.contains(request.getMethod())) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return excludedPathPrefixes.stream().anyMatch(path::startsWith);
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String key = request.getHeader(IDEMPOTENCY_KEY_HEADER);
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            exceptionResolver.resolveException(request, response, null, invalidKeyException.apply(
+                    IDEMPOTENCY_KEY_HEADER + " must have between 1 and " + MAX_KEY_LENGTH + " characters"));
+            return;
+        }
+        
+        CachedBodyRequest cachedRequest = new CachedBodyRequest(request);
+        String requestHash = fingerprint(cachedRequest);
+        Optional<IdempotencyRecord> recorded;
+        try {
+            recorded = idempotencyService.begin(key, requestHash);
+        } catch (RuntimeException ex) {
+            exceptionResolver.resolveException(request, response, null, ex);
+            return;
+        }
+        if (recorded.isPresent()) {
+            replay(recorded.get(), response);
+            return;
+        }
+        
+        ContentCachingResponseWrapper cachedResponse = new ContentCachingResponseWrapper(response);
+        try {
+            chain.doFilter(cachedRequest, cachedResponse);
+        } catch (IOException | ServletException | RuntimeException ex) {
+            release(key);
+            throw ex;
+        }
+        
+        try {
+            if (cachedResponse.getStatus() < HttpServletResponse.SC_INTERNAL_SERVER_ERROR) {
+                idempotencyService.complete(key, requestHash, cachedResponse.getStatus(),
+                        cachedResponse.getContentType(),
+                        new String(cachedResponse.getContentAsByteArray(), StandardCharsets.UTF_8));
+            } else {
+                idempotencyService.release(key);
+            }
+        } catch (RuntimeException ex) {
+            // The request itself succeeded; a retry finds the key abandoned once the lock times out
+            log.error("Could not record the response for idempotency key {}: {}", key, ex.getMessage());
+        }
+        cachedResponse.copyBodyToResponse();
+    }
+    
+    private void release(String key) {
+        try {
+            idempotencyService.release(key);
+        } catch (RuntimeException ex) {
+            log.error("Could not release idempotency key {}: {}", key, ex.getMessage());
+        }
+    }
+    
+    private void replay(IdempotencyRecord record, HttpServletResponse response) throws IOException {
+        byte[] body = record.getResponseBody() == null
+                ? new byte[0]
+                : record.getResponseBody().getBytes(StandardCharsets.UTF_8);
+        response.setStatus(record.getStatusCode());
+        if (record.getContentType() != null) {
+            response.setContentType(record.getContentType());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+    
+    /**
+     * Hashes what identifies a request: method, path, query string and body.
+     */
+    public static String fingerprint(CachedBodyRequest request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((request.getMethod() + ' ' + request.getRequestURI() + '?'
+                    + (request.getQueryString() == null ? "" : request.getQueryString()) + '\n')
+                    .getBytes(StandardCharsets.UTF_8));
+            digest.update(request.body);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+    
+    /**
+     * Request whose body is read upfront, so that it can be hashed and still reach the controller.
+     */
+    public static class CachedBodyRequest extends HttpServletRequestWrapper {
+        
+        private final byte[] body;
+        
+        public CachedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.body = request.getInputStream().readAllBytes();
+        }
+        
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                
+                @Override
+                public int read() {
+                    return input.read();
+                }
+                
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return input.read(buffer, offset, length);
+                }
+                
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+                
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+                
+                /**
+                 * The body is already in memory, so the listener is told at once that all of it
+                 * can be read without blocking.
+                 */
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    try {
+                        listener.onDataAvailable();
+                        listener.onAllDataRead();
+                    } catch (IOException ex) {
+                        listener.onError(ex);
+                    }
+                }
+            };
+        }
+        
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding)));
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.santander.challenge.common.idempotency;
+
+/**
+ * Exception thrown when a request arrives while another request with the same idempotency key
+ * is still being processed.
+ */
+public class IdempotencyKeyInUseException extends RuntimeException {
+    
+    public IdempotencyKeyInUseException(String key) {
+        super("A request with idempotency key " + key + " is still being processed");
+    }
+}
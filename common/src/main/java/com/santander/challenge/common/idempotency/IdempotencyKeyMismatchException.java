@@ -0,0 +1,12 @@
+package com.santander.challenge.common.idempotency;
+
+/**
+ * Exception thrown when an idempotency key is reused with a request different from the one it
+ * was first sent with.
+ */
+public class IdempotencyKeyMismatchException extends RuntimeException {
+    
+    public IdempotencyKeyMismatchException(String key) {
+        super("Idempotency key " + key + " was already used with a different request");
+    }
+}
@@ -0,0 +1,51 @@
+package com.santander.challenge.common.idempotency;
+
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Output port for the store of idempotency keys and the responses recorded under them.
+ */
+public interface IdempotencyKeyPort {
+    
+    /**
+     * Claims a key for a request about to be processed. Expired keys and keys whose request was
+     * abandoned before the given instant are claimed again.
+     *
+     * @param record key, request hash, creation and expiry instants of the claim
+     * @param abandonedBefore requests still in progress that started before this are abandoned
+     * @return true when the key was claimed, false when it is held by another request
+     */
+    boolean reserve(IdempotencyRecord record, LocalDateTime abandonedBefore);
+    
+    /**
+     * Finds the record held under a key.
+     *
+     * @param key idempotency key
+     * @return the record, or empty when the key is free
+     */
+    Optional<IdempotencyRecord> findByKey(String key);
+    
+    /**
+     * Records the response of the request that claimed a key.
+     *
+     * @param record key and response to record
+     */
+    void complete(IdempotencyRecord record);
+    
+    /**
+     * Frees a key whose request produced no response worth replaying, so that it can be retried.
+     *
+     * @param key idempotency key
+     */
+    void release(String key);
+    
+    /**
+     * Deletes the keys that expired before the given instant.
+     *
+     * @param now current instant
+     * @return number of keys deleted
+     */
+    int deleteExpired(LocalDateTime now);
+}
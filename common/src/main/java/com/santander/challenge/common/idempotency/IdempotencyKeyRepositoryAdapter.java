@@ -0,0 +1,73 @@
+package com.santander.challenge.common.idempotency;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Adapter that implements IdempotencyKeyPort with plain JDBC statements on the idempotency_keys
+ * table each service creates. Each statement runs on its own, so a key is claimed or released
+ * independently of the transaction of the request.
+ */
+public class IdempotencyKeyRepositoryAdapter implements IdempotencyKeyPort {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public IdempotencyKeyRepositoryAdapter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public boolean reserve(IdempotencyRecord record, LocalDateTime abandonedBefore) {
+        jdbcTemplate.update("DELETE FROM idempotency_keys WHERE idempotency_key = ? "
+                        + "AND (expires_at <= ? OR (status_code IS NULL AND created_at < ?))",
+                record.getKey(), Timestamp.valueOf(record.getCreatedAt()), Timestamp.valueOf(abandonedBefore));
+        try {
+            // The primary key decides which of concurrent requests with the same key proceeds
+            jdbcTemplate.update("INSERT INTO idempotency_keys (idempotency_key, request_hash, created_at, expires_at) "
+                            + "VALUES (?, ?, ?, ?)",
+                    record.getKey(), record.getRequestHash(),
+                    Timestamp.valueOf(record.getCreatedAt()), Timestamp.valueOf(record.getExpiresAt()));
+            return true;
+        } catch (DuplicateKeyException ex) {
+            return false;
+        }
+    }
+
+    @Override
+    public Optional<IdempotencyRecord> findByKey(String key) {
+        return jdbcTemplate.query(
+                "SELECT idempotency_key, request_hash, status_code, content_type, response_body, created_at, expires_at "
+                        + "FROM idempotency_keys WHERE idempotency_key = ?",
+                (rs, rowNum) -> IdempotencyRecord.builder()
+                        .key(rs.getString(1))
+                        .requestHash(rs.getString(2))
+                        .statusCode(rs.getObject(3, Integer.class))
+                        .contentType(rs.getString(4))
+                        .responseBody(rs.getString(5))
+                        .createdAt(rs.getTimestamp(6).toLocalDateTime())
+                        .expiresAt(rs.getTimestamp(7).toLocalDateTime())
+                        .build(),
+                key).stream().findFirst();
+    }
+
+    @Override
+    public void complete(IdempotencyRecord record) {
+        jdbcTemplate.update("UPDATE idempotency_keys SET status_code = ?, content_type = ?, response_body = ? "
+                        + "WHERE idempotency_key = ?",
+                record.getStatusCode(), record.getContentType(), record.getResponseBody(), record.getKey());
+    }
+
+    @Override
+    public void release(String key) {
+        jdbcTemplate.update("DELETE FROM idempotency_keys WHERE idempotency_key = ? AND status_code IS NULL", key);
+    }
+
+    @Override
+    public int deleteExpired(LocalDateTime now) {
+        return jdbcTemplate.update("DELETE FROM idempotency_keys WHERE expires_at <= ?", Timestamp.valueOf(now));
+    }
+}
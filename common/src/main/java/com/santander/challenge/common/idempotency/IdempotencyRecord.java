@@ -0,0 +1,33 @@
+package com.santander.challenge.common.idempotency;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Request received under an idempotency key and, once it has been processed, the response to
+ * replay when the same request is retried.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyRecord {
+    private String key;
+    private String requestHash;
+    private Integer statusCode;
+    private String contentType;
+    private String responseBody;
+    private LocalDateTime createdAt;
+    private LocalDateTime expiresAt;
+    
+    /**
+     * Returns true once the response of the request has been recorded.
+     */
+    public boolean isCompleted() {
+        return statusCode != null;
+    }
+}
@@ -0,0 +1,185 @@
+package com.santander.challenge.common.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.FixedDelayTask;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Tracks requests sent with an idempotency key so that retries are answered with the recorded
+ * response instead of being processed again. Recorded responses never change until they expire,
+ * so they are also kept in a bounded in-memory cache in front of the store; its statistics are
+ * published under the "idempotency.responses" cache name. Expired keys are purged from the store
+ * periodically once scheduling is enabled. Each service creates its own instance from its own
+ * configuration properties.
+ */
+public class IdempotencyService implements SchedulingConfigurer {
+    
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
+    
+    static final String CACHE_NAME = "idempotency.responses";
+    
+    private final IdempotencyKeyPort idempotencyKeyPort;
+    private final Duration ttl;
+    private final Duration lockTimeout;
+    private final Duration cleanupInterval;
+    private final Duration cleanupInitialDelay;
+    private final Cache<String, IdempotencyRecord> responses;
+    
+    /**
+     * @param idempotencyKeyPort store of the keys
+     * @param meterRegistry registry the cache statistics are published to
+     * @param ttl how long a recorded response is replayed
+     * @param lockTimeout how long a request may hold its key before a retry may claim it again
+     * @param cacheMaxSize maximum number of responses kept in memory
+     * @param cleanupInterval delay between purges of expired keys
+     * @param cleanupInitialDelay delay before the first purge
+     */
+    public IdempotencyService(IdempotencyKeyPort idempotencyKeyPort,
+                              MeterRegistry meterRegistry,
+                              Duration ttl,
+                              Duration lockTimeout,
+                              long cacheMaxSize,
+                              Duration cleanupInterval,
+                              Duration cleanupInitialDelay) {
+        this.idempotencyKeyPort = idempotencyKeyPort;
+        this.ttl = ttl;
+        this.lockTimeout = lockTimeout;
+        this.cleanupInterval = cleanupInterval;
+        this.cleanupInitialDelay = cleanupInitialDelay;
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(new RecordExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, responses, CACHE_NAME);
+    }
+    
+    /**
+     * Starts processing a request under an idempotency key.
+     *
+     * @param key idempotency key sent by the client
+     * @param requestHash fingerprint of the request
+     * @return the recorded response when the request was already processed, or empty when the
+     *         caller now holds the key and must process the request
+     * @throws IdempotencyKeyMismatchException if the key was used with a different request
+     * @throws IdempotencyKeyInUseException if the request is still being processed
+     */
+    public Optional<IdempotencyRecord> begin(String key, String requestHash) {
+        IdempotencyRecord cached = responses.getIfPresent(key);
+        if (cached != null) {
+            return Optional.of(checkSameRequest(cached, requestHash));
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
+        IdempotencyRecord claim = IdempotencyRecord.builder()
+                .key(key)
+                .requestHash(requestHash)
+                .createdAt(now)
+                .expiresAt(now.plus(ttl))
+                .build();
+        if (idempotencyKeyPort.reserve(claim, now.minus(lockTimeout))) {
+            return Optional.empty();
+        }
+        
+        // Released between both statements: the holder failed and its retry is in flight
+        IdempotencyRecord stored = idempotencyKeyPort.findByKey(key)
+                .orElseThrow(() -> new IdempotencyKeyInUseException(key));
+        checkSameRequest(stored, requestHash);
+        if (!stored.isCompleted()) {
+            throw new IdempotencyKeyInUseException(key);
+        }
+        responses.put(key, stored);
+        return Optional.of(stored);
+    }
+    
+    /**
+     * Records the response of a request started with {@link #begin}.
+     *
+     * @param key idempotency key
+     * @param requestHash fingerprint of the request
+     * @param statusCode HTTP status of the response
+     * @param contentType content type of the response, may be null
+     * @param responseBody body of the response
+     */
+    public void complete(String key, String requestHash, int statusCode, String contentType, String responseBody) {
+        LocalDateTime now = LocalDateTime.now();
+        IdempotencyRecord record = IdempotencyRecord.builder()
+                .key(key)
+                .requestHash(requestHash)
+                .statusCode(statusCode)
+                .contentType(contentType)
+                .responseBody(responseBody)
+                .createdAt(now)
+                .expiresAt(now.plus(ttl))
+                .build();
+        idempotencyKeyPort.complete(record);
+        responses.put(key, record);
+    }
+    
+    /**
+     * Frees the key of a request started with {@link #begin} that failed, so that it can be retried.
+     *
+     * @param key idempotency key
+     */
+    public void release(String key) {
+        idempotencyKeyPort.release(key);
+    }
+    
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar registrar) {
+        registrar.addFixedDelayTask(new FixedDelayTask(this::purgeExpired, cleanupInterval, cleanupInitialDelay));
+    }
+    
+    /**
+     * Deletes expired keys from the store.
+     *
+     * @return number of keys deleted
+     */
+    public int purgeExpired() {
+        try {
+            return idempotencyKeyPort.deleteExpired(LocalDateTime.now());
+        } catch (RuntimeException ex) {
+            log.error("Could not delete expired idempotency keys: {}", ex.getMessage());
+            return 0;
+        }
+    }
+    
+    private IdempotencyRecord checkSameRequest(IdempotencyRecord record, String requestHash) {
+        if (!record.getRequestHash().equals(requestHash)) {
+            throw new IdempotencyKeyMismatchException(record.getKey());
+        }
+        return record;
+    }
+    
+    /**
+     * Expiry policy that keeps each cached response until the expiry instant of its key.
+     */
+    private static class RecordExpiry implements Expiry<String, IdempotencyRecord> {
+        
+        @Override
+        public long expireAfterCreate(String key, IdempotencyRecord record, long currentTime) {
+            return Math.max(0, Duration.between(LocalDateTime.now(), record.getExpiresAt()).toNanos());
+        }
+        
+        @Override
+        public long expireAfterUpdate(String key, IdempotencyRecord record, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, record, currentTime);
+        }
+        
+        @Override
+        public long expireAfterRead(String key, IdempotencyRecord record, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.santander.challenge.common.persistence.id;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+import java.util.EnumSet;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hibernate generator that produces UUIDv7-style identifiers (RFC 9562).
+ * The 48 most significant bits hold the Unix epoch in milliseconds and the 12 bits
+ * of rand_a are used as a counter, so identifiers generated by this instance are
+ * strictly increasing. New rows are therefore appended to the right edge of the
+ * primary-key B-tree instead of causing random page splits, while the column keeps
+ * the standard UUID type.
+ */
+public class TimeOrderedUuidGenerator implements BeforeExecutionGenerator {
+    
+    private static final int SEQUENCE_BITS = 12;
+    private static final long VERSION_7 = 0x7000L;
+    private static final long VARIANT_MASK = 0x3FFFFFFFFFFFFFFFL;
+    private static final long VARIANT_RFC_4122 = 0x8000000000000000L;
+    
+    /**
+     * Last issued (timestamp << 12 | sequence) value, shared by every generator instance.
+     */
+    private static final AtomicLong LAST_TIMESTAMP_AND_SEQUENCE = new AtomicLong();
+    
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, 
+                           Object currentValue, EventType eventType) {
+        return nextUuid();
+    }
+    
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+    
+    /**
+     * Generates the next time-ordered UUID.
+     */
+    public static UUID nextUuid() {
+        long candidate = System.currentTimeMillis() << SEQUENCE_BITS;
+        // When more than 4096 ids are requested within one millisecond the counter
+        // carries into the timestamp, keeping the sequence monotonic
+        long value = LAST_TIMESTAMP_AND_SEQUENCE.updateAndGet(last -> Math.max(candidate, last + 1));
+        
+        long timestamp = value >>> SEQUENCE_BITS;
+        long sequence = value & ((1L << SEQUENCE_BITS) - 1);
+        long mostSignificantBits = (timestamp << 16) | VERSION_7 | sequence;
+        long leastSignificantBits = (ThreadLocalRandom.current().nextLong() & VARIANT_MASK) | VARIANT_RFC_4122;
+        return new UUID(mostSignificantBits, leastSignificantBits);
+    }
+}
@@ -0,0 +1,93 @@
+package com.santander.challenge.common.idempotency;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachedBodyRequestTest {
+    
+    private static final String BODY = "{\"code\":\"IDEM01\"}";
+    
+    @Test
+    void getInputStream_ReplaysTheBodyOnEveryCall() throws Exception {
+        IdempotencyFilter.CachedBodyRequest request = new IdempotencyFilter.CachedBodyRequest(request());
+        
+        assertEquals(BODY, new String(request.getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+        assertEquals(BODY, new String(request.getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+    }
+    
+    @Test
+    void setReadListener_ReadsTheWholeBodyThenReportsAllDataRead() throws Exception {
+        ServletInputStream input = new IdempotencyFilter.CachedBodyRequest(request()).getInputStream();
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        List<String> events = new ArrayList<>();
+        
+        input.setReadListener(new ReadListener() {
+            
+            @Override
+            public void onDataAvailable() throws IOException {
+                events.add("data");
+                byte[] buffer = new byte[4];
+                while (input.isReady() && !input.isFinished()) {
+                    int count = input.read(buffer);
+                    read.write(buffer, 0, count);
+                }
+            }
+            
+            @Override
+            public void onAllDataRead() {
+                events.add("done");
+            }
+            
+            @Override
+            public void onError(Throwable error) {
+                events.add("error");
+            }
+        });
+        
+        assertEquals(List.of("data", "done"), events);
+        assertEquals(BODY, read.toString(StandardCharsets.UTF_8));
+    }
+    
+    @Test
+    void setReadListener_ReportsReadFailuresToTheListener() throws Exception {
+        ServletInputStream input = new IdempotencyFilter.CachedBodyRequest(request()).getInputStream();
+        List<Throwable> errors = new ArrayList<>();
+        IOException failure = new IOException("client went away");
+        
+        input.setReadListener(new ReadListener() {
+            
+            @Override
+            public void onDataAvailable() throws IOException {
+                throw failure;
+            }
+            
+            @Override
+            public void onAllDataRead() {
+                fail("all data cannot have been read");
+            }
+            
+            @Override
+            public void onError(Throwable error) {
+                errors.add(error);
+            }
+        });
+        
+        assertEquals(List.of(failure), errors);
+    }
+    
+    private static MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/banks");
+        request.setContent(BODY.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
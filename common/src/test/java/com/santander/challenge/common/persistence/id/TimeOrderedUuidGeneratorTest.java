@@ -0,0 +1,48 @@
+package com.santander.challenge.common.persistence.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeOrderedUuidGeneratorTest {
+    
+    @Test
+    void nextUuid_HasVersion7AndRfcVariant() {
+        UUID uuid = TimeOrderedUuidGenerator.nextUuid();
+        
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+    }
+    
+    @Test
+    void nextUuid_EmbedsCurrentTimestamp() {
+        long before = System.currentTimeMillis();
+        UUID uuid = TimeOrderedUuidGenerator.nextUuid();
+        long after = System.currentTimeMillis();
+        
+        long timestamp = uuid.getMostSignificantBits() >>> 16;
+        assertTrue(timestamp >= before && timestamp <= after + 1);
+    }
+    
+    @Test
+    void nextUuid_IsStrictlyIncreasingAndUnique() {
+        List<UUID> uuids = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            uuids.add(TimeOrderedUuidGenerator.nextUuid());
+        }
+        
+        Set<UUID> unique = new HashSet<>(uuids);
+        assertEquals(uuids.size(), unique.size());
+        for (int i = 1; i < uuids.size(); i++) {
+            // Compare the timestamp and counter bits as unsigned values, as databases do
+            assertTrue(Long.compareUnsigned(uuids.get(i - 1).getMostSignificantBits(),
+                    uuids.get(i).getMostSignificantBits()) < 0);
+        }
+    }
+}
@@ -1,9 +1,24 @@
 package com.santander.challenge.ms_accounts.adapter.input.rest.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.santander.challenge.ms_accounts.adapter.input.rest.dto.request.AccountLookupRequest;
+import com.santander.challenge.ms_accounts.adapter.input.rest.dto.request.BalanceChangeRequest;
+import com.santander.challenge.ms_accounts.adapter.input.rest.dto.request.BalanceStripesRequest;
 import com.santander.challenge.ms_accounts.adapter.input.rest.dto.request.CreateAccountRequest;
+import com.santander.challenge.ms_accounts.adapter.input.rest.dto.request.CreateAccountsBatchRequest;
+import com.santander.challenge.ms_accounts.adapter.input.rest.dto.request.TransferRequest;
 import com.santander.challenge.ms_accounts.adapter.input.rest.dto.request.UpdateAccountRequest;
+import com.santander.challenge.ms_accounts.adapter.input.rest.dto.response.AccountBatchResponse;
+import com.santander.challenge.ms_accounts.adapter.input.rest.dto.response.AccountLookupResponse;
 import com.santander.challenge.ms_accounts.adapter.input.rest.dto.response.AccountResponse;
+import com.santander.challenge.ms_accounts.adapter.input.rest.dto.response.AccountSliceResponse;
+import com.santander.challenge.ms_accounts.adapter.input.rest.dto.response.AccountStatementResponse;
+import com.santander.challenge.ms_accounts.adapter.input.rest.dto.response.HistoricalBalanceResponse;
+import com.santander.challenge.ms_accounts.adapter.input.rest.dto.response.TransferResponse;
 import com.santander.challenge.ms_accounts.application.mapper.AccountMapper;
+import com.santander.challenge.ms_accounts.domain.exception.AccountValidationException;
+import com.santander.challenge.ms_accounts.domain.model.Account;
+import com.santander.challenge.ms_accounts.domain.model.AccountSearchCriteria;
 import com.santander.challenge.ms_accounts.domain.port.input.AccountServicePort;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -16,10 +31,21 @@ import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 /**
@@ -30,12 +56,17 @@ import java.util.UUID;
 @RequestMapping("/api/accounts")
 public class AccountController {
     
+    static final String NDJSON_VALUE = "application/x-ndjson";
+    static final String CSV_VALUE = "text/csv";
+    
     private final AccountServicePort accountService;
     private final AccountMapper accountMapper;
+    private final ObjectMapper objectMapper;
     
-    public AccountController(AccountServicePort accountService, AccountMapper accountMapper) {
+    public AccountController(AccountServicePort accountService, AccountMapper accountMapper, ObjectMapper objectMapper) {
         this.accountService = accountService;
         this.accountMapper = accountMapper;
+        this.objectMapper = objectMapper;
     }
     
     /**
@@ -43,7 +74,7 @@ public class AccountController {
      */
     @Operation(
             summary = "Create account",
-            description = "Creates a new bank account. The provided bankId must exist in ms-banks and the account number must be unique."
+            description = "Creates a new bank account. The provided bankId must exist in ms-banks and the account number must be unique. When the account number is omitted, a unique 20-digit number with a Luhn check digit is generated."
     )
     @ApiResponses(value = {
             @ApiResponse(
@@ -65,6 +96,11 @@ public class AccountController {
                     responseCode = "409",
                     description = "Account number already exists",
                     content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "503",
+                    description = "ms-banks is unavailable, so the bank could not be validated",
+                    content = @Content
             )
     })
     @PostMapping
@@ -76,6 +112,40 @@ public class AccountController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
     
+    /**
+     * Creates several accounts in a single request, reporting the outcome of each item.
+     */
+    @Operation(
+            summary = "Create accounts in bulk",
+            description = "Creates up to " + CreateAccountsBatchRequest.MAX_BATCH_SIZE + " accounts at once. Banks and account numbers are validated with set-based lookups and rows are inserted with JDBC batching. Items that fail validation are reported individually and do not prevent the rest from being created."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Batch processed; see each item for its outcome",
+                    content = @Content(schema = @Schema(implementation = AccountBatchResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid input data",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "503",
+                    description = "ms-banks is unavailable, so the banks could not be validated",
+                    content = @Content
+            )
+    })
+    @PostMapping("/batch")
+    public ResponseEntity<AccountBatchResponse> createAccounts(
+            @Valid @RequestBody CreateAccountsBatchRequest request) {
+        var accounts = request.getAccounts().stream()
+                .map(accountMapper::toDomain)
+                .toList();
+        var results = accountService.createAccounts(accounts);
+        return ResponseEntity.ok(accountMapper.toBatchResponse(results));
+    }
+    
     /**
      * Retrieves an account by its identifier, requiring the bankId to enforce isolation.
      */
@@ -111,6 +181,151 @@ public class AccountController {
         return ResponseEntity.ok(response);
     }
     
+    /**
+     * Retrieves several accounts of a bank in one request, reporting each requested id.
+     */
+    @Operation(
+            summary = "Get accounts by ID list",
+            description = "Retrieves up to " + AccountLookupRequest.MAX_IDS + " accounts of a bank with a single query per chunk of ids. Items are returned in request order; ids that do not exist or belong to another bank are reported as NOT_FOUND."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Lookup processed; see each item for its outcome",
+                    content = @Content(schema = @Schema(implementation = AccountLookupResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid input data",
+                    content = @Content
+            )
+    })
+    @PostMapping("/lookup")
+    public ResponseEntity<AccountLookupResponse> getAccountsByIds(
+            @Parameter(description = "Bank UUID (required for isolation)", required = true)
+            @RequestParam UUID bankId,
+            @Valid @RequestBody AccountLookupRequest request) {
+        var accounts = accountService.getAccountsByIds(request.getIds(), bankId);
+        return ResponseEntity.ok(accountMapper.toLookupResponse(request.getIds(), accounts));
+    }
+    
+    /**
+     * Retrieves an account by its account number, requiring the bankId to enforce isolation.
+     */
+    @Operation(
+            summary = "Get account by account number",
+            description = "Retrieves a specific account by its account number. Requires bankId as a query parameter to validate isolation."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Account found",
+                    content = @Content(schema = @Schema(implementation = AccountResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "No account has this account number",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "Unauthorized access to the account",
+                    content = @Content
+            )
+    })
+    @GetMapping("/by-number/{accountNumber}")
+    public ResponseEntity<AccountResponse> getAccountByNumber(
+            @Parameter(description = "Account number", required = true)
+            @PathVariable String accountNumber,
+            @Parameter(description = "Bank UUID (required for isolation)", required = true)
+            @RequestParam UUID bankId) {
+        var account = accountService.getAccountByNumber(accountNumber, bankId);
+        var response = accountMapper.toResponse(account);
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * Returns the balance an account had at a past instant. Requires bankId to validate ownership.
+     */
+    @Operation(
+            summary = "Get historical balance",
+            description = "Computes the balance of an account at the given instant from its latest snapshot "
+                    + "and the journal entries recorded after it."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Balance computed",
+                    content = @Content(schema = @Schema(implementation = HistoricalBalanceResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Account not found",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "Unauthorized access to the account",
+                    content = @Content
+            )
+    })
+    @GetMapping("/{id}/balance")
+    public ResponseEntity<HistoricalBalanceResponse> getBalanceAsOf(
+            @Parameter(description = "Account UUID", required = true)
+            @PathVariable UUID id,
+            @Parameter(description = "Bank UUID (required for isolation)", required = true)
+            @RequestParam UUID bankId,
+            @Parameter(description = "Instant to compute the balance at (ISO-8601)", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime asOf) {
+        var balance = accountService.getBalanceAsOf(id, bankId, asOf);
+        return ResponseEntity.ok(accountMapper.toHistoricalBalanceResponse(id, asOf, balance));
+    }
+    
+    /**
+     * Lists the balance movements of an account over a period. Requires bankId to validate ownership.
+     */
+    @Operation(
+            summary = "Get account statement",
+            description = "Lists the balance movements of an account recorded after 'from' and up to 'to', "
+                    + "with the opening, running and closing balances. At most "
+                    + AccountServicePort.MAX_STATEMENT_ENTRIES + " entries per statement."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Statement returned",
+                    content = @Content(schema = @Schema(implementation = AccountStatementResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Empty period or too many entries",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Account not found",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "Unauthorized access to the account",
+                    content = @Content
+            )
+    })
+    @GetMapping("/{id}/statement")
+    public ResponseEntity<AccountStatementResponse> getStatement(
+            @Parameter(description = "Account UUID", required = true)
+            @PathVariable UUID id,
+            @Parameter(description = "Bank UUID (required for isolation)", required = true)
+            @RequestParam UUID bankId,
+            @Parameter(description = "Exclusive start of the period (ISO-8601)", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Inclusive end of the period (ISO-8601)", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        var statement = accountService.getStatement(id, bankId, from, to);
+        return ResponseEntity.ok(accountMapper.toStatementResponse(statement));
+    }
+    
     /**
      * Lists accounts for a specific bank. bankId is required to enforce isolation.
      */
@@ -137,6 +352,158 @@ public class AccountController {
         return ResponseEntity.ok(response);
     }
     
+    /**
+     * Lists accounts for a specific bank using keyset pagination. bankId is required to enforce isolation.
+     */
+    @Operation(
+            summary = "List accounts by bank (cursor)",
+            description = "Lists the accounts of a bank ordered by creation time using keyset pagination. Pass the nextCursor of a response to fetch the following slice. No total count is computed, so deep pages cost the same as the first one. Size must be between 1 and " + AccountServicePort.MAX_SLICE_SIZE + "."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Account slice retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = AccountSliceResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid cursor or size",
+                    content = @Content
+            )
+    })
+    @GetMapping("/cursor")
+    public ResponseEntity<AccountSliceResponse> getAccountsByBankIdAfter(
+            @Parameter(description = "Bank UUID (required)", required = true)
+            @RequestParam UUID bankId,
+            @Parameter(description = "Continuation token returned by the previous slice; omit for the first slice")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Maximum number of accounts in the slice")
+            @RequestParam(defaultValue = "50") int size) {
+        
+        var accounts = accountService.getAccountsByBankIdAfter(bankId, accountMapper.toCursor(cursor), size);
+        return ResponseEntity.ok(accountMapper.toSliceResponse(accounts));
+    }
+    
+    /**
+     * Searches the accounts of a bank by optional filters using keyset pagination. bankId is required to enforce isolation.
+     */
+    @Operation(
+            summary = "Search accounts by bank",
+            description = "Lists the accounts of a bank that match every filter given, ordered by creation time using keyset pagination. Pass the nextCursor of a response to fetch the following slice. Banks with more than " + AccountServicePort.MAX_UNINDEXED_SEARCH_ACCOUNTS + " accounts only accept combinations backed by an index: status, optionally followed by accountType and then currency; a balance range alone; a creation range alone; or, on PostgreSQL, a status other than ACTIVE with any other filter. Ranges are inclusive. Size must be between 1 and " + AccountServicePort.MAX_SLICE_SIZE + "."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Matching accounts retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = AccountSliceResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid cursor, size or range",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "422",
+                    description = "Filters not backed by an index on a large bank",
+                    content = @Content
+            )
+    })
+    @GetMapping("/search")
+    public ResponseEntity<AccountSliceResponse> searchAccounts(
+            @Parameter(description = "Bank UUID (required)", required = true)
+            @RequestParam UUID bankId,
+            @Parameter(description = "Account status")
+            @RequestParam(required = false) Account.AccountStatus status,
+            @Parameter(description = "Account type")
+            @RequestParam(required = false) Account.AccountType accountType,
+            @Parameter(description = "Currency code")
+            @RequestParam(required = false) String currency,
+            @Parameter(description = "Lowest balance, inclusive")
+            @RequestParam(required = false) BigDecimal minBalance,
+            @Parameter(description = "Highest balance, inclusive")
+            @RequestParam(required = false) BigDecimal maxBalance,
+            @Parameter(description = "Earliest creation time, inclusive (ISO-8601)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @Parameter(description = "Latest creation time, inclusive (ISO-8601)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo,
+            @Parameter(description = "Continuation token returned by the previous slice; omit for the first slice")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Maximum number of accounts in the slice")
+            @RequestParam(defaultValue = "50") int size) {
+        
+        AccountSearchCriteria criteria = AccountSearchCriteria.builder()
+                .status(status)
+                .accountType(accountType)
+                .currency(currency)
+                .minBalance(minBalance)
+                .maxBalance(maxBalance)
+                .createdFrom(createdFrom)
+                .createdTo(createdTo)
+                .build();
+        var accounts = accountService.searchAccounts(bankId, criteria, accountMapper.toCursor(cursor), size);
+        return ResponseEntity.ok(accountMapper.toSliceResponse(accounts));
+    }
+    
+    /**
+     * Streams every account of a bank as NDJSON or CSV. bankId is required to enforce isolation.
+     */
+    @Operation(
+            summary = "Export accounts by bank",
+            description = "Streams all accounts of a bank in creation order, one per line, as NDJSON (default) or CSV. Rows are read with a database cursor and written directly to the response, so memory use does not depend on the number of accounts."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Export streamed successfully",
+                    content = {@Content(mediaType = NDJSON_VALUE), @Content(mediaType = CSV_VALUE)}
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Unsupported export format",
+                    content = @Content
+            )
+    })
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportAccountsByBankId(
+            @Parameter(description = "Bank UUID (required)", required = true)
+            @RequestParam UUID bankId,
+            @Parameter(description = "Export format: ndjson or csv")
+            @RequestParam(defaultValue = "ndjson") String format) {
+        boolean csv = switch (format.toLowerCase()) {
+            case "ndjson" -> false;
+            case "csv" -> true;
+            default -> throw new AccountValidationException("Unsupported export format: " + format);
+        };
+        
+        StreamingResponseBody body = outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            if (csv) {
+                writer.write(AccountMapper.CSV_HEADER);
+                writer.write('\n');
+            }
+            try {
+                accountService.exportAccountsByBankId(bankId, account -> {
+                    var response = accountMapper.toResponse(account);
+                    try {
+                        writer.write(csv ? accountMapper.toCsvRow(response) : objectMapper.writeValueAsString(response));
+                        writer.write('\n');
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+            } catch (UncheckedIOException ex) {
+                // Client disconnected: abort the query instead of reading the remaining rows
+                throw ex.getCause();
+            }
+            writer.flush();
+        };
+        
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(csv ? CSV_VALUE : NDJSON_VALUE))
+                .header("Content-Disposition", "attachment; filename=\"accounts-" + bankId + (csv ? ".csv\"" : ".ndjson\""))
+                .body(body);
+    }
+    
     /**
      * Updates an existing account. Requires bankId to validate ownership.
      */
@@ -179,6 +546,193 @@ public class AccountController {
         return ResponseEntity.ok(response);
     }
     
+    /**
+     * Deposits funds into an account. Requires bankId to validate ownership.
+     */
+    @Operation(
+            summary = "Deposit into account",
+            description = "Atomically adds the amount to the balance of an active account and returns the updated account."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Deposit applied",
+                    content = @Content(schema = @Schema(implementation = AccountResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid amount",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "Unauthorized access to the account",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Account not found",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "Account is not active",
+                    content = @Content
+            )
+    })
+    @PostMapping("/{id}/deposit")
+    public ResponseEntity<AccountResponse> deposit(
+            @Parameter(description = "Account UUID", required = true)
+            @PathVariable UUID id,
+            @Parameter(description = "Bank UUID (required for validation)", required = true)
+            @RequestParam UUID bankId,
+            @Valid @RequestBody BalanceChangeRequest request) {
+        var account = accountService.deposit(id, bankId, request.getAmount());
+        return ResponseEntity.ok(accountMapper.toResponse(account));
+    }
+    
+    /**
+     * Withdraws funds from an account. Requires bankId to validate ownership.
+     */
+    @Operation(
+            summary = "Withdraw from account",
+            description = "Atomically subtracts the amount from the balance of an active account, rejecting "
+                    + "the withdrawal when the balance would become negative, and returns the updated account."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Withdrawal applied",
+                    content = @Content(schema = @Schema(implementation = AccountResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid amount",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "Unauthorized access to the account",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Account not found",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "Account is not active",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "422",
+                    description = "Insufficient funds",
+                    content = @Content
+            )
+    })
+    @PostMapping("/{id}/withdraw")
+    public ResponseEntity<AccountResponse> withdraw(
+            @Parameter(description = "Account UUID", required = true)
+            @PathVariable UUID id,
+            @Parameter(description = "Bank UUID (required for validation)", required = true)
+            @RequestParam UUID bankId,
+            @Valid @RequestBody BalanceChangeRequest request) {
+        var account = accountService.withdraw(id, bankId, request.getAmount());
+        return ResponseEntity.ok(accountMapper.toResponse(account));
+    }
+    
+    /**
+     * Configures striping of a hot account balance. Requires bankId to validate ownership.
+     */
+    @Operation(
+            summary = "Configure balance stripes",
+            description = "Spreads the balance of a heavily credited account over the given number of stripe rows, "
+                    + "so concurrent credits do not serialize on one row, or stops striping it when stripes is 0. "
+                    + "The reported balance is always the exact total."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Stripes configured",
+                    content = @Content(schema = @Schema(implementation = AccountResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid number of stripes",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "Unauthorized access to the account",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Account not found",
+                    content = @Content
+            )
+    })
+    @PutMapping("/{id}/balance-stripes")
+    public ResponseEntity<AccountResponse> setBalanceStripes(
+            @Parameter(description = "Account UUID", required = true)
+            @PathVariable UUID id,
+            @Parameter(description = "Bank UUID (required for validation)", required = true)
+            @RequestParam UUID bankId,
+            @Valid @RequestBody BalanceStripesRequest request) {
+        var account = accountService.setBalanceStripes(id, bankId, request.getStripes());
+        return ResponseEntity.ok(accountMapper.toResponse(account));
+    }
+    
+    /**
+     * Transfers funds between two accounts, possibly of different banks.
+     */
+    @Operation(
+            summary = "Transfer between accounts",
+            description = "Debits the source account and credits the target account in a single transaction. "
+                    + "Both accounts must be active and share the same currency."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Transfer completed",
+                    content = @Content(schema = @Schema(implementation = TransferResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid input data, same account or currency mismatch",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "An account does not belong to the specified bank",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Account not found",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "An account is not active",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "422",
+                    description = "Insufficient funds in the source account",
+                    content = @Content
+            )
+    })
+    @PostMapping("/transfers")
+    public ResponseEntity<TransferResponse> transfer(@Valid @RequestBody TransferRequest request) {
+        var result = accountService.transfer(
+                request.getSourceAccountId(), request.getSourceBankId(),
+                request.getTargetAccountId(), request.getTargetBankId(),
+                request.getAmount());
+        return ResponseEntity.ok(accountMapper.toTransferResponse(result));
+    }
+    
     /**
      * Deletes an account. Requires bankId to validate ownership.
      */
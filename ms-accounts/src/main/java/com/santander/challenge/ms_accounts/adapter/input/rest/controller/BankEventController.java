@@ -0,0 +1,52 @@
+package com.santander.challenge.ms_accounts.adapter.input.rest.controller;
+
+import com.santander.challenge.ms_accounts.adapter.input.rest.dto.request.BankEventRequest;
+import com.santander.challenge.ms_accounts.domain.port.input.BankEventServicePort;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Internal REST controller that receives bank lifecycle events from ms-banks.
+ */
+@Tag(name = "Bank events (internal)", description = "Internal API used by ms-banks to invalidate cached bank data")
+@RestController
+@RequestMapping("/api/accounts/internal/bank-events")
+public class BankEventController {
+    
+    private final BankEventServicePort bankEventService;
+    
+    public BankEventController(BankEventServicePort bankEventService) {
+        this.bankEventService = bankEventService;
+    }
+    
+    /**
+     * Receives a bank event and evicts the related cache entries.
+     */
+    @Operation(
+            summary = "Notify bank event",
+            description = "Used by ms-banks after a bank is created or deleted so cached existence results are evicted immediately."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "204",
+                    description = "Event processed"
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid input data"
+            )
+    })
+    @PostMapping
+    public ResponseEntity<Void> handleBankEvent(@Valid @RequestBody BankEventRequest request) {
+        bankEventService.handleBankEvent(request.getBankId(), request.getType());
+        return ResponseEntity.noContent().build();
+    }
+}
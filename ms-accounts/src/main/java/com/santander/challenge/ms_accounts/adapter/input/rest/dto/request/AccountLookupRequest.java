@@ -0,0 +1,28 @@
+package com.santander.challenge.ms_accounts.adapter.input.rest.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO used to retrieve several accounts of a bank in a single request.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountLookupRequest {
+    
+    public static final int MAX_IDS = 1000;
+    
+    @NotEmpty(message = "At least one account id is required")
+    @Size(max = MAX_IDS, message = "A lookup must not exceed " + MAX_IDS + " account ids")
+    private List<@NotNull(message = "Account ids must not be null") UUID> ids;
+}
@@ -0,0 +1,26 @@
+package com.santander.challenge.ms_accounts.adapter.input.rest.dto.request;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO used to deposit into or withdraw from an account.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceChangeRequest {
+    
+    @NotNull(message = "Amount is required")
+    @DecimalMin(value = "0.01", message = "Amount must be > 0")
+    @Digits(integer = 13, fraction = 2, message = "Amount format is invalid")
+    private BigDecimal amount;
+}
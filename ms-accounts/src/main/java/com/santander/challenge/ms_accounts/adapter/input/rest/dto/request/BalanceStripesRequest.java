@@ -0,0 +1,22 @@
+package com.santander.challenge.ms_accounts.adapter.input.rest.dto.request;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO used to configure how many stripes the balance of a hot account is spread over.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceStripesRequest {
+    
+    @NotNull(message = "Stripes is required")
+    @Min(value = 0, message = "Stripes must be >= 0")
+    private Integer stripes;
+}
@@ -0,0 +1,26 @@
+package com.santander.challenge.ms_accounts.adapter.input.rest.dto.request;
+
+import com.santander.challenge.ms_accounts.domain.model.BankEventType;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * DTO used by ms-banks to notify bank lifecycle events.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BankEventRequest {
+    
+    @NotNull(message = "Bank ID is required")
+    private UUID bankId;
+    
+    @NotNull(message = "Event type is required")
+    private BankEventType type;
+}
@@ -19,7 +19,10 @@ import java.util.UUID;
 @AllArgsConstructor
 public class CreateAccountRequest {
     
-    @NotBlank(message = "Account number is required")
+    /**
+     * Optional; a unique 20-digit number with a Luhn check digit is generated when omitted.
+     */
+    @Pattern(regexp = ".*\\S.*", message = "Account number must not be blank")
     @Size(max = 20, message = "Account number must not exceed 20 characters")
     private String accountNumber;
     
@@ -0,0 +1,27 @@
+package com.santander.challenge.ms_accounts.adapter.input.rest.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO used to create several accounts in a single request.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreateAccountsBatchRequest {
+    
+    public static final int MAX_BATCH_SIZE = 5000;
+    
+    @NotEmpty(message = "At least one account is required")
+    @Size(max = MAX_BATCH_SIZE, message = "A batch must not exceed " + MAX_BATCH_SIZE + " accounts")
+    private List<@Valid CreateAccountRequest> accounts;
+}
@@ -0,0 +1,39 @@
+package com.santander.challenge.ms_accounts.adapter.input.rest.dto.request;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * DTO used to transfer funds between two accounts, possibly of different banks.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransferRequest {
+    
+    @NotNull(message = "Source account ID is required")
+    private UUID sourceAccountId;
+    
+    @NotNull(message = "Source bank ID is required")
+    private UUID sourceBankId;
+    
+    @NotNull(message = "Target account ID is required")
+    private UUID targetAccountId;
+    
+    @NotNull(message = "Target bank ID is required")
+    private UUID targetBankId;
+    
+    @NotNull(message = "Amount is required")
+    @DecimalMin(value = "0.01", message = "Amount must be > 0")
+    @Digits(integer = 13, fraction = 2, message = "Amount format is invalid")
+    private BigDecimal amount;
+}
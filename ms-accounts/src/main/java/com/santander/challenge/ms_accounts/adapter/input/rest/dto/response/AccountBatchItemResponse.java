@@ -0,0 +1,31 @@
+package com.santander.challenge.ms_accounts.adapter.input.rest.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Response DTO describing the outcome of one item of a bulk creation.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountBatchItemResponse {
+    
+    private int index;
+    private String accountNumber;
+    private Status status;
+    private AccountResponse account;
+    private String code;
+    private String message;
+    
+    /**
+     * Item status.
+     */
+    public enum Status {
+        CREATED,
+        FAILED
+    }
+}
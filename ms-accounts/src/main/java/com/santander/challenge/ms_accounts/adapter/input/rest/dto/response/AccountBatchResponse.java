@@ -0,0 +1,23 @@
+package com.santander.challenge.ms_accounts.adapter.input.rest.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Response DTO summarizing a bulk account creation, with one entry per requested account.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountBatchResponse {
+    
+    private int total;
+    private int created;
+    private int failed;
+    private List<AccountBatchItemResponse> items;
+}
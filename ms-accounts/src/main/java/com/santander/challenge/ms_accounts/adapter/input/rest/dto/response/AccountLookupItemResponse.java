@@ -0,0 +1,31 @@
+package com.santander.challenge.ms_accounts.adapter.input.rest.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Response DTO with the outcome of one requested id of a multi-get.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountLookupItemResponse {
+    
+    private int index;
+    private UUID id;
+    private Status status;
+    private AccountResponse account;
+    
+    /**
+     * Item status.
+     */
+    public enum Status {
+        FOUND,
+        NOT_FOUND
+    }
+}
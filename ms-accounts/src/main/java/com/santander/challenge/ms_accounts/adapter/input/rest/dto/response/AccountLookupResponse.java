@@ -0,0 +1,23 @@
+package com.santander.challenge.ms_accounts.adapter.input.rest.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Response DTO of a multi-get, with one entry per requested id in request order.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountLookupResponse {
+    
+    private int total;
+    private int found;
+    private int notFound;
+    private List<AccountLookupItemResponse> items;
+}
@@ -0,0 +1,23 @@
+package com.santander.challenge.ms_accounts.adapter.input.rest.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Response DTO for keyset pagination: a slice of accounts plus an opaque token to fetch the next one.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountSliceResponse {
+    
+    private List<AccountResponse> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+}
@@ -0,0 +1,25 @@
+package com.santander.challenge.ms_accounts.adapter.input.rest.dto.response;
+
+import com.santander.challenge.ms_accounts.domain.model.JournalEntry;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Response DTO for one balance movement of a statement.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatementEntryResponse {
+    
+    private LocalDateTime occurredAt;
+    private JournalEntry.EntryType type;
+    private BigDecimal amount;
+    private BigDecimal balanceAfter;
+}
@@ -16,6 +16,13 @@ public enum ErrorCode {
     
     // Conflict errors (4xx)
     DUPLICATE_ACCOUNT_NUMBER("DUPLICATE_ACCOUNT_NUMBER", "Account number already exists"),
+    ACCOUNT_NOT_ACTIVE("ACCOUNT_NOT_ACTIVE", "Account is not active"),
+    IDEMPOTENCY_KEY_IN_USE("IDEMPOTENCY_KEY_IN_USE", "A request with the same idempotency key is in progress"),
+    IDEMPOTENCY_KEY_MISMATCH("IDEMPOTENCY_KEY_MISMATCH", "Idempotency key reused with a different request"),
+    
+    // Business rule errors (4xx)
+    INSUFFICIENT_FUNDS("INSUFFICIENT_FUNDS", "Insufficient funds"),
+    SEARCH_NOT_INDEXED("SEARCH_NOT_INDEXED", "Search filters are not supported by an index"),
     
     // Authorization errors (4xx)
     UNAUTHORIZED_ACCESS("UNAUTHORIZED_ACCESS", "Unauthorized access to account"),
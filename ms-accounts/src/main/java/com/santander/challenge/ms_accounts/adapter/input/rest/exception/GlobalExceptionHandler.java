@@ -1,9 +1,16 @@
 package com.santander.challenge.ms_accounts.adapter.input.rest.exception;
 
+import com.santander.challenge.common.idempotency.IdempotencyKeyInUseException;
+import com.santander.challenge.common.idempotency.IdempotencyKeyMismatchException;
+import com.santander.challenge.ms_accounts.domain.exception.AccountNotActiveException;
 import com.santander.challenge.ms_accounts.domain.exception.AccountNotFoundException;
+import com.santander.challenge.ms_accounts.domain.exception.AccountSearchNotIndexedException;
 import com.santander.challenge.ms_accounts.domain.exception.AccountValidationException;
+import com.santander.challenge.ms_accounts.domain.exception.BalanceWriteTimeoutException;
 import com.santander.challenge.ms_accounts.domain.exception.BankNotFoundException;
+import com.santander.challenge.ms_accounts.domain.exception.BankServiceUnavailableException;
 import com.santander.challenge.ms_accounts.domain.exception.DuplicateAccountException;
+import com.santander.challenge.ms_accounts.domain.exception.InsufficientFundsException;
 import com.santander.challenge.ms_accounts.domain.exception.UnauthorizedAccessException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -51,6 +58,48 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(error, HttpStatus.CONFLICT);
     }
     
+    @ExceptionHandler(AccountNotActiveException.class)
+    public ResponseEntity<ErrorResponse> handleAccountNotActiveException(
+            AccountNotActiveException ex, WebRequest request) {
+        ErrorResponse error = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.CONFLICT.value())
+                .error("Conflict")
+                .code(ErrorCode.ACCOUNT_NOT_ACTIVE.getCode())
+                .message(ex.getMessage())
+                .path(request.getDescription(false).replace("uri=", ""))
+                .build();
+        return new ResponseEntity<>(error, HttpStatus.CONFLICT);
+    }
+    
+    @ExceptionHandler(InsufficientFundsException.class)
+    public ResponseEntity<ErrorResponse> handleInsufficientFundsException(
+            InsufficientFundsException ex, WebRequest request) {
+        ErrorResponse error = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.UNPROCESSABLE_ENTITY.value())
+                .error("Unprocessable Entity")
+                .code(ErrorCode.INSUFFICIENT_FUNDS.getCode())
+                .message(ex.getMessage())
+                .path(request.getDescription(false).replace("uri=", ""))
+                .build();
+        return new ResponseEntity<>(error, HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+    
+    @ExceptionHandler(AccountSearchNotIndexedException.class)
+    public ResponseEntity<ErrorResponse> handleAccountSearchNotIndexedException(
+            AccountSearchNotIndexedException ex, WebRequest request) {
+        ErrorResponse error = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.UNPROCESSABLE_ENTITY.value())
+                .error("Unprocessable Entity")
+                .code(ErrorCode.SEARCH_NOT_INDEXED.getCode())
+                .message(ex.getMessage())
+                .path(request.getDescription(false).replace("uri=", ""))
+                .build();
+        return new ResponseEntity<>(error, HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+    
     @ExceptionHandler(AccountValidationException.class)
     public ResponseEntity<ErrorResponse> handleAccountValidationException(
             AccountValidationException ex, WebRequest request) {
@@ -79,6 +128,34 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(error, HttpStatus.NOT_FOUND);
     }
     
+    @ExceptionHandler(BankServiceUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleBankServiceUnavailableException(
+            BankServiceUnavailableException ex, WebRequest request) {
+        ErrorResponse error = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .error("Service Unavailable")
+                .code(ErrorCode.SERVICE_UNAVAILABLE.getCode())
+                .message(ex.getMessage())
+                .path(request.getDescription(false).replace("uri=", ""))
+                .build();
+        return new ResponseEntity<>(error, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+    
+    @ExceptionHandler(BalanceWriteTimeoutException.class)
+    public ResponseEntity<ErrorResponse> handleBalanceWriteTimeoutException(
+            BalanceWriteTimeoutException ex, WebRequest request) {
+        ErrorResponse error = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .error("Service Unavailable")
+                .code(ErrorCode.SERVICE_UNAVAILABLE.getCode())
+                .message(ex.getMessage())
+                .path(request.getDescription(false).replace("uri=", ""))
+                .build();
+        return new ResponseEntity<>(error, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+    
     @ExceptionHandler(UnauthorizedAccessException.class)
     public ResponseEntity<ErrorResponse> handleUnauthorizedAccessException(
             UnauthorizedAccessException ex, WebRequest request) {
@@ -93,6 +170,34 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(error, HttpStatus.FORBIDDEN);
     }
     
+    @ExceptionHandler(IdempotencyKeyInUseException.class)
+    public ResponseEntity<ErrorResponse> handleIdempotencyKeyInUseException(
+            IdempotencyKeyInUseException ex, WebRequest request) {
+        ErrorResponse error = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.CONFLICT.value())
+                .error("Conflict")
+                .code(ErrorCode.IDEMPOTENCY_KEY_IN_USE.getCode())
+                .message(ex.getMessage())
+                .path(request.getDescription(false).replace("uri=", ""))
+                .build();
+        return new ResponseEntity<>(error, HttpStatus.CONFLICT);
+    }
+    
+    @ExceptionHandler(IdempotencyKeyMismatchException.class)
+    public ResponseEntity<ErrorResponse> handleIdempotencyKeyMismatchException(
+            IdempotencyKeyMismatchException ex, WebRequest request) {
+        ErrorResponse error = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.UNPROCESSABLE_ENTITY.value())
+                .error("Unprocessable Entity")
+                .code(ErrorCode.IDEMPOTENCY_KEY_MISMATCH.getCode())
+                .message(ex.getMessage())
+                .path(request.getDescription(false).replace("uri=", ""))
+                .build();
+        return new ResponseEntity<>(error, HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+    
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, Object>> handleValidationExceptions(
             MethodArgumentNotValidException ex, WebRequest request) {
@@ -1,14 +1,25 @@
 package com.santander.challenge.ms_accounts.adapter.output.http.client;
 
+import com.santander.challenge.common.http.client.RemoteCallGuard;
+import com.santander.challenge.ms_accounts.domain.exception.BankServiceUnavailableException;
 import com.santander.challenge.ms_accounts.domain.port.output.BankValidationPort;
 import feign.FeignException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.RetryRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.stereotype.Component;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -20,6 +31,9 @@ interface BankFeignClient {
     @GetMapping("/api/banks/{id}")
     BankResponse getBankById(@PathVariable UUID id);
     
+    @PostMapping("/api/banks/exists")
+    Set<UUID> findExistingIds(@RequestBody Set<UUID> ids);
+    
     @lombok.Data
     @lombok.NoArgsConstructor
     @lombok.AllArgsConstructor
@@ -37,39 +51,102 @@ interface BankFeignClient {
 }
 
 /**
- * Adapter that implements BankValidationPort using Feign.
+ * Adapter that implements BankValidationPort using Feign, backed by a local existence cache.
+ * Remote calls are guarded by the "ms-banks" bulkhead, circuit breaker and retry; when ms-banks
+ * cannot answer, a BankServiceUnavailableException is thrown instead of assuming the bank is missing.
  */
 @Component
 class BankValidationAdapter implements BankValidationPort {
     
     private static final Logger log = LoggerFactory.getLogger(BankValidationAdapter.class);
+    
+    /**
+     * Maximum number of identifiers sent to ms-banks per bulk request (ms-banks accepts up to 1000).
+     */
+    static final int EXISTENCE_CHUNK_SIZE = 500;
+    
+    static final String RESILIENCE_INSTANCE = "ms-banks";
+    
     private final BankFeignClient bankFeignClient;
+    private final BankExistenceCache bankExistenceCache;
+    private final RemoteCallGuard remoteCallGuard;
     
-    public BankValidationAdapter(BankFeignClient bankFeignClient) {
+    public BankValidationAdapter(BankFeignClient bankFeignClient,
+                                 BankExistenceCache bankExistenceCache,
+                                 CircuitBreakerRegistry circuitBreakerRegistry,
+                                 BulkheadRegistry bulkheadRegistry,
+                                 RetryRegistry retryRegistry) {
         this.bankFeignClient = bankFeignClient;
+        this.bankExistenceCache = bankExistenceCache;
+        this.remoteCallGuard = new RemoteCallGuard(
+                RESILIENCE_INSTANCE, circuitBreakerRegistry, bulkheadRegistry, retryRegistry);
     }
     
     @Override
     public boolean existsById(UUID bankId) {
+        Boolean cached = bankExistenceCache.get(bankId);
+        if (cached != null) {
+            return cached;
+        }
+        
         try {
-            BankFeignClient.BankResponse response = bankFeignClient.getBankById(bankId);
+            BankFeignClient.BankResponse response = remoteCallGuard.call(() -> bankFeignClient.getBankById(bankId));
             boolean exists = response != null && response.getId() != null;
             log.debug("Bank validation for id {}: {}", bankId, exists);
+            bankExistenceCache.put(bankId, exists);
             return exists;
         } catch (FeignException.NotFound e) {
-            // If the bank does not exist (404), return false
+            // If the bank does not exist (404), cache the negative answer and return false
             log.debug("Bank with id {} not found in ms-banks (404)", bankId);
+            bankExistenceCache.put(bankId, false);
             return false;
-        } catch (FeignException e) {
-            // For other HTTP errors log the issue and return false
-            log.error("Feign error calling ms-banks for bankId {}: Status={}, Message={}", 
-                    bankId, e.status(), e.getMessage());
-            return false;
-        } catch (Exception e) {
-            // If ms-banks is unavailable or another error occurs, log and return false
-            log.error("Unexpected error calling ms-banks for bankId {}: {}", bankId, e.getMessage(), e);
-            return false;
+        } catch (RuntimeException e) {
+            // Timeouts, error responses, open circuit or full bulkhead: the answer is unknown
+            log.warn("Could not validate bankId {} against ms-banks: {}", bankId, e.toString());
+            throw new BankServiceUnavailableException("Bank service is unavailable; could not validate bank " + bankId, e);
+        }
+    }
+    
+    @Override
+    public Set<UUID> existingIds(Set<UUID> bankIds) {
+        Set<UUID> existing = new HashSet<>();
+        List<UUID> unresolved = new ArrayList<>();
+        for (UUID bankId : bankIds) {
+            Boolean cached = bankExistenceCache.get(bankId);
+            if (cached == null) {
+                unresolved.add(bankId);
+            } else if (cached) {
+                existing.add(bankId);
+            }
+        }
+        
+        // Resolve cache misses in bounded chunks, one HTTP call per chunk
+        for (int from = 0; from < unresolved.size(); from += EXISTENCE_CHUNK_SIZE) {
+            Set<UUID> chunk = new HashSet<>(unresolved.subList(from, Math.min(from + EXISTENCE_CHUNK_SIZE, unresolved.size())));
+            Set<UUID> found;
+            try {
+                found = remoteCallGuard.call(() -> bankFeignClient.findExistingIds(chunk));
+            } catch (RuntimeException e) {
+                log.warn("Could not validate {} bank ids against ms-banks: {}", chunk.size(), e.toString());
+                throw new BankServiceUnavailableException("Bank service is unavailable; could not validate "
+                        + unresolved.size() + " bank ids", e);
+            }
+            for (UUID bankId : chunk) {
+                boolean exists = found != null && found.contains(bankId);
+                bankExistenceCache.put(bankId, exists);
+                if (exists) {
+                    existing.add(bankId);
+                }
+            }
         }
+        
+        log.debug("Bulk bank validation: {} requested, {} resolved remotely, {} exist", 
+                bankIds.size(), unresolved.size(), existing.size());
+        return existing;
+    }
+    
+    @Override
+    public void invalidate(UUID bankId) {
+        bankExistenceCache.invalidate(bankId);
     }
 }
-
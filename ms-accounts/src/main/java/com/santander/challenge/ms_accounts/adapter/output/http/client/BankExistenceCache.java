@@ -0,0 +1,74 @@
+package com.santander.challenge.ms_accounts.adapter.output.http.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Bounded in-memory cache of bank existence results obtained from ms-banks.
+ * Positive and negative answers expire independently so that a bank created after
+ * a negative lookup becomes visible quickly, while known banks stay cached longer.
+ * Statistics are published under the "bank.existence" cache name.
+ */
+@Component
+class BankExistenceCache {
+
+    static final String CACHE_NAME = "bank.existence";
+
+    private final Cache<UUID, Boolean> cache;
+
+    BankExistenceCache(MeterRegistry meterRegistry,
+                       @Value("${accounts.bank-cache.max-size:10000}") long maxSize,
+                       @Value("${accounts.bank-cache.positive-ttl:PT10M}") Duration positiveTtl,
+                       @Value("${accounts.bank-cache.negative-ttl:PT30S}") Duration negativeTtl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new ExistenceExpiry(positiveTtl.toNanos(), negativeTtl.toNanos()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Returns the cached existence result, or null when the bank is not cached.
+     */
+    Boolean get(UUID bankId) {
+        return cache.getIfPresent(bankId);
+    }
+
+    void put(UUID bankId, boolean exists) {
+        cache.put(bankId, exists);
+    }
+
+    void invalidate(UUID bankId) {
+        cache.invalidate(bankId);
+    }
+
+    /**
+     * Expiry policy that applies a different time-to-live to positive and negative entries.
+     */
+    private record ExistenceExpiry(long positiveTtlNanos, long negativeTtlNanos) implements Expiry<UUID, Boolean> {
+
+        @Override
+        public long expireAfterCreate(UUID key, Boolean exists, long currentTime) {
+            return exists ? positiveTtlNanos : negativeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(UUID key, Boolean exists, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, exists, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(UUID key, Boolean exists, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.santander.challenge.ms_accounts.adapter.output.persistence.adapter;
+
+import com.santander.challenge.ms_accounts.domain.model.BalanceChange;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+/**
+ * Statements on the striped part of hot account balances.
+ * Every operation that locks both an account row and its stripes locks the account row
+ * first, so consolidations, reconfigurations and credit batches cannot deadlock each other.
+ */
+@Component
+public class AccountBalanceStripes {
+
+    /**
+     * Credits one stripe, provided the account belongs to the bank and is ACTIVE. The account
+     * row is only read, so concurrent credits to other stripes do not wait on each other.
+     */
+    private static final String CREDIT_SQL =
+            "UPDATE account_balance_stripes SET amount = amount + ?, updated_at = ? "
+                    + "WHERE account_id = ? AND stripe = ? AND EXISTS (SELECT 1 FROM accounts a "
+                    + "WHERE a.id = ? AND a.bank_id = ? AND a.status = 'ACTIVE')";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    AccountBalanceStripes(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedJdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+    }
+
+    /**
+     * Returns the stripe count of the given accounts that are striped.
+     */
+    Map<UUID, Integer> stripeCounts(Collection<UUID> accountIds) {
+        Map<UUID, Integer> counts = new HashMap<>();
+        namedJdbcTemplate.query("SELECT id, balance_stripes FROM accounts WHERE id IN (:ids) AND balance_stripes > 0",
+                Map.of("ids", accountIds),
+                (RowCallbackHandler) rs -> counts.put(rs.getObject(1, UUID.class), rs.getInt(2)));
+        return counts;
+    }
+
+    List<UUID> stripedAccountIds() {
+        return jdbcTemplate.queryForList("SELECT id FROM accounts WHERE balance_stripes > 0", UUID.class);
+    }
+
+    /**
+     * Returns the committed sum of the stripes of an account, without locking them.
+     */
+    BigDecimal sum(UUID accountId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(amount), 0) FROM account_balance_stripes WHERE account_id = ?",
+                BigDecimal.class, accountId);
+    }
+
+    /**
+     * Applies credits to the given stripes with one batch.
+     *
+     * @param credits changes to apply, each with a positive delta
+     * @param stripes stripe index of each credit, in the same order
+     * @return for each credit, true when its stripe was updated
+     */
+    boolean[] credit(List<BalanceChange> credits, List<Integer> stripes, Timestamp now) {
+        int[] updated = jdbcTemplate.batchUpdate(CREDIT_SQL, IntStream.range(0, credits.size()).boxed().toList(),
+                credits.size(), (ps, i) -> {
+                    BalanceChange change = credits.get(i);
+                    ps.setBigDecimal(1, change.getDelta());
+                    ps.setTimestamp(2, now);
+                    ps.setObject(3, change.getAccountId());
+                    ps.setInt(4, stripes.get(i));
+                    ps.setObject(5, change.getAccountId());
+                    ps.setObject(6, change.getBankId());
+                })[0];
+        boolean[] applied = new boolean[updated.length];
+        for (int i = 0; i < updated.length; i++) {
+            applied[i] = updated[i] > 0;
+        }
+        return applied;
+    }
+
+    /**
+     * Moves the stripes of an account into its balance column. Must be called within a transaction.
+     *
+     * @return amount moved, or null when the account does not exist
+     */
+    BigDecimal consolidate(UUID accountId, Timestamp now) {
+        // Account row first, then its stripes, always in this order
+        List<UUID> locked = jdbcTemplate.queryForList("SELECT id FROM accounts WHERE id = ? FOR UPDATE",
+                UUID.class, accountId);
+        if (locked.isEmpty()) {
+            return null;
+        }
+
+        BigDecimal total = jdbcTemplate.queryForList(
+                        "SELECT amount FROM account_balance_stripes WHERE account_id = ? ORDER BY stripe FOR UPDATE",
+                        BigDecimal.class, accountId)
+                .stream()
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        if (total.signum() != 0) {
+            jdbcTemplate.update("UPDATE account_balance_stripes SET amount = 0, updated_at = ? WHERE account_id = ?",
+                    now, accountId);
+            jdbcTemplate.update("UPDATE accounts SET balance = balance + ?, updated_at = ? WHERE id = ?",
+                    total, now, accountId);
+        }
+        return total;
+    }
+
+    /**
+     * Consolidates an account and replaces its stripes with the given number of empty ones.
+     * Must be called within a transaction.
+     *
+     * @return false when the account does not exist
+     */
+    boolean resize(UUID accountId, int stripes, Timestamp now) {
+        if (consolidate(accountId, now) == null) {
+            return false;
+        }
+
+        // Credits waiting on a removed stripe find no row and fall back to the account row
+        jdbcTemplate.update("DELETE FROM account_balance_stripes WHERE account_id = ?", accountId);
+        if (stripes > 0) {
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO account_balance_stripes (account_id, stripe, amount, updated_at) VALUES (?, ?, 0, ?)",
+                    IntStream.range(0, stripes).boxed().toList(), stripes, (ps, stripe) -> {
+                        ps.setObject(1, accountId);
+                        ps.setInt(2, stripe);
+                        ps.setTimestamp(3, now);
+                    });
+        }
+        jdbcTemplate.update("UPDATE accounts SET balance_stripes = ? WHERE id = ?", stripes, accountId);
+        return true;
+    }
+}
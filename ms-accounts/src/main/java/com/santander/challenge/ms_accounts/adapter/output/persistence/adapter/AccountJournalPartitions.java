@@ -0,0 +1,41 @@
+package com.santander.challenge.ms_accounts.adapter.output.persistence.adapter;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * DDL for the monthly range partitions of the PostgreSQL account journal, used by the job that
+ * keeps partitions ahead of time.
+ */
+public final class AccountJournalPartitions {
+    
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("'y'yyyy'm'MM");
+    
+    private AccountJournalPartitions() {
+    }
+    
+    /**
+     * Returns the name of the partition holding the entries of the given month.
+     */
+    public static String partitionName(YearMonth month) {
+        return "account_journal_" + month.format(SUFFIX);
+    }
+    
+    /**
+     * Returns the statements that create the missing partition of the given month, to be run in
+     * one transaction. Entries of that month that already landed in the DEFAULT partition would
+     * make a plain CREATE TABLE ... PARTITION OF fail, so the partition is created detached, those
+     * entries are moved into it and only then is it attached.
+     */
+    public static List<String> createPartitionSql(YearMonth month) {
+        String partition = partitionName(month);
+        String range = "occurred_at >= '" + month.atDay(1) + "' AND occurred_at < '" + month.plusMonths(1).atDay(1) + "'";
+        return List.of(
+                "CREATE TABLE " + partition + " (LIKE account_journal INCLUDING DEFAULTS INCLUDING CONSTRAINTS)",
+                "WITH moved AS (DELETE FROM account_journal_default WHERE " + range + " RETURNING *) "
+                        + "INSERT INTO " + partition + " SELECT * FROM moved",
+                "ALTER TABLE account_journal ATTACH PARTITION " + partition + " FOR VALUES FROM ('"
+                        + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')");
+    }
+}
@@ -0,0 +1,153 @@
+package com.santander.challenge.ms_accounts.adapter.output.persistence.adapter;
+
+import com.santander.challenge.ms_accounts.domain.model.JournalEntry;
+import com.santander.challenge.ms_accounts.domain.port.output.AccountJournalPort;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Adapter that implements AccountJournalPort with plain JDBC statements, batching journal inserts.
+ */
+@Component
+public class AccountJournalRepositoryAdapter implements AccountJournalPort {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO account_journal (account_id, bank_id, entry_type, amount, occurred_at) VALUES (?, ?, ?, ?, ?)";
+
+    /**
+     * New snapshot of every account with entries in the window: its latest snapshot taken no later
+     * than the start of the window, plus those entries. The window bounds let PostgreSQL prune the
+     * journal to the partitions it spans.
+     */
+    private static final String TAKE_SNAPSHOTS_SQL =
+            "INSERT INTO account_balance_snapshots (account_id, snapshot_at, balance) "
+                    + "SELECT j.account_id, ?, COALESCE((SELECT s.balance FROM account_balance_snapshots s "
+                    + "WHERE s.account_id = j.account_id AND s.snapshot_at <= ? "
+                    + "ORDER BY s.snapshot_at DESC LIMIT 1), 0) + SUM(j.amount) "
+                    + "FROM account_journal j WHERE j.occurred_at > ? AND j.occurred_at <= ? "
+                    + "GROUP BY j.account_id";
+
+    /**
+     * Serializes snapshot runs, see V9__create_account_journal_locks.
+     */
+    private static final String LOCK_SNAPSHOTS_SQL =
+            "SELECT name FROM account_journal_locks WHERE name = 'snapshots' FOR UPDATE";
+
+    /**
+     * Serializes partition maintenance across instances for the rest of the transaction.
+     */
+    private static final String LOCK_PARTITIONS_SQL = "SELECT pg_advisory_xact_lock(hashtext('account_journal_partitions'))";
+
+    private static final Timestamp BEGINNING = new Timestamp(0);
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile Boolean partitioned;
+
+    public AccountJournalRepositoryAdapter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void append(List<JournalEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, entries, entries.size(), (ps, entry) -> {
+            ps.setObject(1, entry.getAccountId());
+            ps.setObject(2, entry.getBankId());
+            ps.setString(3, entry.getType().name());
+            ps.setBigDecimal(4, entry.getAmount());
+            ps.setTimestamp(5, Timestamp.valueOf(entry.getOccurredAt()));
+        });
+    }
+
+    @Override
+    public BigDecimal balanceAsOf(UUID accountId, LocalDateTime asOf) {
+        Timestamp upTo = Timestamp.valueOf(asOf);
+        List<Snapshot> snapshots = jdbcTemplate.query(
+                "SELECT snapshot_at, balance FROM account_balance_snapshots "
+                        + "WHERE account_id = ? AND snapshot_at <= ? ORDER BY snapshot_at DESC LIMIT 1",
+                (rs, rowNum) -> new Snapshot(rs.getTimestamp(1), rs.getBigDecimal(2)),
+                accountId, upTo);
+        Snapshot snapshot = snapshots.isEmpty() ? new Snapshot(BEGINNING, BigDecimal.ZERO) : snapshots.get(0);
+
+        // Replay only the tail of the journal recorded after the snapshot
+        BigDecimal tail = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(amount), 0) FROM account_journal "
+                        + "WHERE account_id = ? AND occurred_at > ? AND occurred_at <= ?",
+                BigDecimal.class, accountId, snapshot.takenAt(), upTo);
+        return snapshot.balance().add(tail);
+    }
+
+    @Override
+    public List<JournalEntry> findEntries(UUID accountId, LocalDateTime after, LocalDateTime upTo, int limit) {
+        return jdbcTemplate.query(
+                "SELECT id, account_id, bank_id, entry_type, amount, occurred_at FROM account_journal "
+                        + "WHERE account_id = ? AND occurred_at > ? AND occurred_at <= ? "
+                        + "ORDER BY occurred_at, id LIMIT ?",
+                (rs, rowNum) -> JournalEntry.builder()
+                        .id(rs.getLong(1))
+                        .accountId(rs.getObject(2, UUID.class))
+                        .bankId(rs.getObject(3, UUID.class))
+                        .type(JournalEntry.EntryType.valueOf(rs.getString(4)))
+                        .amount(rs.getBigDecimal(5))
+                        .occurredAt(rs.getTimestamp(6).toLocalDateTime())
+                        .build(),
+                accountId, Timestamp.valueOf(after), Timestamp.valueOf(upTo), limit);
+    }
+
+    @Override
+    @Transactional
+    public int takeSnapshots(LocalDateTime cutoff) {
+        // Runs on other instances wait here, and then see the snapshots of the run they waited for
+        jdbcTemplate.queryForList(LOCK_SNAPSHOTS_SQL, String.class);
+        // Every run snapshots all accounts with entries since the previous run, so the latest
+        // snapshot instant marks where the journal has been summarized up to
+        Timestamp previous = jdbcTemplate.queryForObject(
+                "SELECT MAX(snapshot_at) FROM account_balance_snapshots", Timestamp.class);
+        Timestamp upTo = Timestamp.valueOf(cutoff);
+        if (previous != null && !upTo.after(previous)) {
+            return 0;
+        }
+        Timestamp from = previous == null ? BEGINNING : previous;
+        return jdbcTemplate.update(TAKE_SNAPSHOTS_SQL, upTo, from, from, upTo);
+    }
+
+    @Override
+    @Transactional
+    public void prepareStorage(LocalDateTime until) {
+        if (!isPartitioned()) {
+            return;
+        }
+        jdbcTemplate.execute(LOCK_PARTITIONS_SQL);
+        YearMonth last = YearMonth.from(until);
+        for (YearMonth month = YearMonth.now(); !month.isAfter(last); month = month.plusMonths(1)) {
+            Boolean exists = jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class,
+                    AccountJournalPartitions.partitionName(month));
+            if (!Boolean.TRUE.equals(exists)) {
+                AccountJournalPartitions.createPartitionSql(month).forEach(jdbcTemplate::execute);
+            }
+        }
+    }
+
+    private boolean isPartitioned() {
+        if (partitioned == null) {
+            // Only the PostgreSQL schema partitions the journal, see V5__create_account_journal
+            partitioned = "PostgreSQL".equals(jdbcTemplate.execute(
+                    (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName()));
+        }
+        return partitioned;
+    }
+
+    private record Snapshot(Timestamp takenAt, BigDecimal balance) {
+    }
+}
@@ -0,0 +1,250 @@
+package com.santander.challenge.ms_accounts.adapter.output.persistence.adapter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory Bloom filter of every account number in use, so that numbers that are certainly
+ * free are answered without a query. The filter never forgets a number: it may report a free
+ * number as possibly taken, which only costs the query it would have issued anyway, but never
+ * the opposite. Until the first load completes every number is reported as possibly taken.
+ * <p>
+ * The filter is rebuilt from a streaming scan of the accounts table at startup and then
+ * periodically, which also drops the numbers of deleted accounts. Numbers written while a
+ * rebuild runs are added to both filters, and numbers whose transaction was still open when
+ * the scan started are added to the new filter before it replaces the current one.
+ */
+@Component
+public class AccountNumberFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(AccountNumberFilter.class);
+
+    private static final int SCAN_FETCH_SIZE = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long expectedNumbers;
+    private final double falsePositiveRate;
+    private final Counter definitelyAbsent;
+    private final Counter possiblyPresent;
+
+    /**
+     * Numbers added by transactions that have not completed yet, with the count of such transactions.
+     */
+    private final Map<String, Integer> uncommitted = new ConcurrentHashMap<>();
+
+    private volatile BloomFilter current;
+    private volatile BloomFilter rebuilding;
+
+    AccountNumberFilter(JdbcTemplate jdbcTemplate,
+                        MeterRegistry meterRegistry,
+                        @Value("${accounts.number-filter.expected-numbers:50000000}") long expectedNumbers,
+                        @Value("${accounts.number-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        if (expectedNumbers < 1 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Account number filter needs expected-numbers >= 1 "
+                    + "and a false-positive-rate between 0 and 1");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.expectedNumbers = expectedNumbers;
+        this.falsePositiveRate = falsePositiveRate;
+        this.definitelyAbsent = Counter.builder("accounts.number.filter.checks")
+                .tag("result", "absent")
+                .description("Account number checks answered by the filter alone")
+                .register(meterRegistry);
+        this.possiblyPresent = Counter.builder("accounts.number.filter.checks")
+                .tag("result", "possible")
+                .description("Account number checks that had to query the database")
+                .register(meterRegistry);
+        Gauge.builder("accounts.number.filter.memory", this, filter -> filter.memoryBytes())
+                .baseUnit("bytes")
+                .description("Memory held by the account number filter")
+                .register(meterRegistry);
+        Gauge.builder("accounts.number.filter.false.positive.rate", this, filter -> filter.falsePositiveRate())
+                .description("Estimated false positive rate of the account number filter at its current fill")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns false when no account uses the number, and true when one may use it.
+     */
+    public boolean mightContain(String accountNumber) {
+        BloomFilter filter = current;
+        boolean possible = filter == null || filter.mightContain(accountNumber);
+        (possible ? possiblyPresent : definitelyAbsent).increment();
+        return possible;
+    }
+
+    /**
+     * Records a number about to be written. Must be called before the statement that writes
+     * it, and within the transaction that issues the statement.
+     */
+    public void add(String accountNumber) {
+        boolean transactional = TransactionSynchronizationManager.isSynchronizationActive();
+        if (transactional) {
+            // Registered before the rebuild is read, see rebuild()
+            uncommitted.merge(accountNumber, 1, Integer::sum);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    uncommitted.computeIfPresent(accountNumber, (number, count) -> count > 1 ? count - 1 : null);
+                }
+            });
+        }
+        // Read in the reverse order rebuild() publishes them, so a rebuild that has just
+        // finished is never missed between the two reads
+        BloomFilter next = rebuilding;
+        BloomFilter filter = current;
+        if (next != null) {
+            next.put(accountNumber);
+        }
+        if (filter != null && filter != next) {
+            filter.put(accountNumber);
+        }
+    }
+
+    /**
+     * Loads a new filter from the accounts table and swaps it in.
+     *
+     * @return number of account numbers scanned
+     */
+    @Scheduled(fixedDelayString = "${accounts.number-filter.rebuild-interval:PT6H}",
+            initialDelayString = "${accounts.number-filter.initial-delay:PT0S}")
+    @Transactional(readOnly = true)
+    public synchronized long rebuild() {
+        try {
+            BloomFilter next = new BloomFilter(expectedNumbers, falsePositiveRate);
+            rebuilding = next;
+            // Numbers added before this point either committed before the scan starts, or are
+            // still registered here; later ones reach the new filter directly
+            Set<String> inFlight = Set.copyOf(uncommitted.keySet());
+
+            long[] scanned = {0};
+            // The transaction lets the PostgreSQL driver stream the rows by fetch size
+            jdbcTemplate.query(con -> {
+                PreparedStatement statement = con.prepareStatement("SELECT account_number FROM accounts");
+                statement.setFetchSize(SCAN_FETCH_SIZE);
+                return statement;
+            }, (RowCallbackHandler) rs -> {
+                next.put(rs.getString(1));
+                scanned[0]++;
+            });
+            inFlight.forEach(next::put);
+
+            current = next;
+            log.info("Account number filter loaded with {} numbers: {} MiB for {} expected numbers "
+                            + "at a {} false positive rate",
+                    scanned[0], next.memoryBytes() >> 20, expectedNumbers, falsePositiveRate);
+            if (scanned[0] > expectedNumbers) {
+                log.warn("Account number filter holds more numbers than the {} it is sized for; "
+                        + "its false positive rate is now about {}", expectedNumbers, next.falsePositiveRate());
+            }
+            return scanned[0];
+        } catch (RuntimeException ex) {
+            log.error("Could not load the account number filter: {}", ex.getMessage());
+            return 0;
+        } finally {
+            rebuilding = null;
+        }
+    }
+
+    long memoryBytes() {
+        BloomFilter filter = current;
+        BloomFilter next = rebuilding;
+        return (filter == null ? 0 : filter.memoryBytes()) + (next == null ? 0 : next.memoryBytes());
+    }
+
+    /**
+     * Returns the probability that a free number is reported as possibly taken, or 1 before the first load.
+     */
+    double falsePositiveRate() {
+        BloomFilter filter = current;
+        return filter == null ? 1.0 : filter.falsePositiveRate();
+    }
+
+    /**
+     * 64-bit FNV-1a over the UTF-8 bytes, finished with the MurmurHash3 mixer to spread the
+     * low-entropy suffixes account numbers tend to share.
+     */
+    static long hash(String accountNumber) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : accountNumber.getBytes(StandardCharsets.UTF_8)) {
+            hash = (hash ^ (b & 0xff)) * 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        return hash ^ (hash >>> 33);
+    }
+
+    /**
+     * Bloom filter over a bit array that is safe for concurrent puts and reads. The hash
+     * functions are derived from one 64-bit hash of the number by double hashing.
+     */
+    static final class BloomFilter {
+
+        private final AtomicLongArray words;
+        private final long bits;
+        private final int hashes;
+        private final LongAdder bitsSet = new LongAdder();
+
+        BloomFilter(long expectedNumbers, double falsePositiveRate) {
+            long optimalBits = (long) Math.ceil(-expectedNumbers * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            int wordCount = Math.toIntExact(Math.max(1, (optimalBits + 63) >>> 6));
+            this.words = new AtomicLongArray(wordCount);
+            this.bits = (long) wordCount << 6;
+            this.hashes = Math.max(1, (int) Math.round((double) bits / expectedNumbers * Math.log(2)));
+        }
+
+        void put(String value) {
+            long hash = hash(value);
+            long step = (hash >>> 32) | 1;
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(hash + i * step, bits);
+                long mask = 1L << bit;
+                int word = (int) (bit >>> 6);
+                if ((words.get(word) & mask) == 0 && (words.getAndAccumulate(word, mask, (a, b) -> a | b) & mask) == 0) {
+                    bitsSet.increment();
+                }
+            }
+        }
+
+        boolean mightContain(String value) {
+            long hash = hash(value);
+            long step = (hash >>> 32) | 1;
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(hash + i * step, bits);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        long memoryBytes() {
+            return bits >>> 3;
+        }
+
+        double falsePositiveRate() {
+            return Math.pow((double) bitsSet.sum() / bits, hashes);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.santander.challenge.ms_accounts.adapter.output.persistence.adapter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size map from the account numbers looked up most recently to their account ids, held
+ * in one primitive array of 24 bytes per entry: the 64-bit hash of the number and the two
+ * halves of the id. Entries are grouped in sets of four; a number can only live in the set
+ * its hash selects, and a new number replaces a random entry of a full set.
+ * <p>
+ * The number itself is not stored, so two numbers with the same hash, or an entry torn by
+ * concurrent writers, can yield the wrong id. Callers must therefore check the number of the
+ * account they load, and evict the entry when it does not match.
+ */
+@Component
+public class AccountNumberIndex {
+
+    private static final int WAYS = 4;
+    private static final int LONGS_PER_ENTRY = 3;
+    private static final long EMPTY = 0;
+
+    private final AtomicLongArray entries;
+    private final int setMask;
+    private final Counter hits;
+    private final Counter misses;
+
+    AccountNumberIndex(MeterRegistry meterRegistry,
+                       @Value("${accounts.number-index.capacity:262144}") int capacity) {
+        if (capacity < WAYS) {
+            throw new IllegalArgumentException("Account number index needs a capacity of at least " + WAYS);
+        }
+        int sets = Integer.highestOneBit(capacity / WAYS);
+        this.entries = new AtomicLongArray(sets * WAYS * LONGS_PER_ENTRY);
+        this.setMask = sets - 1;
+        this.hits = Counter.builder("accounts.number.index.lookups")
+                .tag("result", "hit")
+                .description("Account number lookups resolved to an id in memory")
+                .register(meterRegistry);
+        this.misses = Counter.builder("accounts.number.index.lookups")
+                .tag("result", "miss")
+                .description("Account number lookups that had to query the database")
+                .register(meterRegistry);
+        Gauge.builder("accounts.number.index.memory", entries, array -> (double) array.length() * Long.BYTES)
+                .baseUnit("bytes")
+                .description("Memory held by the account number index")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the id last recorded for the number, or null when it is not in the index.
+     */
+    public UUID get(String accountNumber) {
+        long key = key(accountNumber);
+        int first = firstSlot(key);
+        for (int slot = first; slot < first + WAYS; slot++) {
+            int base = slot * LONGS_PER_ENTRY;
+            if (entries.get(base) == key) {
+                long mostSignificant = entries.get(base + 1);
+                long leastSignificant = entries.get(base + 2);
+                // A writer clears the key before replacing the id, so this catches most overlapping writes;
+                // the callers' number check catches the rest
+                if (entries.get(base) == key) {
+                    hits.increment();
+                    return new UUID(mostSignificant, leastSignificant);
+                }
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    public void put(String accountNumber, UUID id) {
+        long key = key(accountNumber);
+        int first = firstSlot(key);
+        int target = -1;
+        for (int slot = first; slot < first + WAYS && target < 0; slot++) {
+            long current = entries.get(slot * LONGS_PER_ENTRY);
+            if (current == key || current == EMPTY) {
+                target = slot;
+            }
+        }
+        if (target < 0) {
+            target = first + ThreadLocalRandom.current().nextInt(WAYS);
+        }
+
+        int base = target * LONGS_PER_ENTRY;
+        entries.set(base, EMPTY);
+        entries.set(base + 1, id.getMostSignificantBits());
+        entries.set(base + 2, id.getLeastSignificantBits());
+        entries.set(base, key);
+    }
+
+    /**
+     * Removes the number when the index maps it to the given id.
+     */
+    public void evict(String accountNumber, UUID id) {
+        long key = key(accountNumber);
+        int first = firstSlot(key);
+        for (int slot = first; slot < first + WAYS; slot++) {
+            int base = slot * LONGS_PER_ENTRY;
+            if (entries.get(base) == key
+                    && entries.get(base + 1) == id.getMostSignificantBits()
+                    && entries.get(base + 2) == id.getLeastSignificantBits()) {
+                entries.compareAndSet(base, key, EMPTY);
+            }
+        }
+    }
+
+    private int firstSlot(long key) {
+        return ((int) (key >>> 32) & setMask) * WAYS;
+    }
+
+    private static long key(String accountNumber) {
+        long hash = AccountNumberFilter.hash(accountNumber);
+        return hash == EMPTY ? 1 : hash;
+    }
+}
@@ -0,0 +1,47 @@
+package com.santander.challenge.ms_accounts.adapter.output.persistence.adapter;
+
+import com.santander.challenge.ms_accounts.domain.port.output.AccountNumberSequencePort;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Adapter that implements AccountNumberSequencePort with the account_number_seq database sequence.
+ * The sequence is incremented by a whole block per call, so one round-trip reserves a block.
+ */
+@Component
+public class AccountNumberSequenceAdapter implements AccountNumberSequencePort {
+
+    /**
+     * Increment of account_number_seq, see V7__create_account_number_sequence.
+     */
+    static final int BLOCK_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile String nextValueSql;
+
+    public AccountNumberSequenceAdapter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public long reserveBlock() {
+        return jdbcTemplate.queryForObject(nextValueSql(), Long.class);
+    }
+
+    @Override
+    public int blockSize() {
+        return BLOCK_SIZE;
+    }
+
+    private String nextValueSql() {
+        if (nextValueSql == null) {
+            String product = jdbcTemplate.execute(
+                    (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            nextValueSql = "PostgreSQL".equals(product)
+                    ? "SELECT nextval('account_number_seq')"
+                    : "SELECT NEXT VALUE FOR account_number_seq";
+        }
+        return nextValueSql;
+    }
+}
@@ -2,62 +2,498 @@ package com.santander.challenge.ms_accounts.adapter.output.persistence.adapter;
 
 import com.santander.challenge.ms_accounts.adapter.output.persistence.entity.AccountEntity;
 import com.santander.challenge.ms_accounts.adapter.output.persistence.repository.AccountJpaRepository;
+import com.santander.challenge.ms_accounts.adapter.output.persistence.repository.AccountSearchIndex;
+import com.santander.challenge.ms_accounts.adapter.output.persistence.repository.AccountSpecifications;
 import com.santander.challenge.ms_accounts.application.mapper.AccountMapper;
+import com.santander.challenge.ms_accounts.domain.exception.DuplicateAccountException;
 import com.santander.challenge.ms_accounts.domain.model.Account;
+import com.santander.challenge.ms_accounts.domain.model.AccountCursor;
+import com.santander.challenge.ms_accounts.domain.model.AccountSearchCriteria;
+import com.santander.challenge.ms_accounts.domain.model.BalanceChange;
 import com.santander.challenge.ms_accounts.domain.port.output.AccountRepositoryPort;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityNotFoundException;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Adapter that implements AccountRepositoryPort using JPA.
+ * Reads by id outside read-write transactions are served from a snapshot cache, which every
+ * change to an existing account invalidates. New accounts need no invalidation, as accounts
+ * that do not exist are never cached. Account number checks first consult an in-memory filter
+ * of the numbers in use, and only query the numbers it cannot rule out.
  */
 @Component
 public class AccountRepositoryAdapter implements AccountRepositoryPort {
     
+    /**
+     * Guarded balance change; the row lock it takes serializes concurrent changes, so none is lost.
+     */
+    private static final String APPLY_BALANCE_DELTA_SQL =
+            "UPDATE accounts SET balance = balance + ?, updated_at = ? "
+                    + "WHERE id = ? AND bank_id = ? AND status = 'ACTIVE' AND balance + ? >= 0";
+    
+    private static final String LOCK_ACCOUNT_SQL = "SELECT id FROM accounts WHERE id = ? FOR UPDATE";
+    
+    private static final String ACCOUNT_NUMBER_CONSTRAINT = "uk_accounts_account_number";
+    
+    private static final String UNIQUE_VIOLATION = "23505";
+    
     private final AccountJpaRepository jpaRepository;
     private final AccountMapper accountMapper;
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final AccountBalanceStripes balanceStripes;
+    private final AccountSnapshotCache snapshotCache;
+    private final AccountNumberFilter accountNumbers;
+    private final AccountNumberIndex numberIndex;
+    private final int batchSize;
+    private volatile Boolean postgres;
     
-    public AccountRepositoryAdapter(AccountJpaRepository jpaRepository, AccountMapper accountMapper) {
+    public AccountRepositoryAdapter(AccountJpaRepository jpaRepository, 
+                                    AccountMapper accountMapper,
+                                    EntityManager entityManager,
+                                    JdbcTemplate jdbcTemplate,
+                                    AccountBalanceStripes balanceStripes,
+                                    AccountSnapshotCache snapshotCache,
+                                    AccountNumberFilter accountNumbers,
+                                    AccountNumberIndex numberIndex,
+                                    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:500}") int batchSize) {
         this.jpaRepository = jpaRepository;
         this.accountMapper = accountMapper;
+        this.entityManager = entityManager;
+        this.jdbcTemplate = jdbcTemplate;
+        this.balanceStripes = balanceStripes;
+        this.snapshotCache = snapshotCache;
+        this.accountNumbers = accountNumbers;
+        this.numberIndex = numberIndex;
+        this.batchSize = batchSize;
     }
     
     @Override
     public Account save(Account account) {
         AccountEntity entity = accountMapper.toEntity(account);
-        AccountEntity savedEntity = jpaRepository.save(entity);
-        return accountMapper.toDomain(savedEntity);
+        accountNumbers.add(account.getAccountNumber());
+        try {
+            // Flushed right away so that a taken account number is reported here, not on commit
+            AccountEntity savedEntity = jpaRepository.saveAndFlush(entity);
+            return accountMapper.toDomain(savedEntity);
+        } catch (DataIntegrityViolationException ex) {
+            if (violates(ex, ACCOUNT_NUMBER_CONSTRAINT, "account_number")) {
+                throw new DuplicateAccountException(
+                        "Account with number " + account.getAccountNumber() + " already exists", ex);
+            }
+            throw ex;
+        }
+    }
+    
+    @Override
+    public Account update(Account account) {
+        snapshotCache.invalidate(account.getId());
+        // Served from the persistence context when the account was already read in this transaction
+        AccountEntity entity = entityManager.find(AccountEntity.class, account.getId());
+        if (entity == null) {
+            throw new EntityNotFoundException("Account " + account.getId() + " does not exist");
+        }
+        if (!entity.getAccountNumber().equals(account.getAccountNumber())) {
+            accountNumbers.add(account.getAccountNumber());
+        }
+        if (entity.getBalanceStripes() == 0) {
+            accountMapper.updateEntity(account, entity);
+            // Dirty checking issues the UPDATE on flush, limited to the changed columns
+            return accountMapper.toDomain(entity);
+        }
+        
+        // Striped account: the balance column may have absorbed stripes since it was read, so the
+        // balance change is applied relative to its current value and the column is left clean
+        BigDecimal striped = entity.getStripedBalance() != null
+                ? entity.getStripedBalance()
+                : balanceStripes.sum(entity.getId());
+        BigDecimal delta = account.getBalance().subtract(entity.getBalance().add(striped));
+        BigDecimal balanceColumn = entity.getBalance();
+        accountMapper.updateEntity(account, entity);
+        entity.setBalance(balanceColumn);
+        if (delta.signum() != 0) {
+            jdbcTemplate.update("UPDATE accounts SET balance = balance + ? WHERE id = ?", delta, entity.getId());
+        }
+        
+        Account updated = accountMapper.toDomain(entity);
+        updated.setBalance(account.getBalance());
+        return updated;
+    }
+    
+    @Override
+    public List<Account> saveAll(List<Account> accounts) {
+        List<Account> saved = new ArrayList<>(accounts.size());
+        for (int i = 0; i < accounts.size(); i++) {
+            AccountEntity entity = accountMapper.toEntity(accounts.get(i));
+            accountNumbers.add(entity.getAccountNumber());
+            entityManager.persist(entity);
+            saved.add(accountMapper.toDomain(entity));
+            
+            // Flush one JDBC batch at a time and keep the persistence context small
+            if ((i + 1) % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return saved;
     }
     
     @Override
     public Optional<Account> findById(UUID id) {
-        return jpaRepository.findById(id)
-                .map(accountMapper::toDomain);
+        if (inReadWriteTransaction()) {
+            return jpaRepository.findById(id).map(this::toDomain);
+        }
+        return snapshotCache.get(id, key -> jpaRepository.findById(key).map(this::toDomain));
+    }
+    
+    @Override
+    public Optional<Account> findByAccountNumber(String accountNumber) {
+        if (!accountNumbers.mightContain(accountNumber)) {
+            return Optional.empty();
+        }
+        UUID id = numberIndex.get(accountNumber);
+        if (id != null) {
+            Optional<Account> account = findById(id);
+            if (account.isPresent() && account.get().getAccountNumber().equals(accountNumber)) {
+                return account;
+            }
+            // Deleted or renumbered since it was indexed, or the entry of a number with the same hash
+            numberIndex.evict(accountNumber, id);
+        }
+        
+        // Resolved through the unique index on account_number
+        Optional<Account> account = jpaRepository.findByAccountNumber(accountNumber).map(this::toDomain);
+        if (account.isEmpty()) {
+            return account;
+        }
+        Account found = account.get();
+        numberIndex.put(accountNumber, found.getId());
+        return inReadWriteTransaction() ? account : snapshotCache.get(found.getId(), key -> Optional.of(found));
+    }
+    
+    @Override
+    public List<Account> findByIdsAndBankId(Collection<UUID> ids, UUID bankId) {
+        List<UUID> distinct = ids.stream().distinct().toList();
+        List<Account> accounts = new ArrayList<>(distinct.size());
+        // Chunk the IN list so very large lookups do not exceed driver parameter limits
+        for (int from = 0; from < distinct.size(); from += batchSize) {
+            jpaRepository.findByIdInAndBankId(distinct.subList(from, Math.min(from + batchSize, distinct.size())), bankId)
+                    .forEach(entity -> accounts.add(toDomain(entity)));
+        }
+        return accounts;
+    }
+    
+    @Override
+    public Optional<Account> findByIdForUpdate(UUID id) {
+        return jpaRepository.findByIdForUpdate(id)
+                .map(this::toDomain);
     }
     
     @Override
     public Page<Account> findByBankId(UUID bankId, Pageable pageable) {
         return jpaRepository.findByBankId(bankId, pageable)
-                .map(accountMapper::toDomain);
+                .map(this::toDomain);
+    }
+    
+    @Override
+    public Slice<Account> findByBankIdAfter(UUID bankId, AccountCursor after, int size) {
+        Pageable limit = PageRequest.of(0, size);
+        Slice<AccountEntity> slice = after == null
+                ? jpaRepository.findFirstSliceByBankId(bankId, limit)
+                : jpaRepository.findSliceByBankIdAfter(bankId, after.getCreatedAt(), after.getId(), limit);
+        return slice.map(this::toDomain);
+    }
+    
+    @Override
+    public Slice<Account> search(UUID bankId, AccountSearchCriteria criteria, AccountCursor after, int size) {
+        // One extra row tells whether another slice follows, without a COUNT query
+        List<AccountEntity> rows = jpaRepository.findBy(AccountSpecifications.search(bankId, criteria, after),
+                query -> query.sortBy(AccountSpecifications.KEYSET_ORDER).limit(size + 1).all());
+        boolean hasNext = rows.size() > size;
+        List<Account> accounts = rows.stream().limit(size).map(this::toDomain).toList();
+        return new SliceImpl<>(accounts, PageRequest.of(0, size), hasNext);
+    }
+    
+    /**
+     * A search is indexed when one of the indexes present on this database serves its filters,
+     * as declared by {@link AccountSearchIndex}.
+     */
+    @Override
+    public boolean isIndexedSearch(AccountSearchCriteria criteria) {
+        return !AccountSearchIndex.serving(criteria, isPostgres()).isEmpty();
+    }
+    
+    private boolean isPostgres() {
+        if (postgres == null) {
+            // Partial indexes only exist on PostgreSQL, see V8__add_account_search_indexes
+            postgres = "PostgreSQL".equals(jdbcTemplate.execute(
+                    (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName()));
+        }
+        return postgres;
     }
     
     @Override
-    public void deleteById(UUID id) {
-        jpaRepository.deleteById(id);
+    public void forEachByBankId(UUID bankId, Consumer<Account> action) {
+        try (Stream<AccountEntity> entities = jpaRepository.streamByBankId(bankId)) {
+            entities.forEach(entity -> {
+                action.accept(toDomain(entity));
+                // Keep the persistence context constant in size while streaming
+                entityManager.detach(entity);
+            });
+        }
+    }
+    
+    @Override
+    public List<Optional<Account>> applyBalanceDeltas(List<BalanceChange> changes) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Set<UUID> accountIds = changes.stream().map(BalanceChange::getAccountId).collect(Collectors.toSet());
+        snapshotCache.invalidateAll(accountIds);
+        Map<UUID, Integer> stripeCounts = balanceStripes.stripeCounts(accountIds);
+        
+        // Debits are checked against the balance column alone, so striped accounts being debited have
+        // their stripes moved into it first, and all of their changes in this batch go to that row
+        Set<UUID> debited = changes.stream()
+                .filter(change -> change.getDelta().signum() < 0)
+                .map(BalanceChange::getAccountId)
+                .collect(Collectors.toSet());
+        
+        // Credits to the other striped accounts go to one random stripe per account
+        List<Integer> rowIndexes = new ArrayList<>();
+        List<Integer> creditIndexes = new ArrayList<>();
+        for (int i = 0; i < changes.size(); i++) {
+            UUID accountId = changes.get(i).getAccountId();
+            boolean stripedCredit = stripeCounts.containsKey(accountId) && !debited.contains(accountId);
+            (stripedCredit ? creditIndexes : rowIndexes).add(i);
+        }
+        
+        // Rows are locked in ascending account id order, as transfers lock them, so a batch and a transfer
+        // over the same accounts cannot deadlock; the changes of one account keep their arrival order
+        rowIndexes.sort(Comparator.comparing((Integer i) -> changes.get(i).getAccountId())
+                .thenComparing(Comparator.naturalOrder()));
+        Set<UUID> consolidated = stripeCounts.keySet().stream()
+                .filter(debited::contains)
+                .collect(Collectors.toSet());
+        if (!consolidated.isEmpty()) {
+            // Consolidation locks its rows ahead of the batch, so the other rows are locked along with them
+            rowIndexes.stream()
+                    .map(i -> changes.get(i).getAccountId())
+                    .distinct()
+                    .forEach(accountId -> {
+                        if (consolidated.contains(accountId)) {
+                            balanceStripes.consolidate(accountId, now);
+                        } else {
+                            jdbcTemplate.queryForList(LOCK_ACCOUNT_SQL, UUID.class, accountId);
+                        }
+                    });
+        }
+        
+        // Account rows are locked before stripes, in line with consolidation
+        List<Integer> applied = new ArrayList<>(applyToRows(changes, rowIndexes, now));
+        if (!creditIndexes.isEmpty()) {
+            creditIndexes.sort(Comparator.comparing(i -> changes.get(i).getAccountId()));
+            Map<UUID, Integer> stripeOf = new HashMap<>();
+            List<BalanceChange> credits = creditIndexes.stream().map(changes::get).toList();
+            List<Integer> stripes = credits.stream()
+                    .map(change -> stripeOf.computeIfAbsent(change.getAccountId(),
+                            accountId -> ThreadLocalRandom.current().nextInt(stripeCounts.get(accountId))))
+                    .toList();
+            boolean[] credited = balanceStripes.credit(credits, stripes, now);
+            
+            // A stripe removed by a concurrent reconfiguration, or a failed guard, is retried on the account row
+            List<Integer> fallbackIndexes = new ArrayList<>();
+            for (int i = 0; i < credited.length; i++) {
+                (credited[i] ? applied : fallbackIndexes).add(creditIndexes.get(i));
+            }
+            applied.addAll(applyToRows(changes, fallbackIndexes, now));
+        }
+        
+        // The updated rows stay locked until commit, so these are exactly the balances after the batch;
+        // striped totals also include credits other transactions committed to the remaining stripes
+        Map<UUID, AccountEntity> entities = new HashMap<>();
+        Map<UUID, BigDecimal> balances = new HashMap<>();
+        jpaRepository.findAllById(accountIds).forEach(entity -> {
+            entities.put(entity.getId(), entity);
+            balances.put(entity.getId(), entity.getBalance());
+        });
+        stripeCounts.keySet().forEach(accountId -> balances.computeIfPresent(accountId,
+                (id, balance) -> balance.add(balanceStripes.sum(id))));
+        
+        // Walk back, in the order the changes were applied, to the account right after each of them
+        List<Optional<Account>> results = new ArrayList<>(Collections.nCopies(changes.size(), Optional.empty()));
+        for (int i = applied.size() - 1; i >= 0; i--) {
+            BalanceChange change = changes.get(applied.get(i));
+            BigDecimal balance = balances.get(change.getAccountId());
+            Account account = accountMapper.toDomain(entities.get(change.getAccountId()));
+            account.setBalance(balance);
+            account.setUpdatedAt(now.toLocalDateTime());
+            results.set(applied.get(i), Optional.of(account));
+            balances.put(change.getAccountId(), balance.subtract(change.getDelta()));
+        }
+        return results;
+    }
+    
+    /**
+     * Applies the selected changes to their account rows with one batch of guarded updates.
+     *
+     * @return indexes of the changes that were applied, in order
+     */
+    private List<Integer> applyToRows(List<BalanceChange> changes, List<Integer> indexes, Timestamp now) {
+        if (indexes.isEmpty()) {
+            return List.of();
+        }
+        int[] updated = jdbcTemplate.batchUpdate(APPLY_BALANCE_DELTA_SQL, indexes, indexes.size(), (ps, index) -> {
+            BalanceChange change = changes.get(index);
+            ps.setBigDecimal(1, change.getDelta());
+            ps.setTimestamp(2, now);
+            ps.setObject(3, change.getAccountId());
+            ps.setObject(4, change.getBankId());
+            ps.setBigDecimal(5, change.getDelta());
+        })[0];
+        
+        List<Integer> applied = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] > 0) {
+                applied.add(indexes.get(i));
+            }
+        }
+        return applied;
+    }
+    
+    @Override
+    public Account setBalanceStripes(UUID id, int stripes) {
+        snapshotCache.invalidate(id);
+        if (!balanceStripes.resize(id, stripes, Timestamp.valueOf(LocalDateTime.now()))) {
+            throw new EntityNotFoundException("Account " + id + " does not exist");
+        }
+        
+        // The rows were changed with plain statements, so reload the entity if it is already managed
+        AccountEntity entity = entityManager.find(AccountEntity.class, id);
+        entityManager.refresh(entity);
+        return toDomain(entity);
+    }
+    
+    @Override
+    public List<UUID> findStripedAccountIds() {
+        return balanceStripes.stripedAccountIds();
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public BigDecimal consolidateBalance(UUID id) {
+        snapshotCache.invalidate(id);
+        BigDecimal moved = balanceStripes.consolidate(id, Timestamp.valueOf(LocalDateTime.now()));
+        return moved == null ? BigDecimal.ZERO : moved;
+    }
+    
+    @Override
+    public boolean deleteByIdAndBankId(UUID id, UUID bankId) {
+        snapshotCache.invalidate(id);
+        return jpaRepository.deleteByIdAndBankId(id, bankId) > 0;
+    }
+    
+    @Override
+    public boolean existsById(UUID id) {
+        return jpaRepository.existsById(id);
     }
     
     @Override
     public boolean existsByAccountNumber(String accountNumber) {
-        return jpaRepository.existsByAccountNumber(accountNumber);
+        return accountNumbers.mightContain(accountNumber) && jpaRepository.existsByAccountNumber(accountNumber);
+    }
+    
+    @Override
+    public Set<String> findExistingAccountNumbers(Set<String> candidates) {
+        Set<String> existing = new HashSet<>();
+        // Only numbers the filter cannot rule out are looked up
+        List<String> numbers = candidates.stream().filter(accountNumbers::mightContain).toList();
+        // Chunk the IN list so very large batches do not exceed driver parameter limits
+        for (int from = 0; from < numbers.size(); from += batchSize) {
+            List<String> chunk = numbers.subList(from, Math.min(from + batchSize, numbers.size()));
+            existing.addAll(jpaRepository.findExistingAccountNumbers(chunk));
+        }
+        return existing;
     }
     
     @Override
     public Long countByBankId(UUID bankId) {
         return jpaRepository.countByBankId(bankId);
     }
+    
+    /**
+     * Maps an entity, adding the stripes of striped accounts to the balance so it is the exact total.
+     */
+    private Account toDomain(AccountEntity entity) {
+        Account account = accountMapper.toDomain(entity);
+        if (entity.getBalanceStripes() > 0) {
+            BigDecimal striped = balanceStripes.sum(entity.getId());
+            entity.setStripedBalance(striped);
+            account.setBalance(account.getBalance().add(striped));
+        }
+        return account;
+    }
+    
+    /**
+     * Returns true within a read-write transaction, which may have changed accounts, or be about
+     * to, so its reads bypass the snapshot cache.
+     */
+    private static boolean inReadWriteTransaction() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+    
+    /**
+     * Returns true when the violation was raised by the given unique constraint. Databases report
+     * the constraint name in different cases, and H2 reports the name of its backing index. Schemas
+     * adopted from Hibernate keep its generated UK... name, so a unique violation whose message
+     * names the constrained column counts as well.
+     */
+    private static boolean violates(DataIntegrityViolationException ex, String constraint, String column) {
+        if (!(ex.getCause() instanceof ConstraintViolationException violation)) {
+            return false;
+        }
+        String name = violation.getConstraintName();
+        if (name != null && name.toLowerCase(Locale.ROOT).contains(constraint)) {
+            return true;
+        }
+        String message = violation.getSQLException().getMessage();
+        return UNIQUE_VIOLATION.equals(violation.getSQLState())
+                && message != null
+                && message.toLowerCase(Locale.ROOT).contains("(" + column);
+    }
 }
-
@@ -0,0 +1,98 @@
+package com.santander.challenge.ms_accounts.adapter.output.persistence.adapter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.santander.challenge.ms_accounts.domain.model.Account;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Bounded in-memory cache of committed account snapshots keyed by account id.
+ * Callers always receive a copy, so changing a returned account never alters the cache.
+ * Writes invalidate their accounts right away and again once their transaction completes,
+ * which discards any snapshot loaded while the write was still uncommitted. The time-to-live
+ * bounds how long changes made by other instances of the service may go unnoticed.
+ * Statistics, hit ratio and load latency are published under the "accounts.snapshots" cache name.
+ */
+@Component
+public class AccountSnapshotCache {
+
+    static final String CACHE_NAME = "accounts.snapshots";
+
+    private final Cache<UUID, Account> cache;
+
+    AccountSnapshotCache(MeterRegistry meterRegistry,
+                         @Value("${accounts.account-cache.max-size:100000}") long maxSize,
+                         @Value("${accounts.account-cache.ttl:PT30S}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        Gauge.builder("cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .tag("cache", CACHE_NAME)
+                .description("Ratio of cache requests which were hits")
+                .register(meterRegistry);
+        // The standard binder only times loads of loading caches, while this one is given its loader per call
+        FunctionTimer.builder("cache.load.latency", cache, c -> c.stats().loadCount(),
+                        c -> c.stats().totalLoadTime(), TimeUnit.NANOSECONDS)
+                .tag("cache", CACHE_NAME)
+                .description("Loads of accounts missing from the cache and the time spent on them")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns a copy of the cached account, loading it on a miss. Missing accounts are not cached.
+     */
+    Optional<Account> get(UUID id, Function<UUID, Optional<Account>> loader) {
+        Account snapshot = cache.get(id, key -> loader.apply(key).map(AccountSnapshotCache::copy).orElse(null));
+        return Optional.ofNullable(snapshot).map(AccountSnapshotCache::copy);
+    }
+
+    void invalidate(UUID id) {
+        invalidateAll(List.of(id));
+    }
+
+    void invalidateAll(Collection<UUID> ids) {
+        cache.invalidateAll(ids);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            List<UUID> changed = List.copyOf(ids);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidateAll(changed);
+                }
+            });
+        }
+    }
+
+    private static Account copy(Account account) {
+        return Account.builder()
+                .id(account.getId())
+                .accountNumber(account.getAccountNumber())
+                .bankId(account.getBankId())
+                .accountHolderName(account.getAccountHolderName())
+                .accountType(account.getAccountType())
+                .balance(account.getBalance())
+                .currency(account.getCurrency())
+                .status(account.getStatus())
+                .createdAt(account.getCreatedAt())
+                .updatedAt(account.getUpdatedAt())
+                .build();
+    }
+}
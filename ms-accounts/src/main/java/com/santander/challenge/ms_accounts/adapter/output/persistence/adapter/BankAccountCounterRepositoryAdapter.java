@@ -0,0 +1,67 @@
+package com.santander.challenge.ms_accounts.adapter.output.persistence.adapter;
+
+import com.santander.challenge.ms_accounts.adapter.output.persistence.entity.BankAccountCounterEntity;
+import com.santander.challenge.ms_accounts.adapter.output.persistence.repository.AccountJpaRepository;
+import com.santander.challenge.ms_accounts.adapter.output.persistence.repository.BankAccountCounterJpaRepository;
+import com.santander.challenge.ms_accounts.domain.port.output.BankAccountCounterPort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Adapter that implements BankAccountCounterPort using JPA and PostgreSQL upserts.
+ */
+@Component
+public class BankAccountCounterRepositoryAdapter implements BankAccountCounterPort {
+    
+    private final BankAccountCounterJpaRepository counterRepository;
+    private final AccountJpaRepository accountRepository;
+    
+    public BankAccountCounterRepositoryAdapter(BankAccountCounterJpaRepository counterRepository,
+                                               AccountJpaRepository accountRepository) {
+        this.counterRepository = counterRepository;
+        this.accountRepository = accountRepository;
+    }
+    
+    @Override
+    public void increment(UUID bankId, long delta) {
+        counterRepository.increment(bankId, delta);
+    }
+    
+    @Override
+    public long count(UUID bankId) {
+        return counterRepository.findById(bankId)
+                .map(BankAccountCounterEntity::getAccountCount)
+                .orElse(0L);
+    }
+    
+    @Override
+    public Set<UUID> findBankIds() {
+        Set<UUID> bankIds = new HashSet<>(accountRepository.findDistinctBankIds());
+        bankIds.addAll(counterRepository.findAllBankIds());
+        return bankIds;
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public long reconcile(UUID bankId) {
+        // Lock the counter first: writers increment it in the same transaction as their insert or
+        // delete, so none of them can commit between the COUNT below and the correction.
+        counterRepository.createIfAbsent(bankId);
+        BankAccountCounterEntity counter = counterRepository.findByIdForUpdate(bankId).orElseThrow();
+        
+        // Under READ COMMITTED this statement sees every change committed before the lock was granted
+        long actual = accountRepository.countByBankId(bankId);
+        long drift = actual - counter.getAccountCount();
+        if (drift != 0) {
+            counter.setAccountCount(actual);
+            counter.setUpdatedAt(LocalDateTime.now());
+        }
+        return drift;
+    }
+}
@@ -1,11 +1,13 @@
 package com.santander.challenge.ms_accounts.adapter.output.persistence.entity;
 
+import com.santander.challenge.common.persistence.id.TimeOrderedUuid;
 import com.santander.challenge.ms_accounts.domain.model.Account;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -15,8 +17,14 @@ import java.util.UUID;
  * JPA entity for Account.
  */
 @Entity
+@DynamicUpdate
 @Table(name = "accounts", uniqueConstraints = {
     @UniqueConstraint(columnNames = "account_number")
+}, indexes = {
+    @Index(name = "idx_accounts_bank_created_id", columnList = "bank_id, created_at, id"),
+    @Index(name = "idx_accounts_bank_status_type_currency",
+            columnList = "bank_id, status, account_type, currency, created_at, id"),
+    @Index(name = "idx_accounts_bank_balance", columnList = "bank_id, balance")
 })
 @Data
 @Builder
@@ -25,7 +33,7 @@ import java.util.UUID;
 public class AccountEntity {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     @Column(name = "id", updatable = false, nullable = false)
     private UUID id;
     
@@ -45,6 +53,19 @@ public class AccountEntity {
     @Column(nullable = false, precision = 15, scale = 2)
     private BigDecimal balance;
     
+    /**
+     * Number of stripe rows the balance is spread over; 0 when the account is not striped.
+     */
+    @Column(name = "balance_stripes", nullable = false)
+    private int balanceStripes;
+    
+    /**
+     * Sum of the stripe rows as read together with this entity, kept so that a later update
+     * can tell the balance column apart from the striped part of the total.
+     */
+    @Transient
+    private BigDecimal stripedBalance;
+    
     @Column(nullable = false, length = 3)
     private String currency;
     
@@ -0,0 +1,35 @@
+package com.santander.challenge.ms_accounts.adapter.output.persistence.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * JPA entity for the materialized number of accounts of each bank.
+ */
+@Entity
+@Table(name = "bank_account_counters")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BankAccountCounterEntity {
+    
+    @Id
+    @Column(name = "bank_id", updatable = false, nullable = false)
+    private UUID bankId;
+    
+    @Column(name = "account_count", nullable = false)
+    private long accountCount;
+    
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -1,27 +1,100 @@
 package com.santander.challenge.ms_accounts.adapter.output.persistence.repository;
 
 import com.santander.challenge.ms_accounts.adapter.output.persistence.entity.AccountEntity;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * JPA repository for AccountEntity.
  */
 @Repository
-public interface AccountJpaRepository extends JpaRepository<AccountEntity, UUID> {
+public interface AccountJpaRepository extends JpaRepository<AccountEntity, UUID>,
+        JpaSpecificationExecutor<AccountEntity> {
     
     boolean existsByAccountNumber(String accountNumber);
     
+    Optional<AccountEntity> findByAccountNumber(String accountNumber);
+    
+    /**
+     * Deletes an account only when it belongs to the given bank, in a single statement.
+     *
+     * @return number of rows deleted, 0 or 1
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM AccountEntity a WHERE a.id = :id AND a.bankId = :bankId")
+    int deleteByIdAndBankId(@Param("id") UUID id, @Param("bankId") UUID bankId);
+    
+    @Query("SELECT a FROM AccountEntity a WHERE a.id IN :ids AND a.bankId = :bankId")
+    List<AccountEntity> findByIdInAndBankId(@Param("ids") Collection<UUID> ids, @Param("bankId") UUID bankId);
+    
+    @Query("SELECT a.accountNumber FROM AccountEntity a WHERE a.accountNumber IN :accountNumbers")
+    Set<String> findExistingAccountNumbers(@Param("accountNumbers") Collection<String> accountNumbers);
+    
+    /**
+     * Loads an account holding a row lock, which blocks concurrent writers until the transaction ends.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM AccountEntity a WHERE a.id = :id")
+    Optional<AccountEntity> findByIdForUpdate(@Param("id") UUID id);
+    
     Page<AccountEntity> findByBankId(UUID bankId, Pageable pageable);
     
+    /**
+     * Returns the first keyset slice of a bank's accounts. Slices never issue a COUNT query.
+     */
+    @Query("SELECT a FROM AccountEntity a WHERE a.bankId = :bankId ORDER BY a.createdAt ASC, a.id ASC")
+    Slice<AccountEntity> findFirstSliceByBankId(@Param("bankId") UUID bankId, Pageable pageable);
+    
+    /**
+     * Returns the keyset slice that follows the given (createdAt, id) position, seeking on
+     * the (bank_id, created_at, id) index instead of skipping rows with an offset.
+     */
+    @Query("SELECT a FROM AccountEntity a WHERE a.bankId = :bankId "
+            + "AND (a.createdAt, a.id) > (:createdAt, :id) "
+            + "ORDER BY a.createdAt ASC, a.id ASC")
+    Slice<AccountEntity> findSliceByBankIdAfter(@Param("bankId") UUID bankId,
+                                                @Param("createdAt") LocalDateTime createdAt,
+                                                @Param("id") UUID id,
+                                                Pageable pageable);
+    
+    /**
+     * Streams every account of a bank with a forward-only cursor. The fetch size makes the
+     * PostgreSQL driver read rows in chunks instead of buffering the whole result, which
+     * requires the caller to keep a transaction open while consuming the stream.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT a FROM AccountEntity a WHERE a.bankId = :bankId ORDER BY a.createdAt ASC, a.id ASC")
+    Stream<AccountEntity> streamByBankId(@Param("bankId") UUID bankId);
+    
     @Query("SELECT COUNT(a) FROM AccountEntity a WHERE a.bankId = :bankId")
     Long countByBankId(@Param("bankId") UUID bankId);
+    
+    @Query("SELECT DISTINCT a.bankId FROM AccountEntity a")
+    List<UUID> findDistinctBankIds();
 }
 
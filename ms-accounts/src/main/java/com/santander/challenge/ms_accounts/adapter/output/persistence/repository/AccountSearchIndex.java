@@ -0,0 +1,125 @@
+package com.santander.challenge.ms_accounts.adapter.output.persistence.repository;
+
+import com.santander.challenge.ms_accounts.domain.model.Account;
+import com.santander.challenge.ms_accounts.domain.model.AccountSearchCriteria;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * The indexes behind the account search, created by V2__add_accounts_bank_index and
+ * V8__add_account_search_indexes, together with the filter combinations each one serves.
+ * This is the only description of which searches are indexed: the repository adapter accepts
+ * the combinations served by at least one index, and the query plan test checks every such
+ * combination against PostgreSQL.
+ */
+public enum AccountSearchIndex {
+    
+    /**
+     * (bank_id, created_at, id): the accounts of a bank in keyset order, narrowed by creation time;
+     * a balance range is checked on the rows it reads.
+     */
+    BANK_CREATED_ID("idx_accounts_bank_created_id", List.of(), EnumSet.of(Filter.BALANCE, Filter.CREATED), false),
+    
+    /**
+     * (bank_id, status, account_type, currency, created_at, id): the status, optionally followed
+     * by the type and then the currency, as an equality prefix.
+     */
+    BANK_STATUS_TYPE_CURRENCY("idx_accounts_bank_status_type_currency",
+            List.of(Filter.STATUS, Filter.ACCOUNT_TYPE, Filter.CURRENCY), EnumSet.of(Filter.CREATED), false),
+    
+    /**
+     * (bank_id, balance): a balance range.
+     */
+    BANK_BALANCE("idx_accounts_bank_balance", List.of(), EnumSet.of(Filter.BALANCE, Filter.CREATED), false),
+    
+    /**
+     * (bank_id, balance) WHERE status &lt;&gt; 'ACTIVE': the accounts that are not ACTIVE, a small
+     * minority, with any other filter. Partial, so it only exists on PostgreSQL.
+     */
+    BANK_NOT_ACTIVE("idx_accounts_bank_not_active", List.of(), EnumSet.allOf(Filter.class), true) {
+        @Override
+        boolean covers(AccountSearchCriteria criteria) {
+            return criteria.getStatus() != null && criteria.getStatus() != Account.AccountStatus.ACTIVE;
+        }
+    };
+    
+    /**
+     * The filters of an account search, as they constrain the accounts table.
+     */
+    public enum Filter {
+        STATUS(criteria -> criteria.getStatus() != null),
+        ACCOUNT_TYPE(criteria -> criteria.getAccountType() != null),
+        CURRENCY(criteria -> criteria.getCurrency() != null),
+        BALANCE(AccountSearchCriteria::hasBalanceRange),
+        CREATED(criteria -> criteria.getCreatedFrom() != null || criteria.getCreatedTo() != null);
+        
+        private final Predicate<AccountSearchCriteria> set;
+        
+        Filter(Predicate<AccountSearchCriteria> set) {
+            this.set = set;
+        }
+        
+        public boolean isSet(AccountSearchCriteria criteria) {
+            return set.test(criteria);
+        }
+    }
+    
+    private final String indexName;
+    private final List<Filter> equalityPrefix;
+    private final Set<Filter> otherFilters;
+    private final boolean postgresOnly;
+    
+    AccountSearchIndex(String indexName, List<Filter> equalityPrefix, Set<Filter> otherFilters, boolean postgresOnly) {
+        this.indexName = indexName;
+        this.equalityPrefix = equalityPrefix;
+        this.otherFilters = otherFilters;
+        this.postgresOnly = postgresOnly;
+    }
+    
+    public String getIndexName() {
+        return indexName;
+    }
+    
+    public boolean isPostgresOnly() {
+        return postgresOnly;
+    }
+    
+    /**
+     * Whether the index holds every account the search can match. Only partial indexes restrict this.
+     */
+    boolean covers(AccountSearchCriteria criteria) {
+        return true;
+    }
+    
+    /**
+     * Whether the index serves the search: the filters set on the equality columns form a leading
+     * prefix of them, and every other filter set is one the index tolerates.
+     */
+    public boolean serves(AccountSearchCriteria criteria) {
+        if (!covers(criteria)) {
+            return false;
+        }
+        int prefix = 0;
+        while (prefix < equalityPrefix.size() && equalityPrefix.get(prefix).isSet(criteria)) {
+            prefix++;
+        }
+        List<Filter> seeked = equalityPrefix.subList(0, prefix);
+        return Arrays.stream(Filter.values())
+                .filter(filter -> filter.isSet(criteria))
+                .allMatch(filter -> seeked.contains(filter) || otherFilters.contains(filter));
+    }
+    
+    /**
+     * Returns the indexes that serve the search, among those present on the database in use.
+     */
+    public static List<AccountSearchIndex> serving(AccountSearchCriteria criteria, boolean postgres) {
+        return Arrays.stream(values())
+                .filter(index -> postgres || !index.postgresOnly)
+                .filter(index -> index.serves(criteria))
+                .toList();
+    }
+}
@@ -0,0 +1,65 @@
+package com.santander.challenge.ms_accounts.adapter.output.persistence.repository;
+
+import com.santander.challenge.ms_accounts.adapter.output.persistence.entity.AccountEntity;
+import com.santander.challenge.ms_accounts.domain.model.AccountCursor;
+import com.santander.challenge.ms_accounts.domain.model.AccountSearchCriteria;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Criteria predicates of the account search. Only the filters that are set become predicates,
+ * so each combination yields the plain conjunction its supporting index expects.
+ */
+public final class AccountSpecifications {
+    
+    /**
+     * Keyset order of the search, the same as the one of the per-bank slices.
+     */
+    public static final Sort KEYSET_ORDER = Sort.by("createdAt", "id");
+    
+    private AccountSpecifications() {
+    }
+    
+    /**
+     * Matches the accounts of a bank that pass every filter set in the criteria and come after the cursor.
+     */
+    public static Specification<AccountEntity> search(UUID bankId, AccountSearchCriteria criteria, AccountCursor after) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(cb.equal(root.get("bankId"), bankId));
+            if (criteria.getStatus() != null) {
+                predicates.add(cb.equal(root.get("status"), criteria.getStatus()));
+            }
+            if (criteria.getAccountType() != null) {
+                predicates.add(cb.equal(root.get("accountType"), criteria.getAccountType()));
+            }
+            if (criteria.getCurrency() != null) {
+                predicates.add(cb.equal(root.get("currency"), criteria.getCurrency()));
+            }
+            if (criteria.getMinBalance() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("balance"), criteria.getMinBalance()));
+            }
+            if (criteria.getMaxBalance() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("balance"), criteria.getMaxBalance()));
+            }
+            if (criteria.getCreatedFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("createdAt"), criteria.getCreatedFrom()));
+            }
+            if (criteria.getCreatedTo() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("createdAt"), criteria.getCreatedTo()));
+            }
+            if (after != null) {
+                predicates.add(cb.or(
+                        cb.greaterThan(root.get("createdAt"), after.getCreatedAt()),
+                        cb.and(cb.equal(root.get("createdAt"), after.getCreatedAt()),
+                                cb.greaterThan(root.get("id"), after.getId()))));
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+}
@@ -0,0 +1,50 @@
+package com.santander.challenge.ms_accounts.adapter.output.persistence.repository;
+
+import com.santander.challenge.ms_accounts.adapter.output.persistence.entity.BankAccountCounterEntity;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * JPA repository for BankAccountCounterEntity.
+ */
+@Repository
+public interface BankAccountCounterJpaRepository extends JpaRepository<BankAccountCounterEntity, UUID> {
+    
+    /**
+     * Adds delta to the counter of a bank, creating it when missing, in a single atomic statement.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO bank_account_counters (bank_id, account_count, updated_at) "
+            + "VALUES (:bankId, :delta, now()) "
+            + "ON CONFLICT (bank_id) DO UPDATE SET "
+            + "account_count = bank_account_counters.account_count + EXCLUDED.account_count, "
+            + "updated_at = EXCLUDED.updated_at", nativeQuery = true)
+    void increment(@Param("bankId") UUID bankId, @Param("delta") long delta);
+    
+    /**
+     * Creates a zero counter for a bank unless one already exists.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO bank_account_counters (bank_id, account_count, updated_at) "
+            + "VALUES (:bankId, 0, now()) ON CONFLICT (bank_id) DO NOTHING", nativeQuery = true)
+    void createIfAbsent(@Param("bankId") UUID bankId);
+    
+    /**
+     * Loads a counter holding a row lock, which blocks concurrent increments until the transaction ends.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM BankAccountCounterEntity c WHERE c.bankId = :bankId")
+    Optional<BankAccountCounterEntity> findByIdForUpdate(@Param("bankId") UUID bankId);
+    
+    @Query("SELECT c.bankId FROM BankAccountCounterEntity c")
+    List<UUID> findAllBankIds();
+}
@@ -2,17 +2,48 @@ package com.santander.challenge.ms_accounts.application.mapper;
 
 import com.santander.challenge.ms_accounts.adapter.input.rest.dto.request.CreateAccountRequest;
 import com.santander.challenge.ms_accounts.adapter.input.rest.dto.request.UpdateAccountRequest;
+import com.santander.challenge.ms_accounts.adapter.input.rest.dto.response.AccountBatchItemResponse;
+import com.santander.challenge.ms_accounts.adapter.input.rest.dto.response.AccountBatchResponse;
+import com.santander.challenge.ms_accounts.adapter.input.rest.dto.response.AccountLookupItemResponse;
+import com.santander.challenge.ms_accounts.adapter.input.rest.dto.response.AccountLookupResponse;
 import com.santander.challenge.ms_accounts.adapter.input.rest.dto.response.AccountResponse;
+import com.santander.challenge.ms_accounts.adapter.input.rest.dto.response.AccountSliceResponse;
+import com.santander.challenge.ms_accounts.adapter.input.rest.dto.response.AccountStatementResponse;
+import com.santander.challenge.ms_accounts.adapter.input.rest.dto.response.HistoricalBalanceResponse;
+import com.santander.challenge.ms_accounts.adapter.input.rest.dto.response.StatementEntryResponse;
+import com.santander.challenge.ms_accounts.adapter.input.rest.dto.response.TransferResponse;
+import com.santander.challenge.ms_accounts.adapter.input.rest.exception.ErrorCode;
 import com.santander.challenge.ms_accounts.adapter.output.persistence.entity.AccountEntity;
+import com.santander.challenge.ms_accounts.domain.exception.AccountValidationException;
 import com.santander.challenge.ms_accounts.domain.model.Account;
+import com.santander.challenge.ms_accounts.domain.model.AccountBatchItemResult;
+import com.santander.challenge.ms_accounts.domain.model.AccountCursor;
+import com.santander.challenge.ms_accounts.domain.model.AccountStatement;
+import com.santander.challenge.ms_accounts.domain.model.TransferResult;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Component;
 
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
 /**
  * Mapper that converts between the different Account representations.
  */
 @Component
 public class AccountMapper {
     
+    /**
+     * Header line of the CSV account export, matching the column order of {@link #toCsvRow(AccountResponse)}.
+     */
+    public static final String CSV_HEADER =
+            "id,accountNumber,bankId,accountHolderName,accountType,balance,currency,status,createdAt,updatedAt";
+    
     public AccountResponse toResponse(Account account) {
         if (account == null) {
             return null;
@@ -32,6 +63,177 @@ public class AccountMapper {
         return response;
     }
     
+    public TransferResponse toTransferResponse(TransferResult result) {
+        TransferResponse response = new TransferResponse();
+        response.setSource(toResponse(result.getSource()));
+        response.setTarget(toResponse(result.getTarget()));
+        response.setAmount(result.getAmount());
+        return response;
+    }
+    
+    public HistoricalBalanceResponse toHistoricalBalanceResponse(UUID accountId, LocalDateTime asOf, BigDecimal balance) {
+        HistoricalBalanceResponse response = new HistoricalBalanceResponse();
+        response.setAccountId(accountId);
+        response.setAsOf(asOf);
+        response.setBalance(balance);
+        return response;
+    }
+    
+    public AccountStatementResponse toStatementResponse(AccountStatement statement) {
+        AccountStatementResponse response = new AccountStatementResponse();
+        response.setAccountId(statement.getAccountId());
+        response.setFrom(statement.getFrom());
+        response.setTo(statement.getTo());
+        response.setOpeningBalance(statement.getOpeningBalance());
+        response.setClosingBalance(statement.getClosingBalance());
+        response.setEntries(statement.getEntries().stream()
+                .map(entry -> StatementEntryResponse.builder()
+                        .occurredAt(entry.getOccurredAt())
+                        .type(entry.getType())
+                        .amount(entry.getAmount())
+                        .balanceAfter(entry.getBalanceAfter())
+                        .build())
+                .toList());
+        return response;
+    }
+    
+    /**
+     * Formats an account as an RFC 4180 CSV line, without the line terminator.
+     */
+    public String toCsvRow(AccountResponse response) {
+        return String.join(",",
+                csvField(response.getId()),
+                csvField(response.getAccountNumber()),
+                csvField(response.getBankId()),
+                csvField(response.getAccountHolderName()),
+                csvField(response.getAccountType()),
+                csvField(response.getBalance() == null ? null : response.getBalance().toPlainString()),
+                csvField(response.getCurrency()),
+                csvField(response.getStatus()),
+                csvField(response.getCreatedAt()),
+                csvField(response.getUpdatedAt()));
+    }
+    
+    private static String csvField(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+    
+    public AccountBatchResponse toBatchResponse(List<AccountBatchItemResult> results) {
+        List<AccountBatchItemResponse> items = results.stream()
+                .map(this::toBatchItemResponse)
+                .toList();
+        int created = (int) results.stream().filter(AccountBatchItemResult::isCreated).count();
+        
+        AccountBatchResponse response = new AccountBatchResponse();
+        response.setTotal(results.size());
+        response.setCreated(created);
+        response.setFailed(results.size() - created);
+        response.setItems(items);
+        return response;
+    }
+    
+    /**
+     * Pairs each requested id with the account found for it, keeping the request order.
+     */
+    public AccountLookupResponse toLookupResponse(List<UUID> ids, List<Optional<Account>> accounts) {
+        List<AccountLookupItemResponse> items = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            AccountLookupItemResponse item = new AccountLookupItemResponse();
+            item.setIndex(i);
+            item.setId(ids.get(i));
+            item.setStatus(accounts.get(i).isPresent()
+                    ? AccountLookupItemResponse.Status.FOUND
+                    : AccountLookupItemResponse.Status.NOT_FOUND);
+            item.setAccount(accounts.get(i).map(this::toResponse).orElse(null));
+            items.add(item);
+        }
+        int found = (int) accounts.stream().filter(Optional::isPresent).count();
+        
+        AccountLookupResponse response = new AccountLookupResponse();
+        response.setTotal(ids.size());
+        response.setFound(found);
+        response.setNotFound(ids.size() - found);
+        response.setItems(items);
+        return response;
+    }
+    
+    public AccountBatchItemResponse toBatchItemResponse(AccountBatchItemResult result) {
+        if (result == null) {
+            return null;
+        }
+        
+        AccountBatchItemResponse response = new AccountBatchItemResponse();
+        response.setIndex(result.getIndex());
+        response.setAccountNumber(result.getAccountNumber());
+        if (result.isCreated()) {
+            response.setStatus(AccountBatchItemResponse.Status.CREATED);
+            response.setAccount(toResponse(result.getAccount()));
+        } else {
+            response.setStatus(AccountBatchItemResponse.Status.FAILED);
+            response.setCode(toErrorCode(result.getFailureReason()).getCode());
+            response.setMessage(result.getMessage());
+        }
+        return response;
+    }
+    
+    public AccountSliceResponse toSliceResponse(Slice<Account> slice) {
+        List<AccountResponse> content = slice.getContent().stream()
+                .map(this::toResponse)
+                .toList();
+        
+        AccountSliceResponse response = new AccountSliceResponse();
+        response.setContent(content);
+        response.setSize(content.size());
+        response.setHasNext(slice.hasNext());
+        if (slice.hasNext() && !content.isEmpty()) {
+            response.setNextCursor(toCursorToken(AccountCursor.after(slice.getContent().get(content.size() - 1))));
+        }
+        return response;
+    }
+    
+    /**
+     * Encodes a keyset position as an opaque, URL-safe continuation token.
+     */
+    public String toCursorToken(AccountCursor cursor) {
+        String raw = cursor.getCreatedAt() + "|" + cursor.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * Decodes a continuation token produced by {@link #toCursorToken(AccountCursor)}.
+     * Returns null for a blank token, which denotes the first slice.
+     */
+    public AccountCursor toCursor(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            return new AccountCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    UUID.fromString(raw.substring(separator + 1)));
+        } catch (RuntimeException ex) {
+            throw new AccountValidationException("Invalid pagination cursor");
+        }
+    }
+    
+    private ErrorCode toErrorCode(AccountBatchItemResult.FailureReason failureReason) {
+        return switch (failureReason) {
+            case BANK_NOT_FOUND -> ErrorCode.BANK_NOT_FOUND;
+            case DUPLICATE_ACCOUNT_NUMBER -> ErrorCode.DUPLICATE_ACCOUNT_NUMBER;
+            case VALIDATION_ERROR -> ErrorCode.ACCOUNT_VALIDATION_ERROR;
+        };
+    }
+    
     public Account toDomain(CreateAccountRequest request) {
         if (request == null) {
             return null;
@@ -82,6 +284,21 @@ public class AccountMapper {
         return account;
     }
     
+    /**
+     * Copies the mutable fields of an account onto a managed entity, so that dirty checking
+     * flushes only the columns whose values actually changed. Identity, bank and creation
+     * time are never overwritten.
+     */
+    public void updateEntity(Account account, AccountEntity entity) {
+        entity.setAccountNumber(account.getAccountNumber());
+        entity.setAccountHolderName(account.getAccountHolderName());
+        entity.setAccountType(account.getAccountType());
+        entity.setBalance(account.getBalance());
+        entity.setCurrency(account.getCurrency());
+        entity.setStatus(account.getStatus());
+        entity.setUpdatedAt(account.getUpdatedAt());
+    }
+    
     public AccountEntity toEntity(Account account) {
         if (account == null) {
             return null;
@@ -0,0 +1,48 @@
+package com.santander.challenge.ms_accounts.application.service;
+
+import com.santander.challenge.ms_accounts.domain.port.output.BankAccountCounterPort;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+
+/**
+ * Periodically recomputes the per-bank account counters from the accounts table, correcting
+ * any drift left by writes that bypassed the service (manual fixes, data loads).
+ */
+@Service
+public class AccountCounterReconciliationService {
+    
+    private static final Logger log = LoggerFactory.getLogger(AccountCounterReconciliationService.class);
+    
+    private final BankAccountCounterPort bankAccountCounter;
+    
+    public AccountCounterReconciliationService(BankAccountCounterPort bankAccountCounter) {
+        this.bankAccountCounter = bankAccountCounter;
+    }
+    
+    /**
+     * Reconciles every bank, one short transaction per bank.
+     *
+     * @return number of counters that had to be corrected
+     */
+    @Scheduled(fixedDelayString = "${accounts.counters.reconcile-interval:PT15M}",
+            initialDelayString = "${accounts.counters.reconcile-initial-delay:PT1M}")
+    public int reconcileAll() {
+        int corrected = 0;
+        for (UUID bankId : bankAccountCounter.findBankIds()) {
+            try {
+                long drift = bankAccountCounter.reconcile(bankId);
+                if (drift != 0) {
+                    corrected++;
+                    log.warn("Account counter for bank {} drifted by {}; corrected", bankId, drift);
+                }
+            } catch (RuntimeException ex) {
+                log.error("Could not reconcile account counter for bank {}: {}", bankId, ex.getMessage());
+            }
+        }
+        return corrected;
+    }
+}
@@ -0,0 +1,64 @@
+package com.santander.challenge.ms_accounts.application.service;
+
+import com.santander.challenge.ms_accounts.domain.port.output.AccountJournalPort;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Scheduled upkeep of the balance journal: periodic balance snapshots, so that historical
+ * balance and statement queries only replay the journal tail since the latest snapshot, and
+ * creation of journal partitions ahead of the entries that will land in them.
+ */
+@Service
+public class AccountJournalMaintenanceService {
+    
+    private static final Logger log = LoggerFactory.getLogger(AccountJournalMaintenanceService.class);
+    
+    private final AccountJournalPort accountJournal;
+    private final Duration snapshotLag;
+    private final int partitionMonthsAhead;
+    
+    public AccountJournalMaintenanceService(AccountJournalPort accountJournal,
+                                            @Value("${accounts.journal.snapshot-lag:PT5M}") Duration snapshotLag,
+                                            @Value("${accounts.journal.partition-months-ahead:3}") int partitionMonthsAhead) {
+        this.accountJournal = accountJournal;
+        this.snapshotLag = snapshotLag;
+        this.partitionMonthsAhead = partitionMonthsAhead;
+    }
+    
+    /**
+     * Snapshots every account with movements since the previous run. The cutoff trails the
+     * clock by the snapshot lag, so transactions still in flight cannot add entries before it.
+     *
+     * @return number of snapshots taken
+     */
+    @Scheduled(fixedDelayString = "${accounts.journal.snapshot-interval:PT15M}",
+            initialDelayString = "${accounts.journal.snapshot-initial-delay:PT1M}")
+    public int takeSnapshots() {
+        try {
+            return accountJournal.takeSnapshots(LocalDateTime.now().minus(snapshotLag));
+        } catch (RuntimeException ex) {
+            log.error("Could not take account balance snapshots: {}", ex.getMessage());
+            return 0;
+        }
+    }
+    
+    /**
+     * Makes sure the journal can hold the entries of the coming months.
+     */
+    @Scheduled(fixedDelayString = "${accounts.journal.partition-check-interval:PT6H}",
+            initialDelayString = "${accounts.journal.snapshot-initial-delay:PT1M}")
+    public void preparePartitions() {
+        try {
+            accountJournal.prepareStorage(LocalDateTime.now().plusMonths(partitionMonthsAhead));
+        } catch (RuntimeException ex) {
+            log.error("Could not create account journal partitions: {}", ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.santander.challenge.ms_accounts.application.service;
+
+import com.santander.challenge.ms_accounts.domain.port.output.AccountNumberSequencePort;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates account numbers from blocks of sequence values reserved in the database. Each bank
+ * allocates from a block of its own, so banks never contend with each other, and within a bank
+ * a value is handed out with a single atomic increment; the database is only reached once per
+ * block. Values are unique across banks and instances because every block is.
+ * <p>
+ * An account number is the value left-padded to 19 digits followed by a Luhn check digit, which
+ * fills the 20 characters of the account_number column.
+ */
+@Component
+public class AccountNumberAllocator {
+    
+    static final int ACCOUNT_NUMBER_LENGTH = 20;
+    
+    private static final int VALUE_DIGITS = ACCOUNT_NUMBER_LENGTH - 1;
+    
+    private final AccountNumberSequencePort sequence;
+    private final ConcurrentMap<UUID, BankAllocator> allocators = new ConcurrentHashMap<>();
+    
+    public AccountNumberAllocator(AccountNumberSequencePort sequence) {
+        this.sequence = sequence;
+    }
+    
+    /**
+     * Returns a new account number for an account of the given bank.
+     *
+     * @param bankId bank the account will belong to
+     * @return account number no other call has returned
+     */
+    public String next(UUID bankId) {
+        BankAllocator allocator = allocators.get(bankId);
+        if (allocator == null) {
+            allocator = allocators.computeIfAbsent(bankId, id -> new BankAllocator());
+        }
+        return format(allocator.nextValue());
+    }
+    
+    /**
+     * Formats a sequence value as a 19-digit number followed by its Luhn check digit.
+     */
+    static String format(long value) {
+        char[] digits = new char[ACCOUNT_NUMBER_LENGTH];
+        long remaining = value;
+        int sum = 0;
+        for (int i = VALUE_DIGITS - 1; i >= 0; i--) {
+            int digit = (int) (remaining % 10);
+            remaining /= 10;
+            digits[i] = (char) ('0' + digit);
+            // Every other digit is doubled, starting with the one next to the check digit
+            if ((VALUE_DIGITS - 1 - i) % 2 == 0) {
+                digit = digit * 2 > 9 ? digit * 2 - 9 : digit * 2;
+            }
+            sum += digit;
+        }
+        digits[VALUE_DIGITS] = (char) ('0' + (10 - sum % 10) % 10);
+        return new String(digits);
+    }
+    
+    /**
+     * Allocator of the values of one bank. The current block is replaced by the first thread
+     * that finds it exhausted; threads arriving meanwhile wait for the new block.
+     */
+    private final class BankAllocator {
+        
+        private volatile Block current = new Block(0, 0);
+        
+        long nextValue() {
+            while (true) {
+                Block block = current;
+                long value = block.next.getAndIncrement();
+                if (value < block.end) {
+                    return value;
+                }
+                refill(block);
+            }
+        }
+        
+        private synchronized void refill(Block exhausted) {
+            if (current == exhausted) {
+                long first = sequence.reserveBlock();
+                current = new Block(first, first + sequence.blockSize());
+            }
+        }
+    }
+    
+    /**
+     * Range [next, end) of values still available in a reserved block.
+     */
+    private static final class Block {
+        
+        private final AtomicLong next;
+        private final long end;
+        
+        Block(long first, long end) {
+            this.next = new AtomicLong(first);
+            this.end = end;
+        }
+    }
+}
@@ -1,56 +1,118 @@
 package com.santander.challenge.ms_accounts.application.service;
 
+import com.santander.challenge.ms_accounts.domain.exception.AccountNotActiveException;
 import com.santander.challenge.ms_accounts.domain.exception.AccountNotFoundException;
+import com.santander.challenge.ms_accounts.domain.exception.AccountSearchNotIndexedException;
+import com.santander.challenge.ms_accounts.domain.exception.AccountValidationException;
 import com.santander.challenge.ms_accounts.domain.exception.BankNotFoundException;
 import com.santander.challenge.ms_accounts.domain.exception.DuplicateAccountException;
+import com.santander.challenge.ms_accounts.domain.exception.InsufficientFundsException;
 import com.santander.challenge.ms_accounts.domain.exception.UnauthorizedAccessException;
 import com.santander.challenge.ms_accounts.domain.model.Account;
+import com.santander.challenge.ms_accounts.domain.model.AccountBatchItemResult;
+import com.santander.challenge.ms_accounts.domain.model.AccountCursor;
+import com.santander.challenge.ms_accounts.domain.model.AccountSearchCriteria;
+import com.santander.challenge.ms_accounts.domain.model.AccountStatement;
+import com.santander.challenge.ms_accounts.domain.model.BalanceChange;
+import com.santander.challenge.ms_accounts.domain.model.JournalEntry;
+import com.santander.challenge.ms_accounts.domain.model.TransferResult;
 import com.santander.challenge.ms_accounts.domain.port.input.AccountServicePort;
+import com.santander.challenge.ms_accounts.domain.port.output.AccountJournalPort;
 import com.santander.challenge.ms_accounts.domain.port.output.AccountRepositoryPort;
+import com.santander.challenge.ms_accounts.domain.port.output.BankAccountCounterPort;
 import com.santander.challenge.ms_accounts.domain.port.output.BankValidationPort;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Service that implements the Account use cases and enforces business logic plus isolation rules.
+ * Calls to ms-banks are made before any transaction starts, so no database connection is held
+ * while waiting on the network; only the local reads and writes that follow are transactional.
  */
 @Service
-@Transactional
 public class AccountService implements AccountServicePort {
     
+    /**
+     * Attempts to store an account under a generated number. A generated number can only be
+     * taken by an account whose client chose that same number.
+     */
+    private static final int MAX_GENERATED_NUMBER_ATTEMPTS = 3;
+    
     private final AccountRepositoryPort accountRepository;
     private final BankValidationPort bankValidationPort;
+    private final BankAccountCounterPort bankAccountCounter;
+    private final AccountJournalPort accountJournal;
+    private final BalanceWriteCoalescer balanceWriteCoalescer;
+    private final AccountNumberAllocator accountNumberAllocator;
+    private final TransactionTemplate transactionTemplate;
     
     public AccountService(AccountRepositoryPort accountRepository, 
-                          BankValidationPort bankValidationPort) {
+                          BankValidationPort bankValidationPort,
+                          BankAccountCounterPort bankAccountCounter,
+                          AccountJournalPort accountJournal,
+                          BalanceWriteCoalescer balanceWriteCoalescer,
+                          AccountNumberAllocator accountNumberAllocator,
+                          PlatformTransactionManager transactionManager) {
         this.accountRepository = accountRepository;
         this.bankValidationPort = bankValidationPort;
+        this.bankAccountCounter = bankAccountCounter;
+        this.accountJournal = accountJournal;
+        this.balanceWriteCoalescer = balanceWriteCoalescer;
+        this.accountNumberAllocator = accountNumberAllocator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
     
     @Override
     public Account createAccount(Account account) {
-        // Validate the bank exists
+        // Validate initial balance >= 0
+        if (account.getBalance() == null || account.getBalance().compareTo(BigDecimal.ZERO) < 0) {
+            throw new AccountValidationException("Initial balance must be >= 0");
+        }
+        
+        // Validate the bank exists (remote call, outside any transaction)
         if (!bankValidationPort.existsById(account.getBankId())) {
             throw new BankNotFoundException(account.getBankId());
         }
         
-        // Ensure the account number is unique
-        if (accountRepository.existsByAccountNumber(account.getAccountNumber())) {
-            throw new DuplicateAccountException(account.getAccountNumber());
+        boolean generatedNumber = account.getAccountNumber() == null;
+        if (generatedNumber) {
+            account.setAccountNumber(accountNumberAllocator.next(account.getBankId()));
         }
         
-        // Validate initial balance >= 0
-        if (account.getBalance() == null || account.getBalance().compareTo(BigDecimal.ZERO) < 0) {
-            throw new com.santander.challenge.ms_accounts.domain.exception.AccountValidationException(
-                    "Initial balance must be >= 0");
+        // The unique constraint on the account number rejects duplicates on insert
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> insertAccount(account));
+            } catch (DuplicateAccountException ex) {
+                if (!generatedNumber || attempt == MAX_GENERATED_NUMBER_ATTEMPTS) {
+                    throw ex;
+                }
+                account.setAccountNumber(accountNumberAllocator.next(account.getBankId()));
+            }
         }
-        
+    }
+    
+    private Account insertAccount(Account account) {
         // Assign timestamps
         LocalDateTime now = LocalDateTime.now();
         account.setCreatedAt(now);
@@ -61,12 +123,83 @@ public class AccountService implements AccountServicePort {
             account.setStatus(Account.AccountStatus.ACTIVE);
         }
         
-        return accountRepository.save(account);
+        Account savedAccount = accountRepository.save(account);
+        bankAccountCounter.increment(savedAccount.getBankId(), 1);
+        accountJournal.append(List.of(JournalEntry.of(savedAccount, JournalEntry.EntryType.OPENING,
+                savedAccount.getBalance(), now)));
+        return savedAccount;
+    }
+    
+    @Override
+    public List<AccountBatchItemResult> createAccounts(List<Account> accounts) {
+        // Resolve banks with one set-based remote lookup, outside any transaction
+        Set<UUID> existingBankIds = bankValidationPort.existingIds(accounts.stream()
+                .map(Account::getBankId)
+                .collect(Collectors.toSet()));
+        
+        return transactionTemplate.execute(status -> createValidAccounts(accounts, existingBankIds));
+    }
+    
+    private List<AccountBatchItemResult> createValidAccounts(List<Account> accounts, Set<UUID> existingBankIds) {
+        // Resolve existing account numbers with one set-based lookup; generated numbers need none
+        Set<String> takenAccountNumbers = new HashSet<>(accountRepository.findExistingAccountNumbers(accounts.stream()
+                .map(Account::getAccountNumber)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet())));
+        
+        AccountBatchItemResult[] results = new AccountBatchItemResult[accounts.size()];
+        List<Integer> validIndexes = new ArrayList<>();
+        List<Account> validAccounts = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        
+        for (int i = 0; i < accounts.size(); i++) {
+            Account account = accounts.get(i);
+            if (!existingBankIds.contains(account.getBankId())) {
+                results[i] = AccountBatchItemResult.failed(i, account.getAccountNumber(),
+                        AccountBatchItemResult.FailureReason.BANK_NOT_FOUND,
+                        "Bank with id " + account.getBankId() + " not found");
+            } else if (account.getBalance() == null || account.getBalance().compareTo(BigDecimal.ZERO) < 0) {
+                results[i] = AccountBatchItemResult.failed(i, account.getAccountNumber(),
+                        AccountBatchItemResult.FailureReason.VALIDATION_ERROR,
+                        "Initial balance must be >= 0");
+            } else if (account.getAccountNumber() != null && !takenAccountNumbers.add(account.getAccountNumber())) {
+                // Already stored or used by an earlier item of the same batch
+                results[i] = AccountBatchItemResult.failed(i, account.getAccountNumber(),
+                        AccountBatchItemResult.FailureReason.DUPLICATE_ACCOUNT_NUMBER,
+                        "Account with number " + account.getAccountNumber() + " already exists");
+            } else {
+                if (account.getAccountNumber() == null) {
+                    account.setAccountNumber(accountNumberAllocator.next(account.getBankId()));
+                }
+                account.setCreatedAt(now);
+                account.setUpdatedAt(now);
+                if (account.getStatus() == null) {
+                    account.setStatus(Account.AccountStatus.ACTIVE);
+                }
+                validIndexes.add(i);
+                validAccounts.add(account);
+            }
+        }
+        
+        List<Account> savedAccounts = accountRepository.saveAll(validAccounts);
+        // One counter update per bank, in a fixed order so concurrent batches cannot deadlock
+        Map<UUID, Long> createdPerBank = new TreeMap<>();
+        for (int i = 0; i < savedAccounts.size(); i++) {
+            int index = validIndexes.get(i);
+            results[index] = AccountBatchItemResult.created(index, savedAccounts.get(i));
+            createdPerBank.merge(savedAccounts.get(i).getBankId(), 1L, Long::sum);
+        }
+        createdPerBank.forEach(bankAccountCounter::increment);
+        accountJournal.append(savedAccounts.stream()
+                .map(saved -> JournalEntry.of(saved, JournalEntry.EntryType.OPENING, saved.getBalance(), now))
+                .toList());
+        
+        return List.of(results);
     }
     
     @Override
-    @Transactional(readOnly = true)
     public Account getAccountById(UUID id, UUID bankId) {
+        // Not transactional: accounts held in memory are served without taking a connection
         Account account = accountRepository.findById(id)
                 .orElseThrow(() -> new AccountNotFoundException(id));
         
@@ -79,6 +212,31 @@ public class AccountService implements AccountServicePort {
         return account;
     }
     
+    @Override
+    public Account getAccountByNumber(String accountNumber, UUID bankId) {
+        // Not transactional: numbers and accounts held in memory are served without taking a connection
+        Account account = accountRepository.findByAccountNumber(accountNumber)
+                .orElseThrow(() -> new AccountNotFoundException("Account with number " + accountNumber + " not found"));
+        
+        if (!account.getBankId().equals(bankId)) {
+            throw new UnauthorizedAccessException(
+                    "Account with number " + accountNumber + " does not belong to bank " + bankId);
+        }
+        
+        return account;
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public List<Optional<Account>> getAccountsByIds(List<UUID> ids, UUID bankId) {
+        // Isolation guarantee: the query only matches accounts of the specified bankId
+        Map<UUID, Account> found = accountRepository.findByIdsAndBankId(ids, bankId).stream()
+                .collect(Collectors.toMap(Account::getId, Function.identity()));
+        return ids.stream()
+                .map(id -> Optional.ofNullable(found.get(id)))
+                .toList();
+    }
+    
     @Override
     @Transactional(readOnly = true)
     public Page<Account> getAccountsByBankId(UUID bankId, Pageable pageable) {
@@ -87,9 +245,56 @@ public class AccountService implements AccountServicePort {
     }
     
     @Override
+    @Transactional(readOnly = true)
+    public Slice<Account> getAccountsByBankIdAfter(UUID bankId, AccountCursor cursor, int size) {
+        if (size < 1 || size > MAX_SLICE_SIZE) {
+            throw new AccountValidationException("Slice size must be between 1 and " + MAX_SLICE_SIZE);
+        }
+        
+        // Isolation guarantee: only returns accounts for the specified bankId
+        return accountRepository.findByBankIdAfter(bankId, cursor, size);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<Account> searchAccounts(UUID bankId, AccountSearchCriteria criteria, AccountCursor cursor, int size) {
+        if (size < 1 || size > MAX_SLICE_SIZE) {
+            throw new AccountValidationException("Slice size must be between 1 and " + MAX_SLICE_SIZE);
+        }
+        if (criteria.getMinBalance() != null && criteria.getMaxBalance() != null
+                && criteria.getMinBalance().compareTo(criteria.getMaxBalance()) > 0) {
+            throw new AccountValidationException("Minimum balance must not exceed the maximum balance");
+        }
+        if (criteria.getCreatedFrom() != null && criteria.getCreatedTo() != null
+                && criteria.getCreatedFrom().isAfter(criteria.getCreatedTo())) {
+            throw new AccountValidationException("Creation range start must not be after its end");
+        }
+        
+        // Unindexed filters read every account of the bank, which only small banks can afford
+        if (!accountRepository.isIndexedSearch(criteria)
+                && bankAccountCounter.count(bankId) > MAX_UNINDEXED_SEARCH_ACCOUNTS) {
+            throw new AccountSearchNotIndexedException("Bank " + bankId + " has more than "
+                    + MAX_UNINDEXED_SEARCH_ACCOUNTS + " accounts; filter by status, then account type and "
+                    + "currency, or by balance or creation date alone");
+        }
+        
+        // Isolation guarantee: only returns accounts for the specified bankId
+        return accountRepository.search(bankId, criteria, cursor, size);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public void exportAccountsByBankId(UUID bankId, Consumer<Account> action) {
+        // Isolation guarantee: only visits accounts for the specified bankId
+        accountRepository.forEachByBankId(bankId, action);
+    }
+    
+    @Override
+    @Transactional
     public Account updateAccount(UUID id, UUID bankId, Account account) {
-        // Ensure the account exists and belongs to the bank
-        Account existingAccount = getAccountById(id, bankId);
+        // Ensure the account exists and belongs to the bank, and hold its row until commit so that no
+        // concurrent deposit or withdrawal lands between reading the balance and overwriting it
+        Account existingAccount = lockAccount(id, bankId);
         
         // Ensure the account number remains unique when changed
         if (!existingAccount.getAccountNumber().equals(account.getAccountNumber())) {
@@ -99,29 +304,196 @@ public class AccountService implements AccountServicePort {
             existingAccount.setAccountNumber(account.getAccountNumber());
         }
         
+        // A balance overwrite is journaled as an adjustment by the difference
+        LocalDateTime now = LocalDateTime.now();
+        BigDecimal adjustment = account.getBalance().subtract(existingAccount.getBalance());
+        if (adjustment.signum() != 0) {
+            accountJournal.append(List.of(JournalEntry.of(existingAccount, JournalEntry.EntryType.ADJUSTMENT,
+                    adjustment, now)));
+        }
+        
         // Update mutable fields (bankId cannot change)
         existingAccount.setAccountHolderName(account.getAccountHolderName());
         existingAccount.setAccountType(account.getAccountType());
         existingAccount.setBalance(account.getBalance());
         existingAccount.setCurrency(account.getCurrency());
         existingAccount.setStatus(account.getStatus());
-        existingAccount.setUpdatedAt(LocalDateTime.now());
+        existingAccount.setUpdatedAt(now);
         
-        return accountRepository.save(existingAccount);
+        return accountRepository.update(existingAccount);
     }
     
     @Override
+    public Account deposit(UUID id, UUID bankId, BigDecimal amount) {
+        return applyBalanceChange(id, bankId, requirePositive(amount));
+    }
+    
+    @Override
+    public Account withdraw(UUID id, UUID bankId, BigDecimal amount) {
+        return applyBalanceChange(id, bankId, requirePositive(amount).negate());
+    }
+    
+    private Account applyBalanceChange(UUID id, UUID bankId, BigDecimal delta) {
+        // Committed together with other concurrent changes, without holding a transaction here
+        // The account comes back as it was right after this change, even if later changes were committed since
+        Optional<Account> changed = balanceWriteCoalescer.apply(new BalanceChange(id, bankId, delta));
+        if (changed.isPresent()) {
+            return changed.get();
+        }
+        
+        // The guarded update matched no row, find out which condition failed; isolation validation
+        // also tells a missing account apart from a foreign one
+        Account account = getAccountById(id, bankId);
+        if (account.getStatus() != Account.AccountStatus.ACTIVE) {
+            throw new AccountNotActiveException(id);
+        }
+        throw new InsufficientFundsException(id);
+    }
+    
+    @Override
+    @Transactional
+    public Account setBalanceStripes(UUID id, UUID bankId, int stripes) {
+        if (stripes < 0 || stripes > MAX_BALANCE_STRIPES) {
+            throw new AccountValidationException("Balance stripes must be between 0 and " + MAX_BALANCE_STRIPES);
+        }
+        
+        // Ensure the account exists and belongs to the bank
+        getAccountById(id, bankId);
+        return accountRepository.setBalanceStripes(id, stripes);
+    }
+    
+    @Override
+    @Transactional
+    public TransferResult transfer(UUID sourceAccountId, UUID sourceBankId,
+                                   UUID targetAccountId, UUID targetBankId, BigDecimal amount) {
+        requirePositive(amount);
+        if (sourceAccountId.equals(targetAccountId)) {
+            throw new AccountValidationException("Source and target accounts must be different");
+        }
+        
+        // Lock both rows in a canonical id order, so opposite transfers between the same accounts cannot deadlock
+        boolean sourceFirst = sourceAccountId.compareTo(targetAccountId) < 0;
+        Account first = lockAccount(sourceFirst ? sourceAccountId : targetAccountId,
+                sourceFirst ? sourceBankId : targetBankId);
+        Account second = lockAccount(sourceFirst ? targetAccountId : sourceAccountId,
+                sourceFirst ? targetBankId : sourceBankId);
+        Account source = sourceFirst ? first : second;
+        Account target = sourceFirst ? second : first;
+        
+        if (source.getStatus() != Account.AccountStatus.ACTIVE) {
+            throw new AccountNotActiveException(source.getId());
+        }
+        if (target.getStatus() != Account.AccountStatus.ACTIVE) {
+            throw new AccountNotActiveException(target.getId());
+        }
+        if (!source.getCurrency().equals(target.getCurrency())) {
+            throw new AccountValidationException(
+                    "Transfers between " + source.getCurrency() + " and " + target.getCurrency() + " accounts are not supported");
+        }
+        if (source.getBalance().compareTo(amount) < 0) {
+            throw new InsufficientFundsException(source.getId());
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
+        source.setBalance(source.getBalance().subtract(amount));
+        source.setUpdatedAt(now);
+        target.setBalance(target.getBalance().add(amount));
+        target.setUpdatedAt(now);
+        accountJournal.append(List.of(
+                JournalEntry.of(source, JournalEntry.EntryType.TRANSFER_OUT, amount.negate(), now),
+                JournalEntry.of(target, JournalEntry.EntryType.TRANSFER_IN, amount, now)));
+        
+        return TransferResult.builder()
+                .source(accountRepository.update(source))
+                .target(accountRepository.update(target))
+                .amount(amount)
+                .build();
+    }
+    
+    private Account lockAccount(UUID id, UUID bankId) {
+        Account account = accountRepository.findByIdForUpdate(id)
+                .orElseThrow(() -> new AccountNotFoundException(id));
+        
+        // Isolation validation: the account must belong to the provided bank
+        if (!account.getBankId().equals(bankId)) {
+            throw new UnauthorizedAccessException(
+                    "Account with id " + id + " does not belong to bank " + bankId);
+        }
+        
+        return account;
+    }
+    
+    private static BigDecimal requirePositive(BigDecimal amount) {
+        if (amount == null || amount.signum() <= 0) {
+            throw new AccountValidationException("Amount must be > 0");
+        }
+        return amount;
+    }
+    
+    @Override
+    @Transactional
     public void deleteAccount(UUID id, UUID bankId) {
+        // Tenant-scoped delete: removes the account only if it belongs to the bank
+        if (!accountRepository.deleteByIdAndBankId(id, bankId)) {
+            // Nothing was deleted, tell a missing account apart from one owned by another bank
+            if (accountRepository.existsById(id)) {
+                throw new UnauthorizedAccessException(
+                        "Account with id " + id + " does not belong to bank " + bankId);
+            }
+            throw new AccountNotFoundException(id);
+        }
+        
+        bankAccountCounter.increment(bankId, -1);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public BigDecimal getBalanceAsOf(UUID id, UUID bankId, LocalDateTime asOf) {
+        // Ensure the account exists and belongs to the bank
+        getAccountById(id, bankId);
+        return accountJournal.balanceAsOf(id, asOf);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public AccountStatement getStatement(UUID id, UUID bankId, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new AccountValidationException("Statement start must be before its end");
+        }
+        
         // Ensure the account exists and belongs to the bank
         getAccountById(id, bankId);
         
-        accountRepository.deleteById(id);
+        List<JournalEntry> entries = accountJournal.findEntries(id, from, to, MAX_STATEMENT_ENTRIES + 1);
+        if (entries.size() > MAX_STATEMENT_ENTRIES) {
+            throw new AccountValidationException(
+                    "Statement period holds more than " + MAX_STATEMENT_ENTRIES + " entries, use a shorter period");
+        }
+        
+        // Replay the period on top of the opening balance
+        BigDecimal openingBalance = accountJournal.balanceAsOf(id, from);
+        BigDecimal balance = openingBalance;
+        List<JournalEntry> replayed = new ArrayList<>(entries.size());
+        for (JournalEntry entry : entries) {
+            balance = balance.add(entry.getAmount());
+            replayed.add(entry.withBalanceAfter(balance));
+        }
+        
+        return AccountStatement.builder()
+                .accountId(id)
+                .from(from)
+                .to(to)
+                .openingBalance(openingBalance)
+                .closingBalance(balance)
+                .entries(replayed)
+                .build();
     }
     
     @Override
     @Transactional(readOnly = true)
     public Long countByBankId(UUID bankId) {
-        return accountRepository.countByBankId(bankId);
+        // Served from the materialized counter, a primary-key lookup regardless of bank size
+        return bankAccountCounter.count(bankId);
     }
     
     @Override
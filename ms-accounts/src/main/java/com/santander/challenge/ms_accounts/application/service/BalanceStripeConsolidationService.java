@@ -0,0 +1,48 @@
+package com.santander.challenge.ms_accounts.application.service;
+
+import com.santander.challenge.ms_accounts.domain.port.output.AccountRepositoryPort;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Periodically moves the stripes of hot accounts into their balance rows, so that the funds
+ * credited to stripes become available to debits without consolidating on the debit path.
+ */
+@Service
+public class BalanceStripeConsolidationService {
+    
+    private static final Logger log = LoggerFactory.getLogger(BalanceStripeConsolidationService.class);
+    
+    private final AccountRepositoryPort accountRepository;
+    
+    public BalanceStripeConsolidationService(AccountRepositoryPort accountRepository) {
+        this.accountRepository = accountRepository;
+    }
+    
+    /**
+     * Consolidates every striped account, one short transaction per account.
+     *
+     * @return number of accounts that had funds in their stripes
+     */
+    @Scheduled(fixedDelayString = "${accounts.balance-stripes.consolidate-interval:PT1M}",
+            initialDelayString = "${accounts.balance-stripes.consolidate-initial-delay:PT1M}")
+    public int consolidateAll() {
+        int consolidated = 0;
+        for (UUID accountId : accountRepository.findStripedAccountIds()) {
+            try {
+                BigDecimal moved = accountRepository.consolidateBalance(accountId);
+                if (moved.signum() != 0) {
+                    consolidated++;
+                }
+            } catch (RuntimeException ex) {
+                log.error("Could not consolidate balance stripes of account {}: {}", accountId, ex.getMessage());
+            }
+        }
+        return consolidated;
+    }
+}
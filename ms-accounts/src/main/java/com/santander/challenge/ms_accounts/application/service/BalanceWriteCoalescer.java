@@ -0,0 +1,374 @@
+package com.santander.challenge.ms_accounts.application.service;
+
+import com.santander.challenge.ms_accounts.domain.exception.BalanceWriteTimeoutException;
+import com.santander.challenge.ms_accounts.domain.model.Account;
+import com.santander.challenge.ms_accounts.domain.model.BalanceChange;
+import com.santander.challenge.ms_accounts.domain.model.JournalEntry;
+import com.santander.challenge.ms_accounts.domain.port.output.AccountJournalPort;
+import com.santander.challenge.ms_accounts.domain.port.output.AccountRepositoryPort;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Group-commit stage for balance changes. Callers enqueue their change on a bounded lock-free
+ * queue and wait; a single writer thread drains the queue when the oldest change has waited
+ * max-delay or max-batch-size changes are pending, applies the whole batch in one transaction
+ * with batched statements, journaling the applied changes in the same transaction, and
+ * completes each caller individually.
+ * When the queue is full the change is applied directly in its own transaction.
+ * <p>
+ * A batch that fails is retried one change at a time, so a single bad change only fails its own
+ * caller. Callers wait at most max-delay plus two transaction timeouts: one for the batch and one
+ * for their own retry. A change the writer has not picked up by then is dropped, and the caller
+ * is told it was not applied. A writer thread that died is replaced by the next caller.
+ */
+@Component
+public class BalanceWriteCoalescer implements SmartLifecycle {
+    
+    static final String METRIC_PREFIX = "accounts.balance.coalescer";
+    
+    private static final Logger log = LoggerFactory.getLogger(BalanceWriteCoalescer.class);
+    
+    private final AccountRepositoryPort accountRepository;
+    private final AccountJournalPort accountJournal;
+    private final TransactionTemplate transactionTemplate;
+    private final long maxDelayNanos;
+    private final long transactionTimeoutNanos;
+    private final int maxBatchSize;
+    private final int queueCapacity;
+    
+    private final Queue<PendingChange> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    
+    private final Timer waitTimer;
+    private final Timer flushTimer;
+    private final DistributionSummary batchSizes;
+    private final Counter overflows;
+    private final Counter retries;
+    private final Counter timeouts;
+    private final Counter writerRestarts;
+    
+    private volatile Thread writer;
+    private volatile boolean running;
+    
+    public BalanceWriteCoalescer(AccountRepositoryPort accountRepository,
+                                 AccountJournalPort accountJournal,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${accounts.balance-coalescer.max-delay:PT0.005S}") Duration maxDelay,
+                                 @Value("${accounts.balance-coalescer.max-batch-size:256}") int maxBatchSize,
+                                 @Value("${accounts.balance-coalescer.queue-capacity:10000}") int queueCapacity,
+                                 @Value("${accounts.balance-coalescer.transaction-timeout:PT5S}") Duration transactionTimeout) {
+        this.accountRepository = accountRepository;
+        this.accountJournal = accountJournal;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setTimeout((int) Math.max(1, transactionTimeout.toSeconds()));
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.transactionTimeoutNanos = transactionTimeout.toNanos();
+        this.maxBatchSize = maxBatchSize;
+        this.queueCapacity = queueCapacity;
+        
+        Gauge.builder(METRIC_PREFIX + ".max.delay", maxDelay, d -> d.toNanos() / 1e9)
+                .baseUnit("seconds")
+                .description("Longest time a change waits before its batch is written")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".max.batch.size", () -> maxBatchSize)
+                .description("Largest number of changes written in one transaction")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".queue.size", pending, AtomicInteger::get)
+                .description("Changes waiting to be written")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder(METRIC_PREFIX + ".wait")
+                .description("Time from enqueueing a change to its batch being committed")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder(METRIC_PREFIX + ".flush")
+                .description("Time to write and commit one batch")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder(METRIC_PREFIX + ".batch.size")
+                .description("Number of changes written per transaction")
+                .register(meterRegistry);
+        this.overflows = Counter.builder(METRIC_PREFIX + ".overflow")
+                .description("Changes applied directly because the queue was full")
+                .register(meterRegistry);
+        this.retries = Counter.builder(METRIC_PREFIX + ".retries")
+                .description("Failed batches retried one change at a time")
+                .register(meterRegistry);
+        this.timeouts = Counter.builder(METRIC_PREFIX + ".timeouts")
+                .description("Changes whose callers stopped waiting for the writer")
+                .register(meterRegistry);
+        this.writerRestarts = Counter.builder(METRIC_PREFIX + ".writer.restarts")
+                .description("Writer threads replaced after dying")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Applies a balance change and waits until it is committed.
+     *
+     * @return the account right after this change, or empty when the change was not applied
+     *         because the account is missing, foreign, inactive or lacks funds
+     * @throws BalanceWriteTimeoutException when the change is not committed in time
+     */
+    public Optional<Account> apply(BalanceChange change) {
+        if (!running) {
+            return applyDirectly(change);
+        }
+        if (pending.incrementAndGet() > queueCapacity) {
+            pending.decrementAndGet();
+            overflows.increment();
+            return applyDirectly(change);
+        }
+        ensureWriter();
+        
+        PendingChange pendingChange = new PendingChange(change, System.nanoTime(), new CompletableFuture<>(),
+                new AtomicInteger(PendingChange.QUEUED));
+        queue.offer(pendingChange);
+        int size = pending.get();
+        if (size == 1 || size >= maxBatchSize) {
+            // Start the latency budget of a new batch, or flush a full one early
+            LockSupport.unpark(writer);
+        }
+        if (!running) {
+            // Shutting down: the writer may already be gone, so flush what is left on this thread
+            flushRemaining();
+        }
+        
+        return await(pendingChange);
+    }
+    
+    private Optional<Account> await(PendingChange pendingChange) {
+        try {
+            try {
+                return pendingChange.result().get(maxDelayNanos + 2 * transactionTimeoutNanos, TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                if (pendingChange.abandon()) {
+                    throw timedOut("Balance change was not applied in time and can be retried");
+                }
+                // Being written right now, within a transaction bounded by the transaction timeout
+                return pendingChange.result().get(transactionTimeoutNanos, TimeUnit.NANOSECONDS);
+            }
+        } catch (TimeoutException e) {
+            throw timedOut(pendingChange.abandon()
+                    ? "Balance change was not applied in time and can be retried"
+                    : "Balance change did not complete in time; check the balance before retrying");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw timedOut(pendingChange.abandon()
+                    ? "Balance change was interrupted before being applied"
+                    : "Balance change was interrupted while being written; check the balance before retrying");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Balance change failed", e.getCause());
+        }
+    }
+    
+    private BalanceWriteTimeoutException timedOut(String message) {
+        timeouts.increment();
+        return new BalanceWriteTimeoutException(message);
+    }
+    
+    private Optional<Account> applyDirectly(BalanceChange change) {
+        return transactionTemplate.execute(status -> applyAndRecord(List.of(change)).get(0));
+    }
+    
+    /**
+     * Applies the changes and journals the applied ones. Must be called within a transaction.
+     */
+    private List<Optional<Account>> applyAndRecord(List<BalanceChange> changes) {
+        List<Optional<Account>> results = accountRepository.applyBalanceDeltas(changes);
+        LocalDateTime now = LocalDateTime.now();
+        List<JournalEntry> entries = new ArrayList<>(changes.size());
+        for (int i = 0; i < changes.size(); i++) {
+            if (results.get(i).isPresent()) {
+                BalanceChange change = changes.get(i);
+                entries.add(JournalEntry.builder()
+                        .accountId(change.getAccountId())
+                        .bankId(change.getBankId())
+                        .type(change.getDelta().signum() > 0 ? JournalEntry.EntryType.DEPOSIT : JournalEntry.EntryType.WITHDRAWAL)
+                        .amount(change.getDelta())
+                        .occurredAt(now)
+                        .build());
+            }
+        }
+        accountJournal.append(entries);
+        return results;
+    }
+    
+    private void flushRemaining() {
+        PendingChange pendingChange;
+        while ((pendingChange = queue.poll()) != null) {
+            pending.decrementAndGet();
+            write(List.of(pendingChange));
+        }
+    }
+    
+    private void drain() {
+        while (running || pending.get() > 0) {
+            PendingChange first = queue.poll();
+            if (first == null) {
+                LockSupport.parkNanos(this, maxDelayNanos);
+                continue;
+            }
+            
+            List<PendingChange> batch = new ArrayList<>(maxBatchSize);
+            batch.add(first);
+            long deadline = first.enqueuedAt() + maxDelayNanos;
+            while (batch.size() < maxBatchSize) {
+                PendingChange next = queue.poll();
+                if (next != null) {
+                    batch.add(next);
+                    continue;
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0 || !running) {
+                    break;
+                }
+                LockSupport.parkNanos(this, remaining);
+            }
+            pending.addAndGet(-batch.size());
+            write(batch);
+        }
+    }
+    
+    private void write(List<PendingChange> batch) {
+        // Changes whose callers stopped waiting are dropped, so they are certainly never applied
+        List<PendingChange> claimed = batch.stream().filter(PendingChange::claim).toList();
+        if (claimed.isEmpty()) {
+            return;
+        }
+        List<BalanceChange> changes = claimed.stream().map(PendingChange::change).toList();
+        batchSizes.record(claimed.size());
+        try {
+            List<Optional<Account>> results = flushTimer.record(() ->
+                    transactionTemplate.execute(status -> applyAndRecord(changes)));
+            long committedAt = System.nanoTime();
+            for (int i = 0; i < claimed.size(); i++) {
+                PendingChange pendingChange = claimed.get(i);
+                waitTimer.record(committedAt - pendingChange.enqueuedAt(), TimeUnit.NANOSECONDS);
+                pendingChange.result().complete(results.get(i));
+            }
+        } catch (RuntimeException e) {
+            if (claimed.size() == 1) {
+                claimed.get(0).result().completeExceptionally(e);
+                return;
+            }
+            // The whole transaction rolled back; retry each change alone so only the failing ones fail
+            retries.increment();
+            claimed.forEach(PendingChange::release);
+            claimed.forEach(pendingChange -> write(List.of(pendingChange)));
+        } catch (Error e) {
+            claimed.forEach(pendingChange -> pendingChange.result().completeExceptionally(e));
+            throw e;
+        }
+    }
+    
+    /**
+     * Replaces the writer thread when it has died, so queued changes keep being written.
+     */
+    private void ensureWriter() {
+        Thread current = writer;
+        if (current != null && current.isAlive()) {
+            return;
+        }
+        synchronized (this) {
+            if (running && (writer == null || !writer.isAlive())) {
+                log.error("Balance write coalescer thread is not running, starting a new one");
+                writerRestarts.increment();
+                writer = startWriter();
+            }
+        }
+    }
+    
+    private Thread startWriter() {
+        Thread thread = new Thread(this::drain, "balance-write-coalescer");
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+    
+    boolean isWriterAlive() {
+        Thread current = writer;
+        return current != null && current.isAlive();
+    }
+    
+    @Override
+    public synchronized void start() {
+        running = true;
+        writer = startWriter();
+    }
+    
+    @Override
+    public void stop() {
+        running = false;
+        Thread current = writer;
+        if (current != null) {
+            LockSupport.unpark(current);
+            try {
+                // Let the writer flush the changes that are still queued
+                current.join(TimeUnit.SECONDS.toMillis(30));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        flushRemaining();
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+    
+    private record PendingChange(BalanceChange change, long enqueuedAt, CompletableFuture<Optional<Account>> result,
+                                 AtomicInteger state) {
+        
+        static final int QUEUED = 0;
+        static final int WRITING = 1;
+        static final int ABANDONED = 2;
+        
+        /**
+         * Takes the change for a write attempt, unless its caller has given up on it.
+         */
+        boolean claim() {
+            return state.compareAndSet(QUEUED, WRITING);
+        }
+        
+        /**
+         * Returns the change to the queued state after its write attempt rolled back.
+         */
+        void release() {
+            state.compareAndSet(WRITING, QUEUED);
+        }
+        
+        /**
+         * Gives up on the change, unless a write attempt holds it.
+         */
+        boolean abandon() {
+            return state.compareAndSet(QUEUED, ABANDONED);
+        }
+    }
+}
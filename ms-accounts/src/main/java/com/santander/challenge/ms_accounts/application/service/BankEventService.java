@@ -0,0 +1,31 @@
+package com.santander.challenge.ms_accounts.application.service;
+
+import com.santander.challenge.ms_accounts.domain.model.BankEventType;
+import com.santander.challenge.ms_accounts.domain.port.input.BankEventServicePort;
+import com.santander.challenge.ms_accounts.domain.port.output.BankValidationPort;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+
+/**
+ * Service that keeps locally cached bank information consistent with ms-banks.
+ */
+@Service
+public class BankEventService implements BankEventServicePort {
+    
+    private static final Logger log = LoggerFactory.getLogger(BankEventService.class);
+    private final BankValidationPort bankValidationPort;
+    
+    public BankEventService(BankValidationPort bankValidationPort) {
+        this.bankValidationPort = bankValidationPort;
+    }
+    
+    @Override
+    public void handleBankEvent(UUID bankId, BankEventType type) {
+        // Both creations and deletions invalidate the cached existence result
+        log.debug("Received bank event {} for bankId {}", type, bankId);
+        bankValidationPort.invalidate(bankId);
+    }
+}
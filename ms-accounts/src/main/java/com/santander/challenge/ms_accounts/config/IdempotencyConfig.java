@@ -0,0 +1,54 @@
+package com.santander.challenge.ms_accounts.config;
+
+import com.santander.challenge.common.idempotency.IdempotencyFilter;
+import com.santander.challenge.common.idempotency.IdempotencyKeyPort;
+import com.santander.challenge.common.idempotency.IdempotencyKeyRepositoryAdapter;
+import com.santander.challenge.common.idempotency.IdempotencyService;
+import com.santander.challenge.ms_accounts.domain.exception.AccountValidationException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Configuration of Idempotency-Key support on the account endpoints. Internal endpoints called
+ * by other services are excluded.
+ */
+@Configuration
+public class IdempotencyConfig {
+    
+    @Bean
+    public IdempotencyKeyPort idempotencyKeyPort(JdbcTemplate jdbcTemplate) {
+        return new IdempotencyKeyRepositoryAdapter(jdbcTemplate);
+    }
+    
+    @Bean
+    public IdempotencyService idempotencyService(
+            IdempotencyKeyPort idempotencyKeyPort,
+            MeterRegistry meterRegistry,
+            @Value("${accounts.idempotency.ttl:PT24H}") Duration ttl,
+            @Value("${accounts.idempotency.lock-timeout:PT1M}") Duration lockTimeout,
+            @Value("${accounts.idempotency.cache-max-size:10000}") long cacheMaxSize,
+            @Value("${accounts.idempotency.cleanup-interval:PT10M}") Duration cleanupInterval,
+            @Value("${accounts.idempotency.cleanup-initial-delay:PT1M}") Duration cleanupInitialDelay) {
+        return new IdempotencyService(idempotencyKeyPort, meterRegistry, ttl, lockTimeout, cacheMaxSize,
+                cleanupInterval, cleanupInitialDelay);
+    }
+    
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(
+            IdempotencyService idempotencyService,
+            @Qualifier("handlerExceptionResolver") HandlerExceptionResolver exceptionResolver) {
+        FilterRegistrationBean<IdempotencyFilter> registration = new FilterRegistrationBean<>(
+                new IdempotencyFilter(idempotencyService, exceptionResolver, Set.of("/api/accounts/internal/"), AccountValidationException::new));
+        registration.addUrlPatterns("/api/accounts", "/api/accounts/*");
+        return registration;
+    }
+}
@@ -37,7 +37,7 @@ public class OpenApiConfig {
         Info info = new Info()
                 .title("MS Accounts API")
                 .version("1.0.0")
-                .description("REST API for bank account management. This microservice exposes CRUD operations for accounts with per-bank data isolation. Every operation requires the bankId to guarantee isolation and security.")
+                .description("REST API for bank account management. This microservice exposes CRUD operations for accounts with per-bank data isolation. Every operation requires the bankId to guarantee isolation and security. Mutating operations accept an optional Idempotency-Key header: retries with the same key and request receive the original response.")
                 .contact(contact)
                 .license(license);
         
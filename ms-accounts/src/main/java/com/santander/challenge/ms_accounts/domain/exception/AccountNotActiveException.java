@@ -0,0 +1,13 @@
+package com.santander.challenge.ms_accounts.domain.exception;
+
+import java.util.UUID;
+
+/**
+ * Exception thrown when moving funds on an account whose status is not ACTIVE.
+ */
+public class AccountNotActiveException extends RuntimeException {
+    
+    public AccountNotActiveException(UUID accountId) {
+        super("Account with id " + accountId + " is not active");
+    }
+}
@@ -0,0 +1,11 @@
+package com.santander.challenge.ms_accounts.domain.exception;
+
+/**
+ * Exception thrown when a search on a large bank combines filters that no index supports.
+ */
+public class AccountSearchNotIndexedException extends RuntimeException {
+    
+    public AccountSearchNotIndexedException(String message) {
+        super(message);
+    }
+}
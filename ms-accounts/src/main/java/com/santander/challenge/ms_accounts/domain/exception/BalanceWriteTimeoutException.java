@@ -0,0 +1,12 @@
+package com.santander.challenge.ms_accounts.domain.exception;
+
+/**
+ * Exception thrown when a balance change is not committed within its time budget. The message
+ * tells whether the change was certainly not applied or whether its outcome is unknown.
+ */
+public class BalanceWriteTimeoutException extends RuntimeException {
+    
+    public BalanceWriteTimeoutException(String message) {
+        super(message);
+    }
+}
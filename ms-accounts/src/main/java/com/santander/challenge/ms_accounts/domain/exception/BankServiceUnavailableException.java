@@ -0,0 +1,12 @@
+package com.santander.challenge.ms_accounts.domain.exception;
+
+/**
+ * Exception thrown when ms-banks cannot answer a bank lookup (timeout, error response,
+ * open circuit or saturated bulkhead), so the existence of the bank is unknown.
+ */
+public class BankServiceUnavailableException extends RuntimeException {
+    
+    public BankServiceUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,13 @@
+package com.santander.challenge.ms_accounts.domain.exception;
+
+import java.util.UUID;
+
+/**
+ * Exception thrown when a withdrawal would leave an account with a negative balance.
+ */
+public class InsufficientFundsException extends RuntimeException {
+    
+    public InsufficientFundsException(UUID accountId) {
+        super("Account with id " + accountId + " has insufficient funds");
+    }
+}
@@ -0,0 +1,52 @@
+package com.santander.challenge.ms_accounts.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of a single item of a bulk account creation.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountBatchItemResult {
+    private int index;
+    private String accountNumber;
+    private Account account;
+    private FailureReason failureReason;
+    private String message;
+    
+    public boolean isCreated() {
+        return failureReason == null;
+    }
+    
+    public static AccountBatchItemResult created(int index, Account account) {
+        return AccountBatchItemResult.builder()
+                .index(index)
+                .accountNumber(account.getAccountNumber())
+                .account(account)
+                .build();
+    }
+    
+    public static AccountBatchItemResult failed(int index, String accountNumber, 
+                                                FailureReason failureReason, String message) {
+        return AccountBatchItemResult.builder()
+                .index(index)
+                .accountNumber(accountNumber)
+                .failureReason(failureReason)
+                .message(message)
+                .build();
+    }
+    
+    /**
+     * Reasons why an item of a batch could not be created.
+     */
+    public enum FailureReason {
+        BANK_NOT_FOUND,
+        DUPLICATE_ACCOUNT_NUMBER,
+        VALIDATION_ERROR
+    }
+}
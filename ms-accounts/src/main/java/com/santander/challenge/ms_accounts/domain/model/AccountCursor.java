@@ -0,0 +1,25 @@
+package com.santander.challenge.ms_accounts.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Keyset position within the accounts of a bank, ordered by creation time and identifier.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountCursor {
+    private LocalDateTime createdAt;
+    private UUID id;
+    
+    public static AccountCursor after(Account account) {
+        return new AccountCursor(account.getCreatedAt(), account.getId());
+    }
+}
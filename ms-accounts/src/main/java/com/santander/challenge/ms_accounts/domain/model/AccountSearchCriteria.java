@@ -0,0 +1,30 @@
+package com.santander.challenge.ms_accounts.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Optional filters of an account search within a bank. Null fields do not filter; ranges are inclusive.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountSearchCriteria {
+    private Account.AccountStatus status;
+    private Account.AccountType accountType;
+    private String currency;
+    private BigDecimal minBalance;
+    private BigDecimal maxBalance;
+    private LocalDateTime createdFrom;
+    private LocalDateTime createdTo;
+    
+    public boolean hasBalanceRange() {
+        return minBalance != null || maxBalance != null;
+    }
+}
@@ -0,0 +1,22 @@
+package com.santander.challenge.ms_accounts.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Signed amount to add to the balance of an account owned by a given bank.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceChange {
+    private UUID accountId;
+    private UUID bankId;
+    private BigDecimal delta;
+}
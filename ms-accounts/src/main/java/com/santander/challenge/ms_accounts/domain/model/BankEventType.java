@@ -0,0 +1,9 @@
+package com.santander.challenge.ms_accounts.domain.model;
+
+/**
+ * Lifecycle events published by ms-banks that affect data cached by ms-accounts.
+ */
+public enum BankEventType {
+    CREATED,
+    DELETED
+}
@@ -0,0 +1,51 @@
+package com.santander.challenge.ms_accounts.domain.model;
+
+import lombok.Builder;
+import lombok.Value;
+import lombok.With;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Immutable record of one balance movement of an account, written in the same transaction as the movement.
+ */
+@Value
+@Builder
+public class JournalEntry {
+    Long id;
+    UUID accountId;
+    UUID bankId;
+    EntryType type;
+    BigDecimal amount;
+    LocalDateTime occurredAt;
+    
+    /**
+     * Balance right after this entry; only filled in on statements.
+     */
+    @With
+    BigDecimal balanceAfter;
+    
+    /**
+     * Kinds of balance movement. The amount is signed: negative entries take funds out.
+     */
+    public enum EntryType {
+        OPENING,
+        DEPOSIT,
+        WITHDRAWAL,
+        TRANSFER_IN,
+        TRANSFER_OUT,
+        ADJUSTMENT
+    }
+    
+    public static JournalEntry of(Account account, EntryType type, BigDecimal amount, LocalDateTime occurredAt) {
+        return JournalEntry.builder()
+                .accountId(account.getId())
+                .bankId(account.getBankId())
+                .type(type)
+                .amount(amount)
+                .occurredAt(occurredAt)
+                .build();
+    }
+}
@@ -1,11 +1,21 @@
 package com.santander.challenge.ms_accounts.domain.port.input;
 
 import com.santander.challenge.ms_accounts.domain.model.Account;
+import com.santander.challenge.ms_accounts.domain.model.AccountBatchItemResult;
+import com.santander.challenge.ms_accounts.domain.model.AccountCursor;
+import com.santander.challenge.ms_accounts.domain.model.AccountSearchCriteria;
+import com.santander.challenge.ms_accounts.domain.model.AccountStatement;
+import com.santander.challenge.ms_accounts.domain.model.TransferResult;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 /**
  * Input port for Account use cases defining the domain operations.
@@ -13,13 +23,43 @@ import java.util.UUID;
 public interface AccountServicePort {
     
     /**
-     * Creates a new account.
+     * Upper bound for the size of a keyset slice.
+     */
+    int MAX_SLICE_SIZE = 1000;
+    
+    /**
+     * Upper bound for the number of stripes of a hot account balance.
+     */
+    int MAX_BALANCE_STRIPES = 64;
+    
+    /**
+     * Upper bound for the number of entries of one statement.
+     */
+    int MAX_STATEMENT_ENTRIES = 10_000;
+    
+    /**
+     * Largest bank a search may scan when no index supports its filters.
+     */
+    int MAX_UNINDEXED_SEARCH_ACCOUNTS = 10_000;
+    
+    /**
+     * Creates a new account. An account without an account number is given a generated one.
      *
      * @param account account to create
      * @return persisted account
      */
     Account createAccount(Account account);
     
+    /**
+     * Creates several accounts at once. Invalid items are reported individually
+     * and do not prevent the remaining accounts from being created. Accounts without an
+     * account number are given a generated one.
+     *
+     * @param accounts accounts to create
+     * @return one result per requested account, in request order
+     */
+    List<AccountBatchItemResult> createAccounts(List<Account> accounts);
+    
     /**
      * Retrieves an account by its identifier while validating that it belongs to the provided bankId.
      *
@@ -31,6 +71,27 @@ public interface AccountServicePort {
      */
     Account getAccountById(UUID id, UUID bankId);
     
+    /**
+     * Retrieves an account by its account number while validating that it belongs to the provided bankId.
+     *
+     * @param accountNumber account number
+     * @param bankId bank identifier used for isolation
+     * @return account found
+     * @throws com.santander.challenge.ms_accounts.domain.exception.AccountNotFoundException when not found
+     * @throws com.santander.challenge.ms_accounts.domain.exception.UnauthorizedAccessException when it does not belong to the bank
+     */
+    Account getAccountByNumber(String accountNumber, UUID bankId);
+    
+    /**
+     * Retrieves several accounts of a bank at once. Accounts that do not exist and accounts of
+     * other banks are both reported as missing, so the lookup reveals nothing about other banks.
+     *
+     * @param ids account identifiers, possibly repeated
+     * @param bankId bank identifier used for isolation
+     * @return for each identifier, in the same order, the account or empty when not found
+     */
+    List<Optional<Account>> getAccountsByIds(List<UUID> ids, UUID bankId);
+    
     /**
      * Lists accounts for a specific bank with pagination.
      *
@@ -40,6 +101,41 @@ public interface AccountServicePort {
      */
     Page<Account> getAccountsByBankId(UUID bankId, Pageable pageable);
     
+    /**
+     * Lists accounts for a specific bank using keyset pagination, which keeps deep pages
+     * as cheap as the first one and skips the total count.
+     *
+     * @param bankId bank identifier (required for isolation)
+     * @param cursor position returned with the previous slice, or null for the first slice
+     * @param size maximum number of accounts to return
+     * @return slice of accounts
+     * @throws com.santander.challenge.ms_accounts.domain.exception.AccountValidationException when the size is out of range
+     */
+    Slice<Account> getAccountsByBankIdAfter(UUID bankId, AccountCursor cursor, int size);
+    
+    /**
+     * Searches the accounts of a bank by the filters set in the criteria, using keyset pagination.
+     * Combinations of filters that no index supports are only accepted for small banks.
+     *
+     * @param bankId bank identifier (required for isolation)
+     * @param criteria filters to apply
+     * @param cursor position returned with the previous slice, or null for the first slice
+     * @param size maximum number of accounts to return
+     * @return slice of matching accounts
+     * @throws com.santander.challenge.ms_accounts.domain.exception.AccountValidationException when the size or a range is invalid
+     * @throws com.santander.challenge.ms_accounts.domain.exception.AccountSearchNotIndexedException when the filters would scan a large bank
+     */
+    Slice<Account> searchAccounts(UUID bankId, AccountSearchCriteria criteria, AccountCursor cursor, int size);
+    
+    /**
+     * Visits every account of a bank in creation order, for exports that must not hold
+     * the whole list in memory.
+     *
+     * @param bankId bank identifier (required for isolation)
+     * @param action callback invoked for each account
+     */
+    void exportAccountsByBankId(UUID bankId, Consumer<Account> action);
+    
     /**
      * Updates an existing account.
      *
@@ -52,6 +148,59 @@ public interface AccountServicePort {
      */
     Account updateAccount(UUID id, UUID bankId, Account account);
     
+    /**
+     * Adds funds to an active account atomically, without reading the balance first.
+     *
+     * @param id account identifier
+     * @param bankId bank identifier used for validation
+     * @param amount positive amount to add
+     * @return account with its new balance
+     * @throws com.santander.challenge.ms_accounts.domain.exception.AccountNotActiveException when the account is not active
+     */
+    Account deposit(UUID id, UUID bankId, BigDecimal amount);
+    
+    /**
+     * Takes funds from an active account atomically, never letting the balance go negative.
+     *
+     * @param id account identifier
+     * @param bankId bank identifier used for validation
+     * @param amount positive amount to subtract
+     * @return account with its new balance
+     * @throws com.santander.challenge.ms_accounts.domain.exception.InsufficientFundsException when the balance does not cover the amount
+     * @throws com.santander.challenge.ms_accounts.domain.exception.AccountNotActiveException when the account is not active
+     */
+    Account withdraw(UUID id, UUID bankId, BigDecimal amount);
+    
+    /**
+     * Spreads the balance of an account over several stripe rows, so that concurrent credits do not
+     * all wait on the lock of the account row, or stops striping it when stripes is 0. Reads keep
+     * returning the exact total balance.
+     *
+     * @param id account identifier
+     * @param bankId bank identifier used for validation
+     * @param stripes number of stripes, between 0 and the allowed maximum
+     * @return account after the change
+     * @throws com.santander.challenge.ms_accounts.domain.exception.AccountNotFoundException when not found
+     * @throws com.santander.challenge.ms_accounts.domain.exception.UnauthorizedAccessException when it does not belong to the bank
+     */
+    Account setBalanceStripes(UUID id, UUID bankId, int stripes);
+    
+    /**
+     * Moves funds between two active accounts of the same currency in one transaction.
+     * The accounts may belong to different banks.
+     *
+     * @param sourceAccountId account to debit
+     * @param sourceBankId bank that must own the source account
+     * @param targetAccountId account to credit
+     * @param targetBankId bank that must own the target account
+     * @param amount positive amount to move
+     * @return both accounts after the transfer
+     * @throws com.santander.challenge.ms_accounts.domain.exception.InsufficientFundsException when the source balance does not cover the amount
+     * @throws com.santander.challenge.ms_accounts.domain.exception.AccountNotActiveException when either account is not active
+     */
+    TransferResult transfer(UUID sourceAccountId, UUID sourceBankId,
+                            UUID targetAccountId, UUID targetBankId, BigDecimal amount);
+    
     /**
      * Deletes an account.
      *
@@ -62,6 +211,32 @@ public interface AccountServicePort {
      */
     void deleteAccount(UUID id, UUID bankId);
     
+    /**
+     * Computes the balance an account had at a past instant from the journal of its movements.
+     *
+     * @param id account identifier
+     * @param bankId bank identifier used for validation
+     * @param asOf instant to compute the balance at
+     * @return balance at that instant
+     * @throws com.santander.challenge.ms_accounts.domain.exception.AccountNotFoundException when not found
+     * @throws com.santander.challenge.ms_accounts.domain.exception.UnauthorizedAccessException when it does not belong to the bank
+     */
+    BigDecimal getBalanceAsOf(UUID id, UUID bankId, LocalDateTime asOf);
+    
+    /**
+     * Lists the balance movements of an account over the period (from, to], with the running balance.
+     *
+     * @param id account identifier
+     * @param bankId bank identifier used for validation
+     * @param from exclusive start of the period
+     * @param to inclusive end of the period
+     * @return statement of the period
+     * @throws com.santander.challenge.ms_accounts.domain.exception.AccountValidationException when the period is empty or holds too many entries
+     * @throws com.santander.challenge.ms_accounts.domain.exception.AccountNotFoundException when not found
+     * @throws com.santander.challenge.ms_accounts.domain.exception.UnauthorizedAccessException when it does not belong to the bank
+     */
+    AccountStatement getStatement(UUID id, UUID bankId, LocalDateTime from, LocalDateTime to);
+    
     /**
      * Counts accounts associated with a bank.
      *
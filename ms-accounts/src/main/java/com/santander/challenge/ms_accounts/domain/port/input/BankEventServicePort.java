@@ -0,0 +1,19 @@
+package com.santander.challenge.ms_accounts.domain.port.input;
+
+import com.santander.challenge.ms_accounts.domain.model.BankEventType;
+
+import java.util.UUID;
+
+/**
+ * Input port that reacts to bank lifecycle events published by ms-banks.
+ */
+public interface BankEventServicePort {
+    
+    /**
+     * Handles a bank lifecycle event.
+     *
+     * @param bankId bank identifier
+     * @param type event type
+     */
+    void handleBankEvent(UUID bankId, BankEventType type);
+}
@@ -0,0 +1,61 @@
+package com.santander.challenge.ms_accounts.domain.port.output;
+
+import com.santander.challenge.ms_accounts.domain.model.JournalEntry;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Output port for the append-only journal of balance movements and its balance snapshots.
+ */
+public interface AccountJournalPort {
+    
+    /**
+     * Appends entries with one batch of inserts. Must be called within the transaction that
+     * applies the movements, so that entries and balances commit together.
+     *
+     * @param entries entries to append
+     */
+    void append(List<JournalEntry> entries);
+    
+    /**
+     * Computes the balance of an account at a past instant from its latest snapshot taken at or
+     * before that instant plus the entries recorded after the snapshot.
+     *
+     * @param accountId account identifier
+     * @param asOf instant to compute the balance at
+     * @return balance at that instant, 0 when the account had no movements yet
+     */
+    BigDecimal balanceAsOf(UUID accountId, LocalDateTime asOf);
+    
+    /**
+     * Returns the entries of an account recorded in the period (after, upTo], oldest first.
+     *
+     * @param accountId account identifier
+     * @param after exclusive start of the period
+     * @param upTo inclusive end of the period
+     * @param limit maximum number of entries to return
+     * @return entries in recording order
+     */
+    List<JournalEntry> findEntries(UUID accountId, LocalDateTime after, LocalDateTime upTo, int limit);
+    
+    /**
+     * Records, for every account with entries since the previous snapshot run, its balance at the cutoff.
+     * The cutoff must lie far enough in the past that no transaction still in flight can record
+     * an entry at or before it.
+     *
+     * @param cutoff instant the snapshots are taken at
+     * @return number of snapshots recorded
+     */
+    int takeSnapshots(LocalDateTime cutoff);
+    
+    /**
+     * Prepares storage for entries recorded up to the given instant, creating the time partitions
+     * of the journal where the database supports them.
+     *
+     * @param until last instant that must be covered
+     */
+    void prepareStorage(LocalDateTime until);
+}
@@ -0,0 +1,20 @@
+package com.santander.challenge.ms_accounts.domain.port.output;
+
+/**
+ * Output port for the shared sequence that generated account numbers are drawn from.
+ */
+public interface AccountNumberSequencePort {
+    
+    /**
+     * Reserves a block of consecutive sequence values that no other caller, in this or any
+     * other instance, will receive.
+     *
+     * @return first value of the block; the block holds {@link #blockSize()} values
+     */
+    long reserveBlock();
+    
+    /**
+     * Returns the number of values in each reserved block.
+     */
+    int blockSize();
+}
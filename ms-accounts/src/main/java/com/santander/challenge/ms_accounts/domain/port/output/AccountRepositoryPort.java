@@ -1,11 +1,20 @@
 package com.santander.challenge.ms_accounts.domain.port.output;
 
 import com.santander.challenge.ms_accounts.domain.model.Account;
+import com.santander.challenge.ms_accounts.domain.model.AccountCursor;
+import com.santander.challenge.ms_accounts.domain.model.AccountSearchCriteria;
+import com.santander.challenge.ms_accounts.domain.model.BalanceChange;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 /**
  * Output port for Account persistence that abstracts domain access to data storage.
@@ -13,21 +22,71 @@ import java.util.UUID;
 public interface AccountRepositoryPort {
     
     /**
-     * Saves an account.
+     * Saves a new account. The row is inserted right away, with the unique constraint on the
+     * account number as the only duplicate check. Must be called within a transaction.
      *
      * @param account account to persist
      * @return persisted account
+     * @throws com.santander.challenge.ms_accounts.domain.exception.DuplicateAccountException
+     *         if the account number is already taken
      */
     Account save(Account account);
     
     /**
-     * Finds an account by its identifier.
+     * Writes the mutable fields of an existing account. When the account was read earlier in the
+     * same transaction no further query is issued, and only the changed columns are updated.
+     * Must be called within a transaction.
+     *
+     * @param account account holding the new state
+     * @return updated account
+     */
+    Account update(Account account);
+    
+    /**
+     * Persists several new accounts using JDBC batching.
+     *
+     * @param accounts accounts to persist
+     * @return persisted accounts, in the same order as received
+     */
+    List<Account> saveAll(List<Account> accounts);
+    
+    /**
+     * Finds an account by its identifier. Outside read-write transactions the account may be
+     * served from a cache of committed snapshots, up to the configured time-to-live old.
      *
      * @param id account identifier
      * @return optional containing the account when present
      */
     Optional<Account> findById(UUID id);
     
+    /**
+     * Finds an account by its account number. Numbers looked up recently are resolved to their
+     * account id in memory, and the account is then read as by {@link #findById(UUID)}.
+     *
+     * @param accountNumber account number
+     * @return optional containing the account when present
+     */
+    Optional<Account> findByAccountNumber(String accountNumber);
+    
+    /**
+     * Finds the accounts of a bank among the given identifiers, with one query per chunk of
+     * identifiers. Identifiers of missing accounts or of other banks' accounts are skipped.
+     *
+     * @param ids account identifiers
+     * @param bankId bank that must own the accounts
+     * @return accounts found, in no particular order
+     */
+    List<Account> findByIdsAndBankId(Collection<UUID> ids, UUID bankId);
+    
+    /**
+     * Finds an account and locks its row until the current transaction ends.
+     * Must be called within a transaction.
+     *
+     * @param id account identifier
+     * @return optional containing the locked account when present
+     */
+    Optional<Account> findByIdForUpdate(UUID id);
+    
     /**
      * Retrieves accounts by bank identifier with pagination.
      *
@@ -38,11 +97,100 @@ public interface AccountRepositoryPort {
     Page<Account> findByBankId(UUID bankId, Pageable pageable);
     
     /**
-     * Deletes an account by its identifier.
+     * Retrieves a keyset slice of a bank's accounts ordered by creation time and identifier.
+     *
+     * @param bankId bank identifier
+     * @param after position to continue from, or null for the first slice
+     * @param size maximum number of accounts to return
+     * @return slice of accounts, without a total count
+     */
+    Slice<Account> findByBankIdAfter(UUID bankId, AccountCursor after, int size);
+    
+    /**
+     * Retrieves a keyset slice of the accounts of a bank that match every filter set in the
+     * criteria, ordered by creation time and identifier.
+     *
+     * @param bankId bank identifier
+     * @param criteria filters to apply
+     * @param after position to continue from, or null for the first slice
+     * @param size maximum number of accounts to return
+     * @return slice of accounts, without a total count
+     */
+    Slice<Account> search(UUID bankId, AccountSearchCriteria criteria, AccountCursor after, int size);
+    
+    /**
+     * Tells whether an index supports the combination of filters set in the criteria, so that
+     * searching a bank does not scan all of its accounts.
+     *
+     * @param criteria filters to apply
+     * @return true when the search is backed by an index
+     */
+    boolean isIndexedSearch(AccountSearchCriteria criteria);
+    
+    /**
+     * Visits every account of a bank in creation order without loading them all in memory.
+     * Must be called within a transaction.
+     *
+     * @param bankId bank identifier
+     * @param action callback invoked for each account
+     */
+    void forEachByBankId(UUID bankId, Consumer<Account> action);
+    
+    /**
+     * Adds signed amounts to account balances, in order, with one batch of conditional updates.
+     * Each change is applied only when the account belongs to the bank, is ACTIVE, and the
+     * resulting balance is not negative. Credits to striped accounts are added to one of their
+     * stripes instead of the account row. Must be called within a transaction.
+     *
+     * @param changes changes to apply; the same account may appear several times
+     * @return for each change, in the same order, the account right after it was applied,
+     *         or empty when any condition did not hold; for striped accounts its balance also
+     *         includes credits concurrently committed to other stripes
+     */
+    List<Optional<Account>> applyBalanceDeltas(List<BalanceChange> changes);
+    
+    /**
+     * Spreads the balance of an account over the given number of stripes, or stops striping it
+     * when stripes is 0. The current stripes are consolidated first, so the total is unchanged.
+     * Must be called within a transaction.
+     *
+     * @param id account identifier
+     * @param stripes number of stripes
+     * @return account after the change
+     */
+    Account setBalanceStripes(UUID id, int stripes);
+    
+    /**
+     * Returns the accounts whose balance is striped.
+     *
+     * @return account identifiers
+     */
+    List<UUID> findStripedAccountIds();
+    
+    /**
+     * Moves the stripes of an account into its balance row, in its own transaction.
      *
      * @param id account identifier
+     * @return amount moved
      */
-    void deleteById(UUID id);
+    BigDecimal consolidateBalance(UUID id);
+    
+    /**
+     * Deletes an account only when it belongs to the given bank.
+     *
+     * @param id account identifier
+     * @param bankId bank that must own the account
+     * @return true when the account was deleted, false when no matching account exists
+     */
+    boolean deleteByIdAndBankId(UUID id, UUID bankId);
+    
+    /**
+     * Checks whether an account exists with the given identifier.
+     *
+     * @param id account identifier
+     * @return true when the account exists
+     */
+    boolean existsById(UUID id);
     
     /**
      * Checks whether an account exists with the given account number.
@@ -52,6 +200,14 @@ public interface AccountRepositoryPort {
      */
     boolean existsByAccountNumber(String accountNumber);
     
+    /**
+     * Returns which of the given account numbers are already in use.
+     *
+     * @param accountNumbers account numbers to check
+     * @return subset of account numbers that already exist
+     */
+    Set<String> findExistingAccountNumbers(Set<String> accountNumbers);
+    
     /**
      * Counts the accounts associated with a bank.
      *
@@ -0,0 +1,41 @@
+package com.santander.challenge.ms_accounts.domain.port.output;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Output port for the materialized per-bank account counters.
+ */
+public interface BankAccountCounterPort {
+    
+    /**
+     * Adjusts the counter of a bank within the current transaction.
+     *
+     * @param bankId bank identifier
+     * @param delta number of accounts added (positive) or removed (negative)
+     */
+    void increment(UUID bankId, long delta);
+    
+    /**
+     * Returns the materialized number of accounts of a bank.
+     *
+     * @param bankId bank identifier
+     * @return number of accounts, 0 when the bank has no counter
+     */
+    long count(UUID bankId);
+    
+    /**
+     * Returns every bank that has accounts or a counter.
+     *
+     * @return bank identifiers
+     */
+    Set<UUID> findBankIds();
+    
+    /**
+     * Recomputes the counter of a bank from the accounts table, in its own transaction.
+     *
+     * @param bankId bank identifier
+     * @return difference between the actual count and the stored counter before correction
+     */
+    long reconcile(UUID bankId);
+}
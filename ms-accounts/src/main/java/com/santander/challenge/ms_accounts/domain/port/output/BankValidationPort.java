@@ -1,5 +1,6 @@
 package com.santander.challenge.ms_accounts.domain.port.output;
 
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -12,7 +13,25 @@ public interface BankValidationPort {
      *
      * @param bankId bank identifier
      * @return true when the bank exists, false otherwise
+     * @throws com.santander.challenge.ms_accounts.domain.exception.BankServiceUnavailableException when ms-banks cannot answer
      */
     boolean existsById(UUID bankId);
+    
+    /**
+     * Validates several banks at once. Preferred over {@link #existsById(UUID)} whenever
+     * more than one bank has to be checked, since it needs at most one remote call per batch.
+     *
+     * @param bankIds bank identifiers
+     * @return subset of identifiers that belong to existing banks
+     * @throws com.santander.challenge.ms_accounts.domain.exception.BankServiceUnavailableException when ms-banks cannot answer
+     */
+    Set<UUID> existingIds(Set<UUID> bankIds);
+    
+    /**
+     * Discards any locally cached existence result for a bank.
+     *
+     * @param bankId bank identifier
+     */
+    void invalidate(UUID bankId);
 }
 
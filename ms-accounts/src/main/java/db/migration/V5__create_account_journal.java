@@ -0,0 +1,83 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Creates the append-only journal of balance movements and the per-account balance snapshots,
+ * and records an OPENING entry with the current balance of every existing account.
+ * On PostgreSQL the journal is range-partitioned by month on occurred_at, so queries over a period
+ * only touch its partitions and old months can be detached or dropped as a whole; the current and
+ * next three months are created here and a scheduled job keeps creating them ahead of time.
+ * Written in Java because other databases, such as the H2 used by tests, get a plain table instead.
+ * The partition DDL is spelled out here rather than shared with that job, so that this migration
+ * stays as it was applied whatever the job does later.
+ */
+public class V5__create_account_journal extends BaseJavaMigration {
+    
+    private static final int PARTITION_MONTHS_AHEAD = 3;
+    
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("'y'yyyy'm'MM");
+    
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        boolean postgres = "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName());
+        
+        try (Statement statement = connection.createStatement()) {
+            if (postgres) {
+                statement.execute("CREATE SEQUENCE IF NOT EXISTS account_journal_id_seq");
+                statement.execute("CREATE TABLE IF NOT EXISTS account_journal ("
+                        + "id          BIGINT         NOT NULL DEFAULT nextval('account_journal_id_seq'), "
+                        + "account_id  UUID           NOT NULL, "
+                        + "bank_id     UUID           NOT NULL, "
+                        + "entry_type  VARCHAR(20)    NOT NULL, "
+                        + "amount      NUMERIC(15, 2) NOT NULL, "
+                        + "occurred_at TIMESTAMP(6)   NOT NULL, "
+                        + "CONSTRAINT pk_account_journal PRIMARY KEY (occurred_at, id)"
+                        + ") PARTITION BY RANGE (occurred_at)");
+                // Safety net so that an entry never fails for lack of a partition
+                statement.execute("CREATE TABLE IF NOT EXISTS account_journal_default PARTITION OF account_journal DEFAULT");
+                YearMonth current = YearMonth.now();
+                for (int i = 0; i <= PARTITION_MONTHS_AHEAD; i++) {
+                    statement.execute(createPartitionSql(current.plusMonths(i)));
+                }
+            } else {
+                statement.execute("CREATE TABLE IF NOT EXISTS account_journal ("
+                        + "id          BIGINT         GENERATED BY DEFAULT AS IDENTITY, "
+                        + "account_id  UUID           NOT NULL, "
+                        + "bank_id     UUID           NOT NULL, "
+                        + "entry_type  VARCHAR(20)    NOT NULL, "
+                        + "amount      NUMERIC(15, 2) NOT NULL, "
+                        + "occurred_at TIMESTAMP(6)   NOT NULL, "
+                        + "CONSTRAINT pk_account_journal PRIMARY KEY (id))");
+            }
+            statement.execute("CREATE INDEX IF NOT EXISTS idx_account_journal_account_occurred "
+                    + "ON account_journal (account_id, occurred_at)");
+            
+            statement.execute("CREATE TABLE IF NOT EXISTS account_balance_snapshots ("
+                    + "account_id  UUID           NOT NULL, "
+                    + "snapshot_at TIMESTAMP(6)   NOT NULL, "
+                    + "balance     NUMERIC(15, 2) NOT NULL, "
+                    + "CONSTRAINT pk_account_balance_snapshots PRIMARY KEY (account_id, snapshot_at))");
+            statement.execute("CREATE INDEX IF NOT EXISTS idx_account_balance_snapshots_snapshot_at "
+                    + "ON account_balance_snapshots (snapshot_at)");
+            
+            statement.execute("INSERT INTO account_journal (account_id, bank_id, entry_type, amount, occurred_at) "
+                    + "SELECT a.id, a.bank_id, 'OPENING', a.balance + COALESCE("
+                    + "(SELECT SUM(s.amount) FROM account_balance_stripes s WHERE s.account_id = a.id), 0), "
+                    + "CURRENT_TIMESTAMP FROM accounts a");
+        }
+    }
+    
+    private static String createPartitionSql(YearMonth month) {
+        return "CREATE TABLE IF NOT EXISTS account_journal_" + month.format(PARTITION_SUFFIX)
+                + " PARTITION OF account_journal FOR VALUES FROM ('" + month.atDay(1)
+                + "') TO ('" + month.plusMonths(1).atDay(1) + "')";
+    }
+}
@@ -0,0 +1,16 @@
+-- Accounts table. IF NOT EXISTS lets schemas previously generated by Hibernate be adopted
+-- through baseline-on-migrate without failing.
+CREATE TABLE IF NOT EXISTS accounts (
+    id                  UUID           NOT NULL,
+    account_number      VARCHAR(20)    NOT NULL,
+    bank_id             UUID           NOT NULL,
+    account_holder_name VARCHAR(100)   NOT NULL,
+    account_type        VARCHAR(255)   NOT NULL,
+    balance             NUMERIC(15, 2) NOT NULL,
+    currency            VARCHAR(3)     NOT NULL,
+    status              VARCHAR(255)   NOT NULL,
+    created_at          TIMESTAMP(6)   NOT NULL,
+    updated_at          TIMESTAMP(6)   NOT NULL,
+    CONSTRAINT pk_accounts PRIMARY KEY (id),
+    CONSTRAINT uk_accounts_account_number UNIQUE (account_number)
+);
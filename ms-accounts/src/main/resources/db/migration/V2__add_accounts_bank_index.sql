@@ -0,0 +1,5 @@
+-- Serves every per-bank access path:
+--   * findByBankId and its page COUNT: equality on the leading bank_id column;
+--   * countByBankId: index-only scan, no heap access for visible pages;
+--   * keyset slices: seek on (created_at, id) within the bank, already in ORDER BY order.
+CREATE INDEX IF NOT EXISTS idx_accounts_bank_created_id ON accounts (bank_id, created_at, id);
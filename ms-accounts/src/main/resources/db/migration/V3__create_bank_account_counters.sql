@@ -0,0 +1,14 @@
+-- Materialized number of accounts per bank, kept in step with inserts and deletes on accounts
+-- so that counting a bank's accounts is a primary-key lookup.
+CREATE TABLE IF NOT EXISTS bank_account_counters (
+    bank_id       UUID         NOT NULL,
+    account_count BIGINT       NOT NULL,
+    updated_at    TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_bank_account_counters PRIMARY KEY (bank_id)
+);
+
+INSERT INTO bank_account_counters (bank_id, account_count, updated_at)
+SELECT a.bank_id, COUNT(*), CURRENT_TIMESTAMP
+FROM accounts a
+WHERE NOT EXISTS (SELECT 1 FROM bank_account_counters c WHERE c.bank_id = a.bank_id)
+GROUP BY a.bank_id;
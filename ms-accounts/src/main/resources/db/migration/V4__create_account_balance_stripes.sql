@@ -0,0 +1,14 @@
+-- Opt-in striped balances for hot accounts. When balance_stripes is greater than zero, credits
+-- are spread over that many rows of account_balance_stripes instead of all queuing on the lock
+-- of the account row; the account balance is accounts.balance plus the sum of its stripes.
+ALTER TABLE accounts ADD COLUMN IF NOT EXISTS balance_stripes INTEGER NOT NULL DEFAULT 0;
+
+CREATE TABLE IF NOT EXISTS account_balance_stripes (
+    account_id UUID           NOT NULL,
+    stripe     INTEGER        NOT NULL,
+    amount     NUMERIC(15, 2) NOT NULL,
+    updated_at TIMESTAMP(6)   NOT NULL,
+    CONSTRAINT pk_account_balance_stripes PRIMARY KEY (account_id, stripe),
+    CONSTRAINT fk_account_balance_stripes_account FOREIGN KEY (account_id)
+        REFERENCES accounts (id) ON DELETE CASCADE
+);
@@ -0,0 +1,3 @@
+-- Source of generated account numbers. Every call hands out a block of 1000 values, which the
+-- application allocates from memory; the increment must match AccountNumberSequenceAdapter.BLOCK_SIZE.
+CREATE SEQUENCE IF NOT EXISTS account_number_seq START WITH 1 INCREMENT BY 1000;
@@ -0,0 +1,10 @@
+-- Marker rows that journal maintenance jobs lock with SELECT ... FOR UPDATE, so that runs started
+-- by different instances at the same time take turns instead of overlapping.
+CREATE TABLE IF NOT EXISTS account_journal_locks (
+    name VARCHAR(50) NOT NULL,
+    CONSTRAINT pk_account_journal_locks PRIMARY KEY (name)
+);
+
+INSERT INTO account_journal_locks (name)
+SELECT 'snapshots'
+WHERE NOT EXISTS (SELECT 1 FROM account_journal_locks WHERE name = 'snapshots');
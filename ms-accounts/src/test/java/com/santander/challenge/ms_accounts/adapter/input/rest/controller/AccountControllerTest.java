@@ -0,0 +1,387 @@
+package com.santander.challenge.ms_accounts.adapter.input.rest.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.santander.challenge.ms_accounts.adapter.input.rest.dto.request.AccountLookupRequest;
+import com.santander.challenge.ms_accounts.adapter.input.rest.dto.request.BalanceChangeRequest;
+import com.santander.challenge.ms_accounts.adapter.input.rest.dto.request.BalanceStripesRequest;
+import com.santander.challenge.ms_accounts.adapter.input.rest.dto.request.CreateAccountRequest;
+import com.santander.challenge.ms_accounts.adapter.input.rest.dto.request.CreateAccountsBatchRequest;
+import com.santander.challenge.ms_accounts.adapter.input.rest.dto.request.TransferRequest;
+import com.santander.challenge.ms_accounts.adapter.input.rest.dto.response.AccountBatchResponse;
+import com.santander.challenge.ms_accounts.adapter.input.rest.dto.response.AccountLookupResponse;
+import com.santander.challenge.ms_accounts.adapter.input.rest.dto.response.AccountResponse;
+import com.santander.challenge.ms_accounts.adapter.input.rest.dto.response.AccountSliceResponse;
+import com.santander.challenge.ms_accounts.adapter.input.rest.dto.response.TransferResponse;
+import com.santander.challenge.ms_accounts.application.mapper.AccountMapper;
+import com.santander.challenge.ms_accounts.domain.exception.AccountSearchNotIndexedException;
+import com.santander.challenge.ms_accounts.domain.exception.InsufficientFundsException;
+import com.santander.challenge.ms_accounts.domain.model.Account;
+import com.santander.challenge.ms_accounts.domain.model.AccountCursor;
+import com.santander.challenge.ms_accounts.domain.model.AccountSearchCriteria;
+import com.santander.challenge.ms_accounts.domain.model.TransferResult;
+import com.santander.challenge.ms_accounts.domain.port.input.AccountServicePort;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(AccountController.class)
+class AccountControllerTest {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @MockBean
+    private AccountServicePort accountService;
+    
+    @MockBean
+    private AccountMapper accountMapper;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    private static final UUID TEST_BANK_ID = UUID.randomUUID();
+    private static final UUID TEST_ACCOUNT_ID = UUID.randomUUID();
+    
+    @Test
+    void getAccountById_Success() throws Exception {
+        Account account = Account.builder()
+                .id(TEST_ACCOUNT_ID)
+                .bankId(TEST_BANK_ID)
+                .accountNumber("ACC001")
+                .build();
+        
+        AccountResponse response = AccountResponse.builder()
+                .id(TEST_ACCOUNT_ID)
+                .bankId(TEST_BANK_ID)
+                .accountNumber("ACC001")
+                .build();
+        
+        when(accountService.getAccountById(TEST_ACCOUNT_ID, TEST_BANK_ID)).thenReturn(account);
+        when(accountMapper.toResponse(account)).thenReturn(response);
+        
+        mockMvc.perform(get("/api/accounts/" + TEST_ACCOUNT_ID).param("bankId", TEST_BANK_ID.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(TEST_ACCOUNT_ID.toString()))
+                .andExpect(jsonPath("$.accountNumber").value("ACC001"));
+    }
+    
+    @Test
+    void getAccountByNumber_Success() throws Exception {
+        Account account = Account.builder()
+                .id(TEST_ACCOUNT_ID)
+                .bankId(TEST_BANK_ID)
+                .accountNumber("ACC001")
+                .build();
+        
+        AccountResponse response = AccountResponse.builder()
+                .id(TEST_ACCOUNT_ID)
+                .bankId(TEST_BANK_ID)
+                .accountNumber("ACC001")
+                .build();
+        
+        when(accountService.getAccountByNumber("ACC001", TEST_BANK_ID)).thenReturn(account);
+        when(accountMapper.toResponse(account)).thenReturn(response);
+        
+        mockMvc.perform(get("/api/accounts/by-number/ACC001").param("bankId", TEST_BANK_ID.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(TEST_ACCOUNT_ID.toString()));
+    }
+    
+    @Test
+    void getAccountsByIds_PassesIdsInRequestOrder() throws Exception {
+        UUID missingId = UUID.randomUUID();
+        List<UUID> ids = List.of(missingId, TEST_ACCOUNT_ID);
+        List<Optional<Account>> accounts = List.of(Optional.empty(), Optional.of(new Account()));
+        AccountLookupResponse response = AccountLookupResponse.builder()
+                .total(2)
+                .found(1)
+                .notFound(1)
+                .items(List.of())
+                .build();
+        
+        when(accountService.getAccountsByIds(ids, TEST_BANK_ID)).thenReturn(accounts);
+        when(accountMapper.toLookupResponse(ids, accounts)).thenReturn(response);
+        
+        mockMvc.perform(post("/api/accounts/lookup")
+                        .param("bankId", TEST_BANK_ID.toString())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new AccountLookupRequest(ids))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.found").value(1))
+                .andExpect(jsonPath("$.notFound").value(1));
+    }
+    
+    @Test
+    void getAccountsByIds_TooManyIds_ReturnsBadRequest() throws Exception {
+        List<UUID> ids = Stream.generate(UUID::randomUUID).limit(AccountLookupRequest.MAX_IDS + 1).toList();
+        
+        mockMvc.perform(post("/api/accounts/lookup")
+                        .param("bankId", TEST_BANK_ID.toString())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new AccountLookupRequest(ids))))
+                .andExpect(status().isBadRequest());
+        verify(accountService, never()).getAccountsByIds(anyList(), any());
+    }
+    
+    @Test
+    void createAccounts_Success() throws Exception {
+        CreateAccountsBatchRequest request = new CreateAccountsBatchRequest(List.of(createRequest("ACC001")));
+        AccountBatchResponse response = AccountBatchResponse.builder()
+                .total(1)
+                .created(1)
+                .failed(0)
+                .items(List.of())
+                .build();
+        
+        when(accountMapper.toDomain(any(CreateAccountRequest.class))).thenReturn(new Account());
+        when(accountService.createAccounts(anyList())).thenReturn(List.of());
+        when(accountMapper.toBatchResponse(anyList())).thenReturn(response);
+        
+        mockMvc.perform(post("/api/accounts/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(1))
+                .andExpect(jsonPath("$.created").value(1));
+        verify(accountService).createAccounts(argThat(accounts -> accounts.size() == 1));
+    }
+    
+    @Test
+    void createAccounts_InvalidItem_ReturnsBadRequest() throws Exception {
+        CreateAccountsBatchRequest request = new CreateAccountsBatchRequest(List.of(createRequest("")));
+        
+        mockMvc.perform(post("/api/accounts/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("INVALID_REQUEST"));
+        verify(accountService, never()).createAccounts(anyList());
+    }
+    
+    @Test
+    void createAccounts_EmptyBatch_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(post("/api/accounts/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CreateAccountsBatchRequest(List.of()))))
+                .andExpect(status().isBadRequest());
+        verify(accountService, never()).createAccounts(eq(List.of()));
+    }
+    
+    @Test
+    void getAccountsByBankIdAfter_ReturnsSliceWithNextCursor() throws Exception {
+        AccountCursor cursor = new AccountCursor(LocalDateTime.of(2024, 1, 1, 0, 0), TEST_ACCOUNT_ID);
+        Slice<Account> slice = new SliceImpl<>(List.of(new Account()));
+        AccountSliceResponse response = AccountSliceResponse.builder()
+                .content(List.of(AccountResponse.builder().accountNumber("ACC001").build()))
+                .size(1)
+                .hasNext(true)
+                .nextCursor("next-token")
+                .build();
+        
+        when(accountMapper.toCursor("token")).thenReturn(cursor);
+        when(accountService.getAccountsByBankIdAfter(TEST_BANK_ID, cursor, 20)).thenReturn(slice);
+        when(accountMapper.toSliceResponse(slice)).thenReturn(response);
+        
+        mockMvc.perform(get("/api/accounts/cursor")
+                        .param("bankId", TEST_BANK_ID.toString())
+                        .param("cursor", "token")
+                        .param("size", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].accountNumber").value("ACC001"))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.nextCursor").value("next-token"));
+    }
+    
+    @Test
+    void searchAccounts_PassesFiltersAndReturnsSlice() throws Exception {
+        AccountSearchCriteria criteria = AccountSearchCriteria.builder()
+                .status(Account.AccountStatus.ACTIVE)
+                .accountType(Account.AccountType.SAVINGS)
+                .currency("EUR")
+                .minBalance(new BigDecimal("10.00"))
+                .createdFrom(LocalDateTime.of(2024, 1, 1, 0, 0))
+                .build();
+        Slice<Account> slice = new SliceImpl<>(List.of(new Account()));
+        AccountSliceResponse response = AccountSliceResponse.builder()
+                .content(List.of(AccountResponse.builder().accountNumber("ACC001").build()))
+                .size(1)
+                .hasNext(false)
+                .build();
+        
+        when(accountService.searchAccounts(TEST_BANK_ID, criteria, null, 50)).thenReturn(slice);
+        when(accountMapper.toSliceResponse(slice)).thenReturn(response);
+        
+        mockMvc.perform(get("/api/accounts/search")
+                        .param("bankId", TEST_BANK_ID.toString())
+                        .param("status", "ACTIVE")
+                        .param("accountType", "SAVINGS")
+                        .param("currency", "EUR")
+                        .param("minBalance", "10.00")
+                        .param("createdFrom", "2024-01-01T00:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].accountNumber").value("ACC001"))
+                .andExpect(jsonPath("$.hasNext").value(false));
+    }
+    
+    @Test
+    void searchAccounts_NotIndexed_ReturnsUnprocessableEntity() throws Exception {
+        when(accountService.searchAccounts(eq(TEST_BANK_ID), any(), any(), eq(50)))
+                .thenThrow(new AccountSearchNotIndexedException("not indexed"));
+        
+        mockMvc.perform(get("/api/accounts/search")
+                        .param("bankId", TEST_BANK_ID.toString())
+                        .param("currency", "EUR"))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.code").value("SEARCH_NOT_INDEXED"));
+    }
+    
+    @Test
+    void exportAccountsByBankId_StreamsOneJsonObjectPerLine() throws Exception {
+        Account first = Account.builder().accountNumber("ACC001").build();
+        Account second = Account.builder().accountNumber("ACC002").build();
+        doAnswer(invocation -> {
+            Consumer<Account> action = invocation.getArgument(1);
+            action.accept(first);
+            action.accept(second);
+            return null;
+        }).when(accountService).exportAccountsByBankId(eq(TEST_BANK_ID), any());
+        when(accountMapper.toResponse(first)).thenReturn(AccountResponse.builder().accountNumber("ACC001").build());
+        when(accountMapper.toResponse(second)).thenReturn(AccountResponse.builder().accountNumber("ACC002").build());
+        
+        MvcResult result = mockMvc.perform(get("/api/accounts/export").param("bankId", TEST_BANK_ID.toString()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+        
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("ACC001", objectMapper.readTree(lines[0]).get("accountNumber").asText());
+        assertEquals("ACC002", objectMapper.readTree(lines[1]).get("accountNumber").asText());
+    }
+    
+    @Test
+    void exportAccountsByBankId_UnsupportedFormat_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/accounts/export")
+                        .param("bankId", TEST_BANK_ID.toString())
+                        .param("format", "xml"))
+                .andExpect(status().isBadRequest());
+        verify(accountService, never()).exportAccountsByBankId(any(), any());
+    }
+    
+    @Test
+    void deposit_ReturnsUpdatedAccount() throws Exception {
+        Account account = Account.builder()
+                .id(TEST_ACCOUNT_ID)
+                .bankId(TEST_BANK_ID)
+                .balance(new BigDecimal("125.00"))
+                .build();
+        AccountResponse response = AccountResponse.builder()
+                .id(TEST_ACCOUNT_ID)
+                .bankId(TEST_BANK_ID)
+                .balance(new BigDecimal("125.00"))
+                .build();
+        when(accountService.deposit(TEST_ACCOUNT_ID, TEST_BANK_ID, new BigDecimal("25.00"))).thenReturn(account);
+        when(accountMapper.toResponse(account)).thenReturn(response);
+        
+        mockMvc.perform(post("/api/accounts/" + TEST_ACCOUNT_ID + "/deposit")
+                        .param("bankId", TEST_BANK_ID.toString())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BalanceChangeRequest(new BigDecimal("25.00")))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.balance").value(125.00));
+    }
+    
+    @Test
+    void setBalanceStripes_NegativeStripes_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(put("/api/accounts/" + TEST_ACCOUNT_ID + "/balance-stripes")
+                        .param("bankId", TEST_BANK_ID.toString())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BalanceStripesRequest(-1))))
+                .andExpect(status().isBadRequest());
+        
+        verifyNoInteractions(accountService);
+    }
+    
+    @Test
+    void withdraw_InsufficientFunds_ReturnsUnprocessableEntity() throws Exception {
+        when(accountService.withdraw(TEST_ACCOUNT_ID, TEST_BANK_ID, new BigDecimal("500.00")))
+                .thenThrow(new InsufficientFundsException(TEST_ACCOUNT_ID));
+        
+        mockMvc.perform(post("/api/accounts/" + TEST_ACCOUNT_ID + "/withdraw")
+                        .param("bankId", TEST_BANK_ID.toString())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BalanceChangeRequest(new BigDecimal("500.00")))))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.code").value("INSUFFICIENT_FUNDS"));
+    }
+    
+    @Test
+    void withdraw_NonPositiveAmount_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(post("/api/accounts/" + TEST_ACCOUNT_ID + "/withdraw")
+                        .param("bankId", TEST_BANK_ID.toString())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BalanceChangeRequest(BigDecimal.ZERO))))
+                .andExpect(status().isBadRequest());
+        verify(accountService, never()).withdraw(any(), any(), any());
+    }
+    
+    @Test
+    void transfer_ReturnsBothAccounts() throws Exception {
+        UUID targetAccountId = UUID.randomUUID();
+        UUID targetBankId = UUID.randomUUID();
+        TransferRequest request = new TransferRequest(
+                TEST_ACCOUNT_ID, TEST_BANK_ID, targetAccountId, targetBankId, new BigDecimal("10.00"));
+        TransferResult result = new TransferResult(new Account(), new Account(), new BigDecimal("10.00"));
+        TransferResponse response = TransferResponse.builder()
+                .source(AccountResponse.builder().id(TEST_ACCOUNT_ID).build())
+                .target(AccountResponse.builder().id(targetAccountId).build())
+                .amount(new BigDecimal("10.00"))
+                .build();
+        when(accountService.transfer(TEST_ACCOUNT_ID, TEST_BANK_ID, targetAccountId, targetBankId, new BigDecimal("10.00")))
+                .thenReturn(result);
+        when(accountMapper.toTransferResponse(result)).thenReturn(response);
+        
+        mockMvc.perform(post("/api/accounts/transfers")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.source.id").value(TEST_ACCOUNT_ID.toString()))
+                .andExpect(jsonPath("$.target.id").value(targetAccountId.toString()));
+    }
+    
+    private static CreateAccountRequest createRequest(String accountNumber) {
+        return CreateAccountRequest.builder()
+                .accountNumber(accountNumber)
+                .bankId(TEST_BANK_ID)
+                .accountHolderName("Test Holder")
+                .accountType(Account.AccountType.CHECKING)
+                .balance(new BigDecimal("100.00"))
+                .currency("EUR")
+                .build();
+    }
+}
@@ -0,0 +1,229 @@
+package com.santander.challenge.ms_accounts.adapter.input.rest.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.santander.challenge.common.idempotency.IdempotencyFilter;
+import com.santander.challenge.common.idempotency.IdempotencyKeyRepositoryAdapter;
+import com.santander.challenge.common.idempotency.IdempotencyService;
+import com.santander.challenge.ms_accounts.adapter.input.rest.controller.AccountController;
+import com.santander.challenge.ms_accounts.adapter.input.rest.dto.request.BalanceChangeRequest;
+import com.santander.challenge.ms_accounts.adapter.input.rest.dto.request.CreateAccountRequest;
+import com.santander.challenge.ms_accounts.adapter.input.rest.dto.response.AccountResponse;
+import com.santander.challenge.ms_accounts.application.mapper.AccountMapper;
+import com.santander.challenge.ms_accounts.config.IdempotencyConfig;
+import com.santander.challenge.ms_accounts.domain.model.Account;
+import com.santander.challenge.ms_accounts.domain.port.input.AccountServicePort;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureJdbc;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Verifies Idempotency-Key handling on the account endpoints against the H2 key store.
+ */
+@WebMvcTest(value = AccountController.class, properties = "spring.cloud.config.enabled=false")
+@AutoConfigureJdbc
+@AutoConfigureTestDatabase
+@Import({IdempotencyConfig.class, SimpleMeterRegistry.class})
+class IdempotencyFilterTest {
+    
+    private static final UUID TEST_BANK_ID = UUID.randomUUID();
+    private static final UUID TEST_ACCOUNT_ID = UUID.randomUUID();
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private IdempotencyService idempotencyService;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @MockBean
+    private AccountServicePort accountService;
+    
+    @MockBean
+    private AccountMapper accountMapper;
+    
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM idempotency_keys");
+        Account account = Account.builder().id(TEST_ACCOUNT_ID).bankId(TEST_BANK_ID).build();
+        when(accountMapper.toDomain(any(CreateAccountRequest.class))).thenReturn(account);
+        when(accountService.createAccount(any(Account.class))).thenReturn(account);
+        when(accountMapper.toResponse(any(Account.class)))
+                .thenReturn(AccountResponse.builder().id(TEST_ACCOUNT_ID).accountNumber("IDEM001").build());
+    }
+    
+    @Test
+    void retriedCreate_IsAnsweredFromTheStore() throws Exception {
+        String key = UUID.randomUUID().toString();
+        
+        MvcResult first = mockMvc.perform(createAccount(key, "IDEM001"))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER))
+                .andReturn();
+        MvcResult retry = mockMvc.perform(createAccount(key, "IDEM001"))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"))
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andReturn();
+        
+        assertEquals(first.getResponse().getContentAsString(), retry.getResponse().getContentAsString());
+        verify(accountService, times(1)).createAccount(any(Account.class));
+        assertEquals(201, jdbcTemplate.queryForObject(
+                "SELECT status_code FROM idempotency_keys WHERE idempotency_key = ?", Integer.class, key));
+    }
+    
+    @Test
+    void retriedCreate_IsAnsweredFromTheStoreAfterTheCacheIsLost() throws Exception {
+        String key = UUID.randomUUID().toString();
+        mockMvc.perform(createAccount(key, "IDEM001")).andExpect(status().isCreated());
+        
+        // A second instance shares the store but not the in-memory cache
+        IdempotencyService otherInstance = new IdempotencyService(new IdempotencyKeyRepositoryAdapter(jdbcTemplate),
+                new SimpleMeterRegistry(), Duration.ofHours(1), Duration.ofMinutes(1), 100, Duration.ofMinutes(10), Duration.ofMinutes(1));
+        String requestHash = jdbcTemplate.queryForObject(
+                "SELECT request_hash FROM idempotency_keys WHERE idempotency_key = ?", String.class, key);
+        
+        assertEquals(201, otherInstance.begin(key, requestHash).orElseThrow().getStatusCode());
+    }
+    
+    @Test
+    void keyReusedWithDifferentRequest_ReturnsUnprocessableEntity() throws Exception {
+        String key = UUID.randomUUID().toString();
+        mockMvc.perform(createAccount(key, "IDEM001")).andExpect(status().isCreated());
+        
+        mockMvc.perform(createAccount(key, "IDEM002"))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.code").value("IDEMPOTENCY_KEY_MISMATCH"));
+        verify(accountService, times(1)).createAccount(any(Account.class));
+    }
+    
+    @Test
+    void keyOfRequestInProgress_ReturnsConflict() throws Exception {
+        String key = UUID.randomUUID().toString();
+        LocalDateTime now = LocalDateTime.now();
+        String requestHash = IdempotencyFilter.fingerprint(new IdempotencyFilter.CachedBodyRequest(
+                createAccount(key, "IDEM001").buildRequest(new MockServletContext())));
+        jdbcTemplate.update("INSERT INTO idempotency_keys (idempotency_key, request_hash, created_at, expires_at) "
+                        + "VALUES (?, ?, ?, ?)",
+                key, requestHash, Timestamp.valueOf(now), Timestamp.valueOf(now.plusHours(1)));
+        
+        mockMvc.perform(createAccount(key, "IDEM001"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.code").value("IDEMPOTENCY_KEY_IN_USE"));
+        verifyNoInteractions(accountService);
+    }
+    
+    @Test
+    void keyOfAbandonedRequest_IsClaimedAgain() throws Exception {
+        String key = UUID.randomUUID().toString();
+        LocalDateTime startedAt = LocalDateTime.now().minusMinutes(5);
+        jdbcTemplate.update("INSERT INTO idempotency_keys (idempotency_key, request_hash, created_at, expires_at) "
+                        + "VALUES (?, ?, ?, ?)",
+                key, "0".repeat(64), Timestamp.valueOf(startedAt), Timestamp.valueOf(startedAt.plusHours(24)));
+        
+        mockMvc.perform(createAccount(key, "IDEM001")).andExpect(status().isCreated());
+        verify(accountService).createAccount(any(Account.class));
+    }
+    
+    @Test
+    void serverError_ReleasesKeySoTheRetryIsProcessed() throws Exception {
+        String key = UUID.randomUUID().toString();
+        when(accountService.deposit(TEST_ACCOUNT_ID, TEST_BANK_ID, new BigDecimal("25.00")))
+                .thenThrow(new IllegalStateException("database unavailable"))
+                .thenReturn(Account.builder().id(TEST_ACCOUNT_ID).build());
+        
+        mockMvc.perform(deposit(key)).andExpect(status().isInternalServerError());
+        assertEquals(0, countKeys(key));
+        
+        mockMvc.perform(deposit(key))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER));
+        verify(accountService, times(2)).deposit(TEST_ACCOUNT_ID, TEST_BANK_ID, new BigDecimal("25.00"));
+    }
+    
+    @Test
+    void requestWithoutKey_IsNotRecorded() throws Exception {
+        mockMvc.perform(post("/api/accounts")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createRequest("IDEM001"))))
+                .andExpect(status().isCreated());
+        
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM idempotency_keys", Integer.class));
+    }
+    
+    @Test
+    void purgeExpired_DeletesOnlyExpiredKeys() {
+        LocalDateTime now = LocalDateTime.now();
+        insertCompletedKey("expired", now.minusMinutes(1));
+        insertCompletedKey("live", now.plusHours(1));
+        
+        assertEquals(1, idempotencyService.purgeExpired());
+        assertEquals(0, countKeys("expired"));
+        assertEquals(1, countKeys("live"));
+    }
+    
+    private MockHttpServletRequestBuilder createAccount(String key, String accountNumber) throws Exception {
+        return post("/api/accounts")
+                .header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, key)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(createRequest(accountNumber)));
+    }
+    
+    private MockHttpServletRequestBuilder deposit(String key) throws Exception {
+        return post("/api/accounts/" + TEST_ACCOUNT_ID + "/deposit")
+                .header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, key)
+                .param("bankId", TEST_BANK_ID.toString())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new BalanceChangeRequest(new BigDecimal("25.00"))));
+    }
+    
+    private void insertCompletedKey(String key, LocalDateTime expiresAt) {
+        jdbcTemplate.update("INSERT INTO idempotency_keys (idempotency_key, request_hash, status_code, created_at, expires_at) "
+                        + "VALUES (?, ?, 200, ?, ?)",
+                key, "0".repeat(64), Timestamp.valueOf(expiresAt.minusHours(24)), Timestamp.valueOf(expiresAt));
+    }
+    
+    private int countKeys(String key) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM idempotency_keys WHERE idempotency_key = ?", Integer.class, key);
+    }
+    
+    private static CreateAccountRequest createRequest(String accountNumber) {
+        return CreateAccountRequest.builder()
+                .accountNumber(accountNumber)
+                .bankId(TEST_BANK_ID)
+                .accountHolderName("Test Holder")
+                .accountType(Account.AccountType.CHECKING)
+                .balance(new BigDecimal("100.00"))
+                .currency("EUR")
+                .build();
+    }
+}
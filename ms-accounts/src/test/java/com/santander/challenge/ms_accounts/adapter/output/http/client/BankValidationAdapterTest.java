@@ -0,0 +1,174 @@
+package com.santander.challenge.ms_accounts.adapter.output.http.client;
+
+import com.santander.challenge.ms_accounts.domain.exception.BankServiceUnavailableException;
+import feign.FeignException;
+import feign.Request;
+import feign.RetryableException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BankValidationAdapterTest {
+    
+    @Mock
+    private BankFeignClient bankFeignClient;
+    
+    private SimpleMeterRegistry meterRegistry;
+    private BankValidationAdapter adapter;
+    private UUID testBankId;
+    
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        BankExistenceCache cache = new BankExistenceCache(
+                meterRegistry, 100, Duration.ofMinutes(10), Duration.ofSeconds(30));
+        // Mirrors the ms-config settings with a small window and no backoff
+        CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .slidingWindowSize(4)
+                .minimumNumberOfCalls(4)
+                .failureRateThreshold(50)
+                .ignoreExceptions(FeignException.NotFound.class)
+                .build());
+        RetryRegistry retryRegistry = RetryRegistry.of(RetryConfig.custom()
+                .maxAttempts(2)
+                .waitDuration(Duration.ofMillis(1))
+                .retryExceptions(RetryableException.class)
+                .build());
+        adapter = new BankValidationAdapter(bankFeignClient, cache,
+                circuitBreakerRegistry, BulkheadRegistry.ofDefaults(), retryRegistry);
+        testBankId = UUID.randomUUID();
+    }
+    
+    @Test
+    void existsById_CachesPositiveResult() {
+        when(bankFeignClient.getBankById(testBankId)).thenReturn(bankResponse(testBankId));
+        
+        assertTrue(adapter.existsById(testBankId));
+        assertTrue(adapter.existsById(testBankId));
+        
+        verify(bankFeignClient, times(1)).getBankById(testBankId);
+        assertEquals(1.0, meterRegistry.get("cache.gets")
+                .tag("cache", BankExistenceCache.CACHE_NAME).tag("result", "hit").functionCounter().count());
+    }
+    
+    @Test
+    void existsById_CachesNegativeResult() {
+        when(bankFeignClient.getBankById(testBankId)).thenThrow(notFound());
+        
+        assertFalse(adapter.existsById(testBankId));
+        assertFalse(adapter.existsById(testBankId));
+        
+        verify(bankFeignClient, times(1)).getBankById(testBankId);
+    }
+    
+    @Test
+    void existsById_RemoteFailure_ThrowsAndDoesNotCache() {
+        when(bankFeignClient.getBankById(testBankId)).thenThrow(new RuntimeException("Internal error"));
+        
+        assertThrows(BankServiceUnavailableException.class, () -> adapter.existsById(testBankId));
+        assertThrows(BankServiceUnavailableException.class, () -> adapter.existsById(testBankId));
+        
+        verify(bankFeignClient, times(2)).getBankById(testBankId);
+    }
+    
+    @Test
+    void existsById_RetriesTransientFailure() {
+        when(bankFeignClient.getBankById(testBankId))
+                .thenThrow(connectionRefused())
+                .thenReturn(bankResponse(testBankId));
+        
+        assertTrue(adapter.existsById(testBankId));
+        
+        verify(bankFeignClient, times(2)).getBankById(testBankId);
+    }
+    
+    @Test
+    void existsById_OpenCircuit_FailsFastWithoutCallingBanks() {
+        when(bankFeignClient.getBankById(any())).thenThrow(new RuntimeException("Internal error"));
+        for (int i = 0; i < 4; i++) {
+            UUID bankId = UUID.randomUUID();
+            assertThrows(BankServiceUnavailableException.class, () -> adapter.existsById(bankId));
+        }
+        clearInvocations(bankFeignClient);
+        
+        BankServiceUnavailableException ex = assertThrows(BankServiceUnavailableException.class,
+                () -> adapter.existsById(testBankId));
+        
+        assertInstanceOf(CallNotPermittedException.class, ex.getCause());
+        verifyNoInteractions(bankFeignClient);
+    }
+    
+    @Test
+    void existingIds_RemoteFailure_Throws() {
+        when(bankFeignClient.findExistingIds(Set.of(testBankId))).thenThrow(new RuntimeException("Internal error"));
+        
+        assertThrows(BankServiceUnavailableException.class, () -> adapter.existingIds(Set.of(testBankId)));
+    }
+    
+    @Test
+    void invalidate_ForcesRemoteLookup() {
+        when(bankFeignClient.getBankById(testBankId)).thenReturn(bankResponse(testBankId));
+        
+        adapter.existsById(testBankId);
+        adapter.invalidate(testBankId);
+        adapter.existsById(testBankId);
+        
+        verify(bankFeignClient, times(2)).getBankById(testBankId);
+    }
+    
+    @Test
+    void existingIds_ResolvesCacheMissesInOneCall() {
+        UUID missingBankId = UUID.randomUUID();
+        UUID cachedBankId = UUID.randomUUID();
+        when(bankFeignClient.getBankById(cachedBankId)).thenReturn(bankResponse(cachedBankId));
+        adapter.existsById(cachedBankId);
+        when(bankFeignClient.findExistingIds(Set.of(testBankId, missingBankId))).thenReturn(Set.of(testBankId));
+        
+        Set<UUID> result = adapter.existingIds(Set.of(testBankId, missingBankId, cachedBankId));
+        
+        assertEquals(Set.of(testBankId, cachedBankId), result);
+        verify(bankFeignClient, times(1)).findExistingIds(Set.of(testBankId, missingBankId));
+        assertFalse(adapter.existsById(missingBankId));
+        verify(bankFeignClient, never()).getBankById(missingBankId);
+    }
+    
+    private static BankFeignClient.BankResponse bankResponse(UUID id) {
+        BankFeignClient.BankResponse response = new BankFeignClient.BankResponse();
+        response.setId(id);
+        return response;
+    }
+    
+    private static RetryableException connectionRefused() {
+        return new RetryableException(-1, "Connection refused", Request.HttpMethod.GET, (Long) null, request());
+    }
+    
+    private static Request request() {
+        return Request.create(Request.HttpMethod.GET, "/api/banks", Collections.emptyMap(),
+                null, StandardCharsets.UTF_8, null);
+    }
+    
+    private static FeignException.NotFound notFound() {
+        Request request = Request.create(Request.HttpMethod.GET, "/api/banks", Collections.emptyMap(),
+                null, StandardCharsets.UTF_8, null);
+        return new FeignException.NotFound("Not Found", request, null, Collections.emptyMap());
+    }
+}
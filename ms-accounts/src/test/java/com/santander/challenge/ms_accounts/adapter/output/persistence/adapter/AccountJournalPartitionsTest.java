@@ -0,0 +1,80 @@
+package com.santander.challenge.ms_accounts.adapter.output.persistence.adapter;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifies the monthly partitions of the PostgreSQL account journal. Requires Docker.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class AccountJournalPartitionsTest {
+    
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15-alpine");
+    
+    private static JdbcTemplate jdbcTemplate;
+    private static TransactionTemplate transaction;
+    private static AccountJournalRepositoryAdapter adapter;
+    
+    @BeforeAll
+    static void migrate() {
+        Flyway.configure()
+                .dataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())
+                .load()
+                .migrate();
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        adapter = new AccountJournalRepositoryAdapter(jdbcTemplate);
+    }
+    
+    @Test
+    void prepareStorage_MovesEntriesOutOfTheDefaultPartition() {
+        // Far enough ahead that the migration did not create its partition
+        YearMonth month = YearMonth.now().plusMonths(12);
+        LocalDateTime occurredAt = month.atDay(15).atTime(12, 0);
+        UUID accountId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO account_journal (account_id, bank_id, entry_type, amount, occurred_at) "
+                        + "VALUES (?, ?, 'DEPOSIT', 10.00, ?)",
+                accountId, UUID.randomUUID(), Timestamp.valueOf(occurredAt));
+        assertEquals(1, countIn("account_journal_default", accountId));
+        
+        transaction.executeWithoutResult(status -> adapter.prepareStorage(occurredAt));
+        
+        assertEquals(0, countIn("account_journal_default", accountId));
+        assertEquals(1, countIn(AccountJournalPartitions.partitionName(month), accountId));
+        assertEquals(1, countIn("account_journal", accountId));
+    }
+    
+    @Test
+    void prepareStorage_IsIdempotent() {
+        LocalDateTime until = LocalDateTime.now().plusMonths(6);
+        
+        transaction.executeWithoutResult(status -> adapter.prepareStorage(until));
+        transaction.executeWithoutResult(status -> adapter.prepareStorage(until));
+        
+        assertEquals(Boolean.TRUE, jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class,
+                AccountJournalPartitions.partitionName(YearMonth.from(until))));
+    }
+    
+    private static int countIn(String table, UUID accountId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table + " WHERE account_id = ?",
+                Integer.class, accountId);
+    }
+}
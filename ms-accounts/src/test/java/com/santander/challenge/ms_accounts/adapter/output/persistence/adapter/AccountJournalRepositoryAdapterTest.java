@@ -0,0 +1,158 @@
+package com.santander.challenge.ms_accounts.adapter.output.persistence.adapter;
+
+import com.santander.challenge.ms_accounts.domain.model.JournalEntry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.cloud.config.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+@Import(AccountJournalRepositoryAdapter.class)
+class AccountJournalRepositoryAdapterTest {
+    
+    private static final LocalDateTime T1 = LocalDateTime.of(2024, 3, 1, 9, 0);
+    private static final LocalDateTime T2 = T1.plusHours(1);
+    private static final LocalDateTime T3 = T1.plusHours(2);
+    private static final LocalDateTime T4 = T1.plusHours(3);
+    
+    @Autowired
+    private AccountJournalRepositoryAdapter adapter;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    private UUID accountId;
+    private UUID bankId;
+    
+    @BeforeEach
+    void setUp() {
+        accountId = UUID.randomUUID();
+        bankId = UUID.randomUUID();
+        adapter.append(List.of(
+                entry(JournalEntry.EntryType.OPENING, "100.00", T1),
+                entry(JournalEntry.EntryType.DEPOSIT, "50.00", T2),
+                entry(JournalEntry.EntryType.WITHDRAWAL, "-30.00", T3),
+                entry(JournalEntry.EntryType.DEPOSIT, "5.00", T4)));
+    }
+    
+    @Test
+    void balanceAsOf_ReplaysTheJournal() {
+        assertEquals(0, BigDecimal.ZERO.compareTo(adapter.balanceAsOf(accountId, T1.minusSeconds(1))));
+        assertEquals(0, new BigDecimal("100.00").compareTo(adapter.balanceAsOf(accountId, T1)));
+        assertEquals(0, new BigDecimal("120.00").compareTo(adapter.balanceAsOf(accountId, T3)));
+        assertEquals(0, new BigDecimal("125.00").compareTo(adapter.balanceAsOf(accountId, T4)));
+    }
+    
+    @Test
+    void balanceAsOf_ReplaysOnlyTheTailAfterTheLatestSnapshot() {
+        assertEquals(1, adapter.takeSnapshots(T2));
+        
+        // Entries summarized by the snapshot are no longer needed to compute later balances
+        jdbcTemplate.update("DELETE FROM account_journal WHERE occurred_at <= ?", Timestamp.valueOf(T2));
+        
+        assertEquals(0, new BigDecimal("150.00").compareTo(adapter.balanceAsOf(accountId, T2)));
+        assertEquals(0, new BigDecimal("120.00").compareTo(adapter.balanceAsOf(accountId, T3)));
+        assertEquals(0, new BigDecimal("125.00").compareTo(adapter.balanceAsOf(accountId, T4)));
+    }
+    
+    @Test
+    void takeSnapshots_BuildsOnThePreviousSnapshot() {
+        assertEquals(1, adapter.takeSnapshots(T2));
+        assertEquals(0, adapter.takeSnapshots(T2));
+        assertEquals(1, adapter.takeSnapshots(T3));
+        
+        BigDecimal snapshot = jdbcTemplate.queryForObject(
+                "SELECT balance FROM account_balance_snapshots WHERE account_id = ? AND snapshot_at = ?",
+                BigDecimal.class, accountId, Timestamp.valueOf(T3));
+        assertEquals(0, new BigDecimal("120.00").compareTo(snapshot));
+    }
+    
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void takeSnapshots_OverlappingRunsTakeTurns() throws Exception {
+        // Without a test transaction the entries are committed, so both runs see them
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        CountDownLatch firstTaken = new CountDownLatch(1);
+        CountDownLatch firstMayCommit = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Integer> first = executor.submit(() -> transaction.execute(status -> {
+                int taken = adapter.takeSnapshots(T2);
+                firstTaken.countDown();
+                try {
+                    firstMayCommit.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                return taken;
+            }));
+            assertTrue(firstTaken.await(10, TimeUnit.SECONDS));
+            Future<Integer> second = executor.submit(() -> adapter.takeSnapshots(T3));
+            
+            // The second run waits until the first one commits, and then builds on its snapshot
+            assertThrows(TimeoutException.class, () -> second.get(500, TimeUnit.MILLISECONDS));
+            firstMayCommit.countDown();
+            assertEquals(1, first.get(10, TimeUnit.SECONDS));
+            assertEquals(1, second.get(10, TimeUnit.SECONDS));
+            assertEquals(0, new BigDecimal("150.00").compareTo(snapshotAt(T2)));
+            assertEquals(0, new BigDecimal("120.00").compareTo(snapshotAt(T3)));
+        } finally {
+            executor.shutdownNow();
+            jdbcTemplate.update("DELETE FROM account_balance_snapshots");
+            jdbcTemplate.update("DELETE FROM account_journal WHERE account_id = ?", accountId);
+        }
+    }
+    
+    @Test
+    void findEntries_ReturnsPeriodInOrderUpToLimit() {
+        List<JournalEntry> entries = adapter.findEntries(accountId, T1, T4, 2);
+        
+        assertEquals(2, entries.size());
+        assertEquals(JournalEntry.EntryType.DEPOSIT, entries.get(0).getType());
+        assertEquals(T2, entries.get(0).getOccurredAt());
+        assertEquals(0, new BigDecimal("-30.00").compareTo(entries.get(1).getAmount()));
+        assertEquals(bankId, entries.get(1).getBankId());
+    }
+    
+    private BigDecimal snapshotAt(LocalDateTime snapshotAt) {
+        return jdbcTemplate.queryForObject(
+                "SELECT balance FROM account_balance_snapshots WHERE account_id = ? AND snapshot_at = ?",
+                BigDecimal.class, accountId, Timestamp.valueOf(snapshotAt));
+    }
+    
+    private JournalEntry entry(JournalEntry.EntryType type, String amount, LocalDateTime occurredAt) {
+        return JournalEntry.builder()
+                .accountId(accountId)
+                .bankId(bankId)
+                .type(type)
+                .amount(new BigDecimal(amount))
+                .occurredAt(occurredAt)
+                .build();
+    }
+}
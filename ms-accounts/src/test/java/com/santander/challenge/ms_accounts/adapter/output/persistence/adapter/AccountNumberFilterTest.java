@@ -0,0 +1,113 @@
+package com.santander.challenge.ms_accounts.adapter.output.persistence.adapter;
+
+import com.santander.challenge.ms_accounts.adapter.output.persistence.entity.AccountEntity;
+import com.santander.challenge.ms_accounts.adapter.output.persistence.repository.AccountJpaRepository;
+import com.santander.challenge.ms_accounts.domain.model.Account;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.cloud.config.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "accounts.number-filter.expected-numbers=10000",
+        "accounts.number-filter.false-positive-rate=0.01"
+})
+@Import({AccountNumberFilter.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AccountNumberFilterTest {
+
+    @Autowired
+    private AccountNumberFilter filter;
+
+    @Autowired
+    private AccountJpaRepository jpaRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private SimpleMeterRegistry meterRegistry;
+
+    @AfterEach
+    void tearDown() {
+        jpaRepository.deleteAll();
+    }
+
+    @Test
+    void rebuild_ReportsEveryStoredNumberAndRulesOutAlmostAllOthers() {
+        UUID bankId = UUID.randomUUID();
+        jpaRepository.saveAll(IntStream.range(0, 5000).mapToObj(i -> account(bankId, "TAKEN-" + i)).toList());
+
+        assertEquals(5000, filter.rebuild());
+
+        assertTrue(IntStream.range(0, 5000).allMatch(i -> filter.mightContain("TAKEN-" + i)));
+        long falsePositives = IntStream.range(0, 10_000).filter(i -> filter.mightContain("FREE-" + i)).count();
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+        assertTrue(filter.falsePositiveRate() < 0.01);
+        assertEquals(11_984, filter.memoryBytes());
+        assertTrue(meterRegistry.get("accounts.number.filter.checks").tag("result", "absent").counter().count() > 9000);
+    }
+
+    @Test
+    void mightContain_BeforeFirstLoad_ReportsEveryNumber() {
+        AccountNumberFilter unloaded = new AccountNumberFilter(null, new SimpleMeterRegistry(), 100, 0.01);
+
+        assertTrue(unloaded.mightContain("ANY"));
+        assertEquals(1.0, unloaded.falsePositiveRate());
+        assertEquals(0, unloaded.memoryBytes());
+    }
+
+    @Test
+    void add_AfterLoad_ReportsTheNumber() {
+        filter.rebuild();
+
+        filter.add("ADDED-1");
+
+        assertTrue(filter.mightContain("ADDED-1"));
+    }
+
+    @Test
+    void rebuild_KeepsNumbersOfTransactionsStillOpen() {
+        filter.rebuild();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        // The number is never inserted, so only the open transaction can account for it
+        transaction.executeWithoutResult(status -> {
+            filter.add("IN-FLIGHT-1");
+            CompletableFuture.supplyAsync(filter::rebuild).join();
+            assertTrue(filter.mightContain("IN-FLIGHT-1"));
+        });
+
+        filter.rebuild();
+        assertFalse(filter.mightContain("IN-FLIGHT-1"));
+    }
+
+    private static AccountEntity account(UUID bankId, String accountNumber) {
+        return AccountEntity.builder()
+                .accountNumber(accountNumber)
+                .bankId(bankId)
+                .accountHolderName("Holder")
+                .accountType(Account.AccountType.CHECKING)
+                .balance(BigDecimal.ZERO)
+                .currency("EUR")
+                .status(Account.AccountStatus.ACTIVE)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,55 @@
+package com.santander.challenge.ms_accounts.adapter.output.persistence.adapter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountNumberIndexTest {
+    
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    
+    @Test
+    void get_ReturnsTheLatestIdOfTheNumber() {
+        AccountNumberIndex index = new AccountNumberIndex(meterRegistry, 1024);
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        
+        assertNull(index.get("ACC001"));
+        index.put("ACC001", first);
+        assertEquals(first, index.get("ACC001"));
+        index.put("ACC001", second);
+        assertEquals(second, index.get("ACC001"));
+        assertNull(index.get("ACC002"));
+    }
+    
+    @Test
+    void evict_RemovesOnlyTheGivenMapping() {
+        AccountNumberIndex index = new AccountNumberIndex(meterRegistry, 1024);
+        UUID id = UUID.randomUUID();
+        index.put("ACC001", id);
+        
+        index.evict("ACC001", UUID.randomUUID());
+        assertEquals(id, index.get("ACC001"));
+        index.evict("ACC001", id);
+        assertNull(index.get("ACC001"));
+    }
+    
+    @Test
+    void put_BeyondCapacity_KeepsMemoryFixedAndRecentNumbers() {
+        AccountNumberIndex index = new AccountNumberIndex(meterRegistry, 1024);
+        UUID[] ids = IntStream.range(0, 10_000).mapToObj(i -> UUID.randomUUID()).toArray(UUID[]::new);
+        
+        for (int i = 0; i < ids.length; i++) {
+            index.put("ACC" + i, ids[i]);
+        }
+        
+        long kept = IntStream.range(0, ids.length).filter(i -> ids[i].equals(index.get("ACC" + i))).count();
+        assertTrue(kept > 500 && kept <= 1024, "kept: " + kept);
+        assertEquals(ids[ids.length - 1], index.get("ACC" + (ids.length - 1)));
+        assertEquals(1024 * 24.0, meterRegistry.get("accounts.number.index.memory").gauge().value());
+    }
+}
@@ -0,0 +1,16 @@
+package com.santander.challenge.ms_accounts.adapter.output.persistence.adapter;
+
+import com.santander.challenge.ms_accounts.application.mapper.AccountMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Import;
+
+/**
+ * The account repository adapter and the in-memory structures it relies on, for tests that run
+ * it against a real database.
+ */
+@TestConfiguration
+@Import({AccountRepositoryAdapter.class, AccountBalanceStripes.class, AccountSnapshotCache.class, AccountNumberFilter.class,
+        AccountNumberIndex.class, AccountMapper.class, SimpleMeterRegistry.class})
+public class AccountPersistenceTestConfig {
+}
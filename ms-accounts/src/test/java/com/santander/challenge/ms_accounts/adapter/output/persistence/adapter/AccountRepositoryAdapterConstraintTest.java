@@ -0,0 +1,75 @@
+package com.santander.challenge.ms_accounts.adapter.output.persistence.adapter;
+
+import com.santander.challenge.ms_accounts.domain.exception.DuplicateAccountException;
+import com.santander.challenge.ms_accounts.domain.model.Account;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs against an accounts table whose unique account number constraint carries the name
+ * Hibernate generated for it, as on schemas adopted through baseline-on-migrate.
+ */
+@DataJpaTest(properties = {
+        "spring.cloud.config.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+@Import(AccountPersistenceTestConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AccountRepositoryAdapterConstraintTest {
+    
+    private static final String HIBERNATE_CONSTRAINT = "UK7amd7m6u1brq2alcxw5tbnq0s";
+    
+    @Autowired
+    private AccountRepositoryAdapter adapter;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("ALTER TABLE accounts DROP CONSTRAINT uk_accounts_account_number");
+        jdbcTemplate.execute("ALTER TABLE accounts ADD CONSTRAINT " + HIBERNATE_CONSTRAINT + " UNIQUE (account_number)");
+    }
+    
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM accounts");
+        jdbcTemplate.execute("ALTER TABLE accounts DROP CONSTRAINT " + HIBERNATE_CONSTRAINT);
+        jdbcTemplate.execute("ALTER TABLE accounts ADD CONSTRAINT uk_accounts_account_number UNIQUE (account_number)");
+    }
+    
+    @Test
+    void save_TakenAccountNumber_ThrowsDuplicateAccount() {
+        UUID bankId = UUID.randomUUID();
+        adapter.save(account(bankId, "HBN001"));
+        
+        assertThrows(DuplicateAccountException.class, () -> adapter.save(account(bankId, "HBN001")));
+    }
+    
+    private static Account account(UUID bankId, String accountNumber) {
+        return Account.builder()
+                .accountNumber(accountNumber)
+                .bankId(bankId)
+                .accountHolderName("Holder " + accountNumber)
+                .accountType(Account.AccountType.SAVINGS)
+                .balance(BigDecimal.ZERO)
+                .currency("EUR")
+                .status(Account.AccountStatus.ACTIVE)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,290 @@
+package com.santander.challenge.ms_accounts.adapter.output.persistence.adapter;
+
+import com.santander.challenge.ms_accounts.adapter.output.persistence.entity.AccountEntity;
+import com.santander.challenge.ms_accounts.adapter.output.persistence.repository.AccountSearchIndex;
+import com.santander.challenge.ms_accounts.domain.model.Account;
+import com.santander.challenge.ms_accounts.domain.model.AccountCursor;
+import com.santander.challenge.ms_accounts.domain.model.AccountSearchCriteria;
+import com.santander.challenge.ms_accounts.domain.model.BalanceChange;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Slice;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.cloud.config.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+@Import(AccountPersistenceTestConfig.class)
+class AccountRepositoryAdapterTest {
+    
+    @Autowired
+    private AccountRepositoryAdapter adapter;
+    
+    @Autowired
+    private TestEntityManager entityManager;
+    
+    private UUID bankId;
+    private List<AccountEntity> bankAccounts;
+    
+    @BeforeEach
+    void setUp() {
+        bankId = UUID.randomUUID();
+        UUID otherBankId = UUID.randomUUID();
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 0, 0);
+        bankAccounts = new ArrayList<>();
+        
+        for (int i = 0; i < 25; i++) {
+            // Every three accounts share a timestamp so that ties are resolved by id
+            bankAccounts.add(persist(bankId, "ACC" + i, base.plusSeconds(i / 3)));
+            persist(otherBankId, "OTH" + i, base.plusSeconds(i / 3));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        
+        bankAccounts.sort(Comparator.comparing(AccountEntity::getCreatedAt).thenComparing(AccountEntity::getId));
+    }
+    
+    @Test
+    void findByBankIdAfter_WalksAllAccountsInKeysetOrder() {
+        List<UUID> visited = new ArrayList<>();
+        AccountCursor cursor = null;
+        Slice<Account> slice;
+        
+        do {
+            slice = adapter.findByBankIdAfter(bankId, cursor, 10);
+            slice.getContent().forEach(account -> {
+                assertEquals(bankId, account.getBankId());
+                visited.add(account.getId());
+            });
+            cursor = slice.getContent().isEmpty() ? null : AccountCursor.after(slice.getContent().get(slice.getNumberOfElements() - 1));
+        } while (slice.hasNext());
+        
+        assertEquals(bankAccounts.stream().map(AccountEntity::getId).toList(), visited);
+    }
+    
+    @Test
+    void findByBankIdAfter_ReportsLastSlice() {
+        AccountEntity last = bankAccounts.get(bankAccounts.size() - 6);
+        
+        Slice<Account> slice = adapter.findByBankIdAfter(bankId, new AccountCursor(last.getCreatedAt(), last.getId()), 10);
+        
+        assertEquals(5, slice.getNumberOfElements());
+        assertFalse(slice.hasNext());
+    }
+    
+    @Test
+    void search_WalksMatchingAccountsInKeysetOrder() {
+        for (int i = 0; i < bankAccounts.size(); i += 2) {
+            AccountEntity entity = entityManager.find(AccountEntity.class, bankAccounts.get(i).getId());
+            entity.setAccountType(Account.AccountType.CHECKING);
+            entity.setBalance(BigDecimal.valueOf(i));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        AccountSearchCriteria criteria = AccountSearchCriteria.builder()
+                .accountType(Account.AccountType.CHECKING)
+                .minBalance(new BigDecimal("4"))
+                .maxBalance(new BigDecimal("20"))
+                .build();
+        List<UUID> visited = new ArrayList<>();
+        AccountCursor cursor = null;
+        Slice<Account> slice;
+        
+        do {
+            slice = adapter.search(bankId, criteria, cursor, 3);
+            slice.getContent().forEach(account -> visited.add(account.getId()));
+            cursor = slice.getContent().isEmpty() ? null : AccountCursor.after(slice.getContent().get(slice.getNumberOfElements() - 1));
+        } while (slice.hasNext());
+        
+        List<UUID> expected = new ArrayList<>();
+        for (int i = 4; i <= 20; i += 2) {
+            expected.add(bankAccounts.get(i).getId());
+        }
+        assertEquals(expected, visited);
+    }
+    
+    @Test
+    void isIndexedSearch_AcceptsCombinationsBackedByAnIndex() {
+        assertTrue(adapter.isIndexedSearch(new AccountSearchCriteria()));
+        assertTrue(adapter.isIndexedSearch(AccountSearchCriteria.builder()
+                .createdFrom(LocalDateTime.now()).build()));
+        assertTrue(adapter.isIndexedSearch(AccountSearchCriteria.builder()
+                .minBalance(BigDecimal.ONE).build()));
+        assertTrue(adapter.isIndexedSearch(AccountSearchCriteria.builder()
+                .status(Account.AccountStatus.ACTIVE).accountType(Account.AccountType.SAVINGS).currency("EUR").build()));
+        
+        // Currency without the type before it, or a balance range next to the status, skips the index prefix
+        assertFalse(adapter.isIndexedSearch(AccountSearchCriteria.builder()
+                .status(Account.AccountStatus.ACTIVE).currency("EUR").build()));
+        assertFalse(adapter.isIndexedSearch(AccountSearchCriteria.builder()
+                .status(Account.AccountStatus.ACTIVE).minBalance(BigDecimal.ONE).build()));
+        assertFalse(adapter.isIndexedSearch(AccountSearchCriteria.builder()
+                .accountType(Account.AccountType.SAVINGS).build()));
+        // The partial index for accounts that are not ACTIVE only exists on PostgreSQL
+        assertFalse(adapter.isIndexedSearch(AccountSearchCriteria.builder()
+                .status(Account.AccountStatus.BLOCKED).minBalance(BigDecimal.ONE).build()));
+    }
+    
+    @Test
+    void searchIndexes_ExistInMigratedSchema() {
+        List<?> indexNames = entityManager.getEntityManager()
+                .createNativeQuery("SELECT LOWER(INDEX_NAME) FROM INFORMATION_SCHEMA.INDEXES WHERE LOWER(TABLE_NAME) = 'accounts'")
+                .getResultList();
+        
+        for (AccountSearchIndex index : AccountSearchIndex.values()) {
+            if (!index.isPostgresOnly()) {
+                assertTrue(indexNames.contains(index.getIndexName()), index.getIndexName() + " not in " + indexNames);
+            }
+        }
+    }
+    
+    @Test
+    void forEachByBankId_VisitsBankAccountsInOrderAndDetachesThem() {
+        List<UUID> visited = new ArrayList<>();
+        
+        adapter.forEachByBankId(bankId, account -> {
+            assertEquals(bankId, account.getBankId());
+            visited.add(account.getId());
+        });
+        
+        assertEquals(bankAccounts.stream().map(AccountEntity::getId).toList(), visited);
+        assertEquals(0, entityManager.getEntityManager().unwrap(Session.class).getStatistics().getEntityCount());
+    }
+    
+    @Test
+    void applyBalanceDeltas_ReportsBalanceAfterEachAppliedChange() {
+        AccountEntity account = bankAccounts.get(0);
+        List<BalanceChange> changes = List.of(
+                new BalanceChange(account.getId(), bankId, new BigDecimal("10.00")),
+                new BalanceChange(account.getId(), bankId, new BigDecimal("-15.00")),
+                new BalanceChange(account.getId(), bankId, new BigDecimal("-4.00")),
+                new BalanceChange(account.getId(), UUID.randomUUID(), new BigDecimal("1.00")),
+                new BalanceChange(account.getId(), bankId, new BigDecimal("1.00")));
+        
+        List<Optional<Account>> results = adapter.applyBalanceDeltas(changes);
+        
+        assertEquals(0, new BigDecimal("10.00").compareTo(results.get(0).orElseThrow().getBalance()));
+        assertTrue(results.get(1).isEmpty());
+        assertEquals(0, new BigDecimal("6.00").compareTo(results.get(2).orElseThrow().getBalance()));
+        assertTrue(results.get(3).isEmpty());
+        assertEquals(0, new BigDecimal("7.00").compareTo(results.get(4).orElseThrow().getBalance()));
+        assertEquals(account.getId(), results.get(0).orElseThrow().getId());
+        assertEquals(account.getAccountNumber(), results.get(0).orElseThrow().getAccountNumber());
+    }
+    
+    @Test
+    void applyBalanceDeltas_InterleavedAccounts_KeepEachAccountsOrder() {
+        // Changes arrive in descending id order and are written in ascending order; the striped
+        // account is consolidated by its debit, which locks the other row as well
+        AccountEntity low = bankAccounts.stream().limit(2).min(Comparator.comparing(AccountEntity::getId)).orElseThrow();
+        AccountEntity high = bankAccounts.stream().limit(2).max(Comparator.comparing(AccountEntity::getId)).orElseThrow();
+        adapter.setBalanceStripes(low.getId(), 2);
+        adapter.applyBalanceDeltas(List.of(new BalanceChange(low.getId(), bankId, new BigDecimal("5.00"))));
+        entityManager.flush();
+        entityManager.clear();
+        List<BalanceChange> changes = List.of(
+                new BalanceChange(high.getId(), bankId, new BigDecimal("3.00")),
+                new BalanceChange(low.getId(), bankId, new BigDecimal("-2.00")),
+                new BalanceChange(high.getId(), bankId, new BigDecimal("-4.00")),
+                new BalanceChange(low.getId(), bankId, new BigDecimal("1.00")),
+                new BalanceChange(high.getId(), bankId, new BigDecimal("-3.00")));
+        
+        List<Optional<Account>> results = adapter.applyBalanceDeltas(changes);
+        
+        assertEquals(0, new BigDecimal("3.00").compareTo(results.get(0).orElseThrow().getBalance()));
+        assertEquals(0, new BigDecimal("3.00").compareTo(results.get(1).orElseThrow().getBalance()));
+        assertTrue(results.get(2).isEmpty());
+        assertEquals(0, new BigDecimal("4.00").compareTo(results.get(3).orElseThrow().getBalance()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(results.get(4).orElseThrow().getBalance()));
+    }
+    
+    @Test
+    void stripedAccount_CreditsGoToStripesAndReadsReturnTheTotal() {
+        UUID accountId = bankAccounts.get(0).getId();
+        adapter.setBalanceStripes(accountId, 4);
+        entityManager.clear();
+        
+        List<Optional<Account>> results = adapter.applyBalanceDeltas(List.of(
+                new BalanceChange(accountId, bankId, new BigDecimal("10.00")),
+                new BalanceChange(accountId, bankId, new BigDecimal("5.00"))));
+        entityManager.clear();
+        
+        assertEquals(0, new BigDecimal("10.00").compareTo(results.get(0).orElseThrow().getBalance()));
+        assertEquals(0, new BigDecimal("15.00").compareTo(results.get(1).orElseThrow().getBalance()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(entityManager.find(AccountEntity.class, accountId).getBalance()));
+        entityManager.clear();
+        assertEquals(0, new BigDecimal("15.00").compareTo(adapter.findById(accountId).orElseThrow().getBalance()));
+    }
+    
+    @Test
+    void stripedAccount_DebitConsolidatesStripesFirst() {
+        UUID accountId = bankAccounts.get(0).getId();
+        adapter.setBalanceStripes(accountId, 4);
+        entityManager.clear();
+        adapter.applyBalanceDeltas(List.of(new BalanceChange(accountId, bankId, new BigDecimal("15.00"))));
+        entityManager.clear();
+        
+        List<Optional<Account>> results = adapter.applyBalanceDeltas(List.of(
+                new BalanceChange(accountId, bankId, new BigDecimal("3.00")),
+                new BalanceChange(accountId, bankId, new BigDecimal("-12.00"))));
+        entityManager.clear();
+        
+        assertEquals(0, new BigDecimal("18.00").compareTo(results.get(0).orElseThrow().getBalance()));
+        assertEquals(0, new BigDecimal("6.00").compareTo(results.get(1).orElseThrow().getBalance()));
+        assertEquals(0, new BigDecimal("6.00").compareTo(entityManager.find(AccountEntity.class, accountId).getBalance()));
+    }
+    
+    @Test
+    void stripedAccount_UpdateKeepsFundsHeldInStripes() {
+        UUID accountId = bankAccounts.get(0).getId();
+        adapter.setBalanceStripes(accountId, 2);
+        entityManager.clear();
+        adapter.applyBalanceDeltas(List.of(new BalanceChange(accountId, bankId, new BigDecimal("4.00"))));
+        entityManager.clear();
+        
+        Account account = adapter.findById(accountId).orElseThrow();
+        assertEquals(0, new BigDecimal("4.00").compareTo(account.getBalance()));
+        account.setBalance(new BigDecimal("25.00"));
+        adapter.update(account);
+        entityManager.flush();
+        entityManager.clear();
+        
+        assertEquals(0, new BigDecimal("25.00").compareTo(adapter.findById(accountId).orElseThrow().getBalance()));
+        entityManager.clear();
+        
+        // Turning striping off moves every stripe into the balance column
+        Account unstriped = adapter.setBalanceStripes(accountId, 0);
+        assertEquals(0, new BigDecimal("25.00").compareTo(unstriped.getBalance()));
+        assertEquals(0, new BigDecimal("25.00").compareTo(entityManager.find(AccountEntity.class, accountId).getBalance()));
+        assertTrue(adapter.findStripedAccountIds().isEmpty());
+    }
+    
+    private AccountEntity persist(UUID bank, String accountNumber, LocalDateTime createdAt) {
+        AccountEntity entity = AccountEntity.builder()
+                .accountNumber(accountNumber)
+                .bankId(bank)
+                .accountHolderName("Holder " + accountNumber)
+                .accountType(Account.AccountType.SAVINGS)
+                .balance(BigDecimal.ZERO)
+                .currency("EUR")
+                .status(Account.AccountStatus.ACTIVE)
+                .createdAt(createdAt)
+                .build();
+        return entityManager.persist(entity);
+    }
+}
@@ -0,0 +1,86 @@
+package com.santander.challenge.ms_accounts.adapter.output.persistence.id;
+
+import com.santander.challenge.common.persistence.id.TimeOrderedUuidGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares insert throughput and primary-key index size of random (v4) and
+ * time-ordered (v7) UUID keys on PostgreSQL, and checks that time-ordered keys keep the
+ * primary-key index smaller, since they append to its rightmost page instead of splitting pages at random.
+ * Run with: mvn test -Dtest=UuidInsertBenchmarkTest -Dbenchmarks=true (requires Docker).
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class UuidInsertBenchmarkTest {
+    
+    private static final Logger log = LoggerFactory.getLogger(UuidInsertBenchmarkTest.class);
+    
+    private static final int ROWS = 1_000_000;
+    private static final int BATCH_SIZE = 1_000;
+    
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15-alpine");
+    
+    @Test
+    void compareRandomAndTimeOrderedKeys() throws Exception {
+        try (Connection connection = DriverManager.getConnection(
+                POSTGRES.getJdbcUrl() + "&reWriteBatchedInserts=true", POSTGRES.getUsername(), POSTGRES.getPassword())) {
+            Result random = run(connection, "accounts_uuid_v4", UUID::randomUUID);
+            Result timeOrdered = run(connection, "accounts_uuid_v7", TimeOrderedUuidGenerator::nextUuid);
+            
+            log.info("uuid v4: {} rows/s, pk index {} kB", Math.round(random.rowsPerSecond()), random.indexKb());
+            log.info("uuid v7: {} rows/s, pk index {} kB", Math.round(timeOrdered.rowsPerSecond()), timeOrdered.indexKb());
+            assertTrue(timeOrdered.indexKb() < random.indexKb(),
+                    "v7 pk index " + timeOrdered.indexKb() + " kB, v4 pk index " + random.indexKb() + " kB");
+        }
+    }
+    
+    private Result run(Connection connection, String table, Supplier<UUID> ids) throws Exception {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE " + table + " (id uuid PRIMARY KEY, account_number varchar(20) NOT NULL, "
+                    + "balance numeric(15,2) NOT NULL, created_at timestamp NOT NULL)");
+        }
+        
+        connection.setAutoCommit(false);
+        long start = System.nanoTime();
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO " + table + " (id, account_number, balance, created_at) VALUES (?, ?, 0, now())")) {
+            for (int i = 1; i <= ROWS; i++) {
+                insert.setObject(1, ids.get());
+                insert.setString(2, String.valueOf(i));
+                insert.addBatch();
+                if (i % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        connection.setAutoCommit(true);
+        
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT pg_relation_size('" + table + "_pkey') / 1024")) {
+            rs.next();
+            return new Result(ROWS / (elapsedNanos / 1_000_000_000.0), rs.getLong(1));
+        }
+    }
+    
+    private record Result(double rowsPerSecond, long indexKb) {
+    }
+}
@@ -0,0 +1,218 @@
+package com.santander.challenge.ms_accounts.adapter.output.persistence.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.santander.challenge.ms_accounts.domain.model.Account;
+import com.santander.challenge.ms_accounts.domain.model.AccountSearchCriteria;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Query-plan regression test for the per-bank account queries. Applies the Flyway migrations
+ * to PostgreSQL, loads enough rows for the planner to prefer indexes, and fails if any of the
+ * query shapes issued by {@link AccountJpaRepository} stops using idx_accounts_bank_created_id,
+ * or if any search that {@link AccountSearchIndex} declares indexed is planned without one of
+ * the search indexes. Requires Docker.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class AccountQueryPlanTest {
+    
+    private static final String INDEX = "idx_accounts_bank_created_id";
+    private static final int ROWS = 100_000;
+    private static final int BANKS = 500;
+    private static final String BANK_ID = "00000000-0000-0000-0000-000000000042";
+    
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15-alpine");
+    
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static Connection connection;
+    
+    @BeforeAll
+    static void migrateAndLoad() throws Exception {
+        Flyway.configure()
+                .dataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())
+                .load()
+                .migrate();
+        
+        connection = DriverManager.getConnection(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO accounts (id, account_number, bank_id, account_holder_name, account_type, "
+                    + "balance, currency, status, created_at, updated_at) "
+                    + "SELECT gen_random_uuid(), lpad(g::text, 20, '0'), "
+                    + "('00000000-0000-0000-0000-' || lpad((g % " + BANKS + ")::text, 12, '0'))::uuid, "
+                    + "'Holder ' || g, (ARRAY['CHECKING', 'SAVINGS', 'BUSINESS'])[g / " + BANKS + " % 3 + 1], "
+                    + "g % 9973, (ARRAY['EUR', 'USD'])[g / " + BANKS + " % 2 + 1], "
+                    // A small minority of accounts is not ACTIVE, as in production
+                    + "CASE g / " + BANKS + " % 50 WHEN 0 THEN 'BLOCKED' WHEN 1 THEN 'INACTIVE' ELSE 'ACTIVE' END, "
+                    + "timestamp '2024-01-01' + g * interval '1 second', now() "
+                    + "FROM generate_series(1, " + ROWS + ") g");
+            // Sets the visibility map so that index-only scans are costed as such
+            statement.execute("VACUUM ANALYZE accounts");
+        }
+    }
+    
+    @AfterAll
+    static void close() throws Exception {
+        if (connection != null) {
+            connection.close();
+        }
+    }
+    
+    @Test
+    void findByBankId_UsesBankIndex() throws Exception {
+        List<JsonNode> nodes = explain("SELECT * FROM accounts a WHERE a.bank_id = '" + BANK_ID + "'");
+        
+        assertUsesIndex(nodes);
+    }
+    
+    @Test
+    void countByBankId_UsesIndexOnlyScan() throws Exception {
+        List<JsonNode> nodes = explain("SELECT count(a.id) FROM accounts a WHERE a.bank_id = '" + BANK_ID + "'");
+        
+        assertUsesIndex(nodes);
+        assertTrue(nodes.stream().anyMatch(node -> "Index Only Scan".equals(node.path("Node Type").asText())),
+                "count should not touch the heap: " + nodes);
+    }
+    
+    @Test
+    void keysetSlice_SeeksIndexWithoutSorting() throws Exception {
+        List<JsonNode> nodes = explain("SELECT * FROM accounts a WHERE a.bank_id = '" + BANK_ID + "' "
+                + "AND (a.created_at, a.id) > (timestamp '2024-01-01 12:00:00', '00000000-0000-0000-0000-000000000000') "
+                + "ORDER BY a.created_at, a.id FETCH FIRST 51 ROWS ONLY");
+        
+        assertUsesIndex(nodes);
+        assertTrue(nodes.stream().noneMatch(node -> "Sort".equals(node.path("Node Type").asText())),
+                "slice should be read in index order: " + nodes);
+    }
+    
+    @Test
+    void searchIndexes_ExistInMigratedSchema() throws Exception {
+        Set<String> indexNames = new HashSet<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT indexname FROM pg_indexes WHERE tablename = 'accounts'")) {
+            while (rs.next()) {
+                indexNames.add(rs.getString(1));
+            }
+        }
+        
+        for (AccountSearchIndex index : AccountSearchIndex.values()) {
+            assertTrue(indexNames.contains(index.getIndexName()), index.getIndexName() + " not in " + indexNames);
+        }
+    }
+    
+    @Test
+    void indexedSearches_ReadThroughASearchIndex() throws Exception {
+        Set<String> searchIndexes = Arrays.stream(AccountSearchIndex.values())
+                .map(AccountSearchIndex::getIndexName)
+                .collect(Collectors.toSet());
+        List<AccountSearchCriteria> shapes = indexedSearchShapes();
+        assertFalse(shapes.isEmpty());
+        
+        for (AccountSearchCriteria criteria : shapes) {
+            List<JsonNode> nodes = explain(searchSql(criteria));
+            
+            assertTrue(nodes.stream().anyMatch(node -> searchIndexes.contains(node.path("Index Name").asText())
+                            && node.path("Node Type").asText().startsWith("Index")),
+                    criteria + " should read through a search index: " + nodes);
+            assertTrue(nodes.stream().noneMatch(node -> "Seq Scan".equals(node.path("Node Type").asText())
+                            || "Bitmap Heap Scan".equals(node.path("Node Type").asText())),
+                    criteria + " should not scan the table: " + nodes);
+        }
+    }
+    
+    /**
+     * Every combination of search filters that is indexed on PostgreSQL, per {@link AccountSearchIndex}.
+     */
+    private static List<AccountSearchCriteria> indexedSearchShapes() {
+        List<AccountSearchCriteria> shapes = new ArrayList<>();
+        Account.AccountStatus[] statuses = {null, Account.AccountStatus.ACTIVE, Account.AccountStatus.BLOCKED};
+        for (Account.AccountStatus status : statuses) {
+            for (int filters = 0; filters < 16; filters++) {
+                AccountSearchCriteria criteria = AccountSearchCriteria.builder()
+                        .status(status)
+                        .accountType((filters & 1) != 0 ? Account.AccountType.SAVINGS : null)
+                        .currency((filters & 2) != 0 ? "EUR" : null)
+                        .minBalance((filters & 4) != 0 ? new BigDecimal("100") : null)
+                        .maxBalance((filters & 4) != 0 ? new BigDecimal("2000") : null)
+                        .createdFrom((filters & 8) != 0 ? LocalDateTime.of(2024, 1, 1, 6, 0) : null)
+                        .build();
+                if (!AccountSearchIndex.serving(criteria, true).isEmpty()) {
+                    shapes.add(criteria);
+                }
+            }
+        }
+        return shapes;
+    }
+    
+    /**
+     * The first slice of the search, as built by {@link AccountSpecifications}.
+     */
+    private static String searchSql(AccountSearchCriteria criteria) {
+        StringBuilder sql = new StringBuilder("SELECT * FROM accounts a WHERE a.bank_id = '" + BANK_ID + "'");
+        if (criteria.getStatus() != null) {
+            sql.append(" AND a.status = '").append(criteria.getStatus()).append("'");
+        }
+        if (criteria.getAccountType() != null) {
+            sql.append(" AND a.account_type = '").append(criteria.getAccountType()).append("'");
+        }
+        if (criteria.getCurrency() != null) {
+            sql.append(" AND a.currency = '").append(criteria.getCurrency()).append("'");
+        }
+        if (criteria.getMinBalance() != null) {
+            sql.append(" AND a.balance >= ").append(criteria.getMinBalance());
+        }
+        if (criteria.getMaxBalance() != null) {
+            sql.append(" AND a.balance <= ").append(criteria.getMaxBalance());
+        }
+        if (criteria.getCreatedFrom() != null) {
+            sql.append(" AND a.created_at >= timestamp '").append(criteria.getCreatedFrom()).append("'");
+        }
+        return sql.append(" ORDER BY a.created_at, a.id FETCH FIRST 51 ROWS ONLY").toString();
+    }
+    
+    private static void assertUsesIndex(List<JsonNode> nodes) {
+        assertTrue(nodes.stream().anyMatch(node -> INDEX.equals(node.path("Index Name").asText())),
+                "expected " + INDEX + " in plan: " + nodes);
+        assertTrue(nodes.stream().noneMatch(node -> "Seq Scan".equals(node.path("Node Type").asText())),
+                "unexpected sequential scan: " + nodes);
+    }
+    
+    /**
+     * Returns every node of the plan tree produced by EXPLAIN (FORMAT JSON).
+     */
+    private static List<JsonNode> explain(String sql) throws Exception {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("EXPLAIN (FORMAT JSON) " + sql)) {
+            rs.next();
+            List<JsonNode> nodes = new ArrayList<>();
+            collect(MAPPER.readTree(rs.getString(1)).get(0).get("Plan"), nodes);
+            return nodes;
+        }
+    }
+    
+    private static void collect(JsonNode node, List<JsonNode> nodes) {
+        nodes.add(node);
+        node.path("Plans").forEach(child -> collect(child, nodes));
+    }
+}
@@ -0,0 +1,40 @@
+package com.santander.challenge.ms_accounts.application.service;
+
+import com.santander.challenge.ms_accounts.domain.port.output.BankAccountCounterPort;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AccountCounterReconciliationServiceTest {
+    
+    @Mock
+    private BankAccountCounterPort bankAccountCounter;
+    
+    @InjectMocks
+    private AccountCounterReconciliationService reconciliationService;
+    
+    @Test
+    void reconcileAll_CountsCorrectedBanksAndContinuesAfterFailures() {
+        UUID inSync = UUID.randomUUID();
+        UUID drifted = UUID.randomUUID();
+        UUID failing = UUID.randomUUID();
+        when(bankAccountCounter.findBankIds()).thenReturn(Set.of(inSync, drifted, failing));
+        when(bankAccountCounter.reconcile(inSync)).thenReturn(0L);
+        when(bankAccountCounter.reconcile(drifted)).thenReturn(-3L);
+        when(bankAccountCounter.reconcile(failing)).thenThrow(new IllegalStateException("lock timeout"));
+        
+        int corrected = reconciliationService.reconcileAll();
+        
+        assertEquals(1, corrected);
+        verify(bankAccountCounter, times(3)).reconcile(any());
+    }
+}
@@ -0,0 +1,77 @@
+package com.santander.challenge.ms_accounts.application.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * JMH benchmark of account-number allocation across threads, with every thread allocating for
+ * the same bank and with each thread allocating for a bank of its own. Blocks come from an
+ * in-memory sequence, so the figures exclude the one database round-trip per block.
+ * Run with: mvn test -Dtest=AccountNumberAllocatorBenchmarkTest -Dbenchmarks=true
+ */
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class AccountNumberAllocatorBenchmarkTest {
+    
+    private static final int THREADS = 8;
+    private static final double MIN_ALLOCATIONS_PER_SECOND = 200_000;
+    
+    private final AccountNumberAllocator allocator =
+            new AccountNumberAllocator(new AccountNumberAllocatorTest.InMemorySequence(1000));
+    private final UUID sharedBankId = UUID.randomUUID();
+    
+    @State(Scope.Thread)
+    public static class ThreadBank {
+        final UUID bankId = UUID.randomUUID();
+    }
+    
+    @Benchmark
+    public String sameBank() {
+        return allocator.next(sharedBankId);
+    }
+    
+    @Benchmark
+    public String bankPerThread(ThreadBank bank) {
+        return allocator.next(bank.bankId);
+    }
+    
+    @Test
+    void allocationThroughput() throws Exception {
+        Options options = new OptionsBuilder()
+                .include(AccountNumberAllocatorBenchmarkTest.class.getName() + "\\.")
+                .threads(THREADS)
+                .forks(1)
+                .warmupIterations(3)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(1))
+                .build();
+        
+        Collection<RunResult> results = new Runner(options).run();
+        
+        for (RunResult result : results) {
+            double score = result.getPrimaryResult().getScore();
+            assertTrue(score >= MIN_ALLOCATIONS_PER_SECOND,
+                    result.getParams().getBenchmark() + " allocated only " + score + " numbers/s");
+        }
+    }
+}
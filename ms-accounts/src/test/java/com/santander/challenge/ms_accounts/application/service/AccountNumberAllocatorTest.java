@@ -0,0 +1,115 @@
+package com.santander.challenge.ms_accounts.application.service;
+
+import com.santander.challenge.ms_accounts.domain.port.output.AccountNumberSequencePort;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountNumberAllocatorTest {
+    
+    @Test
+    void format_PadsToNineteenDigitsAndAppendsLuhnCheckDigit() {
+        assertEquals("00000000000000000000", AccountNumberAllocator.format(0));
+        // 7992739871 is the textbook Luhn example, with check digit 3
+        assertEquals("00000000079927398713", AccountNumberAllocator.format(7_992_739_871L));
+        assertEquals("92233720368547758074", AccountNumberAllocator.format(Long.MAX_VALUE));
+        for (long value = 1; value < 10_000; value += 37) {
+            String accountNumber = AccountNumberAllocator.format(value);
+            assertEquals(AccountNumberAllocator.ACCOUNT_NUMBER_LENGTH, accountNumber.length());
+            assertTrue(passesLuhn(accountNumber), accountNumber);
+        }
+    }
+    
+    @Test
+    void next_ReservesOneBlockPerBlockSizeNumbers() {
+        InMemorySequence sequence = new InMemorySequence(100);
+        AccountNumberAllocator allocator = new AccountNumberAllocator(sequence);
+        UUID bankId = UUID.randomUUID();
+        
+        for (int i = 0; i < 250; i++) {
+            allocator.next(bankId);
+        }
+        
+        assertEquals(3, sequence.reservations.get());
+    }
+    
+    @Test
+    void next_ConcurrentCallsAcrossBanks_NeverRepeatANumber() throws Exception {
+        InMemorySequence sequence = new InMemorySequence(64);
+        AccountNumberAllocator allocator = new AccountNumberAllocator(sequence);
+        List<UUID> banks = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        int threads = 8;
+        int numbersPerThread = 20_000;
+        Set<String> numbers = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int thread = 0; thread < threads; thread++) {
+            int offset = thread;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < numbersPerThread; i++) {
+                    numbers.add(allocator.next(banks.get((i + offset) % banks.size())));
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        
+        assertEquals(threads * numbersPerThread, numbers.size());
+    }
+    
+    private static boolean passesLuhn(String number) {
+        int sum = 0;
+        for (int i = 0; i < number.length(); i++) {
+            int digit = number.charAt(number.length() - 1 - i) - '0';
+            if (i % 2 == 1) {
+                digit = digit * 2 > 9 ? digit * 2 - 9 : digit * 2;
+            }
+            sum += digit;
+        }
+        return sum % 10 == 0;
+    }
+    
+    /**
+     * Sequence incremented by whole blocks, like account_number_seq.
+     */
+    static class InMemorySequence implements AccountNumberSequencePort {
+        
+        private final int blockSize;
+        private final AtomicLong nextBlock = new AtomicLong(1);
+        final AtomicInteger reservations = new AtomicInteger();
+        
+        InMemorySequence(int blockSize) {
+            this.blockSize = blockSize;
+        }
+        
+        @Override
+        public long reserveBlock() {
+            reservations.incrementAndGet();
+            return nextBlock.getAndAdd(blockSize);
+        }
+        
+        @Override
+        public int blockSize() {
+            return blockSize;
+        }
+    }
+}
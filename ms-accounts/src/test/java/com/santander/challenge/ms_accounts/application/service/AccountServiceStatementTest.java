@@ -0,0 +1,471 @@
+package com.santander.challenge.ms_accounts.application.service;
+
+import com.santander.challenge.ms_accounts.adapter.output.persistence.entity.AccountEntity;
+import com.santander.challenge.ms_accounts.adapter.output.persistence.repository.AccountJpaRepository;
+import com.santander.challenge.ms_accounts.domain.exception.AccountNotFoundException;
+import com.santander.challenge.ms_accounts.domain.exception.DuplicateAccountException;
+import com.santander.challenge.ms_accounts.domain.exception.InsufficientFundsException;
+import com.santander.challenge.ms_accounts.domain.exception.UnauthorizedAccessException;
+import com.santander.challenge.ms_accounts.domain.model.Account;
+import com.santander.challenge.ms_accounts.domain.port.output.BankAccountCounterPort;
+import com.santander.challenge.ms_accounts.domain.port.output.BankValidationPort;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Verifies the SQL issued by the account write use cases against a real database.
+ */
+@DataJpaTest(properties = {
+        "spring.cloud.config.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.santander.challenge.ms_accounts.application.service.AccountServiceStatementTest$RecordingStatementInspector"
+})
+@Import({AccountServiceTestConfig.class, BalanceStripeConsolidationService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AccountServiceStatementTest {
+    
+    @Autowired
+    private AccountService accountService;
+    
+    @Autowired
+    private BalanceStripeConsolidationService stripeConsolidation;
+    
+    @Autowired
+    private AccountJpaRepository jpaRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private SimpleMeterRegistry meterRegistry;
+    
+    @MockBean
+    private BankValidationPort bankValidationPort;
+    
+    @MockBean
+    private BankAccountCounterPort bankAccountCounter;
+    
+    private AccountEntity stored;
+    
+    @BeforeEach
+    void setUp() {
+        stored = jpaRepository.save(AccountEntity.builder()
+                .accountNumber("STMT-001")
+                .bankId(UUID.randomUUID())
+                .accountHolderName("Original Holder")
+                .accountType(Account.AccountType.CHECKING)
+                .balance(new BigDecimal("100.00"))
+                .currency("EUR")
+                .status(Account.AccountStatus.ACTIVE)
+                .createdAt(LocalDateTime.now())
+                .build());
+        RecordingStatementInspector.STATEMENTS.clear();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        jpaRepository.deleteAll();
+    }
+    
+    @Test
+    void updateAccount_OneSelectAndOneUpdateOfChangedColumns() {
+        Account changes = Account.builder()
+                .accountNumber("STMT-001")
+                .accountHolderName("Renamed Holder")
+                .accountType(Account.AccountType.CHECKING)
+                .balance(new BigDecimal("100.00"))
+                .currency("EUR")
+                .status(Account.AccountStatus.ACTIVE)
+                .build();
+        
+        accountService.updateAccount(stored.getId(), stored.getBankId(), changes);
+        
+        List<String> statements = RecordingStatementInspector.STATEMENTS;
+        assertEquals(2, statements.size(), statements::toString);
+        assertTrue(statements.get(0).startsWith("select"));
+        assertTrue(statements.get(0).contains("for update"), statements.get(0));
+        String update = statements.get(1);
+        assertTrue(update.startsWith("update accounts set"));
+        assertTrue(update.contains("account_holder_name"));
+        assertFalse(update.contains("account_number"));
+        assertFalse(update.contains("balance"));
+        assertFalse(update.contains("currency"));
+        assertEquals("Renamed Holder", jpaRepository.findById(stored.getId()).orElseThrow().getAccountHolderName());
+    }
+    
+    @Test
+    void deleteAccount_SingleTenantScopedDelete() {
+        accountService.deleteAccount(stored.getId(), stored.getBankId());
+        
+        List<String> statements = RecordingStatementInspector.STATEMENTS;
+        assertEquals(1, statements.size(), statements::toString);
+        assertTrue(statements.get(0).startsWith("delete from accounts"));
+        assertTrue(statements.get(0).contains("bank_id"));
+        assertFalse(jpaRepository.existsById(stored.getId()));
+    }
+    
+    @Test
+    void deleteAccount_OtherBank_KeepsAccountAndThrowsUnauthorized() {
+        assertThrows(UnauthorizedAccessException.class,
+                () -> accountService.deleteAccount(stored.getId(), UUID.randomUUID()));
+        
+        assertEquals(2, RecordingStatementInspector.STATEMENTS.size());
+        assertTrue(jpaRepository.existsById(stored.getId()));
+    }
+    
+    @Test
+    void deleteAccount_Missing_ThrowsNotFound() {
+        assertThrows(AccountNotFoundException.class,
+                () -> accountService.deleteAccount(UUID.randomUUID(), stored.getBankId()));
+    }
+    
+    @Test
+    void createAccount_InsertsWithoutCheckingTheNumberFirst() {
+        when(bankValidationPort.existsById(any())).thenReturn(true);
+        
+        accountService.createAccount(newAccount("STMT-002"));
+        
+        List<String> statements = RecordingStatementInspector.STATEMENTS;
+        assertEquals(1, statements.size(), statements::toString);
+        assertTrue(statements.get(0).startsWith("insert into accounts"));
+    }
+    
+    @Test
+    void createAccount_WithoutNumber_DrawsDistinctNumbersFromTheSequence() {
+        when(bankValidationPort.existsById(any())).thenReturn(true);
+        
+        Account first = accountService.createAccount(newAccount(null));
+        Account second = accountService.createAccount(newAccount(null));
+        
+        assertEquals(20, first.getAccountNumber().length());
+        assertTrue(first.getAccountNumber().chars().allMatch(Character::isDigit));
+        assertNotEquals(first.getAccountNumber(), second.getAccountNumber());
+        assertEquals(first.getAccountNumber(),
+                jpaRepository.findById(first.getId()).orElseThrow().getAccountNumber());
+    }
+    
+    @Test
+    void createAccount_TakenNumber_ThrowsDuplicate() {
+        when(bankValidationPort.existsById(any())).thenReturn(true);
+        
+        assertThrows(DuplicateAccountException.class, () -> accountService.createAccount(newAccount("STMT-001")));
+        verifyNoInteractions(bankAccountCounter);
+    }
+    
+    @Test
+    void concurrentCreatesOfSameNumber_ExactlyOneSucceeds() throws Exception {
+        when(bankValidationPort.existsById(any())).thenReturn(true);
+        int clients = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Account>> futures = new ArrayList<>();
+        for (int client = 0; client < clients; client++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return accountService.createAccount(newAccount("STMT-RACE"));
+            }));
+        }
+        start.countDown();
+        List<Account> created = new ArrayList<>();
+        int duplicates = 0;
+        for (Future<Account> future : futures) {
+            try {
+                created.add(future.get(60, TimeUnit.SECONDS));
+            } catch (ExecutionException ex) {
+                assertInstanceOf(DuplicateAccountException.class, ex.getCause());
+                duplicates++;
+            }
+        }
+        executor.shutdown();
+        
+        assertEquals(1, created.size());
+        assertEquals(clients - 1, duplicates);
+        assertEquals(1, jpaRepository.findAll().stream()
+                .filter(entity -> entity.getAccountNumber().equals("STMT-RACE"))
+                .count());
+        // Counter and journal only follow the insert that committed
+        verify(bankAccountCounter, times(1)).increment(any(), eq(1L));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM account_journal WHERE account_id = ? AND entry_type = 'OPENING'",
+                Integer.class, created.get(0).getId()));
+    }
+    
+    @Test
+    void getAccountById_RepeatedReads_LoadTheAccountOnce() {
+        double hits = cacheHits();
+        long loads = cacheLoads();
+        
+        Account first = accountService.getAccountById(stored.getId(), stored.getBankId());
+        first.setBalance(BigDecimal.ZERO);
+        Account second = accountService.getAccountById(stored.getId(), stored.getBankId());
+        
+        assertEquals(1, RecordingStatementInspector.STATEMENTS.size(), RecordingStatementInspector.STATEMENTS::toString);
+        assertEquals(0, new BigDecimal("100.00").compareTo(second.getBalance()));
+        assertEquals(hits + 1, cacheHits());
+        assertEquals(loads + 1, cacheLoads());
+    }
+    
+    @Test
+    void getAccountById_CachedAccountOfOtherBank_ThrowsUnauthorized() {
+        accountService.getAccountById(stored.getId(), stored.getBankId());
+        
+        assertThrows(UnauthorizedAccessException.class,
+                () -> accountService.getAccountById(stored.getId(), UUID.randomUUID()));
+        assertEquals(1, RecordingStatementInspector.STATEMENTS.size(), RecordingStatementInspector.STATEMENTS::toString);
+    }
+    
+    @Test
+    void getAccountById_AfterWrites_ReflectsThem() {
+        accountService.getAccountById(stored.getId(), stored.getBankId());
+        
+        accountService.deposit(stored.getId(), stored.getBankId(), new BigDecimal("25.00"));
+        assertEquals(0, new BigDecimal("125.00").compareTo(
+                accountService.getAccountById(stored.getId(), stored.getBankId()).getBalance()));
+        
+        Account changes = accountService.getAccountById(stored.getId(), stored.getBankId());
+        changes.setAccountHolderName("Renamed Holder");
+        accountService.updateAccount(stored.getId(), stored.getBankId(), changes);
+        assertEquals("Renamed Holder",
+                accountService.getAccountById(stored.getId(), stored.getBankId()).getAccountHolderName());
+        
+        accountService.deleteAccount(stored.getId(), stored.getBankId());
+        assertThrows(AccountNotFoundException.class,
+                () -> accountService.getAccountById(stored.getId(), stored.getBankId()));
+    }
+    
+    @Test
+    void getAccountByNumber_HotNumber_IsServedFromMemory() {
+        Account first = accountService.getAccountByNumber("STMT-001", stored.getBankId());
+        Account second = accountService.getAccountByNumber("STMT-001", stored.getBankId());
+        
+        assertEquals(stored.getId(), first.getId());
+        assertEquals(stored.getId(), second.getId());
+        List<String> statements = RecordingStatementInspector.STATEMENTS;
+        assertEquals(1, statements.size(), statements::toString);
+        assertTrue(statements.get(0).contains("account_number=?"));
+    }
+    
+    @Test
+    void getAccountByNumber_AfterRenumbering_ResolvesOnlyTheNewNumber() {
+        accountService.getAccountByNumber("STMT-001", stored.getBankId());
+        Account changes = accountService.getAccountById(stored.getId(), stored.getBankId());
+        changes.setAccountNumber("STMT-009");
+        accountService.updateAccount(stored.getId(), stored.getBankId(), changes);
+        
+        assertThrows(AccountNotFoundException.class,
+                () -> accountService.getAccountByNumber("STMT-001", stored.getBankId()));
+        assertEquals(stored.getId(), accountService.getAccountByNumber("STMT-009", stored.getBankId()).getId());
+    }
+    
+    @Test
+    void getAccountsByIds_OneBankScopedQueryInRequestOrder() {
+        when(bankValidationPort.existsById(any())).thenReturn(true);
+        Account otherBank = accountService.createAccount(newAccount("STMT-OTHER"));
+        RecordingStatementInspector.STATEMENTS.clear();
+        UUID missing = UUID.randomUUID();
+        
+        List<Optional<Account>> accounts = accountService.getAccountsByIds(
+                List.of(missing, stored.getId(), otherBank.getId(), stored.getId()), stored.getBankId());
+        
+        List<String> statements = RecordingStatementInspector.STATEMENTS;
+        assertEquals(1, statements.size(), statements::toString);
+        assertTrue(statements.get(0).contains(" in ") && statements.get(0).contains("bank_id=?"), statements.get(0));
+        assertTrue(accounts.get(0).isEmpty());
+        assertEquals(stored.getId(), accounts.get(1).orElseThrow().getId());
+        assertTrue(accounts.get(2).isEmpty());
+        assertEquals(stored.getId(), accounts.get(3).orElseThrow().getId());
+    }
+    
+    @Test
+    void deposit_ReturnsBalanceAfterChange() {
+        Account account = accountService.deposit(stored.getId(), stored.getBankId(), new BigDecimal("25.50"));
+        
+        assertEquals(0, new BigDecimal("125.50").compareTo(account.getBalance()));
+        BigDecimal balance = jpaRepository.findById(stored.getId()).orElseThrow().getBalance();
+        assertEquals(0, new BigDecimal("125.50").compareTo(balance));
+    }
+    
+    @Test
+    void withdraw_MoreThanBalance_LeavesBalanceUnchanged() {
+        assertThrows(InsufficientFundsException.class,
+                () -> accountService.withdraw(stored.getId(), stored.getBankId(), new BigDecimal("100.01")));
+        
+        BigDecimal balance = jpaRepository.findById(stored.getId()).orElseThrow().getBalance();
+        assertEquals(0, new BigDecimal("100.00").compareTo(balance));
+    }
+    
+    @Test
+    void concurrentDepositsAndWithdrawals_LoseNoUpdates() throws Exception {
+        int clients = 8;
+        int operationsPerClient = 50;
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int client = 0; client < clients; client++) {
+            boolean depositing = client % 2 == 0;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < operationsPerClient; i++) {
+                    if (depositing) {
+                        accountService.deposit(stored.getId(), stored.getBankId(), new BigDecimal("2.00"));
+                    } else {
+                        accountService.withdraw(stored.getId(), stored.getBankId(), new BigDecimal("1.00"));
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        
+        // 100.00 + 4 * 50 * 2.00 - 4 * 50 * 1.00
+        BigDecimal balance = jpaRepository.findById(stored.getId()).orElseThrow().getBalance();
+        assertEquals(0, new BigDecimal("300.00").compareTo(balance));
+    }
+    
+    @Test
+    void concurrentOppositeTransfers_NeitherDeadlockNorLoseFunds() throws Exception {
+        AccountEntity other = jpaRepository.save(AccountEntity.builder()
+                .accountNumber("STMT-002")
+                .bankId(UUID.randomUUID())
+                .accountHolderName("Other Holder")
+                .accountType(Account.AccountType.SAVINGS)
+                .balance(new BigDecimal("100.00"))
+                .currency("EUR")
+                .status(Account.AccountStatus.ACTIVE)
+                .createdAt(LocalDateTime.now())
+                .build());
+        int clients = 8;
+        int transfersPerClient = 50;
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int client = 0; client < clients; client++) {
+            // Half of the clients move funds in each direction over the same pair of rows
+            AccountEntity from = client % 2 == 0 ? stored : other;
+            AccountEntity to = client % 2 == 0 ? other : stored;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < transfersPerClient; i++) {
+                    accountService.transfer(from.getId(), from.getBankId(), to.getId(), to.getBankId(), BigDecimal.ONE);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        
+        BigDecimal first = jpaRepository.findById(stored.getId()).orElseThrow().getBalance();
+        BigDecimal second = jpaRepository.findById(other.getId()).orElseThrow().getBalance();
+        assertEquals(0, new BigDecimal("100.00").compareTo(first));
+        assertEquals(0, new BigDecimal("100.00").compareTo(second));
+    }
+    
+    @Test
+    void stripedAccount_ConcurrentDepositsAndWithdrawals_KeepExactTotal() throws Exception {
+        accountService.setBalanceStripes(stored.getId(), stored.getBankId(), 4);
+        int clients = 8;
+        int operationsPerClient = 25;
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int client = 0; client < clients; client++) {
+            boolean depositor = client % 2 == 0;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < operationsPerClient; i++) {
+                    if (depositor) {
+                        accountService.deposit(stored.getId(), stored.getBankId(), new BigDecimal("2.00"));
+                    } else {
+                        accountService.withdraw(stored.getId(), stored.getBankId(), BigDecimal.ONE);
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        
+        // 100.00 + 4 * 25 * 2.00 - 4 * 25 * 1.00
+        BigDecimal total = accountService.getAccountById(stored.getId(), stored.getBankId()).getBalance();
+        assertEquals(0, new BigDecimal("200.00").compareTo(total));
+        
+        stripeConsolidation.consolidateAll();
+        assertEquals(0, new BigDecimal("200.00").compareTo(jpaRepository.findById(stored.getId()).orElseThrow().getBalance()));
+        assertEquals(0, total.compareTo(accountService.getAccountById(stored.getId(), stored.getBankId()).getBalance()));
+    }
+    
+    private double cacheHits() {
+        return meterRegistry.get("cache.gets").tag("cache", "accounts.snapshots").tag("result", "hit")
+                .functionCounter().count();
+    }
+    
+    private long cacheLoads() {
+        return (long) meterRegistry.get("cache.load.latency").tag("cache", "accounts.snapshots")
+                .functionTimer().count();
+    }
+    
+    private static Account newAccount(String accountNumber) {
+        return Account.builder()
+                .accountNumber(accountNumber)
+                .bankId(UUID.randomUUID())
+                .accountHolderName("New Holder")
+                .accountType(Account.AccountType.SAVINGS)
+                .balance(new BigDecimal("10.00"))
+                .currency("EUR")
+                .build();
+    }
+    
+    /**
+     * Records every SQL statement prepared by Hibernate, in lower case.
+     */
+    public static class RecordingStatementInspector implements StatementInspector {
+        
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+        
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql.toLowerCase());
+            return sql;
+        }
+    }
+}
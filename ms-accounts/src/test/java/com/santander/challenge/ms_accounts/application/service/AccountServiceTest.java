@@ -0,0 +1,489 @@
+package com.santander.challenge.ms_accounts.application.service;
+
+import com.santander.challenge.ms_accounts.domain.exception.AccountNotActiveException;
+import com.santander.challenge.ms_accounts.domain.exception.AccountNotFoundException;
+import com.santander.challenge.ms_accounts.domain.exception.AccountSearchNotIndexedException;
+import com.santander.challenge.ms_accounts.domain.exception.AccountValidationException;
+import com.santander.challenge.ms_accounts.domain.exception.BankNotFoundException;
+import com.santander.challenge.ms_accounts.domain.exception.DuplicateAccountException;
+import com.santander.challenge.ms_accounts.domain.exception.InsufficientFundsException;
+import com.santander.challenge.ms_accounts.domain.exception.UnauthorizedAccessException;
+import com.santander.challenge.ms_accounts.domain.model.Account;
+import com.santander.challenge.ms_accounts.domain.model.AccountBatchItemResult;
+import com.santander.challenge.ms_accounts.domain.model.AccountSearchCriteria;
+import com.santander.challenge.ms_accounts.domain.model.AccountStatement;
+import com.santander.challenge.ms_accounts.domain.model.BalanceChange;
+import com.santander.challenge.ms_accounts.domain.model.JournalEntry;
+import com.santander.challenge.ms_accounts.domain.model.TransferResult;
+import com.santander.challenge.ms_accounts.domain.port.output.AccountJournalPort;
+import com.santander.challenge.ms_accounts.domain.port.output.AccountRepositoryPort;
+import com.santander.challenge.ms_accounts.domain.port.output.BankAccountCounterPort;
+import com.santander.challenge.ms_accounts.domain.port.output.BankValidationPort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AccountServiceTest {
+    
+    @Mock
+    private AccountRepositoryPort accountRepository;
+    
+    @Mock
+    private BankValidationPort bankValidationPort;
+    
+    @Mock
+    private BankAccountCounterPort bankAccountCounter;
+    
+    @Mock
+    private AccountJournalPort accountJournal;
+    
+    @Mock
+    private BalanceWriteCoalescer balanceWriteCoalescer;
+    
+    @Mock
+    private AccountNumberAllocator accountNumberAllocator;
+    
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    
+    @InjectMocks
+    private AccountService accountService;
+    
+    private UUID testBankId;
+    private Account testAccount;
+    
+    @BeforeEach
+    void setUp() {
+        testBankId = UUID.randomUUID();
+        testAccount = account("ACC001", testBankId);
+    }
+    
+    @Test
+    void createAccount_Success() {
+        when(bankValidationPort.existsById(testBankId)).thenReturn(true);
+        when(accountRepository.save(any(Account.class))).thenAnswer(invocation -> {
+            Account account = invocation.getArgument(0);
+            account.setId(UUID.randomUUID());
+            return account;
+        });
+        
+        Account result = accountService.createAccount(testAccount);
+        
+        assertNotNull(result.getId());
+        assertEquals(Account.AccountStatus.ACTIVE, result.getStatus());
+        assertNotNull(result.getCreatedAt());
+        verify(accountRepository).save(any(Account.class));
+        verify(accountRepository, never()).existsByAccountNumber(any());
+        verify(bankAccountCounter).increment(testBankId, 1);
+    }
+    
+    @Test
+    void createAccount_BankNotFound_ThrowsException() {
+        when(bankValidationPort.existsById(testBankId)).thenReturn(false);
+        
+        assertThrows(BankNotFoundException.class, () -> accountService.createAccount(testAccount));
+        verify(accountRepository, never()).save(any(Account.class));
+    }
+    
+    @Test
+    void createAccount_DuplicateNumber_ThrowsException() {
+        when(bankValidationPort.existsById(testBankId)).thenReturn(true);
+        when(accountRepository.save(any(Account.class))).thenThrow(new DuplicateAccountException("ACC001"));
+        
+        assertThrows(DuplicateAccountException.class, () -> accountService.createAccount(testAccount));
+        verifyNoInteractions(bankAccountCounter, accountJournal);
+    }
+    
+    @Test
+    void createAccount_WithoutNumber_GeneratesOne() {
+        testAccount.setAccountNumber(null);
+        when(bankValidationPort.existsById(testBankId)).thenReturn(true);
+        when(accountNumberAllocator.next(testBankId)).thenReturn("00000000000000010017");
+        when(accountRepository.save(any(Account.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        
+        Account result = accountService.createAccount(testAccount);
+        
+        assertEquals("00000000000000010017", result.getAccountNumber());
+    }
+    
+    @Test
+    void createAccount_GeneratedNumberTaken_RetriesWithNewNumber() {
+        testAccount.setAccountNumber(null);
+        when(bankValidationPort.existsById(testBankId)).thenReturn(true);
+        when(accountNumberAllocator.next(testBankId)).thenReturn("00000000000000010017", "00000000000000010025");
+        when(accountRepository.save(any(Account.class)))
+                .thenThrow(new DuplicateAccountException("00000000000000010017"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        
+        Account result = accountService.createAccount(testAccount);
+        
+        assertEquals("00000000000000010025", result.getAccountNumber());
+        verify(accountRepository, times(2)).save(any(Account.class));
+    }
+    
+    @Test
+    void createAccounts_WithoutNumbers_GeneratesThemWithoutLookup() {
+        List<Account> accounts = List.of(account(null, testBankId), account("ACC002", testBankId));
+        when(bankValidationPort.existingIds(Set.of(testBankId))).thenReturn(Set.of(testBankId));
+        when(accountRepository.findExistingAccountNumbers(Set.of("ACC002"))).thenReturn(Set.of());
+        when(accountNumberAllocator.next(testBankId)).thenReturn("00000000000000010017");
+        when(accountRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        
+        List<AccountBatchItemResult> results = accountService.createAccounts(accounts);
+        
+        assertTrue(results.get(0).isCreated());
+        assertTrue(results.get(1).isCreated());
+        assertEquals("00000000000000010017", accounts.get(0).getAccountNumber());
+        verify(accountNumberAllocator, times(1)).next(testBankId);
+    }
+    
+    @Test
+    void createAccount_ChosenNumber_IsNotGenerated() {
+        when(bankValidationPort.existsById(testBankId)).thenReturn(true);
+        when(accountRepository.save(any(Account.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        
+        assertEquals("ACC001", accountService.createAccount(testAccount).getAccountNumber());
+        verifyNoInteractions(accountNumberAllocator);
+    }
+    
+    @Test
+    void createAccounts_ReportsEachItem() {
+        UUID unknownBankId = UUID.randomUUID();
+        List<Account> accounts = List.of(
+                account("ACC001", testBankId),
+                account("ACC002", unknownBankId),
+                account("ACC003", testBankId),
+                account("ACC001", testBankId),
+                account("ACC004", testBankId));
+        when(bankValidationPort.existingIds(Set.of(testBankId, unknownBankId))).thenReturn(Set.of(testBankId));
+        when(accountRepository.findExistingAccountNumbers(Set.of("ACC001", "ACC002", "ACC003", "ACC004")))
+                .thenReturn(Set.of("ACC003"));
+        when(accountRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        
+        List<AccountBatchItemResult> results = accountService.createAccounts(accounts);
+        
+        assertEquals(5, results.size());
+        assertTrue(results.get(0).isCreated());
+        assertEquals(AccountBatchItemResult.FailureReason.BANK_NOT_FOUND, results.get(1).getFailureReason());
+        assertEquals(AccountBatchItemResult.FailureReason.DUPLICATE_ACCOUNT_NUMBER, results.get(2).getFailureReason());
+        assertEquals(AccountBatchItemResult.FailureReason.DUPLICATE_ACCOUNT_NUMBER, results.get(3).getFailureReason());
+        assertTrue(results.get(4).isCreated());
+        assertEquals(4, results.get(4).getIndex());
+        verify(bankValidationPort, never()).existsById(any());
+        verify(accountRepository, never()).existsByAccountNumber(any());
+        verify(accountRepository).saveAll(argThat(saved -> saved.size() == 2));
+        verify(bankAccountCounter).increment(testBankId, 2);
+        verifyNoMoreInteractions(bankAccountCounter);
+    }
+    
+    @Test
+    void getAccountByNumber_OtherBank_ThrowsUnauthorized() {
+        Account account = Account.builder().id(UUID.randomUUID()).bankId(UUID.randomUUID()).accountNumber("ACC001").build();
+        when(accountRepository.findByAccountNumber("ACC001")).thenReturn(Optional.of(account));
+        
+        assertThrows(UnauthorizedAccessException.class, () -> accountService.getAccountByNumber("ACC001", testBankId));
+    }
+    
+    @Test
+    void getAccountByNumber_Missing_ThrowsNotFound() {
+        when(accountRepository.findByAccountNumber("ACC404")).thenReturn(Optional.empty());
+        
+        assertThrows(AccountNotFoundException.class, () -> accountService.getAccountByNumber("ACC404", testBankId));
+    }
+    
+    @Test
+    void deleteAccount_DecrementsBankCounter() {
+        UUID accountId = UUID.randomUUID();
+        when(accountRepository.deleteByIdAndBankId(accountId, testBankId)).thenReturn(true);
+        
+        accountService.deleteAccount(accountId, testBankId);
+        
+        verify(accountRepository, never()).findById(any());
+        verify(bankAccountCounter).increment(testBankId, -1);
+    }
+    
+    @Test
+    void deleteAccount_OtherBank_ThrowsUnauthorized() {
+        UUID accountId = UUID.randomUUID();
+        when(accountRepository.deleteByIdAndBankId(accountId, testBankId)).thenReturn(false);
+        when(accountRepository.existsById(accountId)).thenReturn(true);
+        
+        assertThrows(UnauthorizedAccessException.class, () -> accountService.deleteAccount(accountId, testBankId));
+        verifyNoInteractions(bankAccountCounter);
+    }
+    
+    @Test
+    void deleteAccount_Missing_ThrowsNotFound() {
+        UUID accountId = UUID.randomUUID();
+        when(accountRepository.deleteByIdAndBankId(accountId, testBankId)).thenReturn(false);
+        when(accountRepository.existsById(accountId)).thenReturn(false);
+        
+        assertThrows(AccountNotFoundException.class, () -> accountService.deleteAccount(accountId, testBankId));
+        verifyNoInteractions(bankAccountCounter);
+    }
+    
+    @Test
+    void deposit_AppliesDeltaAndReturnsUpdatedAccount() {
+        UUID accountId = UUID.randomUUID();
+        testAccount.setId(accountId);
+        testAccount.setBalance(new BigDecimal("125.00"));
+        when(balanceWriteCoalescer.apply(new BalanceChange(accountId, testBankId, new BigDecimal("25.00"))))
+                .thenReturn(Optional.of(testAccount));
+        
+        Account result = accountService.deposit(accountId, testBankId, new BigDecimal("25.00"));
+        
+        assertEquals(new BigDecimal("125.00"), result.getBalance());
+        verifyNoInteractions(accountRepository);
+    }
+    
+    @Test
+    void withdraw_NotEnoughBalance_ThrowsInsufficientFunds() {
+        UUID accountId = UUID.randomUUID();
+        testAccount.setId(accountId);
+        testAccount.setStatus(Account.AccountStatus.ACTIVE);
+        when(balanceWriteCoalescer.apply(new BalanceChange(accountId, testBankId, new BigDecimal("-500.00"))))
+                .thenReturn(Optional.empty());
+        when(accountRepository.findById(accountId)).thenReturn(Optional.of(testAccount));
+        
+        assertThrows(InsufficientFundsException.class,
+                () -> accountService.withdraw(accountId, testBankId, new BigDecimal("500.00")));
+    }
+    
+    @Test
+    void withdraw_InactiveAccount_ThrowsNotActive() {
+        UUID accountId = UUID.randomUUID();
+        testAccount.setId(accountId);
+        testAccount.setStatus(Account.AccountStatus.BLOCKED);
+        when(balanceWriteCoalescer.apply(new BalanceChange(accountId, testBankId, new BigDecimal("-1.00"))))
+                .thenReturn(Optional.empty());
+        when(accountRepository.findById(accountId)).thenReturn(Optional.of(testAccount));
+        
+        assertThrows(AccountNotActiveException.class,
+                () -> accountService.withdraw(accountId, testBankId, new BigDecimal("1.00")));
+    }
+    
+    @Test
+    void deposit_NonPositiveAmount_ThrowsValidation() {
+        assertThrows(AccountValidationException.class,
+                () -> accountService.deposit(UUID.randomUUID(), testBankId, BigDecimal.ZERO));
+        verifyNoInteractions(balanceWriteCoalescer, accountRepository);
+    }
+    
+    @Test
+    void setBalanceStripes_ChecksOwnershipThenDelegates() {
+        UUID id = UUID.randomUUID();
+        UUID bankId = UUID.randomUUID();
+        Account account = Account.builder().id(id).bankId(bankId).build();
+        when(accountRepository.findById(id)).thenReturn(Optional.of(account));
+        when(accountRepository.setBalanceStripes(id, 8)).thenReturn(account);
+        
+        assertSame(account, accountService.setBalanceStripes(id, bankId, 8));
+        assertThrows(UnauthorizedAccessException.class,
+                () -> accountService.setBalanceStripes(id, UUID.randomUUID(), 8));
+        verify(accountRepository).setBalanceStripes(id, 8);
+    }
+    
+    @Test
+    void setBalanceStripes_OutOfRange_ThrowsValidation() {
+        assertThrows(AccountValidationException.class,
+                () -> accountService.setBalanceStripes(UUID.randomUUID(), UUID.randomUUID(),
+                        AccountService.MAX_BALANCE_STRIPES + 1));
+        verifyNoInteractions(accountRepository);
+    }
+    
+    @Test
+    void transfer_LocksInCanonicalOrderAndMovesFunds() {
+        UUID lowId = new UUID(0, 1);
+        UUID highId = new UUID(0, 2);
+        UUID otherBankId = UUID.randomUUID();
+        Account source = account("ACC-HIGH", testBankId);
+        source.setId(highId);
+        source.setStatus(Account.AccountStatus.ACTIVE);
+        Account target = account("ACC-LOW", otherBankId);
+        target.setId(lowId);
+        target.setStatus(Account.AccountStatus.ACTIVE);
+        when(accountRepository.findByIdForUpdate(highId)).thenReturn(Optional.of(source));
+        when(accountRepository.findByIdForUpdate(lowId)).thenReturn(Optional.of(target));
+        when(accountRepository.update(any(Account.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        
+        TransferResult result = accountService.transfer(highId, testBankId, lowId, otherBankId, new BigDecimal("40.00"));
+        
+        InOrder locks = inOrder(accountRepository);
+        locks.verify(accountRepository).findByIdForUpdate(lowId);
+        locks.verify(accountRepository).findByIdForUpdate(highId);
+        assertEquals(new BigDecimal("60.00"), result.getSource().getBalance());
+        assertEquals(new BigDecimal("140.00"), result.getTarget().getBalance());
+        verify(accountJournal).append(argThat(entries -> entries.size() == 2
+                && entries.get(0).getType() == JournalEntry.EntryType.TRANSFER_OUT
+                && entries.get(0).getAmount().equals(new BigDecimal("-40.00"))
+                && entries.get(1).getType() == JournalEntry.EntryType.TRANSFER_IN
+                && entries.get(1).getAccountId().equals(lowId)));
+    }
+    
+    @Test
+    void getStatement_ReplaysEntriesOnTopOfOpeningBalance() {
+        UUID id = UUID.randomUUID();
+        testAccount.setId(id);
+        LocalDateTime from = LocalDateTime.of(2024, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(1);
+        when(accountRepository.findById(id)).thenReturn(Optional.of(testAccount));
+        when(accountJournal.balanceAsOf(id, from)).thenReturn(new BigDecimal("100.00"));
+        when(accountJournal.findEntries(id, from, to, AccountService.MAX_STATEMENT_ENTRIES + 1)).thenReturn(List.of(
+                JournalEntry.of(testAccount, JournalEntry.EntryType.DEPOSIT, new BigDecimal("25.00"), from.plusHours(1)),
+                JournalEntry.of(testAccount, JournalEntry.EntryType.WITHDRAWAL, new BigDecimal("-5.00"), from.plusHours(2))));
+        
+        AccountStatement statement = accountService.getStatement(id, testBankId, from, to);
+        
+        assertEquals(new BigDecimal("100.00"), statement.getOpeningBalance());
+        assertEquals(new BigDecimal("125.00"), statement.getEntries().get(0).getBalanceAfter());
+        assertEquals(new BigDecimal("120.00"), statement.getEntries().get(1).getBalanceAfter());
+        assertEquals(new BigDecimal("120.00"), statement.getClosingBalance());
+    }
+    
+    @Test
+    void getStatement_EmptyPeriod_ThrowsValidation() {
+        LocalDateTime instant = LocalDateTime.now();
+        
+        assertThrows(AccountValidationException.class,
+                () -> accountService.getStatement(UUID.randomUUID(), testBankId, instant, instant));
+        verifyNoInteractions(accountJournal);
+    }
+    
+    @Test
+    void transfer_InsufficientFunds_WritesNothing() {
+        UUID sourceId = UUID.randomUUID();
+        UUID targetId = UUID.randomUUID();
+        Account source = account("ACC-SRC", testBankId);
+        source.setId(sourceId);
+        source.setStatus(Account.AccountStatus.ACTIVE);
+        Account target = account("ACC-DST", testBankId);
+        target.setId(targetId);
+        target.setStatus(Account.AccountStatus.ACTIVE);
+        when(accountRepository.findByIdForUpdate(sourceId)).thenReturn(Optional.of(source));
+        when(accountRepository.findByIdForUpdate(targetId)).thenReturn(Optional.of(target));
+        
+        assertThrows(InsufficientFundsException.class,
+                () -> accountService.transfer(sourceId, testBankId, targetId, testBankId, new BigDecimal("100.01")));
+        verify(accountRepository, never()).update(any());
+    }
+    
+    @Test
+    void transfer_CurrencyMismatch_ThrowsValidation() {
+        UUID sourceId = UUID.randomUUID();
+        UUID targetId = UUID.randomUUID();
+        Account source = account("ACC-SRC", testBankId);
+        source.setId(sourceId);
+        source.setStatus(Account.AccountStatus.ACTIVE);
+        Account target = account("ACC-DST", testBankId);
+        target.setId(targetId);
+        target.setStatus(Account.AccountStatus.ACTIVE);
+        target.setCurrency("USD");
+        when(accountRepository.findByIdForUpdate(sourceId)).thenReturn(Optional.of(source));
+        when(accountRepository.findByIdForUpdate(targetId)).thenReturn(Optional.of(target));
+        
+        assertThrows(AccountValidationException.class,
+                () -> accountService.transfer(sourceId, testBankId, targetId, testBankId, BigDecimal.ONE));
+        verify(accountRepository, never()).update(any());
+    }
+    
+    @Test
+    void transfer_SameAccount_ThrowsValidation() {
+        UUID accountId = UUID.randomUUID();
+        
+        assertThrows(AccountValidationException.class,
+                () -> accountService.transfer(accountId, testBankId, accountId, testBankId, BigDecimal.ONE));
+        verifyNoInteractions(accountRepository);
+    }
+    
+    @Test
+    void countByBankId_ReadsMaterializedCounter() {
+        when(bankAccountCounter.count(testBankId)).thenReturn(42L);
+        
+        assertEquals(42L, accountService.countByBankId(testBankId));
+        verify(accountRepository, never()).countByBankId(any());
+    }
+    
+    @Test
+    void getAccountsByBankIdAfter_SizeOutOfRange_ThrowsException() {
+        assertThrows(AccountValidationException.class,
+                () -> accountService.getAccountsByBankIdAfter(testBankId, null, AccountService.MAX_SLICE_SIZE + 1));
+        assertThrows(AccountValidationException.class,
+                () -> accountService.getAccountsByBankIdAfter(testBankId, null, 0));
+        verifyNoInteractions(accountRepository);
+    }
+    
+    @Test
+    void searchAccounts_UnindexedFiltersOnLargeBank_ThrowsException() {
+        AccountSearchCriteria criteria = AccountSearchCriteria.builder().currency("EUR").build();
+        when(accountRepository.isIndexedSearch(criteria)).thenReturn(false);
+        when(bankAccountCounter.count(testBankId)).thenReturn(AccountService.MAX_UNINDEXED_SEARCH_ACCOUNTS + 1L);
+        
+        assertThrows(AccountSearchNotIndexedException.class,
+                () -> accountService.searchAccounts(testBankId, criteria, null, 50));
+        verify(accountRepository, never()).search(any(), any(), any(), anyInt());
+    }
+    
+    @Test
+    void searchAccounts_UnindexedFiltersOnSmallBank_Searches() {
+        AccountSearchCriteria criteria = AccountSearchCriteria.builder().currency("EUR").build();
+        when(accountRepository.isIndexedSearch(criteria)).thenReturn(false);
+        when(bankAccountCounter.count(testBankId)).thenReturn((long) AccountService.MAX_UNINDEXED_SEARCH_ACCOUNTS);
+        when(accountRepository.search(testBankId, criteria, null, 50)).thenReturn(new SliceImpl<>(List.of(testAccount)));
+        
+        assertEquals(List.of(testAccount), accountService.searchAccounts(testBankId, criteria, null, 50).getContent());
+    }
+    
+    @Test
+    void searchAccounts_IndexedFilters_SkipsCounter() {
+        AccountSearchCriteria criteria = AccountSearchCriteria.builder().status(Account.AccountStatus.ACTIVE).build();
+        when(accountRepository.isIndexedSearch(criteria)).thenReturn(true);
+        when(accountRepository.search(testBankId, criteria, null, 50)).thenReturn(new SliceImpl<>(List.of()));
+        
+        accountService.searchAccounts(testBankId, criteria, null, 50);
+        
+        verifyNoInteractions(bankAccountCounter);
+    }
+    
+    @Test
+    void searchAccounts_InvertedBalanceRange_ThrowsValidation() {
+        AccountSearchCriteria criteria = AccountSearchCriteria.builder()
+                .minBalance(new BigDecimal("10.00"))
+                .maxBalance(new BigDecimal("5.00"))
+                .build();
+        
+        assertThrows(AccountValidationException.class,
+                () -> accountService.searchAccounts(testBankId, criteria, null, 50));
+        verifyNoInteractions(accountRepository);
+    }
+    
+    private static Account account(String accountNumber, UUID bankId) {
+        return Account.builder()
+                .accountNumber(accountNumber)
+                .bankId(bankId)
+                .accountHolderName("Test Holder")
+                .accountType(Account.AccountType.CHECKING)
+                .balance(new BigDecimal("100.00"))
+                .currency("EUR")
+                .build();
+    }
+}
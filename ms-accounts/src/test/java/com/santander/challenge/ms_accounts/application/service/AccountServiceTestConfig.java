@@ -0,0 +1,17 @@
+package com.santander.challenge.ms_accounts.application.service;
+
+import com.santander.challenge.ms_accounts.adapter.output.persistence.adapter.AccountJournalRepositoryAdapter;
+import com.santander.challenge.ms_accounts.adapter.output.persistence.adapter.AccountNumberSequenceAdapter;
+import com.santander.challenge.ms_accounts.adapter.output.persistence.adapter.AccountPersistenceTestConfig;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Import;
+
+/**
+ * The account service wired to its persistence adapters, for tests that run the use cases against
+ * a real database. The ports to ms-banks are left for each test to mock.
+ */
+@TestConfiguration
+@Import({AccountService.class, BalanceWriteCoalescer.class, AccountJournalRepositoryAdapter.class,
+        AccountNumberAllocator.class, AccountNumberSequenceAdapter.class, AccountPersistenceTestConfig.class})
+public class AccountServiceTestConfig {
+}
@@ -0,0 +1,150 @@
+package com.santander.challenge.ms_accounts.application.service;
+
+import com.santander.challenge.ms_accounts.domain.model.Account;
+import com.santander.challenge.ms_accounts.domain.model.AccountBatchItemResult;
+import com.santander.challenge.ms_accounts.domain.port.output.BankAccountCounterPort;
+import com.santander.challenge.ms_accounts.domain.port.output.BankValidationPort;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the service against real transactions: remote bank validation must hold no database
+ * connection, and concurrent writes to one account must keep its journal in line with its balance.
+ */
+@DataJpaTest(properties = {
+        "spring.cloud.config.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.datasource.url=jdbc:h2:mem:account-service-tx;DB_CLOSE_DELAY=-1"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(AccountServiceTestConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AccountServiceTransactionTest {
+    
+    @Autowired
+    private AccountService accountService;
+    
+    @Autowired
+    private HikariDataSource dataSource;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @MockBean
+    private BankValidationPort bankValidationPort;
+    
+    @MockBean
+    private BankAccountCounterPort bankAccountCounter;
+    
+    @Test
+    void createAccount_HoldsNoConnectionDuringBankValidation() {
+        AtomicInteger connectionsDuringRemoteCall = new AtomicInteger(-1);
+        when(bankValidationPort.existsById(any())).thenAnswer(invocation -> {
+            assertFalse(TransactionSynchronizationManager.isActualTransactionActive());
+            connectionsDuringRemoteCall.set(dataSource.getHikariPoolMXBean().getActiveConnections());
+            return true;
+        });
+        
+        Account created = accountService.createAccount(account("TX-ACC-001", UUID.randomUUID()));
+        
+        assertNotNull(created.getId());
+        assertEquals(0, connectionsDuringRemoteCall.get());
+    }
+    
+    @Test
+    void createAccounts_HoldsNoConnectionDuringBankValidation() {
+        UUID bankId = UUID.randomUUID();
+        AtomicInteger connectionsDuringRemoteCall = new AtomicInteger(-1);
+        when(bankValidationPort.existingIds(anySet())).thenAnswer(invocation -> {
+            assertFalse(TransactionSynchronizationManager.isActualTransactionActive());
+            connectionsDuringRemoteCall.set(dataSource.getHikariPoolMXBean().getActiveConnections());
+            return Set.of(bankId);
+        });
+        
+        List<AccountBatchItemResult> results = accountService.createAccounts(List.of(account("TX-ACC-002", bankId)));
+        
+        assertTrue(results.get(0).isCreated());
+        assertEquals(0, connectionsDuringRemoteCall.get());
+    }
+    
+    @Test
+    void updateAccount_ConcurrentWithDeposits_JournalAddsUpToBalance() throws Exception {
+        when(bankValidationPort.existsById(any())).thenReturn(true);
+        Account created = accountService.createAccount(account("TX-ACC-003", UUID.randomUUID()));
+        UUID id = created.getId();
+        UUID bankId = created.getBankId();
+        
+        ExecutorService executor = Executors.newFixedThreadPool(6);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int writer = 0; writer < 4; writer++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 25; i++) {
+                    accountService.deposit(id, bankId, BigDecimal.ONE);
+                }
+                return null;
+            }));
+        }
+        for (int writer = 0; writer < 2; writer++) {
+            int offset = writer;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 10; i++) {
+                    Account changes = accountService.getAccountById(id, bankId);
+                    changes.setBalance(new BigDecimal(500 + 10 * i + offset));
+                    accountService.updateAccount(id, bankId, changes);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        
+        BigDecimal balance = jdbcTemplate.queryForObject(
+                "SELECT balance FROM accounts WHERE id = ?", BigDecimal.class, id);
+        BigDecimal journaled = jdbcTemplate.queryForObject(
+                "SELECT SUM(amount) FROM account_journal WHERE account_id = ?", BigDecimal.class, id);
+        assertEquals(0, balance.compareTo(journaled), "balance " + balance + ", journal " + journaled);
+    }
+    
+    private static Account account(String accountNumber, UUID bankId) {
+        return Account.builder()
+                .accountNumber(accountNumber)
+                .bankId(bankId)
+                .accountHolderName("Test Holder")
+                .accountType(Account.AccountType.CHECKING)
+                .balance(new BigDecimal("100.00"))
+                .currency("EUR")
+                .build();
+    }
+}
@@ -0,0 +1,249 @@
+package com.santander.challenge.ms_accounts.application.service;
+
+import com.santander.challenge.ms_accounts.domain.exception.BalanceWriteTimeoutException;
+import com.santander.challenge.ms_accounts.domain.model.Account;
+import com.santander.challenge.ms_accounts.domain.model.BalanceChange;
+import com.santander.challenge.ms_accounts.domain.model.JournalEntry;
+import com.santander.challenge.ms_accounts.domain.port.output.AccountJournalPort;
+import com.santander.challenge.ms_accounts.domain.port.output.AccountRepositoryPort;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BalanceWriteCoalescerTest {
+    
+    @Mock
+    private AccountRepositoryPort accountRepository;
+    
+    @Mock
+    private AccountJournalPort accountJournal;
+    
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+    private BalanceWriteCoalescer coalescer;
+    
+    @AfterEach
+    void tearDown() {
+        if (coalescer != null) {
+            coalescer.stop();
+        }
+    }
+    
+    @Test
+    void concurrentChanges_AreWrittenInFewerTransactionsAndCompletedIndividually() throws Exception {
+        echoDeltas();
+        start(Duration.ofMillis(20), 16, 1000);
+        int callers = 64;
+        
+        List<Optional<Account>> results = applyConcurrently(callers);
+        
+        for (int i = 0; i < callers; i++) {
+            assertEquals(Optional.of(BigDecimal.valueOf(i)), results.get(i).map(Account::getBalance));
+        }
+        assertTrue(batchSizes.size() < callers, "expected coalescing, got " + batchSizes);
+        assertTrue(batchSizes.stream().allMatch(size -> size <= 16));
+        assertEquals(callers, batchSizes.stream().mapToInt(Integer::intValue).sum());
+        assertEquals(batchSizes.size(), meterRegistry.get("accounts.balance.coalescer.batch.size").summary().count());
+        assertEquals(16.0, meterRegistry.get("accounts.balance.coalescer.max.batch.size").gauge().value());
+    }
+    
+    @Test
+    void fullBatch_IsWrittenBeforeTheDelayExpires() throws Exception {
+        echoDeltas();
+        start(Duration.ofSeconds(30), 4, 1000);
+        
+        long started = System.nanoTime();
+        applyConcurrently(4);
+        
+        assertTrue(System.nanoTime() - started < TimeUnit.SECONDS.toNanos(10));
+    }
+    
+    @Test
+    void fullQueue_AppliesChangeDirectly() {
+        echoDeltas();
+        start(Duration.ofMillis(5), 16, 0);
+        
+        Optional<Account> result = coalescer.apply(change(7));
+        
+        assertEquals(Optional.of(BigDecimal.valueOf(7)), result.map(Account::getBalance));
+        assertEquals(1.0, meterRegistry.get("accounts.balance.coalescer.overflow").counter().count());
+        verify(accountJournal).append(argThat(entries -> entries.size() == 1
+                && entries.get(0).getType() == JournalEntry.EntryType.DEPOSIT
+                && entries.get(0).getAmount().equals(BigDecimal.valueOf(7))));
+    }
+    
+    @Test
+    void rejectedChange_IsNotJournaled() {
+        when(accountRepository.applyBalanceDeltas(anyList())).thenReturn(List.of(Optional.empty()));
+        start(Duration.ofMillis(5), 16, 1000);
+        
+        assertEquals(Optional.empty(), coalescer.apply(change(-3)));
+        verify(accountJournal).append(List.of());
+    }
+    
+    @Test
+    void failedChange_FailsItsCaller() {
+        when(accountRepository.applyBalanceDeltas(anyList())).thenThrow(new IllegalStateException("database down"));
+        start(Duration.ofMillis(5), 16, 1000);
+        
+        assertThrows(IllegalStateException.class, () -> coalescer.apply(change(1)));
+    }
+    
+    @Test
+    void failedBatch_IsRetriedSoOnlyTheFailingChangeFails() throws Exception {
+        when(accountRepository.applyBalanceDeltas(anyList())).thenAnswer(invocation -> {
+            List<BalanceChange> changes = invocation.getArgument(0);
+            batchSizes.add(changes.size());
+            if (changes.stream().anyMatch(change -> change.getDelta().intValue() == 3)) {
+                throw new IllegalStateException("constraint violated");
+            }
+            return changes.stream().map(change -> Optional.of(account(change.getDelta()))).toList();
+        });
+        start(Duration.ofSeconds(30), 8, 1000);
+        
+        List<Future<Optional<Account>>> futures = submitConcurrently(8);
+        
+        for (int i = 0; i < 8; i++) {
+            if (i == 3) {
+                ExecutionException failure = assertThrows(ExecutionException.class, futures.get(i)::get);
+                assertInstanceOf(IllegalStateException.class, failure.getCause());
+            } else {
+                assertEquals(Optional.of(BigDecimal.valueOf(i)), futures.get(i).get(30, TimeUnit.SECONDS).map(Account::getBalance));
+            }
+        }
+        assertEquals(8, batchSizes.get(0));
+        assertEquals(1.0, meterRegistry.get("accounts.balance.coalescer.retries").counter().count());
+    }
+    
+    @Test
+    void stuckWriter_CallersStopWaitingAndQueuedChangesAreDropped() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<BalanceChange> written = new CopyOnWriteArrayList<>();
+        when(accountRepository.applyBalanceDeltas(anyList())).thenAnswer(invocation -> {
+            List<BalanceChange> changes = invocation.getArgument(0);
+            written.addAll(changes);
+            release.await(30, TimeUnit.SECONDS);
+            return changes.stream().map(change -> Optional.of(account(change.getDelta()))).toList();
+        });
+        coalescer = new BalanceWriteCoalescer(accountRepository, accountJournal, transactionManager, meterRegistry,
+                Duration.ofMillis(5), 1, 1000, Duration.ofMillis(100));
+        coalescer.start();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<Optional<Account>> stuck = executor.submit(() -> coalescer.apply(change(1)));
+        while (written.isEmpty()) {
+            Thread.sleep(5);
+        }
+        
+        long started = System.nanoTime();
+        BalanceWriteTimeoutException queued = assertThrows(BalanceWriteTimeoutException.class,
+                () -> coalescer.apply(change(2)));
+        
+        assertTrue(System.nanoTime() - started < TimeUnit.SECONDS.toNanos(5));
+        assertTrue(queued.getMessage().contains("not applied"), queued.getMessage());
+        ExecutionException inFlight = assertThrows(ExecutionException.class, () -> stuck.get(5, TimeUnit.SECONDS));
+        assertTrue(inFlight.getCause().getMessage().contains("check the balance"), inFlight.getCause().getMessage());
+        release.countDown();
+        coalescer.stop();
+        executor.shutdown();
+        assertEquals(List.of(BigDecimal.valueOf(1)), written.stream().map(BalanceChange::getDelta).toList());
+        assertEquals(2.0, meterRegistry.get("accounts.balance.coalescer.timeouts").counter().count());
+    }
+    
+    @Test
+    void deadWriter_IsReplacedByTheNextCaller() {
+        when(accountRepository.applyBalanceDeltas(anyList()))
+                .thenThrow(new AssertionError("writer killed"))
+                .thenAnswer(invocation -> List.of(Optional.of(account(BigDecimal.valueOf(2)))));
+        start(Duration.ofMillis(5), 16, 1000);
+        
+        assertThrows(IllegalStateException.class, () -> coalescer.apply(change(1)));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (coalescer.isWriterAlive() && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertFalse(coalescer.isWriterAlive());
+        
+        assertEquals(Optional.of(BigDecimal.valueOf(2)), coalescer.apply(change(2)).map(Account::getBalance));
+        assertEquals(1.0, meterRegistry.get("accounts.balance.coalescer.writer.restarts").counter().count());
+    }
+    
+    private void start(Duration maxDelay, int maxBatchSize, int queueCapacity) {
+        coalescer = new BalanceWriteCoalescer(accountRepository, accountJournal, transactionManager, meterRegistry,
+                maxDelay, maxBatchSize, queueCapacity, Duration.ofSeconds(5));
+        coalescer.start();
+    }
+    
+    /**
+     * Makes the repository report each change's delta as its resulting balance.
+     */
+    private void echoDeltas() {
+        when(accountRepository.applyBalanceDeltas(anyList())).thenAnswer(invocation -> {
+            List<BalanceChange> changes = invocation.getArgument(0);
+            batchSizes.add(changes.size());
+            return changes.stream().map(change -> Optional.of(account(change.getDelta()))).toList();
+        });
+    }
+    
+    private List<Optional<Account>> applyConcurrently(int callers) throws Exception {
+        List<Optional<Account>> results = new ArrayList<>();
+        for (Future<Optional<Account>> future : submitConcurrently(callers)) {
+            results.add(future.get(30, TimeUnit.SECONDS));
+        }
+        return results;
+    }
+    
+    /**
+     * Applies changes with deltas 0 to callers - 1 from as many threads, released at once.
+     */
+    private List<Future<Optional<Account>>> submitConcurrently(int callers) {
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Optional<Account>>> futures = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            BalanceChange change = change(i);
+            futures.add(executor.submit(() -> {
+                start.await();
+                return coalescer.apply(change);
+            }));
+        }
+        start.countDown();
+        executor.shutdown();
+        return futures;
+    }
+    
+    private static Account account(BigDecimal balance) {
+        return Account.builder().balance(balance).build();
+    }
+    
+    private static BalanceChange change(int delta) {
+        return new BalanceChange(UUID.randomUUID(), UUID.randomUUID(), BigDecimal.valueOf(delta));
+    }
+}
@@ -0,0 +1,152 @@
+package com.santander.challenge.ms_accounts.application.service;
+
+import com.santander.challenge.ms_accounts.adapter.output.persistence.entity.AccountEntity;
+import com.santander.challenge.ms_accounts.adapter.output.persistence.repository.AccountJpaRepository;
+import com.santander.challenge.ms_accounts.domain.exception.InsufficientFundsException;
+import com.santander.challenge.ms_accounts.domain.model.Account;
+import com.santander.challenge.ms_accounts.domain.port.output.BankAccountCounterPort;
+import com.santander.challenge.ms_accounts.domain.port.output.BankValidationPort;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Measures sustained transfers per second on PostgreSQL with many clients moving funds, in both
+ * directions, across a small set of accounts so that most transfers contend on overlapping rows.
+ * Run with: mvn test -Dtest=TransferBenchmarkTest -Dbenchmarks=true (requires Docker).
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+@DataJpaTest(properties = {
+        "spring.cloud.config.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.datasource.hikari.maximum-pool-size=" + TransferBenchmarkTest.CLIENTS
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(AccountServiceTestConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TransferBenchmarkTest {
+    
+    private static final Logger log = LoggerFactory.getLogger(TransferBenchmarkTest.class);
+    
+    static final int CLIENTS = 32;
+    private static final int ACCOUNTS = 16;
+    private static final Duration WARM_UP = Duration.ofSeconds(5);
+    private static final Duration MEASUREMENT = Duration.ofSeconds(20);
+    private static final BigDecimal INITIAL_BALANCE = new BigDecimal("1000000.00");
+    
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15-alpine");
+    
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+    
+    @Autowired
+    private AccountService accountService;
+    
+    @Autowired
+    private AccountJpaRepository jpaRepository;
+    
+    @MockBean
+    private BankValidationPort bankValidationPort;
+    
+    @MockBean
+    private BankAccountCounterPort bankAccountCounter;
+    
+    @Test
+    void sustainedTransfersWithOverlappingPairs() throws Exception {
+        List<AccountEntity> accounts = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accounts.add(jpaRepository.save(AccountEntity.builder()
+                    .accountNumber("BENCH-" + i)
+                    .bankId(UUID.randomUUID())
+                    .accountHolderName("Benchmark Holder " + i)
+                    .accountType(Account.AccountType.CHECKING)
+                    .balance(INITIAL_BALANCE)
+                    .currency("EUR")
+                    .status(Account.AccountStatus.ACTIVE)
+                    .createdAt(LocalDateTime.now())
+                    .build()));
+        }
+        
+        LongAdder completed = new LongAdder();
+        LongAdder failed = new LongAdder();
+        long measureFrom = System.nanoTime() + WARM_UP.toNanos();
+        long measureUntil = measureFrom + MEASUREMENT.toNanos();
+        ExecutorService executor = Executors.newFixedThreadPool(CLIENTS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int client = 0; client < CLIENTS; client++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.nanoTime() < measureUntil) {
+                    AccountEntity from = accounts.get(random.nextInt(ACCOUNTS));
+                    AccountEntity to = accounts.get(random.nextInt(ACCOUNTS));
+                    if (from == to) {
+                        continue;
+                    }
+                    try {
+                        accountService.transfer(from.getId(), from.getBankId(), to.getId(), to.getBankId(), BigDecimal.ONE);
+                        if (System.nanoTime() >= measureFrom) {
+                            completed.increment();
+                        }
+                    } catch (InsufficientFundsException e) {
+                        failed.increment();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            // Any deadlock or lock timeout surfaces here as an ExecutionException
+            future.get(WARM_UP.plus(MEASUREMENT).toSeconds() + 60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        
+        BigDecimal total = jpaRepository.findAll().stream()
+                .map(AccountEntity::getBalance)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertEquals(0, INITIAL_BALANCE.multiply(BigDecimal.valueOf(ACCOUNTS)).compareTo(total));
+        
+        assertTrue(completed.sum() > 0, "no transfer completed within the measurement window");
+        
+        log.info("{} clients, {} accounts: {} transfers/s, {} rejected", CLIENTS, ACCOUNTS,
+                Math.round(completed.sum() / (double) MEASUREMENT.toSeconds()), failed.sum());
+    }
+}
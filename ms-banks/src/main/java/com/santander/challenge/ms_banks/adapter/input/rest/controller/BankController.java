@@ -21,6 +21,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -136,6 +137,30 @@ public class BankController {
         return ResponseEntity.ok(response);
     }
     
+    /**
+     * Resolves which banks exist among a set of identifiers in a single round-trip.
+     */
+    @Operation(
+            summary = "Check bank existence in bulk",
+            description = "Receives a set of bank UUIDs and returns the subset that exists. Used by ms-accounts to validate many banks with one call."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Existing bank identifiers",
+                    content = @Content(schema = @Schema(implementation = UUID.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Too many identifiers requested",
+                    content = @Content
+            )
+    })
+    @PostMapping("/exists")
+    public ResponseEntity<Set<UUID>> getExistingBankIds(@RequestBody Set<UUID> ids) {
+        return ResponseEntity.ok(bankService.getExistingBankIds(ids));
+    }
+    
     /**
      * Updates an existing bank.
      */
@@ -192,6 +217,11 @@ public class BankController {
                     responseCode = "409",
                     description = "The bank has associated accounts and cannot be deleted",
                     content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "503",
+                    description = "ms-accounts is unavailable, so the bank's accounts could not be verified",
+                    content = @Content
             )
     })
     @DeleteMapping("/{id}")
@@ -16,6 +16,8 @@ public enum ErrorCode {
     // Conflict errors (4xx)
     DUPLICATE_BANK_CODE("DUPLICATE_BANK_CODE", "Bank code already exists"),
     BANK_HAS_ACCOUNTS("BANK_HAS_ACCOUNTS", "Cannot delete bank with associated accounts"),
+    IDEMPOTENCY_KEY_IN_USE("IDEMPOTENCY_KEY_IN_USE", "A request with the same idempotency key is in progress"),
+    IDEMPOTENCY_KEY_MISMATCH("IDEMPOTENCY_KEY_MISMATCH", "Idempotency key reused with a different request"),
     
     // Server errors (5xx)
     INTERNAL_SERVER_ERROR("INTERNAL_SERVER_ERROR", "Internal server error"),
@@ -1,10 +1,30 @@
 package com.santander.challenge.ms_banks.adapter.output.http.client;
 
+import com.santander.challenge.common.http.client.RemoteCallGuard;
+import com.santander.challenge.ms_banks.domain.exception.AccountServiceUnavailableException;
+import com.santander.challenge.ms_banks.domain.port.output.BankEventPublisherPort;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.RetryRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 
 import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Feign client used to communicate with ms-accounts in order to validate
@@ -13,6 +33,17 @@ import java.util.UUID;
 @FeignClient(name = "ms-accounts", url = "${feign.client.ms-accounts.url:http://localhost:9090}")
 public interface AccountClient {
     
+    /**
+     * Name of the resilience4j bulkhead, circuit breaker and retry instances guarding the requests of this client.
+     */
+    String RESILIENCE_INSTANCE = "ms-accounts";
+    
+    /**
+     * Name of the resilience4j instances guarding bank event notifications, kept apart so that
+     * notifications never take the permits or trip the circuit of the requests.
+     */
+    String EVENTS_RESILIENCE_INSTANCE = "ms-accounts-events";
+    
     /**
      * Counts the accounts associated with a bank.
      *
@@ -21,29 +52,140 @@ public interface AccountClient {
      */
     @GetMapping("/api/accounts/count")
     Long countByBankId(@RequestParam("bankId") UUID bankId);
+    
+    /**
+     * Notifies ms-accounts about a bank lifecycle event.
+     *
+     * @param request event payload
+     */
+    @PostMapping("/api/accounts/internal/bank-events")
+    void notifyBankEvent(@RequestBody BankEventRequest request);
+    
+    @lombok.Data
+    @lombok.NoArgsConstructor
+    @lombok.AllArgsConstructor
+    class BankEventRequest {
+        private UUID bankId;
+        private String type;
+    }
 }
 
 /**
- * Adapter that implements AccountCountPort using Feign.
+ * Adapter that implements AccountCountPort using Feign, guarded by the "ms-accounts" bulkhead,
+ * circuit breaker and retry. When ms-accounts cannot answer the count is unknown, so an
+ * AccountServiceUnavailableException is thrown rather than letting a bank with accounts be deleted.
  */
 @org.springframework.stereotype.Component
 class AccountCountAdapter implements com.santander.challenge.ms_banks.domain.port.output.AccountCountPort {
     
+    private static final Logger log = LoggerFactory.getLogger(AccountCountAdapter.class);
+    
     private final AccountClient accountClient;
+    private final RemoteCallGuard remoteCallGuard;
     
-    public AccountCountAdapter(AccountClient accountClient) {
+    public AccountCountAdapter(AccountClient accountClient,
+                               CircuitBreakerRegistry circuitBreakerRegistry,
+                               BulkheadRegistry bulkheadRegistry,
+                               RetryRegistry retryRegistry) {
         this.accountClient = accountClient;
+        this.remoteCallGuard = new RemoteCallGuard(
+                AccountClient.RESILIENCE_INSTANCE, circuitBreakerRegistry, bulkheadRegistry, retryRegistry);
     }
     
     @Override
     public Long countByBankId(UUID bankId) {
         try {
-            return accountClient.countByBankId(bankId);
-        } catch (Exception e) {
-            // Fallback: assume there are zero accounts so that deletion can continue.
-            // In production this should be handled with proper resilience patterns (circuit breaker, retries, etc.).
-            return 0L;
+            return remoteCallGuard.call(() -> accountClient.countByBankId(bankId));
+        } catch (RuntimeException e) {
+            log.warn("Could not count accounts of bankId {} in ms-accounts: {}", bankId, e.toString());
+            throw new AccountServiceUnavailableException(
+                    "Account service is unavailable; could not verify the accounts of bank " + bankId, e);
         }
     }
 }
 
+
+/**
+ * Adapter that implements BankEventPublisherPort by notifying ms-accounts through Feign.
+ * Notifications are sent once the surrounding transaction commits so that consumers never
+ * observe an event for a change that was rolled back. They are sent from a small bounded pool,
+ * guarded by the "ms-accounts-events" instances, so a slow ms-accounts never holds the request
+ * that committed; when the pool is saturated the notification is dropped.
+ */
+@org.springframework.stereotype.Component
+class BankEventPublisherAdapter implements BankEventPublisherPort, DisposableBean {
+    
+    private static final Logger log = LoggerFactory.getLogger(BankEventPublisherAdapter.class);
+    private final AccountClient accountClient;
+    private final RemoteCallGuard remoteCallGuard;
+    private final ExecutorService executor;
+    
+    public BankEventPublisherAdapter(AccountClient accountClient,
+                                     CircuitBreakerRegistry circuitBreakerRegistry,
+                                     BulkheadRegistry bulkheadRegistry,
+                                     RetryRegistry retryRegistry,
+                                     @Value("${banks.events.threads:2}") int threads,
+                                     @Value("${banks.events.queue-capacity:1000}") int queueCapacity) {
+        this.accountClient = accountClient;
+        this.remoteCallGuard = new RemoteCallGuard(
+                AccountClient.EVENTS_RESILIENCE_INSTANCE, circuitBreakerRegistry, bulkheadRegistry, retryRegistry);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "bank-events-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+    
+    @Override
+    public void publishBankCreated(UUID bankId) {
+        publishAfterCommit(bankId, "CREATED");
+    }
+    
+    @Override
+    public void publishBankDeleted(UUID bankId) {
+        publishAfterCommit(bankId, "DELETED");
+    }
+    
+    private void publishAfterCommit(UUID bankId, String type) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit(bankId, type);
+                }
+            });
+        } else {
+            submit(bankId, type);
+        }
+    }
+    
+    private void submit(UUID bankId, String type) {
+        try {
+            executor.execute(() -> publish(bankId, type));
+        } catch (RejectedExecutionException e) {
+            log.warn("Dropped bank event {} for bankId {}: too many notifications pending", type, bankId);
+        }
+    }
+    
+    private void publish(UUID bankId, String type) {
+        try {
+            remoteCallGuard.call(() -> {
+                accountClient.notifyBankEvent(new AccountClient.BankEventRequest(bankId, type));
+                return null;
+            });
+        } catch (Exception e) {
+            // Consumers fall back to their cache TTL, so a lost notification only delays eviction
+            log.warn("Could not notify bank event {} for bankId {}: {}", type, bankId, e.getMessage());
+        }
+    }
+    
+    @Override
+    public void destroy() throws InterruptedException {
+        // Give the notifications already accepted a chance to go out
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+}
@@ -3,13 +3,20 @@ package com.santander.challenge.ms_banks.adapter.output.persistence.adapter;
 import com.santander.challenge.ms_banks.adapter.output.persistence.entity.BankEntity;
 import com.santander.challenge.ms_banks.adapter.output.persistence.repository.BankJpaRepository;
 import com.santander.challenge.ms_banks.application.mapper.BankMapper;
+import com.santander.challenge.ms_banks.domain.exception.DuplicateBankException;
 import com.santander.challenge.ms_banks.domain.model.Bank;
 import com.santander.challenge.ms_banks.domain.port.output.BankRepositoryPort;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityNotFoundException;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Component;
 
+import java.util.Locale;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -18,19 +25,45 @@ import java.util.UUID;
 @Component
 public class BankRepositoryAdapter implements BankRepositoryPort {
     
+    private static final String CODE_CONSTRAINT = "uk_banks_code";
+    
+    private static final String UNIQUE_VIOLATION = "23505";
+    
     private final BankJpaRepository jpaRepository;
     private final BankMapper bankMapper;
+    private final EntityManager entityManager;
     
-    public BankRepositoryAdapter(BankJpaRepository jpaRepository, BankMapper bankMapper) {
+    public BankRepositoryAdapter(BankJpaRepository jpaRepository, BankMapper bankMapper, EntityManager entityManager) {
         this.jpaRepository = jpaRepository;
         this.bankMapper = bankMapper;
+        this.entityManager = entityManager;
     }
     
     @Override
     public Bank save(Bank bank) {
         BankEntity entity = bankMapper.toEntity(bank);
-        BankEntity savedEntity = jpaRepository.save(entity);
-        return bankMapper.toDomain(savedEntity);
+        try {
+            // Flushed right away so that a taken code is reported here, not on commit
+            BankEntity savedEntity = jpaRepository.saveAndFlush(entity);
+            return bankMapper.toDomain(savedEntity);
+        } catch (DataIntegrityViolationException ex) {
+            if (violates(ex, CODE_CONSTRAINT, "code")) {
+                throw new DuplicateBankException("Bank with code " + bank.getCode() + " already exists", ex);
+            }
+            throw ex;
+        }
+    }
+    
+    @Override
+    public Bank update(Bank bank) {
+        // Served from the persistence context when the bank was already read in this transaction
+        BankEntity entity = entityManager.find(BankEntity.class, bank.getId());
+        if (entity == null) {
+            throw new EntityNotFoundException("Bank " + bank.getId() + " does not exist");
+        }
+        bankMapper.updateEntity(bank, entity);
+        // Dirty checking issues the UPDATE on flush, limited to the changed columns
+        return bankMapper.toDomain(entity);
     }
     
     @Override
@@ -52,8 +85,12 @@ public class BankRepositoryAdapter implements BankRepositoryPort {
     }
     
     @Override
-    public void deleteById(UUID id) {
-        jpaRepository.deleteById(id);
+    public boolean deleteById(UUID id) {
+        // Removed as an entity so that only its own cache entry is evicted; a bulk DELETE would clear
+        // the whole bank region. The bank is usually found in that cache, so no SELECT is issued either
+        Optional<BankEntity> entity = jpaRepository.findById(id);
+        entity.ifPresent(jpaRepository::delete);
+        return entity.isPresent();
     }
     
     @Override
@@ -71,5 +108,29 @@ public class BankRepositoryAdapter implements BankRepositoryPort {
     public boolean existsByCodeAndIdNot(String code, UUID excludeId) {
         return jpaRepository.existsByCodeAndIdNot(code, excludeId);
     }
+    
+    @Override
+    public Set<UUID> findExistingIds(Set<UUID> ids) {
+        return jpaRepository.findExistingIds(ids);
+    }
+    
+    /**
+     * Returns true when the violation was raised by the given unique constraint. Databases report
+     * the constraint name in different cases, and H2 reports the name of its backing index. Schemas
+     * adopted from Hibernate keep its generated UK... name, so a unique violation whose message
+     * names the constrained column counts as well.
+     */
+    private static boolean violates(DataIntegrityViolationException ex, String constraint, String column) {
+        if (!(ex.getCause() instanceof ConstraintViolationException violation)) {
+            return false;
+        }
+        String name = violation.getConstraintName();
+        if (name != null && name.toLowerCase(Locale.ROOT).contains(constraint)) {
+            return true;
+        }
+        String message = violation.getSQLException().getMessage();
+        return UNIQUE_VIOLATION.equals(violation.getSQLState())
+                && message != null
+                && message.toLowerCase(Locale.ROOT).contains("(" + column);
+    }
 }
-
@@ -1,20 +1,30 @@
 package com.santander.challenge.ms_banks.adapter.output.persistence.entity;
 
+import com.santander.challenge.common.persistence.id.TimeOrderedUuid;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 /**
  * JPA entity for Bank representing the banks table in the database.
+ * Cached in the second-level cache; updates and deletes made through JPA refresh the region on commit.
  */
 @Entity
+@DynamicUpdate
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = BankEntity.CACHE_REGION)
 @Table(name = "banks", uniqueConstraints = {
     @UniqueConstraint(columnNames = "code")
+}, indexes = {
+    @Index(name = "idx_banks_country_id", columnList = "country, id")
 })
 @Data
 @Builder
@@ -22,8 +32,10 @@ import java.util.UUID;
 @AllArgsConstructor
 public class BankEntity {
     
+    public static final String CACHE_REGION = "bank";
+    
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     @Column(name = "id", updatable = false, nullable = false)
     private UUID id;
     
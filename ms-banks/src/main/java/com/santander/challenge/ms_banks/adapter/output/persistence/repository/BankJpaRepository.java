@@ -1,12 +1,19 @@
 package com.santander.challenge.ms_banks.adapter.output.persistence.repository;
 
 import com.santander.challenge.ms_banks.adapter.output.persistence.entity.BankEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -15,14 +22,21 @@ import java.util.UUID;
 @Repository
 public interface BankJpaRepository extends JpaRepository<BankEntity, UUID> {
     
+    String BY_CODE_CACHE_REGION = "bank-by-code";
+    
     /**
      * Checks whether a bank exists with the given code.
      */
     boolean existsByCode(String code);
     
     /**
-     * Finds a bank by its code.
+     * Finds a bank by its code. Results are kept in the query cache, which Hibernate
+     * invalidates whenever the banks table is written through JPA.
      */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = BY_CODE_CACHE_REGION)
+    })
     Optional<BankEntity> findByCode(String code);
     
     /**
@@ -34,5 +48,11 @@ public interface BankJpaRepository extends JpaRepository<BankEntity, UUID> {
      * Checks whether a bank exists with the code excluding a specific identifier.
      */
     boolean existsByCodeAndIdNot(String code, UUID id);
+    
+    /**
+     * Returns the subset of the given identifiers that belong to existing banks, using a single IN query.
+     */
+    @Query("SELECT b.id FROM BankEntity b WHERE b.id IN :ids")
+    Set<UUID> findExistingIds(@Param("ids") Collection<UUID> ids);
 }
 
@@ -112,5 +112,20 @@ public class BankMapper {
         entity.setUpdatedAt(bank.getUpdatedAt());
         return entity;
     }
+    
+    /**
+     * Copies the mutable fields of a bank onto a managed entity, so that dirty checking
+     * flushes only the columns whose values actually changed. Identity and creation time
+     * are never overwritten.
+     */
+    public void updateEntity(Bank bank, BankEntity entity) {
+        entity.setCode(bank.getCode());
+        entity.setName(bank.getName());
+        entity.setCountry(bank.getCountry());
+        entity.setAddress(bank.getAddress());
+        entity.setPhone(bank.getPhone());
+        entity.setEmail(bank.getEmail());
+        entity.setUpdatedAt(bank.getUpdatedAt());
+    }
 }
 
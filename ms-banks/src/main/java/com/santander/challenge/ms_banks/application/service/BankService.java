@@ -2,51 +2,74 @@ package com.santander.challenge.ms_banks.application.service;
 
 import com.santander.challenge.ms_banks.domain.exception.BankHasAccountsException;
 import com.santander.challenge.ms_banks.domain.exception.BankNotFoundException;
+import com.santander.challenge.ms_banks.domain.exception.BankValidationException;
 import com.santander.challenge.ms_banks.domain.exception.DuplicateBankException;
 import com.santander.challenge.ms_banks.domain.model.Bank;
 import com.santander.challenge.ms_banks.domain.port.input.BankServicePort;
 import com.santander.challenge.ms_banks.domain.port.output.AccountCountPort;
+import com.santander.challenge.ms_banks.domain.port.output.BankEventPublisherPort;
 import com.santander.challenge.ms_banks.domain.port.output.BankRepositoryPort;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 /**
  * Service that implements the Bank use cases and encapsulates the domain logic.
+ * Calls to ms-accounts happen outside any transaction, so no database connection is held
+ * while waiting on the network; only the local reads and writes are transactional.
  */
 @Service
-@Transactional
 public class BankService implements BankServicePort {
     
+    /**
+     * Maximum number of identifiers accepted by a single existence check.
+     */
+    static final int MAX_EXISTENCE_BATCH_SIZE = 1000;
+    
     private final BankRepositoryPort bankRepository;
     private final AccountCountPort accountCountPort;
+    private final BankEventPublisherPort bankEventPublisher;
+    private final TransactionTemplate transactionTemplate;
     
-    public BankService(BankRepositoryPort bankRepository, AccountCountPort accountCountPort) {
+    public BankService(BankRepositoryPort bankRepository, 
+                       AccountCountPort accountCountPort,
+                       BankEventPublisherPort bankEventPublisher,
+                       PlatformTransactionManager transactionManager) {
         this.bankRepository = bankRepository;
         this.accountCountPort = accountCountPort;
+        this.bankEventPublisher = bankEventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
     
     @Override
     public Bank createBank(Bank bank) {
-        // Validate unique code constraint
-        if (bankRepository.existsByCode(bank.getCode())) {
-            throw new DuplicateBankException(bank.getCode());
-        }
+        // The unique constraint on the code rejects duplicates on insert
+        Bank createdBank = transactionTemplate.execute(status -> {
+            // Normalize the code to uppercase
+            bank.setCode(bank.getCode().toUpperCase());
+            
+            // Assign timestamps
+            LocalDateTime now = LocalDateTime.now();
+            bank.setCreatedAt(now);
+            bank.setUpdatedAt(now);
+            
+            return bankRepository.save(bank);
+        });
         
-        // Normalize the code to uppercase
-        bank.setCode(bank.getCode().toUpperCase());
+        // Let ms-accounts evict any cached negative lookup for this bank, once the bank is committed
+        bankEventPublisher.publishBankCreated(createdBank.getId());
         
-        // Assign timestamps
-        LocalDateTime now = LocalDateTime.now();
-        bank.setCreatedAt(now);
-        bank.setUpdatedAt(now);
-        
-        return bankRepository.save(bank);
+        return createdBank;
     }
     
     @Override
@@ -69,6 +92,7 @@ public class BankService implements BankServicePort {
     }
     
     @Override
+    @Transactional
     public Bank updateBank(UUID id, Bank bank) {
         // Ensure the bank exists
         Bank existingBank = bankRepository.findById(id)
@@ -90,7 +114,7 @@ public class BankService implements BankServicePort {
         existingBank.setEmail(bank.getEmail());
         existingBank.setUpdatedAt(LocalDateTime.now());
         
-        return bankRepository.save(existingBank);
+        return bankRepository.update(existingBank);
     }
     
     @Override
@@ -99,13 +123,26 @@ public class BankService implements BankServicePort {
         bankRepository.findById(id)
                 .orElseThrow(() -> new BankNotFoundException(id));
         
-        // Ensure there are no associated accounts
+        // Ensure there are no associated accounts (remote call, outside any transaction)
         Long accountCount = accountCountPort.countByBankId(id);
         if (accountCount > 0) {
             throw new BankHasAccountsException(id, accountCount);
         }
         
-        bankRepository.deleteById(id);
+        // A bank removed concurrently since the check above is reported as not found, whether it is
+        // already gone when reloaded or its DELETE matches no row on commit
+        Boolean deleted;
+        try {
+            deleted = transactionTemplate.execute(status -> bankRepository.deleteById(id));
+        } catch (OptimisticLockingFailureException ex) {
+            deleted = false;
+        }
+        if (!Boolean.TRUE.equals(deleted)) {
+            throw new BankNotFoundException(id);
+        }
+        
+        // Let ms-accounts evict its cached existence result for this bank
+        bankEventPublisher.publishBankDeleted(id);
     }
     
     @Override
@@ -119,5 +156,21 @@ public class BankService implements BankServicePort {
     public Optional<Bank> findByCode(String code) {
         return bankRepository.findByCode(code);
     }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public Set<UUID> getExistingBankIds(Set<UUID> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return Collections.emptySet();
+        }
+        
+        // Bound the IN list so a single request cannot produce an unbounded query
+        if (ids.size() > MAX_EXISTENCE_BATCH_SIZE) {
+            throw new BankValidationException(
+                    "At most " + MAX_EXISTENCE_BATCH_SIZE + " bank ids can be checked per request");
+        }
+        
+        return bankRepository.findExistingIds(ids);
+    }
 }
 
@@ -0,0 +1,54 @@
+package com.santander.challenge.ms_banks.config;
+
+import com.santander.challenge.common.idempotency.IdempotencyFilter;
+import com.santander.challenge.common.idempotency.IdempotencyKeyPort;
+import com.santander.challenge.common.idempotency.IdempotencyKeyRepositoryAdapter;
+import com.santander.challenge.common.idempotency.IdempotencyService;
+import com.santander.challenge.ms_banks.domain.exception.BankValidationException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Configuration of Idempotency-Key support on the bank endpoints. The existence check is a
+ * read sent as POST, so it is excluded.
+ */
+@Configuration
+public class IdempotencyConfig {
+    
+    @Bean
+    public IdempotencyKeyPort idempotencyKeyPort(JdbcTemplate jdbcTemplate) {
+        return new IdempotencyKeyRepositoryAdapter(jdbcTemplate);
+    }
+    
+    @Bean
+    public IdempotencyService idempotencyService(
+            IdempotencyKeyPort idempotencyKeyPort,
+            MeterRegistry meterRegistry,
+            @Value("${banks.idempotency.ttl:PT24H}") Duration ttl,
+            @Value("${banks.idempotency.lock-timeout:PT1M}") Duration lockTimeout,
+            @Value("${banks.idempotency.cache-max-size:10000}") long cacheMaxSize,
+            @Value("${banks.idempotency.cleanup-interval:PT10M}") Duration cleanupInterval,
+            @Value("${banks.idempotency.cleanup-initial-delay:PT1M}") Duration cleanupInitialDelay) {
+        return new IdempotencyService(idempotencyKeyPort, meterRegistry, ttl, lockTimeout, cacheMaxSize,
+                cleanupInterval, cleanupInitialDelay);
+    }
+    
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(
+            IdempotencyService idempotencyService,
+            @Qualifier("handlerExceptionResolver") HandlerExceptionResolver exceptionResolver) {
+        FilterRegistrationBean<IdempotencyFilter> registration = new FilterRegistrationBean<>(
+                new IdempotencyFilter(idempotencyService, exceptionResolver, Set.of("/api/banks/exists"), BankValidationException::new));
+        registration.addUrlPatterns("/api/banks", "/api/banks/*");
+        return registration;
+    }
+}
@@ -37,7 +37,7 @@ public class OpenApiConfig {
         Info info = new Info()
                 .title("MS Banks API")
                 .version("1.0.0")
-                .description("REST API for bank management. This microservice exposes CRUD operations for banks, including create, read, update, and delete.")
+                .description("REST API for bank management. This microservice exposes CRUD operations for banks, including create, read, update, and delete. Mutating operations accept an optional Idempotency-Key header: retries with the same key and request receive the original response.")
                 .contact(contact)
                 .license(license);
         
@@ -0,0 +1,12 @@
+package com.santander.challenge.ms_banks.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Configuration class that enables scheduled maintenance jobs for the ms-banks module.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,12 @@
+package com.santander.challenge.ms_banks.domain.exception;
+
+/**
+ * Exception thrown when ms-accounts cannot answer (timeout, error response, open circuit
+ * or saturated bulkhead), so the accounts of a bank cannot be verified.
+ */
+public class AccountServiceUnavailableException extends RuntimeException {
+    
+    public AccountServiceUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -5,6 +5,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -80,5 +81,14 @@ public interface BankServicePort {
      * @return optional containing the bank if present
      */
     Optional<Bank> findByCode(String code);
+    
+    /**
+     * Resolves which of the given bank identifiers exist.
+     *
+     * @param ids bank identifiers to check
+     * @return subset of identifiers that belong to existing banks
+     * @throws com.santander.challenge.ms_banks.domain.exception.BankValidationException when too many identifiers are requested
+     */
+    Set<UUID> getExistingBankIds(Set<UUID> ids);
 }
 
@@ -12,6 +12,7 @@ public interface AccountCountPort {
      *
      * @param bankId bank identifier
      * @return number of accounts
+     * @throws com.santander.challenge.ms_banks.domain.exception.AccountServiceUnavailableException when ms-accounts cannot answer
      */
     Long countByBankId(UUID bankId);
 }
@@ -0,0 +1,24 @@
+package com.santander.challenge.ms_banks.domain.port.output;
+
+import java.util.UUID;
+
+/**
+ * Output port that notifies other microservices about bank lifecycle changes,
+ * allowing them to evict locally cached bank information.
+ */
+public interface BankEventPublisherPort {
+    
+    /**
+     * Publishes that a bank has been created.
+     *
+     * @param bankId bank identifier
+     */
+    void publishBankCreated(UUID bankId);
+    
+    /**
+     * Publishes that a bank has been deleted.
+     *
+     * @param bankId bank identifier
+     */
+    void publishBankDeleted(UUID bankId);
+}
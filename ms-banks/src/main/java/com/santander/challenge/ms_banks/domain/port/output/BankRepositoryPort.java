@@ -5,6 +5,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -14,13 +15,26 @@ import java.util.UUID;
 public interface BankRepositoryPort {
     
     /**
-     * Saves a bank.
+     * Saves a new bank. The row is inserted right away, with the unique constraint on the code
+     * as the only duplicate check. Must be called within a transaction.
      *
      * @param bank bank to persist
      * @return persisted bank
+     * @throws com.santander.challenge.ms_banks.domain.exception.DuplicateBankException
+     *         if the code is already taken
      */
     Bank save(Bank bank);
     
+    /**
+     * Writes the mutable fields of an existing bank. When the bank was read earlier in the
+     * same transaction no further query is issued, and only the changed columns are updated.
+     * Must be called within a transaction.
+     *
+     * @param bank bank holding the new state
+     * @return updated bank
+     */
+    Bank update(Bank bank);
+    
     /**
      * Finds a bank by its identifier.
      *
@@ -50,8 +64,9 @@ public interface BankRepositoryPort {
      * Deletes a bank by its identifier.
      *
      * @param id bank identifier
+     * @return true when the bank was deleted, false when it did not exist
      */
-    void deleteById(UUID id);
+    boolean deleteById(UUID id);
     
     /**
      * Checks whether a bank exists with the given code.
@@ -78,5 +93,13 @@ public interface BankRepositoryPort {
      * @return true when another bank with the same code exists, false otherwise
      */
     boolean existsByCodeAndIdNot(String code, UUID excludeId);
+    
+    /**
+     * Returns the subset of the given identifiers that belong to existing banks.
+     *
+     * @param ids identifiers to look up
+     * @return identifiers of the banks that exist
+     */
+    Set<UUID> findExistingIds(Set<UUID> ids);
 }
 
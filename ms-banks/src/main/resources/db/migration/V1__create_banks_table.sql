@@ -0,0 +1,15 @@
+-- Banks table. IF NOT EXISTS lets schemas previously generated by Hibernate be adopted
+-- through baseline-on-migrate without failing.
+CREATE TABLE IF NOT EXISTS banks (
+    id         UUID         NOT NULL,
+    code       VARCHAR(10)  NOT NULL,
+    name       VARCHAR(100) NOT NULL,
+    country    VARCHAR(50)  NOT NULL,
+    address    VARCHAR(200),
+    phone      VARCHAR(20),
+    email      VARCHAR(100),
+    created_at TIMESTAMP(6) NOT NULL,
+    updated_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_banks PRIMARY KEY (id),
+    CONSTRAINT uk_banks_code UNIQUE (code)
+);
@@ -0,0 +1,3 @@
+-- Serves findByCountry: equality on country with pages ordered by id, and an
+-- index-only scan for the page COUNT.
+CREATE INDEX IF NOT EXISTS idx_banks_country_id ON banks (country, id);
@@ -19,6 +19,7 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.any;
@@ -131,4 +132,17 @@ class BankControllerTest {
         mockMvc.perform(delete("/api/banks/" + TEST_BANK_ID))
                 .andExpect(status().isNoContent());
     }
+    
+    @Test
+    void getExistingBankIds_Success() throws Exception {
+        UUID missingBankId = UUID.randomUUID();
+        when(bankService.getExistingBankIds(Set.of(TEST_BANK_ID, missingBankId))).thenReturn(Set.of(TEST_BANK_ID));
+        
+        mockMvc.perform(post("/api/banks/exists")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Set.of(TEST_BANK_ID, missingBankId))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0]").value(TEST_BANK_ID.toString()));
+    }
 }
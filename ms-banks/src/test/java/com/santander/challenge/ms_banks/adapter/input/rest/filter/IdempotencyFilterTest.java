@@ -0,0 +1,125 @@
+package com.santander.challenge.ms_banks.adapter.input.rest.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.santander.challenge.common.idempotency.IdempotencyFilter;
+import com.santander.challenge.ms_banks.adapter.input.rest.controller.BankController;
+import com.santander.challenge.ms_banks.adapter.input.rest.dto.request.CreateBankRequest;
+import com.santander.challenge.ms_banks.adapter.input.rest.dto.response.BankResponse;
+import com.santander.challenge.ms_banks.application.mapper.BankMapper;
+import com.santander.challenge.ms_banks.application.service.BankInternalService;
+import com.santander.challenge.ms_banks.config.IdempotencyConfig;
+import com.santander.challenge.ms_banks.domain.model.Bank;
+import com.santander.challenge.ms_banks.domain.port.input.BankServicePort;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureJdbc;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Verifies Idempotency-Key handling on the bank endpoints against the H2 key store.
+ */
+@WebMvcTest(value = BankController.class, properties = "spring.cloud.config.enabled=false")
+@AutoConfigureJdbc
+@AutoConfigureTestDatabase
+@Import({IdempotencyConfig.class, SimpleMeterRegistry.class})
+class IdempotencyFilterTest {
+    
+    private static final UUID TEST_BANK_ID = UUID.randomUUID();
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @MockBean
+    private BankServicePort bankService;
+    
+    @MockBean
+    private BankInternalService bankInternalService;
+    
+    @MockBean
+    private BankMapper bankMapper;
+    
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM idempotency_keys");
+        Bank bank = Bank.builder().id(TEST_BANK_ID).code("IDEM01").build();
+        when(bankMapper.toDomain(any(CreateBankRequest.class))).thenReturn(bank);
+        when(bankService.createBank(any(Bank.class))).thenReturn(bank);
+        when(bankMapper.toResponse(any(Bank.class)))
+                .thenReturn(BankResponse.builder().id(TEST_BANK_ID).code("IDEM01").build());
+    }
+    
+    @Test
+    void retriedCreate_IsAnsweredFromTheStore() throws Exception {
+        String key = UUID.randomUUID().toString();
+        
+        mockMvc.perform(createBank(key, "IDEM01"))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER));
+        mockMvc.perform(createBank(key, "IDEM01"))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"))
+                .andExpect(jsonPath("$.id").value(TEST_BANK_ID.toString()));
+        
+        verify(bankService, times(1)).createBank(any(Bank.class));
+    }
+    
+    @Test
+    void keyReusedWithDifferentRequest_ReturnsUnprocessableEntity() throws Exception {
+        String key = UUID.randomUUID().toString();
+        mockMvc.perform(createBank(key, "IDEM01")).andExpect(status().isCreated());
+        
+        mockMvc.perform(createBank(key, "IDEM02"))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.code").value("IDEMPOTENCY_KEY_MISMATCH"));
+        verify(bankService, times(1)).createBank(any(Bank.class));
+    }
+    
+    @Test
+    void existenceCheck_IsNotRecorded() throws Exception {
+        when(bankService.getExistingBankIds(Set.of(TEST_BANK_ID))).thenReturn(Set.of(TEST_BANK_ID));
+        
+        mockMvc.perform(post("/api/banks/exists")
+                        .header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, UUID.randomUUID().toString())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Set.of(TEST_BANK_ID))))
+                .andExpect(status().isOk());
+        
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM idempotency_keys", Integer.class));
+    }
+    
+    private MockHttpServletRequestBuilder createBank(String key, String code) throws Exception {
+        CreateBankRequest request = new CreateBankRequest();
+        request.setCode(code);
+        request.setName("Idempotent Bank");
+        request.setCountry("Spain");
+        request.setEmail("idempotent@bank.com");
+        return post("/api/banks")
+                .header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, key)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request));
+    }
+}
@@ -0,0 +1,97 @@
+package com.santander.challenge.ms_banks.adapter.output.http.client;
+
+import com.santander.challenge.ms_banks.domain.exception.AccountServiceUnavailableException;
+import feign.Request;
+import feign.RetryableException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AccountCountAdapterTest {
+    
+    @Mock
+    private AccountClient accountClient;
+    
+    private AccountCountAdapter adapter;
+    private UUID testBankId;
+    
+    @BeforeEach
+    void setUp() {
+        // Mirrors the ms-config settings with a small window and no backoff
+        CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .slidingWindowSize(4)
+                .minimumNumberOfCalls(4)
+                .failureRateThreshold(50)
+                .build());
+        RetryRegistry retryRegistry = RetryRegistry.of(RetryConfig.custom()
+                .maxAttempts(2)
+                .waitDuration(Duration.ofMillis(1))
+                .retryExceptions(RetryableException.class)
+                .build());
+        adapter = new AccountCountAdapter(accountClient,
+                circuitBreakerRegistry, BulkheadRegistry.ofDefaults(), retryRegistry);
+        testBankId = UUID.randomUUID();
+    }
+    
+    @Test
+    void countByBankId_Success() {
+        when(accountClient.countByBankId(testBankId)).thenReturn(3L);
+        
+        assertEquals(3L, adapter.countByBankId(testBankId));
+    }
+    
+    @Test
+    void countByBankId_RetriesTransientFailure() {
+        when(accountClient.countByBankId(testBankId))
+                .thenThrow(connectionRefused())
+                .thenReturn(0L);
+        
+        assertEquals(0L, adapter.countByBankId(testBankId));
+        verify(accountClient, times(2)).countByBankId(testBankId);
+    }
+    
+    @Test
+    void countByBankId_RemoteFailure_ThrowsInsteadOfReturningZero() {
+        when(accountClient.countByBankId(testBankId)).thenThrow(connectionRefused());
+        
+        assertThrows(AccountServiceUnavailableException.class, () -> adapter.countByBankId(testBankId));
+    }
+    
+    @Test
+    void countByBankId_OpenCircuit_FailsFast() {
+        when(accountClient.countByBankId(testBankId)).thenThrow(new RuntimeException("Internal error"));
+        for (int i = 0; i < 4; i++) {
+            assertThrows(AccountServiceUnavailableException.class, () -> adapter.countByBankId(testBankId));
+        }
+        clearInvocations(accountClient);
+        
+        AccountServiceUnavailableException ex = assertThrows(AccountServiceUnavailableException.class,
+                () -> adapter.countByBankId(testBankId));
+        
+        assertInstanceOf(CallNotPermittedException.class, ex.getCause());
+        verifyNoInteractions(accountClient);
+    }
+    
+    private static RetryableException connectionRefused() {
+        Request request = Request.create(Request.HttpMethod.GET, "/api/accounts/count", Collections.emptyMap(),
+                null, StandardCharsets.UTF_8, null);
+        return new RetryableException(-1, "Connection refused", Request.HttpMethod.GET, (Long) null, request);
+    }
+}
@@ -0,0 +1,103 @@
+package com.santander.challenge.ms_banks.adapter.output.http.client;
+
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.RetryRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BankEventPublisherAdapterTest {
+    
+    @Mock
+    private AccountClient accountClient;
+    
+    private final CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+    private final BulkheadRegistry bulkheadRegistry = BulkheadRegistry.ofDefaults();
+    private BankEventPublisherAdapter adapter;
+    private UUID testBankId;
+    
+    @BeforeEach
+    void setUp() {
+        adapter = new BankEventPublisherAdapter(accountClient,
+                circuitBreakerRegistry, bulkheadRegistry, RetryRegistry.ofDefaults(), 1, 1);
+        testBankId = UUID.randomUUID();
+    }
+    
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        adapter.destroy();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+    
+    @Test
+    void publish_SlowAccountService_DoesNotHoldTheCaller() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> release.await(30, TimeUnit.SECONDS)).when(accountClient).notifyBankEvent(any());
+        
+        long started = System.nanoTime();
+        adapter.publishBankCreated(testBankId);
+        
+        assertTrue(System.nanoTime() - started < TimeUnit.SECONDS.toNanos(5));
+        verify(accountClient, timeout(5000)).notifyBankEvent(new AccountClient.BankEventRequest(testBankId, "CREATED"));
+        release.countDown();
+    }
+    
+    @Test
+    void publish_WithinTransaction_WaitsForCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        
+        adapter.publishBankDeleted(testBankId);
+        verifyNoInteractions(accountClient);
+        
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        verify(accountClient, timeout(5000)).notifyBankEvent(new AccountClient.BankEventRequest(testBankId, "DELETED"));
+    }
+    
+    @Test
+    void publish_SaturatedPool_DropsTheNotification() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch sending = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            sending.countDown();
+            return release.await(30, TimeUnit.SECONDS);
+        }).when(accountClient).notifyBankEvent(any());
+        
+        adapter.publishBankCreated(testBankId);
+        assertTrue(sending.await(5, TimeUnit.SECONDS));
+        // One notification is being sent and one fills the queue, so the third is dropped
+        adapter.publishBankCreated(UUID.randomUUID());
+        adapter.publishBankCreated(UUID.randomUUID());
+        release.countDown();
+        adapter.destroy();
+        
+        verify(accountClient, times(2)).notifyBankEvent(any());
+    }
+    
+    @Test
+    void publish_UsesItsOwnResilienceInstances() {
+        adapter.publishBankCreated(testBankId);
+        
+        verify(accountClient, timeout(5000)).notifyBankEvent(any());
+        assertTrue(circuitBreakerRegistry.find(AccountClient.EVENTS_RESILIENCE_INSTANCE).isPresent());
+        assertTrue(bulkheadRegistry.find(AccountClient.EVENTS_RESILIENCE_INSTANCE).isPresent());
+        assertTrue(circuitBreakerRegistry.find(AccountClient.RESILIENCE_INSTANCE).isEmpty());
+        assertTrue(bulkheadRegistry.find(AccountClient.RESILIENCE_INSTANCE).isEmpty());
+    }
+}
@@ -0,0 +1,138 @@
+package com.santander.challenge.ms_banks.adapter.output.persistence.adapter;
+
+import com.santander.challenge.ms_banks.adapter.output.persistence.entity.BankEntity;
+import com.santander.challenge.ms_banks.adapter.output.persistence.repository.BankJpaRepository;
+import com.santander.challenge.ms_banks.application.mapper.BankMapper;
+import com.santander.challenge.ms_banks.config.HibernateCacheConfig;
+import com.santander.challenge.ms_banks.domain.model.Bank;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.cloud.config.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+@Import({HibernateCacheConfig.class, BankRepositoryAdapter.class, BankMapper.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BankRepositoryAdapterCacheTest {
+    
+    @Autowired
+    private BankRepositoryAdapter adapter;
+    
+    @Autowired
+    private BankJpaRepository jpaRepository;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    private Statistics statistics;
+    private Bank bank;
+    
+    @BeforeEach
+    void setUp() {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictAllRegions();
+        statistics = sessionFactory.getStatistics();
+        
+        bank = adapter.save(Bank.builder()
+                .code("CACHE01")
+                .name("Cached Bank")
+                .country("Spain")
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build());
+        statistics.clear();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        jpaRepository.deleteAll();
+    }
+    
+    @Test
+    void findById_ServedFromEntityCacheWithoutQueryingDatabase() {
+        adapter.findById(bank.getId());
+        long statementsAfterFirstRead = statistics.getPrepareStatementCount();
+        
+        Bank cached = adapter.findById(bank.getId()).orElseThrow();
+        
+        assertEquals("Cached Bank", cached.getName());
+        assertEquals(statementsAfterFirstRead, statistics.getPrepareStatementCount());
+        assertTrue(statistics.getDomainDataRegionStatistics(BankEntity.CACHE_REGION).getHitCount() >= 1);
+    }
+    
+    @Test
+    void findByCode_ServedFromQueryCache() {
+        adapter.findByCode("CACHE01");
+        long statementsAfterFirstRead = statistics.getPrepareStatementCount();
+        
+        Bank cached = adapter.findByCode("CACHE01").orElseThrow();
+        
+        assertEquals(bank.getId(), cached.getId());
+        assertEquals(statementsAfterFirstRead, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getQueryRegionStatistics(BankJpaRepository.BY_CODE_CACHE_REGION).getHitCount());
+    }
+    
+    @Test
+    void update_RefreshesCachedEntityAndQueryResults() {
+        adapter.findById(bank.getId());
+        adapter.findByCode("CACHE01");
+        
+        Bank loaded = adapter.findById(bank.getId()).orElseThrow();
+        loaded.setName("Renamed Bank");
+        loaded.setCode("CACHE02");
+        adapter.save(loaded);
+        
+        assertEquals("Renamed Bank", adapter.findById(bank.getId()).orElseThrow().getName());
+        assertTrue(adapter.findByCode("CACHE01").isEmpty());
+        assertEquals(bank.getId(), adapter.findByCode("CACHE02").orElseThrow().getId());
+    }
+    
+    @Test
+    void delete_EvictsCachedEntityAndQueryResults() {
+        adapter.findById(bank.getId());
+        adapter.findByCode("CACHE01");
+        
+        adapter.deleteById(bank.getId());
+        
+        assertTrue(adapter.findById(bank.getId()).isEmpty());
+        assertTrue(adapter.findByCode("CACHE01").isEmpty());
+    }
+    
+    @Test
+    void delete_KeepsOtherBanksCached() {
+        Bank other = adapter.save(Bank.builder()
+                .code("CACHE03")
+                .name("Other Bank")
+                .country("Spain")
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build());
+        adapter.findById(other.getId());
+        
+        adapter.deleteById(bank.getId());
+        long statementsAfterDelete = statistics.getPrepareStatementCount();
+        
+        assertEquals("Other Bank", adapter.findById(other.getId()).orElseThrow().getName());
+        assertEquals(statementsAfterDelete, statistics.getPrepareStatementCount());
+    }
+    
+    @Test
+    void delete_UnknownBank_ReturnsFalse() {
+        assertFalse(adapter.deleteById(UUID.randomUUID()));
+    }
+}
@@ -0,0 +1,70 @@
+package com.santander.challenge.ms_banks.adapter.output.persistence.adapter;
+
+import com.santander.challenge.ms_banks.application.mapper.BankMapper;
+import com.santander.challenge.ms_banks.config.HibernateCacheConfig;
+import com.santander.challenge.ms_banks.domain.exception.DuplicateBankException;
+import com.santander.challenge.ms_banks.domain.model.Bank;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs against a banks table whose unique code constraint carries the name Hibernate generated
+ * for it, as on schemas adopted through baseline-on-migrate.
+ */
+@DataJpaTest(properties = {
+        "spring.cloud.config.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+@Import({HibernateCacheConfig.class, BankRepositoryAdapter.class, BankMapper.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BankRepositoryAdapterConstraintTest {
+    
+    private static final String HIBERNATE_CONSTRAINT = "UKr4w5ymr1pvmaxbfcflkt6ssbd";
+    
+    @Autowired
+    private BankRepositoryAdapter adapter;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("ALTER TABLE banks DROP CONSTRAINT uk_banks_code");
+        jdbcTemplate.execute("ALTER TABLE banks ADD CONSTRAINT " + HIBERNATE_CONSTRAINT + " UNIQUE (code)");
+    }
+    
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM banks");
+        jdbcTemplate.execute("ALTER TABLE banks DROP CONSTRAINT " + HIBERNATE_CONSTRAINT);
+        jdbcTemplate.execute("ALTER TABLE banks ADD CONSTRAINT uk_banks_code UNIQUE (code)");
+    }
+    
+    @Test
+    void save_TakenCode_ThrowsDuplicateBank() {
+        adapter.save(bank("HBN01"));
+        
+        assertThrows(DuplicateBankException.class, () -> adapter.save(bank("HBN01")));
+    }
+    
+    private static Bank bank(String code) {
+        return Bank.builder()
+                .code(code)
+                .name("Bank " + code)
+                .country("Spain")
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,107 @@
+package com.santander.challenge.ms_banks.adapter.output.persistence.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Query-plan regression test for {@link BankJpaRepository#findByCountry}. Applies the Flyway
+ * migrations to PostgreSQL and fails if the page or its COUNT stop using idx_banks_country_id.
+ * Requires Docker.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class BankQueryPlanTest {
+    
+    private static final String INDEX = "idx_banks_country_id";
+    private static final int ROWS = 50_000;
+    private static final int COUNTRIES = 200;
+    
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15-alpine");
+    
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static Connection connection;
+    
+    @BeforeAll
+    static void migrateAndLoad() throws Exception {
+        Flyway.configure()
+                .dataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())
+                .load()
+                .migrate();
+        
+        connection = DriverManager.getConnection(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO banks (id, code, name, country, created_at, updated_at) "
+                    + "SELECT gen_random_uuid(), 'B' || g, 'Bank ' || g, 'Country ' || (g % " + COUNTRIES + "), now(), now() "
+                    + "FROM generate_series(1, " + ROWS + ") g");
+            // Sets the visibility map so that index-only scans are costed as such
+            statement.execute("VACUUM ANALYZE banks");
+        }
+    }
+    
+    @AfterAll
+    static void close() throws Exception {
+        if (connection != null) {
+            connection.close();
+        }
+    }
+    
+    @Test
+    void findByCountry_PageUsesCountryIndex() throws Exception {
+        List<JsonNode> nodes = explain("SELECT * FROM banks b WHERE b.country = 'Country 7' "
+                + "ORDER BY b.id OFFSET 20 ROWS FETCH FIRST 10 ROWS ONLY");
+        
+        assertUsesIndex(nodes);
+        assertTrue(nodes.stream().noneMatch(node -> "Sort".equals(node.path("Node Type").asText())),
+                "page should be read in index order: " + nodes);
+    }
+    
+    @Test
+    void findByCountry_CountUsesIndexOnlyScan() throws Exception {
+        List<JsonNode> nodes = explain("SELECT count(b.id) FROM banks b WHERE b.country = 'Country 7'");
+        
+        assertUsesIndex(nodes);
+        assertTrue(nodes.stream().anyMatch(node -> "Index Only Scan".equals(node.path("Node Type").asText())),
+                "count should not touch the heap: " + nodes);
+    }
+    
+    private static void assertUsesIndex(List<JsonNode> nodes) {
+        assertTrue(nodes.stream().anyMatch(node -> INDEX.equals(node.path("Index Name").asText())),
+                "expected " + INDEX + " in plan: " + nodes);
+        assertTrue(nodes.stream().noneMatch(node -> "Seq Scan".equals(node.path("Node Type").asText())),
+                "unexpected sequential scan: " + nodes);
+    }
+    
+    /**
+     * Returns every node of the plan tree produced by EXPLAIN (FORMAT JSON).
+     */
+    private static List<JsonNode> explain(String sql) throws Exception {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("EXPLAIN (FORMAT JSON) " + sql)) {
+            rs.next();
+            List<JsonNode> nodes = new ArrayList<>();
+            collect(MAPPER.readTree(rs.getString(1)).get(0).get("Plan"), nodes);
+            return nodes;
+        }
+    }
+    
+    private static void collect(JsonNode node, List<JsonNode> nodes) {
+        nodes.add(node);
+        node.path("Plans").forEach(child -> collect(child, nodes));
+    }
+}
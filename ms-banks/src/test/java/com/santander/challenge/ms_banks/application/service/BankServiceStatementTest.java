@@ -0,0 +1,185 @@
+package com.santander.challenge.ms_banks.application.service;
+
+import com.santander.challenge.ms_banks.adapter.output.persistence.adapter.BankRepositoryAdapter;
+import com.santander.challenge.ms_banks.adapter.output.persistence.entity.BankEntity;
+import com.santander.challenge.ms_banks.adapter.output.persistence.repository.BankJpaRepository;
+import com.santander.challenge.ms_banks.application.mapper.BankMapper;
+import com.santander.challenge.ms_banks.domain.exception.DuplicateBankException;
+import com.santander.challenge.ms_banks.domain.model.Bank;
+import com.santander.challenge.ms_banks.domain.port.output.AccountCountPort;
+import com.santander.challenge.ms_banks.domain.port.output.BankEventPublisherPort;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Verifies the SQL issued by the bank create, update and delete use cases.
+ */
+@DataJpaTest(properties = {
+        "spring.cloud.config.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.santander.challenge.ms_banks.application.service.BankServiceStatementTest$RecordingStatementInspector"
+})
+@Import({BankService.class, BankRepositoryAdapter.class, BankMapper.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BankServiceStatementTest {
+    
+    @Autowired
+    private BankService bankService;
+    
+    @Autowired
+    private BankJpaRepository jpaRepository;
+    
+    @MockBean
+    private AccountCountPort accountCountPort;
+    
+    @MockBean
+    private BankEventPublisherPort bankEventPublisher;
+    
+    private BankEntity stored;
+    
+    @BeforeEach
+    void setUp() {
+        stored = jpaRepository.save(BankEntity.builder()
+                .code("STMT01")
+                .name("Original Bank")
+                .country("Spain")
+                .address("Calle Mayor 1")
+                .createdAt(LocalDateTime.now())
+                .build());
+        RecordingStatementInspector.STATEMENTS.clear();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        jpaRepository.deleteAll();
+    }
+    
+    @Test
+    void updateBank_OneSelectAndOneUpdateOfChangedColumns() {
+        Bank changes = Bank.builder()
+                .code("STMT01")
+                .name("Renamed Bank")
+                .country("Spain")
+                .address("Calle Mayor 1")
+                .build();
+        
+        bankService.updateBank(stored.getId(), changes);
+        
+        List<String> statements = RecordingStatementInspector.STATEMENTS;
+        assertEquals(2, statements.size(), statements::toString);
+        assertTrue(statements.get(0).startsWith("select"));
+        String update = statements.get(1);
+        assertTrue(update.startsWith("update banks set"));
+        assertTrue(update.contains("name"));
+        assertFalse(update.contains("code"));
+        assertFalse(update.contains("country"));
+        assertFalse(update.contains("address"));
+        assertEquals("Renamed Bank", jpaRepository.findById(stored.getId()).orElseThrow().getName());
+    }
+    
+    @Test
+    void deleteBank_SingleDeleteAfterExistenceCheck() {
+        when(accountCountPort.countByBankId(stored.getId())).thenReturn(0L);
+        
+        bankService.deleteBank(stored.getId());
+        
+        List<String> statements = RecordingStatementInspector.STATEMENTS;
+        assertEquals(2, statements.size(), statements::toString);
+        assertTrue(statements.get(0).startsWith("select"));
+        assertTrue(statements.get(1).startsWith("delete from banks"));
+        assertFalse(jpaRepository.existsById(stored.getId()));
+    }
+    
+    @Test
+    void createBank_InsertsWithoutCheckingTheCodeFirst() {
+        bankService.createBank(newBank("STMT02"));
+        
+        List<String> statements = RecordingStatementInspector.STATEMENTS;
+        assertEquals(1, statements.size(), statements::toString);
+        assertTrue(statements.get(0).startsWith("insert into banks"));
+    }
+    
+    @Test
+    void createBank_TakenCodeInOtherCase_ThrowsDuplicate() {
+        assertThrows(DuplicateBankException.class, () -> bankService.createBank(newBank("stmt01")));
+        verify(bankEventPublisher, never()).publishBankCreated(any());
+    }
+    
+    @Test
+    void concurrentCreatesOfSameCode_ExactlyOneSucceeds() throws Exception {
+        int clients = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Bank>> futures = new ArrayList<>();
+        for (int client = 0; client < clients; client++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return bankService.createBank(newBank("RACE01"));
+            }));
+        }
+        start.countDown();
+        int created = 0;
+        int duplicates = 0;
+        for (Future<Bank> future : futures) {
+            try {
+                future.get(60, TimeUnit.SECONDS);
+                created++;
+            } catch (ExecutionException ex) {
+                assertInstanceOf(DuplicateBankException.class, ex.getCause());
+                duplicates++;
+            }
+        }
+        executor.shutdown();
+        
+        assertEquals(1, created);
+        assertEquals(clients - 1, duplicates);
+        assertEquals(2, jpaRepository.count());
+        verify(bankEventPublisher, times(1)).publishBankCreated(any());
+    }
+    
+    private static Bank newBank(String code) {
+        return Bank.builder()
+                .code(code)
+                .name("New Bank")
+                .country("Spain")
+                .build();
+    }
+    
+    /**
+     * Records every SQL statement prepared by Hibernate, in lower case.
+     */
+    public static class RecordingStatementInspector implements StatementInspector {
+        
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+        
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql.toLowerCase());
+            return sql;
+        }
+    }
+}
@@ -1,9 +1,12 @@
 package com.santander.challenge.ms_banks.application.service;
 
+import com.santander.challenge.ms_banks.domain.exception.AccountServiceUnavailableException;
 import com.santander.challenge.ms_banks.domain.exception.BankNotFoundException;
+import com.santander.challenge.ms_banks.domain.exception.BankValidationException;
 import com.santander.challenge.ms_banks.domain.exception.DuplicateBankException;
 import com.santander.challenge.ms_banks.domain.model.Bank;
 import com.santander.challenge.ms_banks.domain.port.output.AccountCountPort;
+import com.santander.challenge.ms_banks.domain.port.output.BankEventPublisherPort;
 import com.santander.challenge.ms_banks.domain.port.output.BankRepositoryPort;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -11,14 +14,18 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -35,6 +42,12 @@ class BankServiceTest {
     @Mock
     private AccountCountPort accountCountPort;
     
+    @Mock
+    private BankEventPublisherPort bankEventPublisher;
+    
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    
     @InjectMocks
     private BankService bankService;
     
@@ -57,7 +70,6 @@ class BankServiceTest {
     
     @Test
     void createBank_Success() {
-        when(bankRepository.existsByCode("BANK001")).thenReturn(false);
         when(bankRepository.save(any(Bank.class))).thenAnswer(invocation -> {
             Bank bank = invocation.getArgument(0);
             bank.setId(testBankId);
@@ -72,17 +84,17 @@ class BankServiceTest {
         assertEquals("BANK001", result.getCode());
         assertNotNull(result.getCreatedAt());
         assertNotNull(result.getUpdatedAt());
-        verify(bankRepository).existsByCode("BANK001");
+        verify(bankRepository, never()).existsByCode(any());
         verify(bankRepository).save(any(Bank.class));
+        verify(bankEventPublisher).publishBankCreated(testBankId);
     }
     
     @Test
     void createBank_DuplicateCode_ThrowsException() {
-        when(bankRepository.existsByCode("BANK001")).thenReturn(true);
+        when(bankRepository.save(any(Bank.class))).thenThrow(new DuplicateBankException("BANK001"));
         
         assertThrows(DuplicateBankException.class, () -> bankService.createBank(testBank));
-        verify(bankRepository).existsByCode("BANK001");
-        verify(bankRepository, never()).save(any(Bank.class));
+        verify(bankEventPublisher, never()).publishBankCreated(any());
     }
     
     @Test
@@ -127,30 +139,29 @@ class BankServiceTest {
         
         when(bankRepository.findById(testBankId)).thenReturn(Optional.of(testBank));
         when(bankRepository.existsByCodeAndIdNot("BANK002", testBankId)).thenReturn(false);
-        when(bankRepository.save(any(Bank.class))).thenAnswer(invocation -> {
-            Bank bank = invocation.getArgument(0);
-            bank.setUpdatedAt(LocalDateTime.now());
-            return bank;
-        });
+        when(bankRepository.update(any(Bank.class))).thenAnswer(invocation -> invocation.getArgument(0));
         
         Bank result = bankService.updateBank(testBankId, updatedBank);
         
         assertNotNull(result);
         verify(bankRepository).findById(testBankId);
         verify(bankRepository).existsByCodeAndIdNot("BANK002", testBankId);
-        verify(bankRepository).save(any(Bank.class));
+        verify(bankRepository).update(any(Bank.class));
+        verify(bankRepository, never()).save(any(Bank.class));
     }
     
     @Test
     void deleteBank_Success() {
         when(bankRepository.findById(testBankId)).thenReturn(Optional.of(testBank));
         when(accountCountPort.countByBankId(testBankId)).thenReturn(0L);
+        when(bankRepository.deleteById(testBankId)).thenReturn(true);
         
         bankService.deleteBank(testBankId);
         
         verify(bankRepository).findById(testBankId);
         verify(accountCountPort).countByBankId(testBankId);
         verify(bankRepository).deleteById(testBankId);
+        verify(bankEventPublisher).publishBankDeleted(testBankId);
     }
     
     @Test
@@ -161,5 +172,61 @@ class BankServiceTest {
         verify(bankRepository).findById(testBankId);
         verify(accountCountPort, never()).countByBankId(any());
         verify(bankRepository, never()).deleteById(any());
+        verify(bankEventPublisher, never()).publishBankDeleted(any());
+    }
+    
+    @Test
+    void deleteBank_DeletedConcurrently_ThrowsNotFound() {
+        when(bankRepository.findById(testBankId)).thenReturn(Optional.of(testBank));
+        when(accountCountPort.countByBankId(testBankId)).thenReturn(0L);
+        when(bankRepository.deleteById(testBankId)).thenReturn(false);
+        
+        assertThrows(BankNotFoundException.class, () -> bankService.deleteBank(testBankId));
+        verify(bankEventPublisher, never()).publishBankDeleted(any());
+    }
+    
+    @Test
+    void deleteBank_RemovedBeforeCommit_ThrowsNotFound() {
+        when(bankRepository.findById(testBankId)).thenReturn(Optional.of(testBank));
+        when(accountCountPort.countByBankId(testBankId)).thenReturn(0L);
+        when(bankRepository.deleteById(testBankId))
+                .thenThrow(new OptimisticLockingFailureException("Row was deleted concurrently"));
+        
+        assertThrows(BankNotFoundException.class, () -> bankService.deleteBank(testBankId));
+        verify(bankEventPublisher, never()).publishBankDeleted(any());
+    }
+    
+    @Test
+    void deleteBank_AccountsUnavailable_DoesNotDelete() {
+        when(bankRepository.findById(testBankId)).thenReturn(Optional.of(testBank));
+        when(accountCountPort.countByBankId(testBankId))
+                .thenThrow(new AccountServiceUnavailableException("unavailable", new RuntimeException()));
+        
+        assertThrows(AccountServiceUnavailableException.class, () -> bankService.deleteBank(testBankId));
+        verify(bankRepository, never()).deleteById(any());
+        verify(bankEventPublisher, never()).publishBankDeleted(any());
+    }
+    
+    @Test
+    void getExistingBankIds_Success() {
+        UUID missingBankId = UUID.randomUUID();
+        Set<UUID> requested = Set.of(testBankId, missingBankId);
+        when(bankRepository.findExistingIds(requested)).thenReturn(Set.of(testBankId));
+        
+        Set<UUID> result = bankService.getExistingBankIds(requested);
+        
+        assertEquals(Set.of(testBankId), result);
+        verify(bankRepository).findExistingIds(requested);
+    }
+    
+    @Test
+    void getExistingBankIds_TooManyIds_ThrowsException() {
+        Set<UUID> requested = new HashSet<>();
+        for (int i = 0; i <= BankService.MAX_EXISTENCE_BATCH_SIZE; i++) {
+            requested.add(UUID.randomUUID());
+        }
+        
+        assertThrows(BankValidationException.class, () -> bankService.getExistingBankIds(requested));
+        verify(bankRepository, never()).findExistingIds(any());
     }
 }
@@ -0,0 +1,89 @@
+package com.santander.challenge.ms_banks.application.service;
+
+import com.santander.challenge.ms_banks.adapter.output.persistence.adapter.BankRepositoryAdapter;
+import com.santander.challenge.ms_banks.application.mapper.BankMapper;
+import com.santander.challenge.ms_banks.domain.model.Bank;
+import com.santander.challenge.ms_banks.domain.port.output.AccountCountPort;
+import com.santander.challenge.ms_banks.domain.port.output.BankEventPublisherPort;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifies that calls to ms-accounts run without a database connection checked out of the pool.
+ */
+@DataJpaTest(properties = {
+        "spring.cloud.config.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.datasource.url=jdbc:h2:mem:bank-service-tx;DB_CLOSE_DELAY=-1"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({BankService.class, BankRepositoryAdapter.class, BankMapper.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BankServiceTransactionTest {
+    
+    @Autowired
+    private BankService bankService;
+    
+    @Autowired
+    private HikariDataSource dataSource;
+    
+    @MockBean
+    private AccountCountPort accountCountPort;
+    
+    @MockBean
+    private BankEventPublisherPort bankEventPublisher;
+    
+    @Test
+    void deleteBank_HoldsNoConnectionDuringAccountCount() {
+        Bank bank = bankService.createBank(bank("TXDEL"));
+        AtomicInteger connectionsDuringRemoteCall = new AtomicInteger(-1);
+        when(accountCountPort.countByBankId(bank.getId())).thenAnswer(invocation -> {
+            assertFalse(TransactionSynchronizationManager.isActualTransactionActive());
+            connectionsDuringRemoteCall.set(dataSource.getHikariPoolMXBean().getActiveConnections());
+            return 0L;
+        });
+        
+        bankService.deleteBank(bank.getId());
+        
+        assertEquals(0, connectionsDuringRemoteCall.get());
+        assertFalse(bankService.existsByCode("TXDEL"));
+    }
+    
+    @Test
+    void createBank_PublishesEventAfterCommitWithoutConnection() {
+        AtomicInteger connectionsDuringRemoteCall = new AtomicInteger(-1);
+        doAnswer(invocation -> {
+            assertFalse(TransactionSynchronizationManager.isActualTransactionActive());
+            connectionsDuringRemoteCall.set(dataSource.getHikariPoolMXBean().getActiveConnections());
+            return null;
+        }).when(bankEventPublisher).publishBankCreated(any());
+        
+        Bank bank = bankService.createBank(bank("TXNEW"));
+        
+        assertNotNull(bank.getId());
+        assertEquals(0, connectionsDuringRemoteCall.get());
+    }
+    
+    private static Bank bank(String code) {
+        return Bank.builder()
+                .code(code)
+                .name("Transaction Bank")
+                .country("Spain")
+                .build();
+    }
+}
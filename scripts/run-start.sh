@@ -76,6 +76,11 @@ if [ "$BUILD" = true ]; then
   mvn clean install -DskipTests -q
   cd ..
 
+  echo -e "${YELLOW}==> Compilando common...${NC}"
+  cd common
+  mvn clean install -DskipTests -q
+  cd ..
+
   echo -e "${YELLOW}==> Compilando ms-banks...${NC}"
   cd ms-banks
   mvn clean install -DskipTests -q